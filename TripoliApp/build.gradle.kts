@@ -76,6 +76,32 @@ tasks.create("fatAppJar", Jar::class) {
     with(tasks.jar.get())
 
 }
+
+// AppCDS: a training run opens the main window and quits, dumping the classes it loaded to an archive.
+// Launch with: java -XX:SharedArchiveFile=build/cds/tripoli.jsa -jar <fat jar>
+// Add -Dtripoli.startup.timing=true to print the startup phases.
+val appCdsArchive by tasks.registering(Exec::class) {
+    group = "distribution"
+    description = "Creates an AppCDS archive of the classes loaded up to the first Tripoli window."
+    val fatAppJar = tasks.named<Jar>("fatAppJar")
+    dependsOn(fatAppJar)
+    val archiveFile = layout.buildDirectory.file("cds/tripoli.jsa")
+    // the archive is only usable by the JVM that wrote it
+    val javaLauncher = javaToolchains.launcherFor(java.toolchain)
+    inputs.file(fatAppJar.flatMap { it.archiveFile })
+    outputs.file(archiveFile)
+    doFirst {
+        archiveFile.get().asFile.parentFile.mkdirs()
+        commandLine(
+            javaLauncher.get().executablePath.asFile.absolutePath,
+            "-XX:ArchiveClassesAtExit=" + archiveFile.get().asFile.absolutePath,
+            "-Dtripoli.startup.exitAfterFirstWindow=true",
+            "-Dtripoli.startup.timing=true",
+            "-jar", fatAppJar.get().archiveFile.get().asFile.absolutePath
+        )
+    }
+}
+
 repositories {
     mavenCentral()
     mavenLocal()
@@ -1,8 +1,10 @@
 package org.cirdles.tripoli.gui;
 
 import jakarta.xml.bind.JAXBException;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -29,6 +31,8 @@ import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.mcmcPlots.MCMCPl
 import org.cirdles.tripoli.gui.dialogs.TripoliMessageDialog;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.AllBlockInitForOGTripoli;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockModelRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockRawDataSetRecord;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecOutputSingleBlockRecord;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.Detector;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
@@ -41,10 +45,12 @@ import org.cirdles.tripoli.utilities.stateUtilities.TripoliPersistentState;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static org.cirdles.tripoli.constants.TripoliConstants.MISSING_STRING_FIELD;
@@ -62,7 +68,18 @@ public class AnalysisManagerController implements Initializable, AnalysisManager
     public static MCMCPlotsWindow MCMCPlotsWindow;
     public static OGTripoliPlotsWindow ogTripoliPlotsWindow;
     public static OGTripoliPlotsWindow ogTripoliPreviewPlotsWindow;
+    private static final ExecutorService dataFileImportExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Tripoli data file import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ExecutorService previewInitExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Tripoli preview initialization");
+        thread.setDaemon(true);
+        return thread;
+    });
     private final Map<String, boolean[][]> mapOfGridPanesToCellUse = new TreeMap<>();
+    private boolean previewRefreshPending;
     public Tab detectorDetailTab;
     public TabPane analysiMethodTabPane;
     @FXML
@@ -80,6 +97,8 @@ public class AnalysisManagerController implements Initializable, AnalysisManager
     @FXML
     public ToggleGroup knotsToggleGroup;
     @FXML
+    private HBox analysisActionsHBox;
+    @FXML
     public Button reviewSculptData;
     @FXML
     private GridPane analysisManagerGridPane;
@@ -112,6 +131,7 @@ public class AnalysisManagerController implements Initializable, AnalysisManager
     private List<IsotopicRatio> allRatios;
     @FXML
     private Button addRatioButton;
+    private Task<Void> dataFileImportTask;
 
     public static void closePlotWindows() {
         if (ogTripoliPreviewPlotsWindow != null) {
@@ -588,20 +608,100 @@ public class AnalysisManagerController implements Initializable, AnalysisManager
         try {
             File selectedFile = selectDataFile(TripoliGUI.primaryStage);
             if (null != selectedFile) {
-                analysis.setAnalysisMethod(null);
-                try {
-                    analysis.extractMassSpecDataFromPath(Path.of(selectedFile.toURI()));
-                } catch (TripoliException e) {
-                    //TripoliMessageDialog.showWarningDialog(e.getMessage(), TripoliGUI.primaryStage);
-                }
-                populateAnalysisManagerGridPane();
+                importDataFileInBackground(Path.of(selectedFile.toURI()));
             }
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
+        } catch (TripoliException e) {
             TripoliMessageDialog.showWarningDialog(e.getMessage(), TripoliGUI.primaryStage);
         }
     }
 
+    /**
+     * Imports off the FX thread.  The header is shown as soon as it is read and the data summary once the blocks
+     * are indexed, both from the data being imported; the rest of the manager is populated from the analysis when
+     * the import ends.  The analysis is replaced on the importing thread, so the actions and the method and block
+     * controls that read it are disabled until then.  Selecting another file cancels an import still in progress;
+     * imports run one at a time so a cancelled one cannot overwrite its successor, which repopulates the manager
+     * from whatever the cancelled import left behind.
+     *
+     * @param dataFilePath data file
+     */
+    private void importDataFileInBackground(Path dataFilePath) {
+        if (null != dataFileImportTask) {
+            dataFileImportTask.cancel(true);
+        }
+        AnalysisInterface importingAnalysis = analysis;
+        Task<Void> importTask = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                importingAnalysis.extractMassSpecDataFromPath(dataFilePath, (importStage, massSpecExtractedData) -> {
+                    switch (importStage) {
+                        case HEADER_PARSED -> {
+                            String metaData = prettyPrintMassSpecMetaData(massSpecExtractedData);
+                            Platform.runLater(() -> {
+                                if (!isCancelled()) {
+                                    dataFilePathNameTextField.setText(dataFilePath.toString());
+                                    metaDataTextArea.setText(metaData);
+                                    dataSummaryTextArea.setText("Reading blocks ...");
+                                }
+                            });
+                        }
+                        case BLOCKS_INDEXED -> {
+                            // the method of the previous data file no longer applies
+                            importingAnalysis.setAnalysisMethod(null);
+                            String metaData = prettyPrintMassSpecMetaData(massSpecExtractedData);
+                            String dataSummary = importingAnalysis.prettyPrintAnalysisDataSummary();
+                            Platform.runLater(() -> {
+                                if (!isCancelled()) {
+                                    metaDataTextArea.setText(metaData);
+                                    dataSummaryTextArea.setText(dataSummary);
+                                    aboutAnalysisTextArea.setText("Loading analysis method ...");
+                                }
+                            });
+                        }
+                        default -> {
+                        }
+                    }
+                });
+                return null;
+            }
+        };
+        importTask.setOnSucceeded(event -> finishDataFileImport(importTask, importingAnalysis));
+        importTask.setOnFailed(event -> {
+            finishDataFileImport(importTask, importingAnalysis);
+            // a missing method or PeakCentres folder leaves the data imported without a method, shown as such
+            if (!(importTask.getException() instanceof TripoliException)) {
+                TripoliMessageDialog.showWarningDialog(importTask.getException().getMessage(), TripoliGUI.primaryStage);
+            }
+        });
+        dataFileImportTask = importTask;
+        setAnalysisControlsDisabled(true);
+        dataFileImportExecutor.execute(importTask);
+    }
+
+    /**
+     * Ends the current import, whether it completed or failed; a superseded import leaves the controls to its
+     * successor.
+     */
+    private void finishDataFileImport(Task<Void> importTask, AnalysisInterface importedAnalysis) {
+        if (importTask == dataFileImportTask) {
+            dataFileImportTask = null;
+            setAnalysisControlsDisabled(false);
+            populateAnalysisManagerGridPaneIfCurrent(importedAnalysis);
+        }
+    }
+
+    private void setAnalysisControlsDisabled(boolean disabled) {
+        analysisActionsHBox.setDisable(disabled);
+        analysiMethodTabPane.setDisable(disabled);
+        blockStatusHBox.setDisable(disabled);
+    }
+
+    private void populateAnalysisManagerGridPaneIfCurrent(AnalysisInterface importedAnalysis) {
+        if (importedAnalysis == analysis) {
+            populateAnalysisManagerGridPane();
+        }
+    }
+
     @FXML
     private void selectMethodFileButtonAction() {
         try {
@@ -651,16 +751,80 @@ public class AnalysisManagerController implements Initializable, AnalysisManager
     }
 
 
-    public void previewAndSculptDataAction() throws TripoliException {
+    /**
+     * Initializes the preview models off the FX thread; the button reports blocks completed and the preview window
+     * opens once every block is ready.
+     */
+    public void previewAndSculptDataAction() {
         // ogTripoli view
         if (null != ogTripoliPreviewPlotsWindow) {
             ogTripoliPreviewPlotsWindow.close();
         }
-        ogTripoliPreviewPlotsWindow = new OGTripoliPlotsWindow(TripoliGUI.primaryStage, this);
-        OGTripoliViewController.analysis = analysis;
-        OGTripoliViewController.plottingData = AllBlockInitForOGTripoli.initBlockModels(analysis);
-        ogTripoliPreviewPlotsWindow.loadPlotsWindow();
+        AnalysisInterface previewedAnalysis = analysis;
+        int countOfBlocks = previewedAnalysis.getMapOfBlockIdToProcessStatus().size();
+        // filled on the FX thread as blocks are initialized; the preview opens with the first block and is
+        // replotted as the others arrive
+        AllBlockInitForOGTripoli.PlottingData previewedData = new AllBlockInitForOGTripoli.PlottingData(
+                new SingleBlockRawDataSetRecord[countOfBlocks], new SingleBlockModelRecord[countOfBlocks], true);
+        OGTripoliPlotsWindow previewPlotsWindow = new OGTripoliPlotsWindow(TripoliGUI.primaryStage, this);
+        Task<Void> previewTask = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                AtomicInteger blocksInitialized = new AtomicInteger();
+                updateMessage("Preview: 0 of " + countOfBlocks + " blocks");
+                AllBlockInitForOGTripoli.initBlockModels(previewedAnalysis,
+                        (blockIndex, singleBlockRawDataSetRecord, singleBlockModelRecord) -> {
+                            int countInitialized = blocksInitialized.incrementAndGet();
+                            updateProgress(countInitialized, countOfBlocks);
+                            updateMessage("Preview: " + countInitialized + " of " + countOfBlocks + " blocks");
+                            Platform.runLater(() -> showPreviewBlock(previewPlotsWindow, previewedAnalysis, previewedData,
+                                    blockIndex, singleBlockRawDataSetRecord, singleBlockModelRecord));
+                        });
+                return null;
+            }
+        };
+        String buttonText = reviewSculptData.getText();
+        reviewSculptData.setDisable(true);
+        reviewSculptData.textProperty().bind(previewTask.messageProperty());
+        previewTask.setOnSucceeded(event -> restorePreviewButton(buttonText));
+        previewTask.setOnFailed(event -> {
+            restorePreviewButton(buttonText);
+            previewPlotsWindow.close();
+            TripoliMessageDialog.showWarningDialog(previewTask.getException().getMessage(), TripoliGUI.primaryStage);
+        });
+        previewInitExecutor.execute(previewTask);
+    }
+
+    /**
+     * Adds an initialized block to the preview, opening it for the first block; replots for later blocks are
+     * coalesced so that blocks arriving together are plotted once.
+     */
+    private void showPreviewBlock(
+            OGTripoliPlotsWindow previewPlotsWindow, AnalysisInterface previewedAnalysis, AllBlockInitForOGTripoli.PlottingData previewedData,
+            int blockIndex, SingleBlockRawDataSetRecord singleBlockRawDataSetRecord, SingleBlockModelRecord singleBlockModelRecord) {
+        previewedData.singleBlockRawDataSetRecords()[blockIndex] = singleBlockRawDataSetRecord;
+        previewedData.singleBlockModelRecords()[blockIndex] = singleBlockModelRecord;
+        if (previewPlotsWindow != ogTripoliPreviewPlotsWindow) {
+            ogTripoliPreviewPlotsWindow = previewPlotsWindow;
+            OGTripoliViewController.analysis = previewedAnalysis;
+            OGTripoliViewController.plottingData = previewedData;
+            previewPlotsWindow.loadPlotsWindow();
+        } else if (!previewRefreshPending) {
+            previewRefreshPending = true;
+            Platform.runLater(() -> {
+                previewRefreshPending = false;
+                // the review window shares these
+                OGTripoliViewController.analysis = previewedAnalysis;
+                OGTripoliViewController.plottingData = previewedData;
+                previewPlotsWindow.refreshPlots();
+            });
+        }
+    }
 
+    private void restorePreviewButton(String buttonText) {
+        reviewSculptData.textProperty().unbind();
+        reviewSculptData.setText(buttonText);
+        reviewSculptData.setDisable(false);
     }
 
     public void reviewAndSculptDataAction() {
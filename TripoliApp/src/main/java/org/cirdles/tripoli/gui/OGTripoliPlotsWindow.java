@@ -37,6 +37,7 @@ public class OGTripoliPlotsWindow {
     public Stage plottingStage;
     public Window plottingWindow;
     private Stage primaryStage;
+    private OGTripoliViewController ogTripoliViewController;
 
     public OGTripoliPlotsWindow(Stage primaryStage, AnalysisManagerCallbackI analysisManagerCallbackI) {
         this.primaryStage = primaryStage;
@@ -63,6 +64,7 @@ public class OGTripoliPlotsWindow {
             try {
                 Scene scene = new Scene(loader.load());
                 plottingStage.setScene(scene);
+                ogTripoliViewController = loader.getController();
             } catch (IOException iOException) {
                 iOException.printStackTrace();
             }
@@ -78,4 +80,13 @@ public class OGTripoliPlotsWindow {
         plottingStage.setY(primaryStage.getY() + (primaryStage.getHeight() - plottingStage.getHeight()) / 2);
         plottingStage.requestFocus();
     }
+
+    /**
+     * Replots from the current plotting data, as when a preview receives more of its blocks.
+     */
+    public void refreshPlots() {
+        if (plottingStage.isShowing() && (null != ogTripoliViewController)) {
+            ogTripoliViewController.populatePlots();
+        }
+    }
 }
\ No newline at end of file
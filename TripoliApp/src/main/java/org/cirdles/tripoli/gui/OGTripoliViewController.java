@@ -1,7 +1,5 @@
 package org.cirdles.tripoli.gui;
 
-import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.scene.control.TabPane;
 import javafx.scene.layout.AnchorPane;
@@ -11,13 +9,13 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
 import org.cirdles.tripoli.gui.dataViews.plots.AbstractPlot;
+import org.cirdles.tripoli.gui.dataViews.plots.PlotModelPreparation;
 import org.cirdles.tripoli.gui.dataViews.plots.PlotWallPane;
 import org.cirdles.tripoli.gui.dataViews.plots.PlotWallPaneOGTripoli;
 import org.cirdles.tripoli.gui.dataViews.plots.TripoliPlotPane;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.tripoliPlots.sessionPlots.BlockRatioCyclesSessionPlot;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.tripoliPlots.sessionPlots.SpeciesIntensitySessionPlot;
 import org.cirdles.tripoli.plots.PlotBuilder;
-import org.cirdles.tripoli.plots.compoundPlots.BlockRatioCyclesBuilder;
 import org.cirdles.tripoli.plots.compoundPlots.BlockRatioCyclesRecord;
 import org.cirdles.tripoli.plots.sessionPlots.BlockRatioCyclesSessionBuilder;
 import org.cirdles.tripoli.plots.sessionPlots.SpeciesIntensitySessionBuilder;
@@ -48,6 +46,9 @@ public class OGTripoliViewController {
     public AnchorPane ogtSpeciesIntensitiesPlotAnchorPane;
     @FXML
     private AnchorPane ogtCycleRatioPlotsAnchorPane;
+    // replaced each time the plots are populated
+    private PlotWallPane ratiosPlotWallPane;
+    private PlotWallPaneOGTripoli intensitiesPlotWallPane;
 
     @FXML
     public void initialize() {
@@ -55,22 +56,37 @@ public class OGTripoliViewController {
             plotTabPane.setMinWidth((Double) newValue);
             ogtCycleRatioPlotsAnchorPane.setMinWidth((Double) newValue);
             ogtSpeciesIntensitiesPlotAnchorPane.setMinWidth((Double) newValue);
+            stackPlotWalls();
         });
 
         plotWindowVBox.heightProperty().addListener((observable, oldValue, newValue) -> {
             plotTabPane.setMinHeight(((Double) newValue) - 30.0);
             ogtCycleRatioPlotsAnchorPane.setMinHeight(((Double) newValue) - 65.0);
             ogtSpeciesIntensitiesPlotAnchorPane.setMinHeight(((Double) newValue) - 100.0);
+            stackPlotWalls();
         });
 
         populatePlots();
     }
 
+    /**
+     * Builds the plots from the blocks of the current plotting data; a preview may call this again as more of its
+     * blocks are initialized, and blocks not yet initialized are left out.
+     */
     public void populatePlots() {
         plotRatios();
         plotOnPeakIntensities();
     }
 
+    private void stackPlotWalls() {
+        if (null != ratiosPlotWallPane) {
+            ratiosPlotWallPane.stackPlots();
+        }
+        if (null != intensitiesPlotWallPane) {
+            intensitiesPlotWallPane.stackPlots();
+        }
+    }
+
     public void plotRatios() {
         ogtCycleRatioPlotsAnchorPane.getChildren().clear();
 
@@ -82,24 +98,16 @@ public class OGTripoliViewController {
         plotsWallPane.prefHeightProperty().bind(ogtCycleRatioPlotsAnchorPane.heightProperty());
 
         ogtCycleRatioPlotsAnchorPane.getChildren().add(plotsWallPane);
-        plotWindowVBox.widthProperty().addListener(new ChangeListener<Number>() {
-            @Override
-            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                plotsWallPane.stackPlots();
-            }
-        });
-        plotWindowVBox.heightProperty().addListener(new ChangeListener<Number>() {
-            @Override
-            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                plotsWallPane.stackPlots();
-            }
-        });
+        ratiosPlotWallPane = plotsWallPane;
 
         SingleBlockModelRecord[] singleBlockModelRecords = plottingData.singleBlockModelRecords();
-        int countOfOnPeakCycles = singleBlockModelRecords[0].cycleCount();
-
-        boolean[] DUMMY_CYCLES_INCLUDED = new boolean[countOfOnPeakCycles];
-        Arrays.fill(DUMMY_CYCLES_INCLUDED, true);
+        int countOfOnPeakCycles = 0;
+        for (SingleBlockModelRecord singleBlockModelRecord : singleBlockModelRecords) {
+            if (null != singleBlockModelRecord) {
+                countOfOnPeakCycles = singleBlockModelRecord.cycleCount();
+                break;
+            }
+        }
 
         // build list of ratios to plot
         List<IsotopicRatio> ratiosToPlot = new ArrayList<>();
@@ -121,17 +129,16 @@ public class OGTripoliViewController {
 
             List<BlockRatioCyclesRecord> blockRatioCyclesRecords = new ArrayList<>();
             for (int blockIndex = 0; blockIndex < singleBlockModelRecords.length; blockIndex++) {
+                if (null == singleBlockModelRecords[blockIndex]) {
+                    continue;
+                }
                 int blockStatus = analysis.getMapOfBlockIdToProcessStatus().get(blockIndex + 1);
-                blockRatioCyclesRecords.add(BlockRatioCyclesBuilder.initializeBlockCycles(
+                blockRatioCyclesRecords.add(analysis.getSessionAggregator().blockRatioCyclesContribution(
                         blockIndex + 1,
-                        singleBlockModelRecords[blockIndex].assembleCycleMeansForRatio(isotopicRatio),
-                        singleBlockModelRecords[blockIndex].assembleCycleStdDevForRatio(isotopicRatio),
-                        DUMMY_CYCLES_INCLUDED,
-                        new String[]{isotopicRatio.prettyPrint()},
-                        "Blocks & Cycles by Time",
-                        "Ratio",
-                        true,
-                        blockStatus != SKIP).getBlockCyclesRecord());
+                        isotopicRatio,
+                        singleBlockModelRecords[blockIndex],
+                        analysis.retrieveCyclesIncluded(blockIndex + 1, countOfOnPeakCycles),
+                        blockStatus != SKIP));
             }
 
             BlockRatioCyclesSessionBuilder blockRatioCyclesSessionBuilder =
@@ -160,20 +167,33 @@ public class OGTripoliViewController {
         plotsWallPane.prefHeightProperty().bind(ogtSpeciesIntensitiesPlotAnchorPane.heightProperty());
 
         ogtSpeciesIntensitiesPlotAnchorPane.getChildren().add(plotsWallPane);
+        intensitiesPlotWallPane = plotsWallPane;
 
-        plotWindowVBox.widthProperty().addListener(new ChangeListener<Number>() {
-            @Override
-            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                plotsWallPane.stackPlots();
-            }
-        });
-        plotWindowVBox.heightProperty().addListener(new ChangeListener<Number>() {
-            @Override
-            public void changed(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-                plotsWallPane.stackPlots();
-            }
-        });
+        plotsWallPane.buildOGTripoliToolBar(analysis.getAnalysisMethod().getSpeciesList());
+        plotsWallPane.buildScaleControlsToolbar();
+        plotsWallPane.stackPlots();
+
+        // the session arrays are assembled off the FX thread from a snapshot of the blocks initialized so far;
+        // the plot is added when they are ready unless the plots have been repopulated meanwhile
+        AnalysisInterface plottedAnalysis = analysis;
+        AllBlockInitForOGTripoli.PlottingData plottedData = new AllBlockInitForOGTripoli.PlottingData(
+                plottingData.singleBlockRawDataSetRecords().clone(), plottingData.singleBlockModelRecords().clone(), plottingData.preview());
+        PlotModelPreparation.prepareInBackground(
+                () -> assembleSpeciesIntensitySessionBuilder(plottedAnalysis, plottedData),
+                speciesIntensitySessionBuilder -> {
+                    if (plotsWallPane != intensitiesPlotWallPane) {
+                        return;
+                    }
+                    TripoliPlotPane tripoliPlotPane = TripoliPlotPane.makePlotPane(plotsWallPane);
+                    AbstractPlot plot = SpeciesIntensitySessionPlot.generatePlot(new Rectangle(minPlotWidth, minPlotHeight), speciesIntensitySessionBuilder);
+                    tripoliPlotPane.addPlot(plot);
+                    plotsWallPane.applyToolBarSettings();
+                    plotsWallPane.stackPlots();
+                });
+    }
 
+    private static SpeciesIntensitySessionBuilder assembleSpeciesIntensitySessionBuilder(
+            AnalysisInterface analysis, AllBlockInitForOGTripoli.PlottingData plottingData) {
         SingleBlockRawDataSetRecord[] singleBlockRawDataSetRecords = plottingData.singleBlockRawDataSetRecords();
         SingleBlockModelRecord[] singleBlockModelRecords = plottingData.singleBlockModelRecords();
         // only plotting onPeaks
@@ -199,6 +219,9 @@ public class OGTripoliViewController {
 
         Map<Integer, MassSpecOutputSingleBlockRecord> blocksData = analysis.getMassSpecExtractedData().getBlocksData();
         for (int blockIndex = 0; blockIndex < countOfBlocks; blockIndex++) {
+            if ((null == singleBlockRawDataSetRecords[blockIndex]) || (null == singleBlockModelRecords[blockIndex])) {
+                continue;
+            }
 
             double[] onPeakTimeStamps = blocksData.get(blockIndex + 1).onPeakTimeStamps();
 
@@ -212,39 +235,39 @@ public class OGTripoliViewController {
             Map<Integer, Integer> mapDetectorOrdinalToFaradayIndex = singleBlockModelRecord.mapDetectorOrdinalToFaradayIndex();
 
             SingleBlockRawDataSetRecord.SingleBlockRawDataRecord onPeakFaradayDataSet = singleBlockRawDataSetRecords[blockIndex].onPeakFaradayDataSetMCMC();
-            List<Double> intensityAccumulatorList = onPeakFaradayDataSet.intensityAccumulatorList();
-            List<Integer> timeIndexAccumulatorList = onPeakFaradayDataSet.timeIndexAccumulatorList();
-            List<Integer> isotopeOrdinalIndexAccumulatorList = onPeakFaradayDataSet.isotopeOrdinalIndicesAccumulatorList();
-            List<Integer> detectorOrdinalIndicesAccumulatorList = onPeakFaradayDataSet.detectorOrdinalIndicesAccumulatorList();
+            double[] intensityAccumulatorArray = onPeakFaradayDataSet.intensityAccumulatorArray();
+            int[] timeIndexAccumulatorArray = onPeakFaradayDataSet.timeIndexAccumulatorArray();
+            int[] isotopeOrdinalIndexAccumulatorArray = onPeakFaradayDataSet.isotopeOrdinalIndicesAccumulatorArray();
+            int[] detectorOrdinalIndicesAccumulatorArray = onPeakFaradayDataSet.detectorOrdinalIndicesAccumulatorArray();
 
-            for (int onPeakDataIndex = 0; onPeakDataIndex < intensityAccumulatorList.size(); onPeakDataIndex++) {
-                int timeIndex = timeIndexAccumulatorList.get(onPeakDataIndex);
+            for (int onPeakDataIndex = 0; onPeakDataIndex < intensityAccumulatorArray.length; onPeakDataIndex++) {
+                int timeIndex = timeIndexAccumulatorArray[onPeakDataIndex];
                 double time = onPeakTimeStamps[timeIndex];
-                int intensitySpeciesIndex = isotopeOrdinalIndexAccumulatorList.get(onPeakDataIndex) - 1;
+                int intensitySpeciesIndex = isotopeOrdinalIndexAccumulatorArray[onPeakDataIndex] - 1;
                 int timeIndx = binarySearch(xAxis, time);
-                onPeakDataCounts[intensitySpeciesIndex * 4][timeIndx] = intensityAccumulatorList.get(onPeakDataIndex);
+                onPeakDataCounts[intensitySpeciesIndex * 4][timeIndx] = intensityAccumulatorArray[onPeakDataIndex];
                 onPeakDataCounts[intensitySpeciesIndex * 4 + 1][timeIndx] = onPeakModelFaradayData[onPeakDataIndex];
-                onPeakDataAmpResistance[intensitySpeciesIndex][timeIndx] = mapOfOrdinalDetectorsToResistance.get(detectorOrdinalIndicesAccumulatorList.get(onPeakDataIndex));
-                onPeakBaseline[intensitySpeciesIndex * 4][timeIndx] = baseLineVector[mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorList.get(onPeakDataIndex))];
-                onPeakBaseline[intensitySpeciesIndex * 4 + 1][timeIndx] = baseLineVector[mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorList.get(onPeakDataIndex))];
+                onPeakDataAmpResistance[intensitySpeciesIndex][timeIndx] = mapOfOrdinalDetectorsToResistance.get(detectorOrdinalIndicesAccumulatorArray[onPeakDataIndex]);
+                onPeakBaseline[intensitySpeciesIndex * 4][timeIndx] = baseLineVector[mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorArray[onPeakDataIndex])];
+                onPeakBaseline[intensitySpeciesIndex * 4 + 1][timeIndx] = baseLineVector[mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorArray[onPeakDataIndex])];
             }
 
             double[] onPeakModelPhotoMultiplierData = singleBlockModelRecord.getOnPeakDataModelPhotoMultiplierArray(countOfBaselineDataEntries, countOfFaradayDataEntries);
 
             SingleBlockRawDataSetRecord.SingleBlockRawDataRecord onPeakPhotoMultiplierDataSet = singleBlockRawDataSetRecords[blockIndex].onPeakPhotoMultiplierDataSetMCMC();
-            intensityAccumulatorList = onPeakPhotoMultiplierDataSet.intensityAccumulatorList();
-            timeIndexAccumulatorList = onPeakPhotoMultiplierDataSet.timeIndexAccumulatorList();
-            isotopeOrdinalIndexAccumulatorList = onPeakPhotoMultiplierDataSet.isotopeOrdinalIndicesAccumulatorList();
-            detectorOrdinalIndicesAccumulatorList = onPeakPhotoMultiplierDataSet.detectorOrdinalIndicesAccumulatorList();
+            intensityAccumulatorArray = onPeakPhotoMultiplierDataSet.intensityAccumulatorArray();
+            timeIndexAccumulatorArray = onPeakPhotoMultiplierDataSet.timeIndexAccumulatorArray();
+            isotopeOrdinalIndexAccumulatorArray = onPeakPhotoMultiplierDataSet.isotopeOrdinalIndicesAccumulatorArray();
+            detectorOrdinalIndicesAccumulatorArray = onPeakPhotoMultiplierDataSet.detectorOrdinalIndicesAccumulatorArray();
 
-            for (int onPeakDataIndex = 0; onPeakDataIndex < intensityAccumulatorList.size(); onPeakDataIndex++) {
-                int timeIndex = timeIndexAccumulatorList.get(onPeakDataIndex);
+            for (int onPeakDataIndex = 0; onPeakDataIndex < intensityAccumulatorArray.length; onPeakDataIndex++) {
+                int timeIndex = timeIndexAccumulatorArray[onPeakDataIndex];
                 double time = onPeakTimeStamps[timeIndex];
-                int intensitySpeciesIndex = isotopeOrdinalIndexAccumulatorList.get(onPeakDataIndex) - 1;
+                int intensitySpeciesIndex = isotopeOrdinalIndexAccumulatorArray[onPeakDataIndex] - 1;
                 int timeIndx = binarySearch(xAxis, time);
-                onPeakDataCounts[intensitySpeciesIndex * 4 + 2][timeIndx] = intensityAccumulatorList.get(onPeakDataIndex);
+                onPeakDataCounts[intensitySpeciesIndex * 4 + 2][timeIndx] = intensityAccumulatorArray[onPeakDataIndex];
                 onPeakDataCounts[intensitySpeciesIndex * 4 + 3][timeIndx] = onPeakModelPhotoMultiplierData[onPeakDataIndex];
-                onPeakDataAmpResistance[intensitySpeciesIndex][timeIndx] = mapOfOrdinalDetectorsToResistance.get(detectorOrdinalIndicesAccumulatorList.get(onPeakDataIndex));
+                onPeakDataAmpResistance[intensitySpeciesIndex][timeIndx] = mapOfOrdinalDetectorsToResistance.get(detectorOrdinalIndicesAccumulatorArray[onPeakDataIndex]);
                 //TODO: address this: onPeakBaseline is  zero for PM for now
                 onPeakGain[intensitySpeciesIndex * 4 + 2][timeIndx] = dfGain;
                 onPeakGain[intensitySpeciesIndex * 4 + 3][timeIndx] = dfGain;
@@ -254,13 +277,6 @@ public class OGTripoliViewController {
         PlotBuilder plotBuilder = SpeciesIntensitySessionBuilder.initializeSpeciesIntensitySessionPlot(
                 xAxis, onPeakDataCounts, onPeakDataAmpResistance, onPeakBaseline, onPeakGain, new String[]{"Species Intensity by Session"}, "Time (secs)", "Intensity (counts)");
 
-        TripoliPlotPane tripoliPlotPane = TripoliPlotPane.makePlotPane(plotsWallPane);
-        AbstractPlot plot = SpeciesIntensitySessionPlot.generatePlot(new Rectangle(minPlotWidth, minPlotHeight), (SpeciesIntensitySessionBuilder) plotBuilder);
-        tripoliPlotPane.addPlot(plot);
-        plot.refreshPanel(false, false);
-
-        plotsWallPane.buildOGTripoliToolBar(analysis.getAnalysisMethod().getSpeciesList());
-        plotsWallPane.buildScaleControlsToolbar();
-        plotsWallPane.stackPlots();
+        return (SpeciesIntensitySessionBuilder) plotBuilder;
     }
 }
\ No newline at end of file
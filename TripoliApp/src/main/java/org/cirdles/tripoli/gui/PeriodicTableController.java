@@ -71,7 +71,7 @@ public class PeriodicTableController {
                 int row = GridPane.getRowIndex(button);
                 int col = GridPane.getColumnIndex(button);
 
-                List<ElementRecord> targetElementList = ElementsFactory.periodicTableElementsList
+                List<ElementRecord> targetElementList = ElementsFactory.getPeriodicTableElementsList()
                         .stream()
                         .filter(element -> ((element.tripoliCol() == col) && (element.tripoliRow() == row))).toList();
 
@@ -120,7 +120,7 @@ public class PeriodicTableController {
         Button button = ((Button) mouseEvent.getSource());
         buttonStyle = button.getStyle();
         button.setStyle("-fx-background-color: WHEAT");
-        List<SpeciesRecordInterface> nuclides = NuclidesFactory.nuclidesListByElementMap.get(((ElementRecord) button.getUserData()).symbol());
+        List<SpeciesRecordInterface> nuclides = NuclidesFactory.getNuclidesListByElementMap().get(((ElementRecord) button.getUserData()).symbol());
         StringBuilder stringBuilder = new StringBuilder();
         for (SpeciesRecordInterface species : nuclides) {
             stringBuilder.append("\t").append(((NuclideRecord) species).prettyPrintLongForm()).append("\n");
@@ -17,6 +17,7 @@
 package org.cirdles.tripoli.gui;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.scene.Parent;
@@ -29,6 +30,8 @@ import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Stop;
 import javafx.stage.Stage;
 import javafx.stage.Window;
+import org.cirdles.tripoli.utilities.TripoliStartupTimer;
+import org.cirdles.tripoli.utilities.file.TripoliFileResources;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -42,6 +45,8 @@ import static org.cirdles.tripoli.gui.constants.ConstantsTripoliApp.TRIPOLI_STAR
 public class TripoliGUI extends Application {
 
     public static final String Tripoli_LOGO_SANS_TEXT_URL = "images/TripoliJune2022.png";
+    // used by the AppCDS training run: open the first window, then quit
+    public static final String EXIT_AFTER_FIRST_WINDOW_PROPERTY = "tripoli.startup.exitAfterFirstWindow";
     public static Window primaryStageWindow;
     public static Stage primaryStage;
     protected static TripoliAboutWindow tripoliAboutWindow;
@@ -79,7 +84,8 @@ public class TripoliGUI extends Application {
 
 
         // detect if running from jar file
-        if (!verbose && (ClassLoader.getSystemResource("org/cirdles/tripoli/gui/TripoliGUI.class").toExternalForm().startsWith("jar"))) {
+        if (!verbose && !Boolean.getBoolean(TripoliStartupTimer.STARTUP_TIMING_PROPERTY)
+                && (ClassLoader.getSystemResource("org/cirdles/tripoli/gui/TripoliGUI.class").toExternalForm().startsWith("jar"))) {
             System.out.println(
                     "Running Tripoli from Jar file ... suppressing terminal output.\n"
                             + "\t use '-verbose' argument after jar file name to enable terminal output.");
@@ -95,11 +101,13 @@ public class TripoliGUI extends Application {
             }));
         }
 
+        TripoliStartupTimer.markPhase("JVM start to main");
         launch();
     }
 
     @Override
     public void start(Stage primaryStage) throws IOException {
+        TripoliStartupTimer.markPhase("JavaFX toolkit");
         TripoliGUI.primaryStage = primaryStage;
         Parent root = new AnchorPane();
         Scene scene = new Scene(root);
@@ -114,6 +122,7 @@ public class TripoliGUI extends Application {
         FXMLLoader loader = new FXMLLoader(TripoliGUI.class.getResource("TripoliGUI.fxml"));
         scene.setRoot(loader.load());
         scene.setUserData(loader.getController());
+        TripoliStartupTimer.markPhase("Main window FXML");
 
         primaryStage.setMinHeight(scene.getHeight() + 15);
         primaryStage.setMinWidth(scene.getWidth());
@@ -122,6 +131,7 @@ public class TripoliGUI extends Application {
         tripoliAboutWindow = new TripoliAboutWindow(primaryStage);
 
         primaryStage.show();
+        TripoliStartupTimer.markPhase("Main window shown");
 
         // create stops for color gradient
         Stop[] stop = {new Stop(0, TRIPOLI_STARTING_YELLOW),
@@ -132,5 +142,15 @@ public class TripoliGUI extends Application {
                 1, 0, true, CycleMethod.NO_CYCLE, stop);
         BackgroundFill bgFill = new BackgroundFill(linear_gradient, CornerRadii.EMPTY, Insets.EMPTY);
         ((AnchorPane) ((VBox) scene.getRoot()).getChildren().get(1)).setBackground(new Background(bgFill));
+
+        // deferred until the window is up; builtin sessions wait for it if opened first
+        TripoliFileResources.initLocalResourcesInBackground();
+        Platform.runLater(() -> {
+            TripoliStartupTimer.markPhase("First pulse after window shown");
+            TripoliStartupTimer.reportStartupPhases();
+            if (Boolean.getBoolean(EXIT_AFTER_FIRST_WINDOW_PROPERTY)) {
+                Platform.exit();
+            }
+        });
     }
 }
\ No newline at end of file
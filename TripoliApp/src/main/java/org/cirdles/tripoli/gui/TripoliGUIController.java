@@ -35,6 +35,7 @@ import org.cirdles.tripoli.gui.utilities.BrowserControl;
 import org.cirdles.tripoli.gui.utilities.fileUtilities.FileHandlerUtil;
 import org.cirdles.tripoli.sessions.Session;
 import org.cirdles.tripoli.sessions.SessionBuiltinFactory;
+import org.cirdles.tripoli.utilities.TripoliStartupTimer;
 import org.cirdles.tripoli.utilities.exceptions.TripoliException;
 import org.cirdles.tripoli.utilities.stateUtilities.TripoliPersistentState;
 import org.cirdles.tripoli.utilities.stateUtilities.TripoliSerializer;
@@ -71,6 +72,7 @@ public class TripoliGUIController implements Initializable {
         } catch (TripoliException e) {
             e.printStackTrace();
         }
+        TripoliStartupTimer.markPhase("Persistent state");
     }
 
     @FXML
@@ -105,7 +107,8 @@ public class TripoliGUIController implements Initializable {
 
     public static void quit() {
         try {
-            TripoliPersistentState.getExistingPersistentState().updateTripoliPersistentState();
+            // written now rather than behind, before the application exits
+            TripoliPersistentState.getExistingPersistentState().flushTripoliPersistentState();
         } catch (TripoliException squidException) {
             TripoliMessageDialog.showWarningDialog(squidException.getMessage(), primaryStageWindow);
         }
@@ -130,6 +133,7 @@ public class TripoliGUIController implements Initializable {
 
         buildSessionMenuMRU();
         showStartingMenus();
+        TripoliStartupTimer.markPhase("Main window controller");
 
     }
 
@@ -252,7 +256,7 @@ public class TripoliGUIController implements Initializable {
     }
 
     public void openDemonstrationSessionMenuItemAction() throws IOException, TripoliException {
-        tripoliSession = SessionBuiltinFactory.sessionsBuiltinMap.get(TRIPOLI_DEMONSTRATION_SESSION);
+        tripoliSession = SessionBuiltinFactory.getBuiltinSession(TRIPOLI_DEMONSTRATION_SESSION);
         launchSessionManager();
 
     }
@@ -22,10 +22,12 @@ package org.cirdles.tripoli.gui.dataViews.plots;
 import javafx.event.EventHandler;
 import javafx.geometry.Side;
 import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
@@ -34,17 +36,24 @@ import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
+import javafx.scene.transform.Transform;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.tripoliPlots.HistogramSinglePlot;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.tripoliPlots.LinePlot;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.tripoliPlots.MultiLineIntensityPlot;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.tripoliPlots.sessionPlots.BlockRatioCyclesSessionPlot;
 import org.cirdles.tripoli.gui.utilities.TripoliColor;
 import org.cirdles.tripoli.plots.PlotBuilder;
+import org.cirdles.tripoli.plots.PlotDecimation;
 import org.cirdles.tripoli.plots.linePlots.LinePlotBuilder;
 import org.cirdles.tripoli.plots.linePlots.MultiLinePlotBuilder;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * @author James F. Bowring
@@ -84,7 +93,30 @@ public abstract class AbstractPlot extends Canvas {
     protected boolean showXaxis;
 
     protected PlotBuilder plotBuilder;
-    ;
+
+    // reduced series per y array (weakly held, so rebuilt arrays drop their entries), then per x array, segments,
+    // zero handling and zoom level
+    private final Map<double[], Map<DecimationKey, int[]>> decimationCache = new WeakHashMap<>();
+    private final Map<double[], Boolean> nonDecreasingCache = new WeakHashMap<>();
+
+    // data layer cached off-screen for overlay-only repaints and pans; created on first such repaint
+    private Canvas dataLayerCanvas;
+    private WritableImage dataLayerImage;
+    private boolean dataLayerValid;
+    private double dataLayerDisplayMinX;
+    private double dataLayerDisplayMaxY;
+    private double dataLayerDisplayRangeX;
+    private double dataLayerDisplayRangeY;
+    private double dataLayerWidth;
+    private double dataLayerHeight;
+    private boolean compositeFromDataLayer;
+    private boolean panInProgress;
+
+    // work held back while the plot is out of view; done by paintIfDeferred or the next repaint in view
+    private boolean preparationDeferred;
+    private boolean deferredReScaleX;
+    private boolean deferredReScaleY;
+    private boolean repaintDeferred;
 
     private AbstractPlot() {
     }
@@ -167,12 +199,21 @@ public abstract class AbstractPlot extends Canvas {
                     mouseStartY = e.getY();
 
                     calculateTics();
-                    repaint();
+                    repaintPanned();
                 }
             }
         };
         addEventFilter(MouseEvent.MOUSE_DRAGGED, mouseDraggedEventHandler);
 
+        EventHandler<MouseEvent> mouseReleasedEventHandler = e -> {
+            if (e.getSource() instanceof BlockRatioCyclesSessionPlot) {
+                ((BlockRatioCyclesSessionPlot) e.getSource()).getParentWallPane().synchronizeRatioPlotsPanFinished();
+            } else {
+                finishPan();
+            }
+        };
+        addEventFilter(MouseEvent.MOUSE_RELEASED, mouseReleasedEventHandler);
+
         EventHandler<MouseEvent> mousePressedEventHandler = e -> {
             if (mouseInHouse(e.getX(), e.getY()) && e.isPrimaryButtonDown()) {
                 if (e.getSource() instanceof BlockRatioCyclesSessionPlot) {
@@ -244,7 +285,7 @@ public abstract class AbstractPlot extends Canvas {
         drawBorder(g2d);
         drawPlotLimits(g2d);
 
-        plotData(g2d);
+        paintDataLayer(g2d);
 
         if (showStats) {
             plotStats(g2d);
@@ -263,8 +304,134 @@ public abstract class AbstractPlot extends Canvas {
         showTitle(g2d);
     }
 
+    /**
+     * Full repaint; the data layer is redrawn from the data.
+     */
     public void repaint() {
-        paint(getGraphicsContext2D());
+        dataLayerValid = false;
+        if (isInView()) {
+            repaintDeferred = false;
+            if (preparationDeferred) {
+                preparationDeferred = false;
+                preparePanel(deferredReScaleX, deferredReScaleY);
+                deferredReScaleX = false;
+                deferredReScaleY = false;
+            }
+            paint(getGraphicsContext2D());
+        } else {
+            deferRepaint();
+        }
+    }
+
+    private boolean isInView() {
+        return !(getParent() instanceof TripoliPlotPane) || ((TripoliPlotPane) getParent()).isInView();
+    }
+
+    private void deferRepaint() {
+        repaintDeferred = true;
+        // an unseen plot need not hold a cached data layer
+        dataLayerCanvas = null;
+        dataLayerImage = null;
+    }
+
+    /**
+     * Performs preparation and painting deferred while the plot was out of view, once it is in view.
+     */
+    public void paintIfDeferred() {
+        if ((repaintDeferred || preparationDeferred) && isInView()) {
+            repaint();
+        }
+    }
+
+    /**
+     * Repaint when only the overlay (stats, shades, selections) has changed; the data layer is composited from
+     * its cached image.
+     */
+    public void repaintOverlay() {
+        if (!isInView()) {
+            dataLayerValid = false;
+            deferRepaint();
+        } else if ((0 < width) && (0 < height) && !preparationDeferred && !repaintDeferred) {
+            ensureDataLayer();
+            compositeFromDataLayer = true;
+            try {
+                paint(getGraphicsContext2D());
+            } finally {
+                compositeFromDataLayer = false;
+            }
+        } else {
+            repaint();
+        }
+    }
+
+    /**
+     * Repaint during a pan: the cached data layer is blitted at the pan offset until {@link #finishPan()}.
+     */
+    public void repaintPanned() {
+        panInProgress = true;
+        repaintOverlay();
+    }
+
+    /**
+     * Ends a pan with a full repaint to fill the margins exposed by blitting.
+     */
+    public void finishPan() {
+        if (panInProgress) {
+            panInProgress = false;
+            repaint();
+        }
+    }
+
+    private void ensureDataLayer() {
+        boolean sameScale = dataLayerValid
+                && (dataLayerDisplayRangeX == getDisplayRangeX()) && (dataLayerDisplayRangeY == getDisplayRangeY())
+                && (dataLayerWidth == width) && (dataLayerHeight == height);
+        if (!sameScale) {
+            if (null == dataLayerCanvas) {
+                dataLayerCanvas = new Canvas();
+            }
+            dataLayerCanvas.setWidth(width);
+            dataLayerCanvas.setHeight(height);
+            GraphicsContext dataLayerGraphicsContext = dataLayerCanvas.getGraphicsContext2D();
+            dataLayerGraphicsContext.clearRect(0, 0, width, height);
+            plotData(dataLayerGraphicsContext);
+
+            // snapshot at the screen's output scale so blitted data stays sharp on HiDPI displays
+            double outputScale = ((null != getScene()) && (null != getScene().getWindow())) ? getScene().getWindow().getOutputScaleX() : 1.0;
+            SnapshotParameters snapshotParameters = new SnapshotParameters();
+            snapshotParameters.setFill(Color.TRANSPARENT);
+            snapshotParameters.setTransform(Transform.scale(outputScale, outputScale));
+            int imageWidth = (int) Math.ceil(width * outputScale);
+            int imageHeight = (int) Math.ceil(height * outputScale);
+            boolean reuseImage = (null != dataLayerImage)
+                    && (imageWidth == (int) dataLayerImage.getWidth()) && (imageHeight == (int) dataLayerImage.getHeight());
+            dataLayerImage = dataLayerCanvas.snapshot(snapshotParameters, reuseImage ? dataLayerImage : null);
+
+            dataLayerDisplayMinX = getDisplayMinX();
+            dataLayerDisplayMaxY = getDisplayMaxY();
+            dataLayerDisplayRangeX = getDisplayRangeX();
+            dataLayerDisplayRangeY = getDisplayRangeY();
+            dataLayerWidth = width;
+            dataLayerHeight = height;
+            dataLayerValid = true;
+        }
+    }
+
+    private void paintDataLayer(GraphicsContext g2d) {
+        if (compositeFromDataLayer) {
+            double offsetX = (dataLayerDisplayMinX - getDisplayMinX()) / getDisplayRangeX() * plotWidth;
+            double offsetY = (getDisplayMaxY() - dataLayerDisplayMaxY) / getDisplayRangeY() * plotHeight;
+            g2d.save();
+            if ((0.0 != offsetX) || (0.0 != offsetY)) {
+                g2d.beginPath();
+                g2d.rect(leftMargin, topMargin, plotWidth, plotHeight);
+                g2d.clip();
+            }
+            g2d.drawImage(dataLayerImage, offsetX, offsetY, dataLayerWidth, dataLayerHeight);
+            g2d.restore();
+        } else {
+            plotData(g2d);
+        }
     }
 
     public abstract void plotData(GraphicsContext g2d);
@@ -275,24 +442,36 @@ public abstract class AbstractPlot extends Canvas {
     }
 
     public void calculateTics() {
-        ticsX = TicGeneratorForAxes.generateTics(getDisplayMinX(), getDisplayMaxX(), Math.max(4, (int) (plotWidth / 50.0)));
-        if (0 == ticsX.length) {
-            ticsX = new BigDecimal[2];
-            ticsX[0] = new BigDecimal(Double.toString(minX));
-            ticsX[ticsX.length - 1] = new BigDecimal(Double.toString(maxX));
-        }
-
-        ticsY = TicGeneratorForAxes.generateTics(getDisplayMinY(), getDisplayMaxY(), Math.max(4, (int) (plotHeight / 15.0)));
-        if ((0 == ticsY.length) && !Double.isInfinite(minY)) {
-            ticsY = new BigDecimal[2];
-            ticsY[0] = new BigDecimal(Double.toString(minY));
-            ticsY[ticsY.length - 1] = new BigDecimal(Double.toString(maxY));
-        }
+        ticsX = generateTicsX(getDisplayMinX(), getDisplayMaxX(), minX, maxX, plotWidth);
+        ticsY = generateTicsY(getDisplayMinY(), getDisplayMaxY(), minY, maxY, plotHeight);
 
         zoomChunkX = getDisplayRangeX() / 100.0;
         zoomChunkY = getDisplayRangeY() / 100.0;
     }
 
+    /**
+     * Free of plot state so that tics can be generated during background preparation.
+     */
+    protected static BigDecimal[] generateTicsX(double displayMinX, double displayMaxX, double minX, double maxX, double plotWidth) {
+        BigDecimal[] tics = TicGeneratorForAxes.generateTics(displayMinX, displayMaxX, Math.max(4, (int) (plotWidth / 50.0)));
+        if (0 == tics.length) {
+            tics = new BigDecimal[2];
+            tics[0] = new BigDecimal(Double.toString(minX));
+            tics[tics.length - 1] = new BigDecimal(Double.toString(maxX));
+        }
+        return tics;
+    }
+
+    protected static BigDecimal[] generateTicsY(double displayMinY, double displayMaxY, double minY, double maxY, double plotHeight) {
+        BigDecimal[] tics = TicGeneratorForAxes.generateTics(displayMinY, displayMaxY, Math.max(4, (int) (plotHeight / 15.0)));
+        if ((0 == tics.length) && !Double.isInfinite(minY)) {
+            tics = new BigDecimal[2];
+            tics[0] = new BigDecimal(Double.toString(minY));
+            tics[tics.length - 1] = new BigDecimal(Double.toString(maxY));
+        }
+        return tics;
+    }
+
     private void drawAxes(GraphicsContext g2d) {
         g2d.setLineDashes(0);
         g2d.setFill(Paint.valueOf("BLACK"));
@@ -431,6 +610,54 @@ public abstract class AbstractPlot extends Canvas {
         return (((getDisplayMaxY() - y) / getDisplayRangeY()) * plotHeight) + topMargin;
     }
 
+    /**
+     * Indices of the samples to stroke as a line at the current zoom: at most a few per horizontal pixel,
+     * with each pixel column's extremes retained, limited to the displayed x range when x is ordered.
+     *
+     * @param xData         abscissae
+     * @param yData         ordinates
+     * @param segmentIds    optional segment per sample; reduction never merges samples across segments
+     * @param zeroIsMissing true if zero ordinates are not plotted
+     * @return ascending sample indices
+     */
+    protected int[] lineIndicesToDraw(double[] xData, double[] yData, int[] segmentIds, boolean zeroIsMissing) {
+        int zoomLevelX = PlotDecimation.zoomLevel(getDisplayRangeX() / plotWidth);
+        return indicesToDraw(xData, yData, new DecimationKey(xData, segmentIds, zeroIsMissing, false, zoomLevelX, 0), () ->
+                PlotDecimation.minMaxIndices(xData, yData, segmentIds, PlotDecimation.bucketWidthForZoomLevel(zoomLevelX), zeroIsMissing));
+    }
+
+    /**
+     * Indices of the samples to draw as markers at the current zoom: one per occupied pixel cell.
+     *
+     * @param xData         abscissae
+     * @param yData         ordinates
+     * @param zeroIsMissing true if zero ordinates are not plotted
+     * @return ascending sample indices
+     */
+    protected int[] pointIndicesToDraw(double[] xData, double[] yData, boolean zeroIsMissing) {
+        int zoomLevelX = PlotDecimation.zoomLevel(getDisplayRangeX() / plotWidth);
+        int zoomLevelY = PlotDecimation.zoomLevel(getDisplayRangeY() / plotHeight);
+        return indicesToDraw(xData, yData, new DecimationKey(xData, null, zeroIsMissing, true, zoomLevelX, zoomLevelY), () ->
+                PlotDecimation.occupiedCellIndices(xData, yData,
+                        PlotDecimation.bucketWidthForZoomLevel(zoomLevelX), PlotDecimation.bucketWidthForZoomLevel(zoomLevelY), zeroIsMissing));
+    }
+
+    private int[] indicesToDraw(double[] xData, double[] yData, DecimationKey decimationKey, Supplier<int[]> reduction) {
+        int[] retained;
+        boolean reducible = (xData.length > 4 * plotWidth)
+                && Double.isFinite(getDisplayRangeX()) && (0.0 < getDisplayRangeX())
+                && Double.isFinite(getDisplayRangeY()) && (0.0 < getDisplayRangeY());
+        if (reducible) {
+            retained = decimationCache.computeIfAbsent(yData, k -> new HashMap<>()).computeIfAbsent(decimationKey, k -> reduction.get());
+        } else {
+            retained = IntStream.range(0, Math.min(xData.length, yData.length)).toArray();
+        }
+        if (nonDecreasingCache.computeIfAbsent(xData, PlotDecimation::isNonDecreasing)) {
+            retained = PlotDecimation.visibleIndices(xData, retained, getDisplayMinX(), getDisplayMaxX());
+        }
+        return retained;
+    }
+
     public boolean pointInPlot(double x, double y) {
         return ((mapX(x) >= leftMargin) && (mapX(x) <= (leftMargin + plotWidth)) && (mapY(y) >= topMargin) && (mapY(y) <= (topMargin + plotHeight)));
     }
@@ -441,12 +668,25 @@ public abstract class AbstractPlot extends Canvas {
      */
     public void refreshPanel(boolean reScaleX, boolean reScaleY) {
         try {
-            preparePanel(reScaleX, reScaleY);
-            repaint();
+            prepareAndRepaint(reScaleX, reScaleY);
         } catch (Exception ignored) {
         }
     }
 
+    /**
+     * Prepares and repaints now if the plot is in view, otherwise when it comes into view; rescale requests
+     * made while out of view accumulate.
+     *
+     * @param reScaleX the value of reScaleX
+     * @param reScaleY the value of reScaleY
+     */
+    public void prepareAndRepaint(boolean reScaleX, boolean reScaleY) {
+        preparationDeferred = true;
+        deferredReScaleX |= reScaleX;
+        deferredReScaleY |= reScaleY;
+        repaint();
+    }
+
     /**
      *
      */
@@ -609,7 +849,7 @@ public abstract class AbstractPlot extends Canvas {
         displayOffsetY = displayOffsetY + (convertMouseYToValue(mouseStartY) - convertMouseYToValue(y));
         mouseStartY = y;
         calculateTics();
-        repaint();
+        repaintPanned();
     }
 
     public void adjustMouseStartsForPress(double x, double y) {
@@ -624,6 +864,11 @@ public abstract class AbstractPlot extends Canvas {
         return inWidth && inHeight;
     }
 
+    // arrays compare by identity, as the y array does in the enclosing cache
+    private record DecimationKey(
+            double[] xData, int[] segmentIds, boolean zeroIsMissing, boolean asPoints, int zoomLevelX, int zoomLevelY) {
+    }
+
     class MouseClickEventHandler implements EventHandler<MouseEvent> {
         @Override
         public void handle(MouseEvent mouseEvent) {
@@ -636,9 +881,18 @@ public abstract class AbstractPlot extends Canvas {
                     BlockRatioCyclesSessionPlot blockRatioCyclesSessionPlot = (BlockRatioCyclesSessionPlot) mouseEvent.getSource();
                     // determine blockID
                     double xValue = convertMouseXToValue(mouseEvent.getX());
-                    int blockID = (int) ((xValue - 0.7) / blockRatioCyclesSessionPlot.getBlockRatioCyclesSessionRecord().cyclesPerBlock()) + 1;
+                    int cyclesPerBlock = blockRatioCyclesSessionPlot.getBlockRatioCyclesSessionRecord().cyclesPerBlock();
+                    int blockID = (int) ((xValue - 0.7) / cyclesPerBlock) + 1;
                     BlockRatioCyclesSessionPlot sourceBlockRatioCyclesSessionPlot = (BlockRatioCyclesSessionPlot) mouseEvent.getSource();
-                    sourceBlockRatioCyclesSessionPlot.getParentWallPane().synchronizeBlockToggle(blockID);
+                    if (mouseEvent.isShiftDown()) {
+                        // shift-click toggles the nearest cycle within the block
+                        int cycleIndex = (int) Math.round(xValue) - 1 - (blockID - 1) * cyclesPerBlock;
+                        if ((0 <= cycleIndex) && (cycleIndex < cyclesPerBlock)) {
+                            sourceBlockRatioCyclesSessionPlot.getParentWallPane().synchronizeCycleToggle(blockID, cycleIndex, cyclesPerBlock);
+                        }
+                    } else {
+                        sourceBlockRatioCyclesSessionPlot.getParentWallPane().synchronizeBlockToggle(blockID);
+                    }
                 } else if (!isPrimary) {
                     plotContextMenu.show((Node) mouseEvent.getSource(), Side.LEFT, mouseEvent.getX() - getLayoutX(), mouseEvent.getY() - getLayoutY());
                 }
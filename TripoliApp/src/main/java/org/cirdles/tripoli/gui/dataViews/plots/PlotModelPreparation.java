@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.gui.dataViews.plots;
+
+import javafx.concurrent.Task;
+import org.cirdles.tripoli.gui.TripoliGUI;
+import org.cirdles.tripoli.gui.dialogs.TripoliMessageDialog;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs numeric plot preparation off the JavaFX application thread.  Preparations produce immutable render
+ * models that are handed back on the FX thread, which then only draws them.
+ *
+ * @author James F. Bowring
+ */
+public enum PlotModelPreparation {
+    ;
+
+    private static final ExecutorService plotModelExecutor = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            runnable -> {
+                Thread thread = new Thread(runnable, "Tripoli plot model preparation");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * @param preparation         numeric work; must not touch the scene graph
+     * @param renderModelConsumer receives the render model on the FX thread
+     * @param <M>                 render model type
+     */
+    public static <M> void prepareInBackground(Callable<M> preparation, Consumer<M> renderModelConsumer) {
+        Task<M> preparationTask = new Task<>() {
+            @Override
+            protected M call() throws Exception {
+                return preparation.call();
+            }
+        };
+        preparationTask.setOnSucceeded(event -> renderModelConsumer.accept(preparationTask.getValue()));
+        preparationTask.setOnFailed(event -> {
+            Throwable failure = preparationTask.getException();
+            TripoliMessageDialog.showWarningDialog(
+                    "Unable to prepare plot: " + ((null == failure.getMessage()) ? failure : failure.getMessage()), TripoliGUI.primaryStage);
+        });
+        plotModelExecutor.execute(preparationTask);
+    }
+}
@@ -17,6 +17,7 @@
 package org.cirdles.tripoli.gui.dataViews.plots;
 
 import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -28,6 +29,9 @@ import org.cirdles.tripoli.gui.constants.ConstantsTripoliApp;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.mcmcPlots.MCMCPlotsController;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.mcmcPlots.MCMCPlotsControllerInterface;
 import org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.tripoliPlots.sessionPlots.BlockRatioCyclesSessionPlot;
+import org.cirdles.tripoli.plots.PlotBuilder;
+import org.cirdles.tripoli.plots.compoundPlots.BlockRatioCyclesRecord;
+import org.cirdles.tripoli.plots.histograms.HistogramBuilder;
 import org.cirdles.tripoli.sessions.analysis.Analysis;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.EnsemblesStore;
@@ -50,8 +54,11 @@ public class PlotWallPane extends Pane {
     private final boolean[] zoomFlagsXY = new boolean[2];
     private final AnalysisInterface analysis;
     private final MCMCPlotsControllerInterface mcmcPlotsControllerInterface;
+    private final PlotWallViewport plotWallViewport;
     AnalysisManagerCallbackI analysisManagerCallbackI;
     private boolean logScale;
+    // ensemble histograms are built with 25 bins
+    private int histogramBinCount = 25;
     private ConstantsTripoliApp.PlotLayoutStyle plotLayoutStyle;
 
     private PlotWallPane(String iD, AnalysisInterface analysis, MCMCPlotsControllerInterface mcmcPlotsControllerInterface, AnalysisManagerCallbackI analysisManagerCallbackI) {
@@ -62,7 +69,7 @@ public class PlotWallPane extends Pane {
         this.mcmcPlotsControllerInterface = mcmcPlotsControllerInterface;
         this.analysisManagerCallbackI = analysisManagerCallbackI;
         plotLayoutStyle = ConstantsTripoliApp.PlotLayoutStyle.TILE;
-
+        plotWallViewport = new PlotWallViewport(this);
     }
 
     public static PlotWallPane createPlotWallPane(
@@ -81,6 +88,10 @@ public class PlotWallPane extends Pane {
         return analysis;
     }
 
+    PlotWallViewport getPlotWallViewport() {
+        return plotWallViewport;
+    }
+
     public void tilePlots() {
         List<Node> plotPanes = getChildren()
                 .stream()
@@ -221,6 +232,32 @@ public class PlotWallPane extends Pane {
         }
     }
 
+    public void rebinHistograms(int binCount) {
+        histogramBinCount = binCount;
+        PlotBuilder[][] plotBuilders = analysis.getMapOfBlockIdToPlots().get(MCMCPlotsController.currentBlockID);
+        if (null != plotBuilders) {
+            mcmcPlotsControllerInterface.plotEnsemblesEngine(plotBuilders);
+        }
+    }
+
+    /**
+     * Brings a block's histograms to the bin count chosen in the toolbar before they are plotted.
+     *
+     * @param plotBuilders the block's plot builders
+     */
+    public void applyHistogramBinCount(PlotBuilder[][] plotBuilders) {
+        for (PlotBuilder[] plotBuilderRow : plotBuilders) {
+            if (null != plotBuilderRow) {
+                for (PlotBuilder plotBuilder : plotBuilderRow) {
+                    if ((plotBuilder instanceof HistogramBuilder histogramBuilder)
+                            && (histogramBinCount != histogramBuilder.getHistogramRecord().binCount())) {
+                        histogramBuilder.rebin(histogramBinCount);
+                    }
+                }
+            }
+        }
+    }
+
     public void applyBurnIn() {
         int burnIn = (int) analysis.getMapOfBlockIdToPlots().get(MCMCPlotsController.currentBlockID)[5][0].getShadeWidthForModelConvergence();
         int blockID = MCMCPlotsController.currentBlockID;
@@ -281,6 +318,16 @@ public class PlotWallPane extends Pane {
             Button button6 = new Button("Apply BurnIn");
             button6.setOnAction(event -> applyBurnIn());
             toolBar.getItems().addAll(button6);
+
+            Label labelBins = new Label("Bins:");
+            labelBins.setAlignment(Pos.CENTER_RIGHT);
+            labelBins.setPrefWidth(40);
+            // each choice divides HistogramKernel.FINE_BIN_COUNT, so re-binning does not revisit the ensembles
+            ChoiceBox<Integer> binCountChoiceBox = new ChoiceBox<>(FXCollections.observableArrayList(10, 20, 25, 40, 50, 100));
+            binCountChoiceBox.setValue(histogramBinCount);
+            binCountChoiceBox.valueProperty().addListener(
+                    (ObservableValue<? extends Integer> ov, Integer oldVal, Integer newVal) -> rebinHistograms(newVal));
+            toolBar.getItems().addAll(labelBins, binCountChoiceBox);
         }
 
         getChildren().addAll(toolBar);
@@ -398,12 +445,23 @@ public class PlotWallPane extends Pane {
         }
     }
 
+    public void synchronizeRatioPlotsPanFinished() {
+        ObservableList<Node> children = getChildren();
+        for (Node child : children) {
+            if (child instanceof TripoliPlotPane) {
+                BlockRatioCyclesSessionPlot childPlot = (BlockRatioCyclesSessionPlot) ((TripoliPlotPane) child).getChildren().get(0);
+                childPlot.finishPan();
+            }
+        }
+    }
+
     public void synchronizeConvergencePlotsShade(int blockID, double shadeWidth) {
         ((Analysis) analysis).updateShadeWidthsForConvergenceLinePlots(blockID, shadeWidth);
         ObservableList<Node> children = getChildren();
         for (Node child : children) {
             if ((child instanceof TripoliPlotPane) && (((TripoliPlotPane) child).getChildren().get(0) instanceof AbstractPlot)) {
-                ((AbstractPlot) ((TripoliPlotPane) child).getChildren().get(0)).repaint();
+                // the shade is overlay only; data layers are reused
+                ((AbstractPlot) ((TripoliPlotPane) child).getChildren().get(0)).repaintOverlay();
             }
         }
     }
@@ -430,4 +488,20 @@ public class PlotWallPane extends Pane {
             }
         }
     }
-}
\ No newline at end of file
+
+    public void synchronizeCycleToggle(int blockID, int cycleIndex, int cyclesPerBlock) {
+        // the exclusion is recorded once on the analysis and applied to every ratio of the block
+        boolean[] cyclesIncluded = analysis.toggleCycleIncluded(blockID, cycleIndex, cyclesPerBlock);
+        ObservableList<Node> children = getChildren();
+        for (Node child : children) {
+            if (child instanceof TripoliPlotPane) {
+                BlockRatioCyclesSessionPlot childPlot = (BlockRatioCyclesSessionPlot) ((TripoliPlotPane) child).getChildren().get(0);
+                BlockRatioCyclesRecord blockRatioCyclesRecord = childPlot.getMapBlockIdToBlockRatioCyclesRecord().get(blockID);
+                if ((null != blockRatioCyclesRecord) && (cyclesIncluded.length == blockRatioCyclesRecord.cyclesIncluded().length)) {
+                    childPlot.getMapBlockIdToBlockRatioCyclesRecord().put(blockID, blockRatioCyclesRecord.withCyclesIncluded(cyclesIncluded));
+                    childPlot.repaint();
+                }
+            }
+        }
+    }
+}
@@ -48,11 +48,13 @@ public class PlotWallPaneOGTripoli extends Pane {
     private boolean logScale;
 
     private boolean[] zoomFlagsXY = new boolean[2];
+    private final PlotWallViewport plotWallViewport;
 
     private PlotWallPaneOGTripoli(String iD) {
         this.iD = iD;
         zoomFlagsXY[0] = true;
         zoomFlagsXY[1] = true;
+        plotWallViewport = new PlotWallViewport(this);
     }
 
     public static PlotWallPaneOGTripoli createPlotWallPane(String iD) {
@@ -63,6 +65,10 @@ public class PlotWallPaneOGTripoli extends Pane {
         }
     }
 
+    PlotWallViewport getPlotWallViewport() {
+        return plotWallViewport;
+    }
+
     public void stackPlots() {
         double tileWidth;
         double displayHeight;
@@ -277,6 +283,14 @@ public class PlotWallPaneOGTripoli extends Pane {
         getChildren().add(toolBar);
     }
 
+    /**
+     * Brings plots added after the toolbars were built into line with the toolbars' settings.
+     */
+    public void applyToolBarSettings() {
+        rebuildPlot(true, true);
+        resetZoom();
+    }
+
     private void rebuildPlot(boolean reScaleX, boolean reScaleY) {
         for (Node plotPane : getChildren()) {
             if (plotPane instanceof TripoliPlotPane) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.gui.dataViews.plots;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+
+import java.util.List;
+
+/**
+ * Decides which plot panes of a wall can be seen: the wall must be showing (its tab selected), and the pane must
+ * lie within the wall's parent and not be wholly covered by a pane stacked above it.  Plots out of view defer
+ * their preparation and painting; this class paints them when a layout, tab or stacking change brings them
+ * into view.  Changes are coalesced into one pass per pulse, so tiling many panes checks each once.
+ *
+ * @author James F. Bowring
+ */
+final class PlotWallViewport {
+
+    private final Pane plotWallPane;
+    // held strongly here; ancestors hold only the weak wrapper so discarded walls can be collected
+    private final ChangeListener<Object> revealListener = (observable, oldValue, newValue) -> requestPaintPlotsInView();
+    private final WeakChangeListener<Object> weakRevealListener = new WeakChangeListener<>(revealListener);
+    private boolean paintPending;
+
+    PlotWallViewport(Pane plotWallPane) {
+        this.plotWallPane = plotWallPane;
+        plotWallPane.layoutBoundsProperty().addListener(revealListener);
+        plotWallPane.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            watchAncestorVisibility();
+            requestPaintPlotsInView();
+        });
+        plotWallPane.getChildren().addListener((ListChangeListener<Node>) change -> requestPaintPlotsInView());
+    }
+
+    private void watchAncestorVisibility() {
+        for (Parent ancestor = plotWallPane.getParent(); null != ancestor; ancestor = ancestor.getParent()) {
+            ancestor.visibleProperty().removeListener(weakRevealListener);
+            ancestor.visibleProperty().addListener(weakRevealListener);
+        }
+    }
+
+    void watchPlotPane(TripoliPlotPane tripoliPlotPane) {
+        tripoliPlotPane.boundsInParentProperty().addListener(revealListener);
+    }
+
+    private boolean isWallShowing() {
+        boolean showing = (null != plotWallPane.getScene()) && (null != plotWallPane.getParent());
+        for (Node node = plotWallPane; showing && (null != node); node = node.getParent()) {
+            showing = node.isVisible();
+        }
+        return showing;
+    }
+
+    boolean isInView(TripoliPlotPane tripoliPlotPane) {
+        boolean inView = isWallShowing();
+
+        Bounds paneBounds = tripoliPlotPane.getBoundsInParent();
+        if (inView) {
+            Bounds viewportBounds = plotWallPane.parentToLocal(plotWallPane.getParent().getLayoutBounds());
+            inView = (0.0 < paneBounds.getWidth()) && (0.0 < paneBounds.getHeight()) && viewportBounds.intersects(paneBounds);
+        }
+
+        // panes later in the child list are drawn on top
+        List<Node> children = plotWallPane.getChildren();
+        for (int childIndex = children.indexOf(tripoliPlotPane) + 1; inView && (childIndex < children.size()); childIndex++) {
+            Node sibling = children.get(childIndex);
+            inView = !((sibling instanceof TripoliPlotPane) && sibling.isVisible() && sibling.getBoundsInParent().contains(paneBounds));
+        }
+
+        return inView;
+    }
+
+    /**
+     * Schedules one pass over the wall for the next pulse; further changes before then share it.
+     */
+    void requestPaintPlotsInView() {
+        if (!paintPending) {
+            paintPending = true;
+            Platform.runLater(() -> {
+                paintPending = false;
+                paintPlotsInView();
+            });
+        }
+    }
+
+    private void paintPlotsInView() {
+        if (!isWallShowing()) {
+            return;
+        }
+        for (Node child : plotWallPane.getChildren()) {
+            if (child instanceof TripoliPlotPane) {
+                ((TripoliPlotPane) child).paintPlotIfDeferred();
+            }
+        }
+    }
+}
@@ -131,8 +131,15 @@ public class TripoliPlotPane extends Pane {
         toFront();
     };
 
+    private PlotWallViewport plotWallViewport;
+
     private TripoliPlotPane(Pane plotWallPane) {
         this.plotWallPane = plotWallPane;
+        if (plotWallPane instanceof PlotWallPane) {
+            plotWallViewport = ((PlotWallPane) plotWallPane).getPlotWallViewport();
+        } else if (plotWallPane instanceof PlotWallPaneOGTripoli) {
+            plotWallViewport = ((PlotWallPaneOGTripoli) plotWallPane).getPlotWallViewport();
+        }
     }
 
     public static TripoliPlotPane makePlotPane(Pane plotWallPane) {
@@ -154,6 +161,9 @@ public class TripoliPlotPane extends Pane {
         tripoliPlotPane.initializePlotPane();
 
         tripoliPlotPane.setStyle(tripoliPlotPane.getStyle() + ";-fx-background-color:RED;");
+        if (null != tripoliPlotPane.plotWallViewport) {
+            tripoliPlotPane.plotWallViewport.watchPlotPane(tripoliPlotPane);
+        }
         plotWallPane.getChildren().addAll(tripoliPlotPane);
 
         return tripoliPlotPane;
@@ -197,6 +207,20 @@ public class TripoliPlotPane extends Pane {
         addEventFilter(MouseEvent.MOUSE_PRESSED, mouseClickedEventHandler);
         addEventFilter(MouseEvent.MOUSE_MOVED, mouseMovedEventHandler);
         addEventFilter(MouseEvent.MOUSE_RELEASED, mouseReleasedEventHandler);
+        addEventFilter(MouseEvent.MOUSE_ENTERED, e -> paintPlotIfDeferred());
+    }
+
+    /**
+     * @return true unless the plot is hidden, outside its wall's viewport or covered by another plot
+     */
+    public boolean isInView() {
+        return (null == plotWallViewport) || plotWallViewport.isInView(this);
+    }
+
+    void paintPlotIfDeferred() {
+        if (!getChildren().isEmpty() && (getChildren().get(0) instanceof AbstractPlot)) {
+            ((AbstractPlot) getChildren().get(0)).paintIfDeferred();
+        }
     }
 
     public void addPlot(AbstractPlot plot) {
@@ -221,8 +245,8 @@ public class TripoliPlotPane extends Pane {
             plot.repaint();
         });
 
-        plot.preparePanel(true, true);
-        plot.repaint();
+        // preparation waits until the plot first comes into view
+        plot.prepareAndRepaint(true, true);
     }
 
     public void changeDataColor(AbstractPlot plot) {
@@ -244,7 +268,7 @@ public class TripoliPlotPane extends Pane {
     public void toggleShowStats() {
         if (!getChildren().isEmpty()) {
             ((AbstractPlot) getChildren().get(0)).toggleShowStats();
-            ((AbstractPlot) getChildren().get(0)).repaint();
+            ((AbstractPlot) getChildren().get(0)).repaintOverlay();
         }
     }
 
@@ -160,6 +160,15 @@ public class MCMCPlotBuildersTask extends Task<String> implements LoggingCallbac
         return analysis.getDataFilePathString() + "Block # " + blockID + "\n\n\tDONE - view tabs for various plotBuilders";
     }
 
+    /**
+     * Service.cancel() lands here; the chain saves a checkpoint so the block resumes when run again.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        analysis.cancelPlotsByBlock(blockID);
+        return super.cancel(mayInterruptIfRunning);
+    }
+
     @Override
     public void receiveLoggingSnippet(String loggingSnippet) {
         updateValue(loggingSnippet);
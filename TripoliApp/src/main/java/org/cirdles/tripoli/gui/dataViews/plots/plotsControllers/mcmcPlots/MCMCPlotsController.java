@@ -1,5 +1,6 @@
 package org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.mcmcPlots;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Service;
@@ -27,10 +28,11 @@ import org.cirdles.tripoli.plots.histograms.RatioHistogramBuilder;
 import org.cirdles.tripoli.plots.linePlots.*;
 import org.cirdles.tripoli.plots.sessionPlots.HistogramSessionBuilder;
 import org.cirdles.tripoli.plots.sessionPlots.PeakCentreSessionBuilder;
-import org.cirdles.tripoli.sessions.analysis.Analysis;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.AllBlockInitForOGTripoli;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.MCMCProcess;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.MCMCTelemetry;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.MCMCTelemetryListener;
 import org.cirdles.tripoli.utilities.IntuitiveStringComparator;
 
 import java.net.URL;
@@ -41,7 +43,6 @@ import static org.cirdles.tripoli.gui.dataViews.plots.TripoliPlotPane.minPlotHei
 import static org.cirdles.tripoli.gui.dataViews.plots.TripoliPlotPane.minPlotWidth;
 import static org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.mcmcPlots.MCMCPlotsWindow.PLOT_WINDOW_HEIGHT;
 import static org.cirdles.tripoli.gui.dataViews.plots.plotsControllers.mcmcPlots.MCMCPlotsWindow.PLOT_WINDOW_WIDTH;
-import static org.cirdles.tripoli.plots.sessionPlots.HistogramSessionBuilder.initializeHistogramSession;
 import static org.cirdles.tripoli.plots.sessionPlots.PeakCentreSessionBuilder.initializePeakCentreSession;
 import static org.cirdles.tripoli.sessions.analysis.Analysis.*;
 
@@ -67,6 +68,7 @@ public class MCMCPlotsController implements MCMCPlotsControllerInterface {
     public Tab convergeIntensityTab;
 
     private Service[] services;
+    private MCMCTelemetryListener progressTelemetryListener;
     @FXML
     private ResourceBundle resources;
     @FXML
@@ -225,6 +227,7 @@ public class MCMCPlotsController implements MCMCPlotsControllerInterface {
                         showLogsEngine(finalBlockIndex);
                     }
                     if (activeServices.isEmpty()) {
+                        MCMCTelemetry.removeTelemetryListener(progressTelemetryListener);
                         if (blocksToProcess.size() > 1) plotRatioSessionEngine();
                         listViewOfBlocks.setDisable(false);
                         listViewOfBlocks.getSelectionModel().selectFirst();
@@ -244,23 +247,22 @@ public class MCMCPlotsController implements MCMCPlotsControllerInterface {
                 }
             });
             services[finalBlockIndex].setOnFailed(evt -> {
+                MCMCTelemetry.removeTelemetryListener(progressTelemetryListener);
                 listViewOfBlocks.setDisable(false);
                 listViewOfBlocks.getSelectionModel().selectFirst();
             });
         }
 
         if (MAX_BLOCK_COUNT > indexOfFirstRunningBlockProcess) {
-            progressBar.accessibleTextProperty().bind(((MCMCUpdatesService) services[indexOfFirstRunningBlockProcess]).valueProperty());
-            progressBar.accessibleTextProperty().addListener((observable, oldValue, newValue) -> {
-                if (null != newValue) {
-                    String[] data = newValue.split(">%");
-                    try {
-                        double percent = Double.parseDouble(data[0]) / MCMCProcess.getModelCount();
-                        progressBar.setProgress(percent);
-                    } catch (NumberFormatException e) {
-                    }
+            int progressBlockID = blocksToProcess.get(indexOfFirstRunningBlockProcess);
+            MCMCTelemetry.removeTelemetryListener(progressTelemetryListener);
+            progressTelemetryListener = telemetryRecord -> {
+                if (progressBlockID == telemetryRecord.blockID()) {
+                    double percent = (double) telemetryRecord.modelIndex() / MCMCProcess.getModelCount();
+                    Platform.runLater(() -> progressBar.setProgress(percent));
                 }
-            });
+            };
+            MCMCTelemetry.addTelemetryListener(progressTelemetryListener);
         } else {
             progressBar.setProgress(1.0);
         }
@@ -270,28 +272,23 @@ public class MCMCPlotsController implements MCMCPlotsControllerInterface {
         }
     }
 
-    @FXML
-    public void plotRatioSessionEngine() {
-        Map<Integer, PlotBuilder[][]> mapOfBlockIdToPlots = analysis.getMapOfBlockIdToPlots();
-        Map<String, List<HistogramRecord>> mapRatioNameToSessionRecords = new TreeMap<>();
-        Iterator<Map.Entry<Integer, PlotBuilder[][]>> iterator = mapOfBlockIdToPlots.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<Integer, PlotBuilder[][]> entry = iterator.next();
-            if (analysis.getMapOfBlockIdToProcessStatus().get(entry.getKey()) == SHOW) {
-                PlotBuilder[] ratiosPlotBuilder = entry.getValue()[PLOT_INDEX_RATIOS];
-                for (PlotBuilder ratioPlotBuilder : ratiosPlotBuilder) {
-                    if (ratioPlotBuilder.isDisplayed()) {
-                        String ratioName = ratioPlotBuilder.getTitle()[0];
-                        mapRatioNameToSessionRecords.computeIfAbsent(ratioName, k -> new ArrayList<>());
-                        boolean useInvertedRatio = analysis.getAnalysisMethod().getMapOfRatioNamesToInvertedFlag().get(ratioName);
-                        mapRatioNameToSessionRecords.get(ratioName).add(
-                                useInvertedRatio ?
-                                        ((RatioHistogramBuilder) ratioPlotBuilder).getInvertedRatioHistogramRecord()
-                                        : ((RatioHistogramBuilder) ratioPlotBuilder).getHistogramRecord());
-                    }
-                }
+    /**
+     * Cancels blocks still running; each keeps its checkpoint and resumes from it the next time it is run.
+     */
+    public void cancelMCMCServices() {
+        if (null != services) {
+            for (Service service : services) {
+                service.cancel();
             }
         }
+        MCMCTelemetry.removeTelemetryListener(progressTelemetryListener);
+    }
+
+    @FXML
+    public void plotRatioSessionEngine() {
+        // only blocks whose ratio histograms changed since the last call are re-aggregated
+        Map<String, HistogramSessionBuilder> mapRatioNameToSessionBuilder =
+                analysis.getSessionAggregator().aggregateRatioHistogramSessions(analysis);
 
         plotTabPane.widthProperty().addListener((observable, oldValue, newValue) -> {
             ratiosSessionPlotsWallPane.repeatLayoutStyle();
@@ -312,9 +309,7 @@ public class MCMCPlotsController implements MCMCPlotsControllerInterface {
             ratiosSessionPlotsWallPane = (PlotWallPane) ratioSessionAnchorPane.getChildren().get(0);
             ratiosSessionPlotsWallPane.clearTripoliPanes();
         }
-        for (Map.Entry<String, List<HistogramRecord>> entry : mapRatioNameToSessionRecords.entrySet()) {
-            HistogramSessionBuilder histogramSessionBuilder = initializeHistogramSession(
-                    analysis.getMapOfBlockIdToProcessStatus().size(), entry.getValue(), entry.getValue().get(0).title(), "Block ID", "Ratio");
+        for (HistogramSessionBuilder histogramSessionBuilder : mapRatioNameToSessionBuilder.values()) {
             TripoliPlotPane tripoliPlotPane = TripoliPlotPane.makePlotPane(ratiosSessionPlotsWallPane);
             AbstractPlot plot = HistogramSessionPlot.generatePlot(new Rectangle(minPlotWidth, minPlotHeight), histogramSessionBuilder.getHistogramSessionRecord());
             tripoliPlotPane.addPlot(plot);
@@ -507,6 +502,7 @@ public class MCMCPlotsController implements MCMCPlotsControllerInterface {
             ensemblePlotsWallPane = (PlotWallPane) ensemblePlotsAnchorPane.getChildren().get(0);
             ensemblePlotsWallPane.clearTripoliPanes();
         }
+        ensemblePlotsWallPane.applyHistogramBinCount(plotBuilders);
         produceTripoliRatioHistogramPlots(ratiosHistogramBuilder, ensemblePlotsWallPane);
         produceTripoliHistogramPlots(baselineHistogramBuilder, ensemblePlotsWallPane);
         produceTripoliHistogramPlots(dalyFaradayHistogramBuilder, ensemblePlotsWallPane);
@@ -631,12 +627,12 @@ public class MCMCPlotsController implements MCMCPlotsControllerInterface {
                 setText(null);
             } else {
                 int blockID = Integer.parseInt(blockIDtext);
-                if (((Analysis) analysis).getMapBlockIDToEnsembles().isEmpty()) {
+                if (analysis.getMapBlockIDToEnsembles().isEmpty()) {
                     setText("Block# " + blockID);
                 } else {
                     setText("Block# " + blockID
-                            + " {BurnIn = " + ((Analysis) analysis).getMapOfBlockIdToModelsBurnCount().get(blockID)
-                            + " of " + ((Analysis) analysis).getMapBlockIDToEnsembles().get(blockID).size() + " models}");
+                            + " {BurnIn = " + analysis.getMapOfBlockIdToModelsBurnCount().get(blockID)
+                            + " of " + analysis.getMapBlockIDToEnsembles().get(blockID).size() + " models}");
                 }
             }
         }
@@ -39,6 +39,7 @@ public class MCMCPlotsWindow {
     public Stage plottingStage;
     public Window plottingWindow;
     private Stage primaryStage;
+    private MCMCPlotsController mcmcPlotsController;
 
     private MCMCPlotsWindow() {
     }
@@ -51,6 +52,7 @@ public class MCMCPlotsWindow {
         plottingStage.setTitle("Tripoli Demo1 of MCMC");
 
         plottingStage.setOnCloseRequest((WindowEvent e) -> {
+            cancelMCMCServices();
             plottingStage.hide();
             plottingStage.setScene(null);
             e.consume();
@@ -60,15 +62,23 @@ public class MCMCPlotsWindow {
     }
 
     public void close() {
+        cancelMCMCServices();
         plottingStage.close();
     }
 
+    private void cancelMCMCServices() {
+        if (null != mcmcPlotsController) {
+            mcmcPlotsController.cancelMCMCServices();
+        }
+    }
+
     public void loadPlotsWindow() {
         if (!plottingStage.isShowing()) {
             try {
                 FXMLLoader loader = new FXMLLoader(getClass().getResource("/org/cirdles/tripoli/gui/dataViews/plots/plotsControllers/MCMCPlots.fxml"));
                 Scene scene = new Scene(loader.load());
                 plottingStage.setScene(scene);
+                mcmcPlotsController = loader.getController();
 
             } catch (IOException iOException) {
                 iOException.printStackTrace();
@@ -80,7 +80,7 @@ public class LinePlot extends AbstractPlot {
         g2d.setStroke(dataColor.color());
         g2d.beginPath();
         boolean startedPlot = false;
-        for (int i = 0; i < xAxisData.length; i++) {
+        for (int i : lineIndicesToDraw(xAxisData, yAxisData, null, false)) {
             if (pointInPlot(xAxisData[i], yAxisData[i])) {
                 if (!startedPlot) {
                     g2d.moveTo(mapX(xAxisData[i]), mapY(yAxisData[i]));
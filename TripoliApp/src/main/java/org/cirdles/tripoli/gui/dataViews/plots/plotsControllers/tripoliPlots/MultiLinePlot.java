@@ -85,7 +85,11 @@ public class MultiLinePlot extends AbstractPlot {
             g2d.setLineDashes(8);
             g2d.beginPath();
             g2d.moveTo(mapX(xData[lineIndex][0]), mapY(yData[lineIndex][0]));
-            for (int i = 0; i < xData[lineIndex].length - (isMarkerInLastLine ? 1 : 0); i++) {
+            int countOfPoints = xData[lineIndex].length - (isMarkerInLastLine ? 1 : 0);
+            for (int i : lineIndicesToDraw(xData[lineIndex], yData[lineIndex], null, false)) {
+                if (i >= countOfPoints) {
+                    break;
+                }
                 if (pointInPlot(xData[lineIndex][i], yData[lineIndex][i])) {
                     // line tracing through points
                     g2d.lineTo(mapX(xData[lineIndex][i]), mapY(yData[lineIndex][i]));
@@ -186,6 +186,9 @@ public class BlockRatioCyclesSessionPlot extends AbstractPlot {
                 if (!mapBlockIdToBlockRatioCyclesRecord.get(blockId).blockIncluded()) {
                     g2d.setFill(Color.RED);
                     g2d.setStroke(Color.RED);
+                } else if (!isCycleIncluded(i)) {
+                    g2d.setFill(Color.GRAY);
+                    g2d.setStroke(Color.GRAY);
                 }
                 double dataX = mapX(xAxisData[i]);
                 double dataY = mapY(yAxisData[i]);
@@ -245,7 +248,7 @@ public class BlockRatioCyclesSessionPlot extends AbstractPlot {
         DescriptiveStatistics descriptiveStatsIncludedCycles = new DescriptiveStatistics();
         for (int i = 0; i < yAxisData.length; i++) {
             int blockID = (i / mapBlockIdToBlockRatioCyclesRecord.get(1).cyclesIncluded().length) + 1;
-            if (mapBlockIdToBlockRatioCyclesRecord.get(blockID).blockIncluded() && (yAxisData[i] != 0)) {
+            if (mapBlockIdToBlockRatioCyclesRecord.get(blockID).blockIncluded() && isCycleIncluded(i) && (yAxisData[i] != 0)) {
                 descriptiveStatsIncludedCycles.addValue(yAxisData[i]);
             }
         }
@@ -257,6 +260,13 @@ public class BlockRatioCyclesSessionPlot extends AbstractPlot {
                         , "\u00B1" + String.format("%8.5g", sessionOneSigma).trim()};
     }
 
+    private boolean isCycleIncluded(int index) {
+        int cyclesPerBlock = blockRatioCyclesSessionRecord.cyclesPerBlock();
+        boolean[] cyclesIncluded = mapBlockIdToBlockRatioCyclesRecord.get((index / cyclesPerBlock) + 1).cyclesIncluded();
+        int cycleIndex = index % cyclesPerBlock;
+        return (cycleIndex >= cyclesIncluded.length) || cyclesIncluded[cycleIndex];
+    }
+
     public void setupPlotContextMenu() {
         // no menu for now
         plotContextMenu = new ContextMenu();
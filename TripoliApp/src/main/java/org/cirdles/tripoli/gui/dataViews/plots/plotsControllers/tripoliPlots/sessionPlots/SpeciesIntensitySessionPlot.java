@@ -7,17 +7,21 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import org.cirdles.tripoli.constants.TripoliConstants;
 import org.cirdles.tripoli.gui.dataViews.plots.AbstractPlot;
+import org.cirdles.tripoli.gui.dataViews.plots.PlotModelPreparation;
 import org.cirdles.tripoli.gui.dataViews.plots.TicGeneratorForAxes;
 import org.cirdles.tripoli.plots.sessionPlots.SpeciesIntensitySessionBuilder;
 
+import java.math.BigDecimal;
+
 import static java.lang.StrictMath.*;
 
 public class SpeciesIntensitySessionPlot extends AbstractPlot {
+    // consecutive integrations closer than this in time belong to the same block
+    private static final double BLOCK_SEPARATION_TIME = 10.0;
     private final SpeciesIntensitySessionBuilder speciesIntensitySessionBuilder;
     private final double[][] dfGain;
     TripoliConstants.IntensityUnits intensityUnits = TripoliConstants.IntensityUnits.COUNTS;
     private double[][] yDataCounts;
-    private double[][] yData;
     private double[][] ampResistance;
     private double[][] baseLine;
     private boolean[] speciesChecked;
@@ -28,6 +32,11 @@ public class SpeciesIntensitySessionPlot extends AbstractPlot {
     private boolean gainCorr;
     private boolean logScale;
     private boolean[] zoomFlagsXY;
+    private RenderModel renderModel;
+    private long preparationGeneration;
+    // rescales requested by preparations superseded before they were applied
+    private boolean reScaleXPending;
+    private boolean reScaleYPending;
 
     private SpeciesIntensitySessionPlot(Rectangle bounds, SpeciesIntensitySessionBuilder speciesIntensitySessionBuilder) {
         super(bounds, 100, 25,
@@ -91,83 +100,151 @@ public class SpeciesIntensitySessionPlot extends AbstractPlot {
         this.zoomFlagsXY = zoomFlagsXY;
     }
 
+    /**
+     * Snapshots the display settings and prepares an immutable render model in the background; the model is
+     * applied and drawn on the FX thread.  Models from superseded preparations are discarded.
+     */
     @Override
     public void preparePanel(boolean reScaleX, boolean reScaleY) {
-        xAxisData = speciesIntensitySessionBuilder.getxData();
-        if (reScaleX) {
-            minX = xAxisData[0];
-            maxX = xAxisData[xAxisData.length - 1];
+        reScaleXPending |= reScaleX;
+        reScaleYPending |= reScaleY;
+        RenderSettings renderSettings = new RenderSettings(
+                speciesChecked.clone(), showFaradays, showPMs, showModels, intensityUnits, baselineCorr, gainCorr, logScale,
+                reScaleXPending, reScaleYPending, minX, maxX, minY, maxY, displayOffsetX, displayOffsetY, plotWidth, plotHeight);
+        long generation = ++preparationGeneration;
+        PlotModelPreparation.prepareInBackground(
+                () -> prepareRenderModel(renderSettings),
+                preparedRenderModel -> {
+                    if (generation == preparationGeneration) {
+                        reScaleXPending = false;
+                        reScaleYPending = false;
+                        applyRenderModel(preparedRenderModel);
+                    }
+                });
+    }
 
-            displayOffsetX = 0.0;
+    private RenderModel prepareRenderModel(RenderSettings renderSettings) {
+        double[] xData = speciesIntensitySessionBuilder.getxData();
+        int[] segmentIds = new int[xData.length];
+        for (int i = 1; i < xData.length; i++) {
+            segmentIds[i] = segmentIds[i - 1] + ((xData[i] - xData[i - 1] < BLOCK_SEPARATION_TIME) ? 0 : 1);
         }
 
-        yData = new double[yDataCounts.length][yDataCounts[0].length];
+        double modelMinX = renderSettings.minX();
+        double modelMaxX = renderSettings.maxX();
+        double modelOffsetX = renderSettings.displayOffsetX();
+        if (renderSettings.reScaleX()) {
+            modelMinX = xData[0];
+            modelMaxX = xData[xData.length - 1];
+            modelOffsetX = 0.0;
+            modelMinX -= 50;//xMarginStretch;
+            modelMaxX += 50;//xMarginStretch;
+        }
 
-        for (int row = 0; row < yData.length; row++) {
+        double[][] yDataPrepared = new double[yDataCounts.length][yDataCounts[0].length];
+        for (int row = 0; row < yDataPrepared.length; row++) {
             int speciesIndex = (row / 4);
-            if (speciesChecked[speciesIndex]) {
-                for (int col = 0; col < yData[0].length; col++) {
-                    yData[row][col] = yDataCounts[row][col];
+            if (renderSettings.speciesChecked()[speciesIndex]) {
+                for (int col = 0; col < yDataPrepared[0].length; col++) {
+                    yDataPrepared[row][col] = yDataCounts[row][col];
                     if (yDataCounts[row][col] != 0.0) {
-                        if (baselineCorr) {
-                            yData[row][col] -= baseLine[row][col];
+                        if (renderSettings.baselineCorr()) {
+                            yDataPrepared[row][col] -= baseLine[row][col];
                         }
 
-                        if ((gainCorr) && (dfGain[row][col] != 0.0)) {
-                            yData[row][col] -= baseLine[row][col];
-                            yData[row][col] /= dfGain[row][col];
+                        if ((renderSettings.gainCorr()) && (dfGain[row][col] != 0.0)) {
+                            yDataPrepared[row][col] -= baseLine[row][col];
+                            yDataPrepared[row][col] /= dfGain[row][col];
                         }
 
-                        if (logScale) {
-                            yData[row][col] = (yData[row][col] > 0.0) ? log(yData[row][col]) : 0.0;
+                        if (renderSettings.logScale()) {
+                            yDataPrepared[row][col] = (yDataPrepared[row][col] > 0.0) ? log(yDataPrepared[row][col]) : 0.0;
                         }
                     }
                 }
             }
         }
 
-        switch (intensityUnits) {
+        String axisLabelY = "Intensity (counts)";
+        switch (renderSettings.intensityUnits()) {
             case VOLTS -> {
-                plotAxisLabelY = "Intensity (volts)";
-                for (int row = 0; row < yData.length; row++) {
-                    yData[row] = TripoliConstants.IntensityUnits.convertFromCountsToVolts(yData[row], ampResistance[row / 4]);
+                axisLabelY = "Intensity (volts)";
+                for (int row = 0; row < yDataPrepared.length; row++) {
+                    yDataPrepared[row] = TripoliConstants.IntensityUnits.convertFromCountsToVolts(yDataPrepared[row], ampResistance[row / 4]);
                 }
             }
             case AMPS -> {
-                plotAxisLabelY = "Intensity (amps)";
-                for (int row = 0; row < yData.length; row++) {
-                    yData[row] = TripoliConstants.IntensityUnits.convertFromCountsToAmps(yData[row]);
+                axisLabelY = "Intensity (amps)";
+                for (int row = 0; row < yDataPrepared.length; row++) {
+                    yDataPrepared[row] = TripoliConstants.IntensityUnits.convertFromCountsToAmps(yDataPrepared[row]);
                 }
             }
-            case COUNTS -> {
-                plotAxisLabelY = "Intensity (counts)";
-            }
         }
 
-        if (reScaleY) {
-            minY = Double.MAX_VALUE;
-            maxY = -Double.MAX_VALUE;
+        double modelMinY = renderSettings.minY();
+        double modelMaxY = renderSettings.maxY();
+        double modelOffsetY = renderSettings.displayOffsetY();
+        if (renderSettings.reScaleY()) {
+            modelMinY = Double.MAX_VALUE;
+            modelMaxY = -Double.MAX_VALUE;
 
-            for (int row = 0; row < yData.length; row++) {
+            for (int row = 0; row < yDataPrepared.length; row++) {
                 int speciesIndex = (row / 4);
-                if (speciesChecked[speciesIndex]) {
-                    boolean plotFaradays = (showFaradays && (row >= speciesIndex * 4) && (row <= speciesIndex * 4 + 1));
-                    boolean plotPMs = (showPMs && (row >= speciesIndex * 4 + 2) && (row <= speciesIndex * 4 + 3));
-                    for (int col = 0; col < yData[row].length; col++) {
-                        if ((yData[row][col] != 0.0) && (plotFaradays || plotPMs)) {
-                            minY = min(minY, yData[row][col]);
-                            maxY = max(maxY, yData[row][col]);
+                if (renderSettings.speciesChecked()[speciesIndex]) {
+                    boolean plotFaradays = (renderSettings.showFaradays() && (row >= speciesIndex * 4) && (row <= speciesIndex * 4 + 1));
+                    boolean plotPMs = (renderSettings.showPMs() && (row >= speciesIndex * 4 + 2) && (row <= speciesIndex * 4 + 3));
+                    for (int col = 0; col < yDataPrepared[row].length; col++) {
+                        if ((yDataPrepared[row][col] != 0.0) && (plotFaradays || plotPMs)) {
+                            modelMinY = min(modelMinY, yDataPrepared[row][col]);
+                            modelMaxY = max(modelMaxY, yDataPrepared[row][col]);
                         }
                     }
                 }
             }
+            double yMarginStretch = TicGeneratorForAxes.generateMarginAdjustment(modelMinY, modelMaxY, 0.01);
+            modelMaxY += yMarginStretch;
+            modelMinY -= yMarginStretch;
 
+            modelOffsetY = 0.0;
+        }
+
+        return new RenderModel(renderSettings, xData, segmentIds, yDataPrepared, axisLabelY,
+                modelMinX, modelMaxX, modelMinY, modelMaxY, modelOffsetX, modelOffsetY,
+                generateTicsX(modelMinX + modelOffsetX, modelMaxX + modelOffsetX, modelMinX, modelMaxX, renderSettings.plotWidth()),
+                generateTicsY(modelMinY + modelOffsetY, modelMaxY + modelOffsetY, modelMinY, modelMaxY, renderSettings.plotHeight()));
+    }
 
-            displayOffsetY = 0.0;
+    private void applyRenderModel(RenderModel preparedRenderModel) {
+        renderModel = preparedRenderModel;
+        RenderSettings renderSettings = renderModel.renderSettings();
+        xAxisData = renderModel.xAxisData();
+        plotAxisLabelY = renderModel.plotAxisLabelY();
+
+        // unless rescaled, the display keeps any zoom or pan made while preparing
+        boolean ticsCurrent = (renderSettings.plotWidth() == plotWidth) && (renderSettings.plotHeight() == plotHeight);
+        if (renderSettings.reScaleX()) {
+            minX = renderModel.minX();
+            maxX = renderModel.maxX();
+            displayOffsetX = renderModel.displayOffsetX();
+        } else {
+            ticsCurrent &= (renderSettings.minX() == minX) && (renderSettings.maxX() == maxX) && (renderSettings.displayOffsetX() == displayOffsetX);
+        }
+        if (renderSettings.reScaleY()) {
+            minY = renderModel.minY();
+            maxY = renderModel.maxY();
+            displayOffsetY = renderModel.displayOffsetY();
+        } else {
+            ticsCurrent &= (renderSettings.minY() == minY) && (renderSettings.maxY() == maxY) && (renderSettings.displayOffsetY() == displayOffsetY);
         }
-        prepareExtents(reScaleX, reScaleY);
 
-        calculateTics();
+        if (ticsCurrent) {
+            ticsX = renderModel.ticsX();
+            ticsY = renderModel.ticsY();
+            zoomChunkX = zoomFlagsXY[0] ? (getDisplayRangeX() / 100.0) : 0.0;
+            zoomChunkY = zoomFlagsXY[1] ? (getDisplayRangeY() / 100.0) : 0.0;
+        } else {
+            calculateTics();
+        }
 
         repaint();
     }
@@ -181,28 +258,22 @@ public class SpeciesIntensitySessionPlot extends AbstractPlot {
 
     @Override
     public void paint(GraphicsContext g2d) {
-        super.paint(g2d);
-    }
-
-    public void prepareExtents(boolean reScaleX, boolean reScaleY) {
-        if (reScaleX) {
-            double xMarginStretch = TicGeneratorForAxes.generateMarginAdjustment(minX, maxX, 0.01);
-            if (0.0 == xMarginStretch) {
-                xMarginStretch = maxX * 0.01;
-            }
-            minX -= 50;//xMarginStretch;
-            maxX += 50;//xMarginStretch;
-        }
-
-        if (reScaleY) {
-            double yMarginStretch = TicGeneratorForAxes.generateMarginAdjustment(minY, maxY, 0.01);
-            maxY += yMarginStretch;
-            minY -= yMarginStretch;
+        if (null == renderModel) {
+            // the limits and tics are not scaled until the first render model is applied
+            paintInit(g2d);
+            showTitle(g2d);
+        } else {
+            super.paint(g2d);
         }
     }
 
     @Override
     public void plotData(GraphicsContext g2d) {
+        if (null == renderModel) {
+            return;
+        }
+        RenderSettings renderSettings = renderModel.renderSettings();
+        double[][] yData = renderModel.yData();
 
         g2d.setFill(dataColor.color());
         g2d.setStroke(dataColor.color());
@@ -211,69 +282,20 @@ public class SpeciesIntensitySessionPlot extends AbstractPlot {
 
         Color[] isotopeColors = {Color.BLUE, Color.GREEN, Color.BLACK, Color.PURPLE, Color.ORANGE};
         for (int isotopePlotSetIndex = 0; isotopePlotSetIndex < yData.length / 4; isotopePlotSetIndex++) {
-            if (speciesChecked[isotopePlotSetIndex]) {
+            if (renderSettings.speciesChecked()[isotopePlotSetIndex]) {
                 // plot PM
-                if (showPMs) {
-                    g2d.setLineDashes(0);
-                    boolean startedPlot = false;
-                    g2d.setFill(isotopeColors[isotopePlotSetIndex]);
-                    g2d.setStroke(isotopeColors[isotopePlotSetIndex]);
-                    for (int i = 0; i < xAxisData.length; i++) {
-                        if ((yData[isotopePlotSetIndex * 4 + 2][i] != 0.0) && pointInPlot(xAxisData[i], yData[isotopePlotSetIndex * 4 + 2][i])) {
-                            double dataX = mapX(xAxisData[i]);
-                            double dataY = mapY(yData[isotopePlotSetIndex * 4 + 2][i]);
-                            g2d.fillOval(dataX - 1.5, dataY - 1.5, 3, 3);
-                        }
-
-                        if (showModels && !gainCorr) {
-                            if ((i < xAxisData.length - 1) && (xAxisData[i + 1] - xAxisData[i] < 10.0)) {
-                                if ((yData[isotopePlotSetIndex * 4 + 3][i] != 0.0) && pointInPlot(xAxisData[i], yData[isotopePlotSetIndex * 4 + 3][i])) {
-                                    if (!startedPlot) {
-                                        g2d.beginPath();
-                                        g2d.moveTo(mapX(xAxisData[i]), mapY(yData[isotopePlotSetIndex * 4 + 3][i]));
-                                        startedPlot = true;
-                                    }
-                                    g2d.lineTo(mapX(xAxisData[i]), mapY(yData[isotopePlotSetIndex * 4 + 3][i]));
-                                }
-                            } else {
-                                startedPlot = false;
-                                g2d.setStroke(Color.AQUAMARINE);
-                                g2d.stroke();
-                            }
-                        }
+                if (renderSettings.showPMs()) {
+                    plotIntensities(g2d, yData[isotopePlotSetIndex * 4 + 2], isotopeColors[isotopePlotSetIndex]);
+                    if (renderSettings.showModels() && !renderSettings.gainCorr()) {
+                        plotModel(g2d, yData[isotopePlotSetIndex * 4 + 3], Color.AQUAMARINE);
                     }
                     g2d.setStroke(isotopeColors[isotopePlotSetIndex]);
                 }
                 // plot Faraday
-                if (showFaradays) {
-                    g2d.setLineDashes(0);
-                    boolean startedPlot = false;
-                    g2d.setFill(isotopeColors[isotopePlotSetIndex]);
-                    g2d.setStroke(isotopeColors[isotopePlotSetIndex]);
-                    for (int i = 0; i < xAxisData.length; i++) {
-                        if ((yData[isotopePlotSetIndex * 4][i] != 0.0) && pointInPlot(xAxisData[i], yData[isotopePlotSetIndex * 4][i])) {
-                            double dataX = mapX(xAxisData[i]);
-                            double dataY = mapY(yData[isotopePlotSetIndex * 4][i]);
-                            g2d.fillOval(dataX - 1.5, dataY - 1.5, 3, 3);
-                        }
-
-                        if (showModels) {
-                            // TODO: make this 10.0 more robust for finding block separations
-                            if ((i < xAxisData.length - 1) && (xAxisData[i + 1] - xAxisData[i] < 10.0)) {
-                                if ((yData[isotopePlotSetIndex * 4 + 1][i] != 0.0) && pointInPlot(xAxisData[i], yData[isotopePlotSetIndex * 4 + 1][i])) {
-                                    if (!startedPlot) {
-                                        g2d.beginPath();
-                                        g2d.moveTo(mapX(xAxisData[i]), mapY(yData[isotopePlotSetIndex * 4 + 1][i]));
-                                        startedPlot = true;
-                                    }
-                                    g2d.lineTo(mapX(xAxisData[i]), mapY(yData[isotopePlotSetIndex * 4 + 1][i]));
-                                }
-                            } else {
-                                startedPlot = false;
-                                g2d.setStroke(Color.RED);
-                                g2d.stroke();
-                            }
-                        }
+                if (renderSettings.showFaradays()) {
+                    plotIntensities(g2d, yData[isotopePlotSetIndex * 4], isotopeColors[isotopePlotSetIndex]);
+                    if (renderSettings.showModels()) {
+                        plotModel(g2d, yData[isotopePlotSetIndex * 4 + 1], Color.RED);
                     }
                     g2d.setStroke(isotopeColors[isotopePlotSetIndex]);
                 }
@@ -281,6 +303,43 @@ public class SpeciesIntensitySessionPlot extends AbstractPlot {
         }
     }
 
+    private void plotIntensities(GraphicsContext g2d, double[] intensities, Color color) {
+        g2d.setLineDashes(0);
+        g2d.setFill(color);
+        g2d.setStroke(color);
+        for (int i : pointIndicesToDraw(xAxisData, intensities, true)) {
+            if ((intensities[i] != 0.0) && pointInPlot(xAxisData[i], intensities[i])) {
+                g2d.fillOval(mapX(xAxisData[i]) - 1.5, mapY(intensities[i]) - 1.5, 3, 3);
+            }
+        }
+    }
+
+    private void plotModel(GraphicsContext g2d, double[] modelIntensities, Color color) {
+        // one path per block, never joining across block separations
+        int[] blockSegmentIds = renderModel.blockSegmentIds();
+        g2d.setStroke(color);
+        boolean startedPlot = false;
+        int currentBlockSegmentId = -1;
+        for (int i : lineIndicesToDraw(xAxisData, modelIntensities, blockSegmentIds, true)) {
+            if (startedPlot && (blockSegmentIds[i] != currentBlockSegmentId)) {
+                g2d.stroke();
+                startedPlot = false;
+            }
+            if ((modelIntensities[i] != 0.0) && pointInPlot(xAxisData[i], modelIntensities[i])) {
+                if (!startedPlot) {
+                    g2d.beginPath();
+                    g2d.moveTo(mapX(xAxisData[i]), mapY(modelIntensities[i]));
+                    startedPlot = true;
+                    currentBlockSegmentId = blockSegmentIds[i];
+                }
+                g2d.lineTo(mapX(xAxisData[i]), mapY(modelIntensities[i]));
+            }
+        }
+        if (startedPlot) {
+            g2d.stroke();
+        }
+    }
+
     @Override
     public void plotStats(GraphicsContext g2d) {
 
@@ -296,4 +355,41 @@ public class SpeciesIntensitySessionPlot extends AbstractPlot {
 
         plotContextMenu.getItems().addAll(plotContextMenuItem1);
     }
-}
\ No newline at end of file
+
+    private record RenderSettings(
+            boolean[] speciesChecked,
+            boolean showFaradays,
+            boolean showPMs,
+            boolean showModels,
+            TripoliConstants.IntensityUnits intensityUnits,
+            boolean baselineCorr,
+            boolean gainCorr,
+            boolean logScale,
+            boolean reScaleX,
+            boolean reScaleY,
+            double minX,
+            double maxX,
+            double minY,
+            double maxY,
+            double displayOffsetX,
+            double displayOffsetY,
+            double plotWidth,
+            double plotHeight) {
+    }
+
+    private record RenderModel(
+            RenderSettings renderSettings,
+            double[] xAxisData,
+            int[] blockSegmentIds,
+            double[][] yData,
+            String plotAxisLabelY,
+            double minX,
+            double maxX,
+            double minY,
+            double maxY,
+            double displayOffsetX,
+            double displayOffsetY,
+            BigDecimal[] ticsX,
+            BigDecimal[] ticsY) {
+    }
+}
@@ -22,6 +22,7 @@ plugins {
     java
     `java-library`
     id("de.jjohannes.extra-java-module-info") version "0.14"
+    id("me.champeau.jmh") version "0.7.1"
     id("common-build") // Plugin calls common gradle build from buildSrc
 }
 
@@ -73,6 +74,8 @@ dependencies {
     testImplementation("com.github.cirdles:commons:bc38781605")
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.2")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.9.2")
+
+    jmh("com.github.cirdles:commons:bc38781605")
 }
 
 
@@ -80,6 +83,31 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Benchmarks live in src/jmh/java; run with: ./gradlew :TripoliCore:jmh [-PjmhIncludes=<regex>]
+// Results (including gc allocation rates) are written as JSON for comparing runs.
+jmh {
+    jmhVersion.set("1.36")
+    if (project.hasProperty("jmhIncludes")) {
+        includes.add(project.property("jmhIncludes").toString())
+    }
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
+// keeps a timestamped copy of each run's results alongside the latest
+val archiveJmhResults by tasks.registering(Copy::class) {
+    from(layout.buildDirectory.file("reports/jmh/results.json"))
+    into(layout.buildDirectory.dir("reports/jmh/archive"))
+    rename { "results-" + SimpleDateFormat("yyyyMMdd-HHmmss").format(Date()) + ".json" }
+}
+tasks.named("jmh") {
+    finalizedBy(archiveJmhResults)
+}
+
 
 val timestamp = {
     SimpleDateFormat("dd MMMM yyyy").format(Date())
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli;
+
+import org.cirdles.commons.util.ResourceExtractor;
+import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
+
+import java.nio.file.Path;
+
+/**
+ * Fixtures for the benchmarks, drawn from the bundled demonstration data.  SyntheticDataset_01 and
+ * SyntheticDataset_12 serve as the small and large block sizes.
+ *
+ * @author James F. Bowring
+ */
+public enum BenchmarkFixtures {
+    ;
+
+    public static final String DATA_SOURCES = "/org/cirdles/tripoli/dataSourceProcessors/dataSources/";
+    public static final String SMALL_SYNTHETIC_BLOCK = "synthetic/twoIsotopeSyntheticData/SyntheticDataset_01.txt";
+    public static final String LARGE_SYNTHETIC_BLOCK = "synthetic/twoIsotopeSyntheticData/SyntheticDataset_12.txt";
+
+    private static final ResourceExtractor RESOURCE_EXTRACTOR = new ResourceExtractor(Tripoli.class);
+
+    /**
+     * @param dataSource path below the bundled data sources folder
+     * @return the extracted file
+     */
+    public static Path extractDataSource(String dataSource) {
+        return RESOURCE_EXTRACTOR.extractResourceAsFile(DATA_SOURCES + dataSource).toPath();
+    }
+
+    /**
+     * @param syntheticDataSource synthetic data file below the bundled data sources folder
+     * @return an analysis with the file's blocks extracted and the synthetic method assigned
+     * @throws Exception if the file cannot be read
+     */
+    public static AnalysisInterface syntheticAnalysis(String syntheticDataSource) throws Exception {
+        AnalysisInterface analysis = AnalysisInterface.initializeNewAnalysis();
+        analysis.extractMassSpecDataFromPath(extractDataSource(syntheticDataSource));
+        return analysis;
+    }
+}
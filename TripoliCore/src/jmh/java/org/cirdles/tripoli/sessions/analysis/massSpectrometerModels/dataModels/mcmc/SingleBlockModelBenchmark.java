@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import jama.Matrix;
+import org.cirdles.tripoli.BenchmarkFixtures;
+import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
+import org.cirdles.tripoli.utilities.mathUtilities.MatLabCholesky;
+import org.ojalgo.RecoverableCondition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-block MCMC hot paths: block preparation, model initialization, the forward model and one adaptive
+ * proposal (covariance draw plus model update).  A full inversion runs to convergence and is left to the
+ * application; these cover the work it repeats.
+ *
+ * @author James F. Bowring
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SingleBlockModelBenchmark {
+
+    private static final int BLOCK_ID = 1;
+
+    @Param({BenchmarkFixtures.SMALL_SYNTHETIC_BLOCK, BenchmarkFixtures.LARGE_SYNTHETIC_BLOCK})
+    public String dataSource;
+
+    private AnalysisInterface analysis;
+    private SingleBlockRawDataSetRecord singleBlockRawDataSetRecord;
+    private SingleBlockModelInitForMCMC.SingleBlockModelRecordWithCov singleBlockModelRecordWithCov;
+    private SingleBlockModelUpdater singleBlockModelUpdater;
+    private double[] zeroMeans;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        analysis = BenchmarkFixtures.syntheticAnalysis(dataSource);
+        singleBlockRawDataSetRecord = SingleBlockModelDriver.prepareSingleBlockDataForMCMC(
+                BLOCK_ID, analysis.getMassSpecExtractedData(), analysis.getAnalysisMethod());
+        singleBlockModelRecordWithCov = SingleBlockModelInitForMCMC.initializeModelForSingleBlockMCMC(
+                analysis.getAnalysisMethod(), singleBlockRawDataSetRecord, true);
+        singleBlockModelUpdater = new SingleBlockModelUpdater();
+        zeroMeans = new double[singleBlockModelRecordWithCov.singleBlockModelRecord().sizeOfModel()];
+    }
+
+    @Benchmark
+    public SingleBlockRawDataSetRecord prepareSingleBlockData() {
+        return SingleBlockModelDriver.prepareSingleBlockDataForMCMC(
+                BLOCK_ID, analysis.getMassSpecExtractedData(), analysis.getAnalysisMethod());
+    }
+
+    @Benchmark
+    public SingleBlockModelInitForMCMC.SingleBlockModelRecordWithCov initializeModel() throws RecoverableCondition {
+        return SingleBlockModelInitForMCMC.initializeModelForSingleBlockMCMC(
+                analysis.getAnalysisMethod(), singleBlockRawDataSetRecord, true);
+    }
+
+    @Benchmark
+    public double[] modelInitData() {
+        return SingleBlockModelInitForMCMC.modelInitData(
+                singleBlockModelRecordWithCov.singleBlockModelRecord(), singleBlockRawDataSetRecord);
+    }
+
+    @Benchmark
+    public SingleBlockModelRecord adaptiveProposal(ProposalOperation proposalOperation) {
+        Matrix delx_adapt_Matrix = MatLabCholesky.mvnrndTripoli(
+                zeroMeans, singleBlockModelRecordWithCov.covarianceMatrix_C0().getArray(), 1).transpose();
+        return singleBlockModelUpdater.updateMSv2(
+                proposalOperation.operation,
+                singleBlockModelRecordWithCov.singleBlockModelRecord(),
+                singleBlockModelRecordWithCov.proposalRangesRecord(),
+                delx_adapt_Matrix.getRowPackedCopy(),
+                true);
+    }
+
+    // only the proposal benchmark is expanded over the update operations
+    @State(Scope.Benchmark)
+    public static class ProposalOperation {
+        @Param({"changer", "changeI", "changedfg", "changebl", "noise"})
+        public String operation;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import org.cirdles.tripoli.BenchmarkFixtures;
+import org.cirdles.tripoli.constants.MassSpectrometerContextEnum;
+import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the synthetic version 1.0 Phoenix data files only; no redistributable version 1.2 file is bundled
+ * (the TIMSDP sample carries sections the version 1.2 parser does not read), so the 1.2 parser is not measured.
+ *
+ * @author James F. Bowring
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PhoenixSyntheticVersion1_0Benchmark {
+
+    @Param({BenchmarkFixtures.SMALL_SYNTHETIC_BLOCK, BenchmarkFixtures.LARGE_SYNTHETIC_BLOCK})
+    public String dataSource;
+
+    private Path dataFilePath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataFilePath = BenchmarkFixtures.extractDataSource(dataSource);
+    }
+
+    @Benchmark
+    public MassSpecExtractedData extractMetaAndBlockData() throws IOException {
+        return PhoenixMassSpec.extractMetaAndBlockDataFromFileVersion_1_0(dataFilePath);
+    }
+
+    @Benchmark
+    public MassSpectrometerContextEnum determineMassSpectrometerContext() throws IOException {
+        return AnalysisInterface.determineMassSpectrometerContextFromDataFile(dataFilePath);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.utilities.mathUtilities;
+
+import jama.Matrix;
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.Primitive64Store;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linear algebra kernels behind the MCMC proposals and peak shape fits.  Sizes span the model sizes of the
+ * bundled data (tens of parameters) up to large multi-isotope blocks.
+ *
+ * @author James F. Bowring
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MathUtilitiesBenchmark {
+
+    @Param({"16", "64", "256"})
+    public int size;
+
+    private double[][] covariance;
+    private double[] zeroMeans;
+    private MatrixStore<Double> nnlsA;
+    private MatrixStore<Double> nnlsB;
+    private MatrixStore<Double> splineX;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(20221);
+
+        Matrix factor = new Matrix(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                factor.set(row, col, random.nextGaussian());
+            }
+        }
+        covariance = factor.times(factor.transpose()).plus(Matrix.identity(size, size).times(size)).getArray();
+        zeroMeans = new double[size];
+
+        int rows = 4 * size;
+        double[][] a = new double[rows][size];
+        double[][] xTrue = new double[size][1];
+        for (int col = 0; col < size; col++) {
+            xTrue[col][0] = (0 == col % 3) ? 0.0 : random.nextDouble();
+            for (int row = 0; row < rows; row++) {
+                a[row][col] = random.nextDouble();
+            }
+        }
+        nnlsA = Primitive64Store.FACTORY.rows(a);
+        nnlsB = nnlsA.multiply(Primitive64Store.FACTORY.rows(xTrue));
+
+        double[][] x = new double[64 * size][1];
+        for (int row = 0; row < x.length; row++) {
+            x[row][0] = (double) row / (x.length - 1);
+        }
+        splineX = Primitive64Store.FACTORY.rows(x);
+    }
+
+    @Benchmark
+    public Matrix cholCov() {
+        return MatLabCholesky.cholCov(new Matrix(covariance));
+    }
+
+    @Benchmark
+    public Matrix mvnrndTripoli() {
+        return MatLabCholesky.mvnrndTripoli(zeroMeans, covariance, 1);
+    }
+
+    @Benchmark
+    public MatrixStore<Double> solveNNLS() throws RecoverableCondition {
+        return MatLab.solveNNLS(nnlsA, nnlsB);
+    }
+
+    @Benchmark
+    public Primitive64Store bBase() {
+        return SplineBasisModel.bBase(splineX, size, 3);
+    }
+}
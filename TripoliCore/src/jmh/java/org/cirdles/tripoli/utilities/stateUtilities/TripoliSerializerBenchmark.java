@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.utilities.stateUtilities;
+
+import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
+import org.cirdles.tripoli.utilities.exceptions.TripoliException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.cirdles.tripoli.BenchmarkFixtures.*;
+
+/**
+ * Persistence of an analysis holding extracted block data, written and read through a scratch file.
+ *
+ * @author James F. Bowring
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TripoliSerializerBenchmark {
+
+    @Param({SMALL_SYNTHETIC_BLOCK, LARGE_SYNTHETIC_BLOCK})
+    public String dataSource;
+
+    private AnalysisInterface analysis;
+    private String fileName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        analysis = syntheticAnalysis(dataSource);
+        File scratchFile = File.createTempFile("tripoliSerializerBenchmark", ".ser");
+        scratchFile.deleteOnExit();
+        fileName = scratchFile.getAbsolutePath();
+        TripoliSerializer.serializeObjectToFile(analysis, fileName);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(new File(fileName).toPath());
+    }
+
+    @Benchmark
+    public void serializeAnalysis() throws TripoliException {
+        TripoliSerializer.serializeObjectToFile(analysis, fileName);
+    }
+
+    @Benchmark
+    public Object deserializeAnalysis() throws TripoliException {
+        return TripoliSerializer.getSerializedObjectFromFile(fileName, false);
+    }
+}
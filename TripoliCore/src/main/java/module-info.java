@@ -25,6 +25,9 @@ module Tripoli.TripoliCore {
     requires commons.lang3;
     requires jakarta.xml.bind;
     requires java.xml.bind;
+    requires java.management;
+    requires jdk.management;
+    requires jdk.jfr;
 
 
     exports org.cirdles.tripoli;
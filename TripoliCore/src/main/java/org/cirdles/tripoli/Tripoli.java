@@ -17,14 +17,13 @@
 package org.cirdles.tripoli;
 
 import org.cirdles.commons.util.ResourceExtractor;
-import org.cirdles.tripoli.utilities.file.TripoliFileResources;
+import org.cirdles.tripoli.utilities.TripoliStartupTimer;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 
 /**
  * @author James F. Bowring
@@ -44,10 +43,8 @@ public enum Tripoli {
         String version = "version";
         String releaseDate = "date";
 
-        Path resourcePath = TRIPOLI_RESOURCE_EXTRACTOR.extractResourceAsPath("version.txt");
-
-        Charset charset = StandardCharsets.UTF_8;
-        try (BufferedReader reader = Files.newBufferedReader(resourcePath, charset)) {
+        // read straight from the classpath; nothing is extracted on the launch path
+        try (BufferedReader reader = openResource("version.txt")) {
             String line = reader.readLine();
             if (null != line) {
                 String[] versionText = line.split("=");
@@ -68,45 +65,29 @@ public enum Tripoli {
         RELEASE_DATE = releaseDate;
 
         // get content for about window
-        resourcePath = TRIPOLI_RESOURCE_EXTRACTOR.extractResourceAsPath("docs/aboutContent.txt");
-        try (BufferedReader reader = Files.newBufferedReader(resourcePath, charset)) {
-            String thisLine;
-            while (null != (thisLine = reader.readLine())) {
-                ABOUT_WINDOW_CONTENT.append(thisLine);
-            }
-        } catch (IOException x) {
-            System.err.format("IOException: %s%n", x);
-        }
+        appendResourceLines("docs/aboutContent.txt", ABOUT_WINDOW_CONTENT);
+        appendResourceLines("docs/contributorsContent.txt", CONTRIBUTORS_CONTENT);
+        appendResourceLines("docs/supportersContent.txt", SUPPORTERS_CONTENT);
 
-        resourcePath = TRIPOLI_RESOURCE_EXTRACTOR.extractResourceAsPath("docs/contributorsContent.txt");
-        try (BufferedReader reader = Files.newBufferedReader(resourcePath, charset)) {
-            String thisLine;
-
-            while (null != (thisLine = reader.readLine())) {
-                CONTRIBUTORS_CONTENT.append(thisLine);
-            }
+        TripoliStartupTimer.markPhase("Tripoli version and about content");
+    }
 
-        } catch (IOException x) {
-            System.err.format("IOException: %s%n", x);
+    private static BufferedReader openResource(String resourceName) throws IOException {
+        InputStream resourceStream = Tripoli.class.getResourceAsStream(resourceName);
+        if (null == resourceStream) {
+            throw new IOException("Missing resource: " + resourceName);
         }
+        return new BufferedReader(new InputStreamReader(resourceStream, StandardCharsets.UTF_8));
+    }
 
-        resourcePath = TRIPOLI_RESOURCE_EXTRACTOR.extractResourceAsPath("docs/supportersContent.txt");
-        try (BufferedReader reader = Files.newBufferedReader(resourcePath, charset)) {
+    private static void appendResourceLines(String resourceName, StringBuilder content) {
+        try (BufferedReader reader = openResource(resourceName)) {
             String thisLine;
-
             while (null != (thisLine = reader.readLine())) {
-                SUPPORTERS_CONTENT.append(thisLine);
+                content.append(thisLine);
             }
-
         } catch (IOException x) {
             System.err.format("IOException: %s%n", x);
         }
-
-        try {
-            TripoliFileResources.initLocalResources();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
     }
 }
\ No newline at end of file
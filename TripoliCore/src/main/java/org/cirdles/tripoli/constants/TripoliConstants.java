@@ -48,6 +48,7 @@ public enum TripoliConstants {
     public static final String DEFAULT_OBJECT_NAME = "NO_NAME";
 
     public static final String TRIPOLI_USERS_DATA_FOLDER_NAME = "TripoliUserData";
+    public static final String TRIPOLI_MCMC_CHECKPOINTS_FOLDER_NAME = "MCMCCheckpoints";
 
 
     public static final String SPACES_100 = CharBuffer.allocate(100).toString().replace('\0', ' ');
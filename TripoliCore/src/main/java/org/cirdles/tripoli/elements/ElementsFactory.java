@@ -16,13 +16,12 @@
 
 package org.cirdles.tripoli.elements;
 
-import org.cirdles.commons.util.ResourceExtractor;
-import org.cirdles.tripoli.Tripoli;
-
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -31,42 +30,48 @@ import java.util.List;
 public enum ElementsFactory {
     ;
 
-    public static List<ElementRecord> periodicTableElementsList = new ArrayList<>();
+    /**
+     * @return the elements of the periodic table, read from the bundled table on first use
+     */
+    public static List<ElementRecord> getPeriodicTableElementsList() {
+        return PeriodicTableHolder.periodicTableElementsList;
+    }
+
+    private static List<ElementRecord> loadPeriodicTableElements() {
+        List<ElementRecord> periodicTableElementsList = new ArrayList<>();
+        try (InputStream periodicTableData = ElementsFactory.class.getResourceAsStream("PeriodicTableOfElements.csv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(periodicTableData, Charset.defaultCharset()))) {
+            // skip header
+            reader.readLine();
+            String line;
+            while (null != (line = reader.readLine())) {
+                String[] lineContents = line.split(",");
+                String elementSymbol = lineContents[2].trim();
+                String elementName = lineContents[1].trim();
+                int atomicNumber = Integer.parseInt(lineContents[0]);
+                double atomicMass = Double.parseDouble(lineContents[3]);
+                int tripoliRow = Integer.parseInt(lineContents[4]);
+                int tripoliCol = Integer.parseInt(lineContents[5]);
 
-    static {
-        ResourceExtractor RESOURCE_EXTRACTOR
-                = new ResourceExtractor(Tripoli.class);
-        Path periodicTableData;
-        List<String> contentsByLine = new ArrayList<>();
-        try {
-            periodicTableData = RESOURCE_EXTRACTOR
-                    .extractResourceAsFile("/org/cirdles/tripoli/elements/PeriodicTableOfElements.csv").toPath();
-            contentsByLine.addAll(Files.readAllLines(periodicTableData, Charset.defaultCharset()));
+                ElementRecord element = new ElementRecord(
+                        elementSymbol,
+                        elementName,
+                        atomicNumber,
+                        atomicMass,
+                        tripoliRow,
+                        tripoliCol
+                );
+                periodicTableElementsList.add(element);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        // remove header
-        contentsByLine.remove(0);
-        for (String line : contentsByLine) {
-            String[] lineContents = line.split(",");
-            String elementSymbol = lineContents[2].trim();
-            String elementName = lineContents[1].trim();
-            int atomicNumber = Integer.parseInt(lineContents[0]);
-            double atomicMass = Double.parseDouble(lineContents[3]);
-            int tripoliRow = Integer.parseInt(lineContents[4]);
-            int tripoliCol = Integer.parseInt(lineContents[5]);
-
-            ElementRecord element = new ElementRecord(
-                    elementSymbol,
-                    elementName,
-                    atomicNumber,
-                    atomicMass,
-                    tripoliRow,
-                    tripoliCol
-            );
-            periodicTableElementsList.add(element);
-        }
+        return Collections.unmodifiableList(periodicTableElementsList);
+    }
 
+    // loaded by the JVM on first access, once and thread safely
+    private static final class PeriodicTableHolder {
+        private static final List<ElementRecord> periodicTableElementsList = loadPeriodicTableElements();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.plots;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Level-of-detail reduction of plotted series.  Buckets sit on a global grid (multiples of the bucket width)
+ * so a reduction computed for one zoom level stays valid while the plot is panned.
+ *
+ * @author James F. Bowring
+ */
+public enum PlotDecimation {
+    ;
+
+    /**
+     * Zoom levels are quantized to half-octaves of bucket width so small scroll-zoom steps reuse a reduction.
+     *
+     * @param dataPerPixel data units spanned by one pixel
+     * @return zoom level
+     */
+    public static int zoomLevel(double dataPerPixel) {
+        return (int) StrictMath.floor(2.0 * StrictMath.log(dataPerPixel) / StrictMath.log(2.0));
+    }
+
+    /**
+     * @param zoomLevel from {@link #zoomLevel(double)}
+     * @return bucket width no wider than one pixel at the zoom level
+     */
+    public static double bucketWidthForZoomLevel(int zoomLevel) {
+        return StrictMath.pow(2.0, zoomLevel / 2.0);
+    }
+
+    /**
+     * M4 reduction for line series: within each run of consecutive samples sharing a bucket (and a segment),
+     * keeps the first, minimum, maximum and last samples so that spikes survive.
+     *
+     * @param xData         abscissae
+     * @param yData         ordinates
+     * @param segmentIds    optional segment per sample; runs never span segments
+     * @param bucketWidth   width of a bucket in x units
+     * @param zeroIsMissing ignore samples whose y is exactly zero
+     * @return ascending indices of retained samples
+     */
+    public static int[] minMaxIndices(double[] xData, double[] yData, int[] segmentIds, double bucketWidth, boolean zeroIsMissing) {
+        int[] retained = new int[Math.min(xData.length, yData.length)];
+        int countRetained = 0;
+
+        int runFirst = -1;
+        int runMin = -1;
+        int runMax = -1;
+        int runLast = -1;
+        long runBucket = 0;
+        for (int i = 0; i < retained.length; i++) {
+            if (zeroIsMissing && (0.0 == yData[i])) {
+                continue;
+            }
+            long bucket = (long) StrictMath.floor(xData[i] / bucketWidth);
+            boolean newRun = (-1 == runFirst)
+                    || (bucket != runBucket)
+                    || ((null != segmentIds) && (segmentIds[i] != segmentIds[runFirst]));
+            if (newRun) {
+                countRetained = appendRun(retained, countRetained, runFirst, runMin, runMax, runLast);
+                runFirst = i;
+                runMin = i;
+                runMax = i;
+                runBucket = bucket;
+            } else {
+                if (yData[i] < yData[runMin]) {
+                    runMin = i;
+                }
+                if (yData[i] > yData[runMax]) {
+                    runMax = i;
+                }
+            }
+            runLast = i;
+        }
+        countRetained = appendRun(retained, countRetained, runFirst, runMin, runMax, runLast);
+
+        return Arrays.copyOf(retained, countRetained);
+    }
+
+    private static int appendRun(int[] retained, int countRetained, int runFirst, int runMin, int runMax, int runLast) {
+        if (-1 != runFirst) {
+            int[] run = {runFirst, Math.min(runMin, runMax), Math.max(runMin, runMax), runLast};
+            for (int index : run) {
+                if ((0 == countRetained) || (retained[countRetained - 1] != index)) {
+                    retained[countRetained++] = index;
+                }
+            }
+        }
+        return countRetained;
+    }
+
+    /**
+     * Reduction for point series: keeps the first sample falling in each cell of the x-y grid, so that
+     * overplotted markers are drawn once.
+     *
+     * @param xData         abscissae
+     * @param yData         ordinates
+     * @param cellWidth     cell width in x units
+     * @param cellHeight    cell height in y units
+     * @param zeroIsMissing ignore samples whose y is exactly zero
+     * @return ascending indices of retained samples
+     */
+    public static int[] occupiedCellIndices(double[] xData, double[] yData, double cellWidth, double cellHeight, boolean zeroIsMissing) {
+        int[] retained = new int[Math.min(xData.length, yData.length)];
+        int countRetained = 0;
+        Set<Long> occupiedCells = new HashSet<>();
+        long currentColumn = Long.MIN_VALUE;
+        for (int i = 0; i < retained.length; i++) {
+            if (zeroIsMissing && (0.0 == yData[i])) {
+                continue;
+            }
+            long column = (long) StrictMath.floor(xData[i] / cellWidth);
+            if (column != currentColumn) {
+                // samples are time ordered, so cells of earlier columns are not revisited
+                occupiedCells.clear();
+                currentColumn = column;
+            }
+            if (occupiedCells.add((long) StrictMath.floor(yData[i] / cellHeight))) {
+                retained[countRetained++] = i;
+            }
+        }
+
+        return Arrays.copyOf(retained, countRetained);
+    }
+
+    /**
+     * @param xData    abscissae, non-decreasing
+     * @param retained ascending indices into xData
+     * @param minX     left edge of the display
+     * @param maxX     right edge of the display
+     * @return the retained indices inside [minX, maxX] plus one neighbour on each side for line continuity
+     */
+    public static int[] visibleIndices(double[] xData, int[] retained, double minX, double maxX) {
+        int first = lowerBound(xData, retained, minX);
+        int last = lowerBound(xData, retained, Math.nextUp(maxX));
+        first = Math.max(0, first - 1);
+        last = Math.min(retained.length, last + 1);
+        return Arrays.copyOfRange(retained, first, Math.max(first, last));
+    }
+
+    private static int lowerBound(double[] xData, int[] retained, double value) {
+        int low = 0;
+        int high = retained.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (xData[retained[middle]] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param xData abscissae
+     * @return true if xData never decreases
+     */
+    public static boolean isNonDecreasing(double[] xData) {
+        for (int i = 1; i < xData.length; i++) {
+            if (xData[i] < xData[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,5 +1,7 @@
 package org.cirdles.tripoli.plots.compoundPlots;
 
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
 import java.io.Serializable;
 
 public record BlockRatioCyclesRecord(
@@ -28,4 +30,31 @@ public record BlockRatioCyclesRecord(
                 yAxisLabel
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Block statistics are re-derived from the cycle means alone, in O(cycles).
+     *
+     * @param cyclesIncluded cycles contributing to the block statistics
+     * @return record with those cycles included
+     */
+    public BlockRatioCyclesRecord withCyclesIncluded(boolean[] cyclesIncluded) {
+        DescriptiveStatistics descriptiveStatisticsRatios = new DescriptiveStatistics();
+        for (int index = 0; index < cycleRatioMeansData.length; index++) {
+            if (cyclesIncluded[index]) {
+                descriptiveStatisticsRatios.addValue(cycleRatioMeansData[index]);
+            }
+        }
+        return new BlockRatioCyclesRecord(
+                blockID,
+                blockIncluded,
+                cyclesIncluded.clone(),
+                cycleRatioMeansData,
+                cycleRatioOneSigmaData,
+                descriptiveStatisticsRatios.getMean(),
+                descriptiveStatisticsRatios.getStandardDeviation(),
+                title,
+                xAxisLabel,
+                yAxisLabel
+        );
+    }
+}
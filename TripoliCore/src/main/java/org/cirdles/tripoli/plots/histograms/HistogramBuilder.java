@@ -16,7 +16,6 @@
 
 package org.cirdles.tripoli.plots.histograms;
 
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.cirdles.tripoli.plots.PlotBuilder;
 
 import java.io.Serial;
@@ -43,46 +42,14 @@ public class HistogramBuilder extends PlotBuilder {
     }
 
     protected HistogramRecord generateHistogram(int blockID, double[] data, int binCount, String[] title, String xAxisLabel) {
-        DescriptiveStatistics descriptiveStatisticsRatios = new DescriptiveStatistics();
-        for (int index = 0; index < data.length; index++) {
-            descriptiveStatisticsRatios.addValue(data[index]);
-        }
-        double dataMax = descriptiveStatisticsRatios.getMax();
-        double dataMin = descriptiveStatisticsRatios.getMin();
-
-        double[] binCounts = new double[binCount];
-        double binWidth = (dataMax - dataMin) / binCount;
-
-        for (int index = 0; index < data.length; index++) {
-            double datum = data[index];
-            if (0.0 != datum) { //ignore 0s here
-                int binNum = Math.min((int) Math.floor(Math.abs((datum - dataMin * 1.000000001) / binWidth)), binCount - 1);
-                try {
-                    binCounts[binNum]++;
-                } catch (Exception eHist) {
-                    System.err.println(eHist.getMessage());
-                }
-            }
-        }
-
-        double[] binCenters = new double[binCount];
-        for (int binIndex = 0; binIndex < binCount; binIndex++) {
-            binCenters[binIndex] = dataMin + (binIndex + 0.5) * binWidth;
-        }
+        return HistogramKernel.generateHistogram(blockID, data, binCount, title, xAxisLabel, yAxisLabel);
+    }
 
-        return new HistogramRecord(
-                blockID,
-                data,
-                descriptiveStatisticsRatios.getMean(),
-                descriptiveStatisticsRatios.getStandardDeviation(),
-                binCount,
-                binCounts,
-                binWidth,
-                binCenters,
-                title,
-                xAxisLabel,
-                yAxisLabel
-        );
+    /**
+     * @param binCount new bin count
+     */
+    public void rebin(int binCount) {
+        histogramRecord = HistogramKernel.rebinHistogram(histogramRecord, binCount);
     }
 
     public HistogramRecord getHistogramRecord() {
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.plots.histograms;
+
+/**
+ * Fused histogram and moments kernel.  The first pass finds the extents and sum; the second accumulates the mean
+ * correction, the requested bins and a set of fine bins from which other bin counts dividing
+ * {@link #FINE_BIN_COUNT} are re-binned without revisiting the data; the third takes the deviations about the
+ * corrected mean for the standard deviation.  Bin counts dividing
+ * {@link #FINE_BIN_COUNT} are binned as groups of fine bins, so direct binning and re-binning agree exactly.
+ *
+ * @author James F. Bowring
+ */
+public enum HistogramKernel {
+    ;
+
+    public static final int FINE_BIN_COUNT = 200;
+    // scales the minimum away from zero, slightly above a positive minimum and below a negative one; bin indices
+    // use the absolute offset from this origin, so the minimum falls in the first bin either way
+    private static final double BIN_ORIGIN_FACTOR = 1.000000001;
+
+    public static HistogramRecord generateHistogram(
+            int blockID, double[] data, int binCount, String[] title, String xAxisLabel, String yAxisLabel) {
+        int countOfData = data.length;
+        double dataMin = Double.NaN;
+        double dataMax = Double.NaN;
+        double sum = 0.0;
+        if (0 < countOfData) {
+            dataMin = data[0];
+            dataMax = data[0];
+            for (double datum : data) {
+                dataMin = Math.min(dataMin, datum);
+                dataMax = Math.max(dataMax, datum);
+                sum += datum;
+            }
+        }
+        double uncorrectedMean = sum / countOfData;
+
+        double[] binCounts = new double[binCount];
+        int[] fineBinCounts = new int[FINE_BIN_COUNT];
+        double binWidth = (dataMax - dataMin) / binCount;
+        double fineBinWidth = (dataMax - dataMin) / FINE_BIN_COUNT;
+        double binOrigin = dataMin * BIN_ORIGIN_FACTOR;
+        int fineBinsPerBin = ((0 < binCount) && (0 == FINE_BIN_COUNT % binCount)) ? FINE_BIN_COUNT / binCount : 0;
+        double sumOfDeviations = 0.0;
+        for (double datum : data) {
+            sumOfDeviations += datum - uncorrectedMean;
+            if (0.0 != datum) { //ignore 0s here
+                int fineBinIndex = binIndex(datum, binOrigin, fineBinWidth, FINE_BIN_COUNT);
+                fineBinCounts[fineBinIndex]++;
+                if (0 < fineBinsPerBin) {
+                    binCounts[fineBinIndex / fineBinsPerBin]++;
+                } else if (0 < binCount) {
+                    binCounts[binIndex(datum, binOrigin, binWidth, binCount)]++;
+                }
+            }
+        }
+
+        double mean = correctedMean(countOfData, uncorrectedMean, sumOfDeviations);
+
+        return new HistogramRecord(
+                blockID,
+                data,
+                mean,
+                standardDeviation(data, mean),
+                binCount,
+                binCounts,
+                binWidth,
+                binCenters(dataMin, binWidth, binCount),
+                title,
+                xAxisLabel,
+                yAxisLabel,
+                fineBinCounts
+        );
+    }
+
+    /**
+     * Re-bins from the fine bins when the bin count divides {@link #FINE_BIN_COUNT}, otherwise from the data.
+     *
+     * @param histogramRecord existing histogram
+     * @param binCount        new bin count
+     * @return the histogram with the new bin count
+     */
+    public static HistogramRecord rebinHistogram(HistogramRecord histogramRecord, int binCount) {
+        int[] fineBinCounts = histogramRecord.fineBinCounts();
+        if ((null == fineBinCounts) || (0 >= binCount) || (0 != (FINE_BIN_COUNT % binCount)) || (0 == histogramRecord.binCount())) {
+            return generateHistogram(histogramRecord.blockID(), histogramRecord.data(), binCount,
+                    histogramRecord.title(), histogramRecord.xAxisLabel(), histogramRecord.yAxisLabel());
+        }
+
+        int fineBinsPerBin = FINE_BIN_COUNT / binCount;
+        double[] binCounts = new double[binCount];
+        for (int fineBinIndex = 0; fineBinIndex < FINE_BIN_COUNT; fineBinIndex++) {
+            binCounts[fineBinIndex / fineBinsPerBin] += fineBinCounts[fineBinIndex];
+        }
+        double dataMin = histogramRecord.binCenters()[0] - 0.5 * histogramRecord.binWidth();
+        double binWidth = histogramRecord.binWidth() * histogramRecord.binCount() / binCount;
+
+        return new HistogramRecord(
+                histogramRecord.blockID(),
+                histogramRecord.data(),
+                histogramRecord.mean(),
+                histogramRecord.standardDeviation(),
+                binCount,
+                binCounts,
+                binWidth,
+                binCenters(dataMin, binWidth, binCount),
+                histogramRecord.title(),
+                histogramRecord.xAxisLabel(),
+                histogramRecord.yAxisLabel(),
+                fineBinCounts
+        );
+    }
+
+    /**
+     * Corrected two-pass mean and bias-corrected standard deviation about that mean, as reported by Commons-Math descriptive statistics.
+     *
+     * @param values the values
+     * @return {mean, standard deviation}; NaN when empty
+     */
+    public static double[] meanAndStandardDeviation(double[] values) {
+        int countOfValues = values.length;
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        double uncorrectedMean = sum / countOfValues;
+        double sumOfDeviations = 0.0;
+        for (double value : values) {
+            sumOfDeviations += value - uncorrectedMean;
+        }
+        double mean = correctedMean(countOfValues, uncorrectedMean, sumOfDeviations);
+        return new double[]{mean, standardDeviation(values, mean)};
+    }
+
+    private static int binIndex(double datum, double binOrigin, double binWidth, int binCount) {
+        // NaN widths (a single distinct value) cast to bin 0, infinite quotients clamp to the last bin
+        return Math.min((int) Math.floor(Math.abs((datum - binOrigin) / binWidth)), binCount - 1);
+    }
+
+    private static double correctedMean(int countOfValues, double uncorrectedMean, double sumOfDeviations) {
+        return (0 == countOfValues) ? Double.NaN : uncorrectedMean + sumOfDeviations / countOfValues;
+    }
+
+    private static double standardDeviation(double[] values, double mean) {
+        int countOfValues = values.length;
+        double standardDeviation = Double.NaN;
+        if (1 == countOfValues) {
+            standardDeviation = 0.0;
+        } else if (1 < countOfValues) {
+            // deviations about the corrected mean, as Commons-Math Variance takes them
+            double sumOfDeviations = 0.0;
+            double sumOfSquaredDeviations = 0.0;
+            for (double value : values) {
+                double deviation = value - mean;
+                sumOfDeviations += deviation;
+                sumOfSquaredDeviations += deviation * deviation;
+            }
+            double variance = (sumOfSquaredDeviations - sumOfDeviations * sumOfDeviations / countOfValues) / (countOfValues - 1);
+            standardDeviation = Math.sqrt(variance);
+        }
+        return standardDeviation;
+    }
+
+    private static double[] binCenters(double dataMin, double binWidth, int binCount) {
+        double[] binCenters = new double[binCount];
+        for (int binIndex = 0; binIndex < binCount; binIndex++) {
+            binCenters[binIndex] = dataMin + (binIndex + 0.5) * binWidth;
+        }
+        return binCenters;
+    }
+}
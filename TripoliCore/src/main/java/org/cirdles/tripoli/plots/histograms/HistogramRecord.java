@@ -13,6 +13,7 @@ public record HistogramRecord(
         double[] binCenters,
         String[] title,
         String xAxisLabel,
-        String yAxisLabel
+        String yAxisLabel,
+        int[] fineBinCounts
 ) implements Serializable {
 }
\ No newline at end of file
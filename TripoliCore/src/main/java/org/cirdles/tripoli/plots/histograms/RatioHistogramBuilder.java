@@ -47,6 +47,14 @@ public class RatioHistogramBuilder extends HistogramBuilder {
         return ratioHistogramBuilder;
     }
 
+    @Override
+    public void rebin(int binCount) {
+        super.rebin(binCount);
+        invertedRatioHistogramRecord = HistogramKernel.rebinHistogram(invertedRatioHistogramRecord, binCount);
+        logRatioHistogramRecord = HistogramKernel.rebinHistogram(logRatioHistogramRecord, binCount);
+        logInvertedRatioHistogramRecord = HistogramKernel.rebinHistogram(logInvertedRatioHistogramRecord, binCount);
+    }
+
     public HistogramRecord getInvertedRatioHistogramRecord() {
         return invertedRatioHistogramRecord;
     }
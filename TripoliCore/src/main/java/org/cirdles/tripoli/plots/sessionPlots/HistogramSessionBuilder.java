@@ -16,11 +16,10 @@
 
 package org.cirdles.tripoli.plots.sessionPlots;
 
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.cirdles.tripoli.plots.PlotBuilder;
+import org.cirdles.tripoli.plots.histograms.HistogramKernel;
 import org.cirdles.tripoli.plots.histograms.HistogramRecord;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -51,22 +50,19 @@ public class HistogramSessionBuilder extends PlotBuilder {
     }
 
     private HistogramSessionRecord generateHistogramSession(List<HistogramRecord> histogramRecords) {
-        List<Double> blockIdList = new ArrayList<>();
-        List<Double> histogramMeans = new ArrayList<>();
-        List<Double> histogramOneSigma = new ArrayList<>();
-        DescriptiveStatistics descriptiveStatisticsRatiosByBlock = new DescriptiveStatistics();
+        double[] blockIds = new double[histogramRecords.size()];
+        double[] blockMeans = new double[histogramRecords.size()];
+        double[] blockOneSigmas = new double[histogramRecords.size()];
 
         Map<Integer, HistogramRecord> mapBlockIdToHistogramRecord = new TreeMap<>();
-        for (HistogramRecord histogramRecord : histogramRecords) {
+        for (int index = 0; index < blockIds.length; index++) {
+            HistogramRecord histogramRecord = histogramRecords.get(index);
             mapBlockIdToHistogramRecord.put(histogramRecord.blockID(), histogramRecord);
-            blockIdList.add((double) histogramRecord.blockID());
-            histogramMeans.add(histogramRecord.mean());
-            descriptiveStatisticsRatiosByBlock.addValue(histogramRecord.mean());
-            histogramOneSigma.add(histogramRecord.standardDeviation());
+            blockIds[index] = histogramRecord.blockID();
+            blockMeans[index] = histogramRecord.mean();
+            blockOneSigmas[index] = histogramRecord.standardDeviation();
         }
-        double[] blockIds = blockIdList.stream().mapToDouble(d -> d).toArray();
-        double[] blockMeans = histogramMeans.stream().mapToDouble(d -> d).toArray();
-        double[] blockOneSigmas = histogramOneSigma.stream().mapToDouble(d -> d).toArray();
+        double[] meanAndStandardDeviationByBlock = HistogramKernel.meanAndStandardDeviation(blockMeans);
 
         return new HistogramSessionRecord(
                 blockCount,
@@ -74,8 +70,8 @@ public class HistogramSessionBuilder extends PlotBuilder {
                 blockIds,
                 blockMeans,
                 blockOneSigmas,
-                descriptiveStatisticsRatiosByBlock.getMean(),
-                descriptiveStatisticsRatiosByBlock.getStandardDeviation(),
+                meanAndStandardDeviationByBlock[0],
+                meanAndStandardDeviationByBlock[1],
                 title,
                 "Block Number",
                 "Ratio"
@@ -17,127 +17,103 @@
 package org.cirdles.tripoli.sessions;
 
 import jakarta.xml.bind.JAXBException;
-import org.cirdles.commons.util.ResourceExtractor;
-import org.cirdles.tripoli.Tripoli;
 import org.cirdles.tripoli.sessions.analysis.Analysis;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
 import org.cirdles.tripoli.utilities.exceptions.TripoliException;
+import org.cirdles.tripoli.utilities.file.TripoliFileResources;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Path;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.*;
+import java.util.function.Supplier;
 
 import static org.cirdles.tripoli.constants.TripoliConstants.SYNTHETIC_DATA_FOLDER_2ISOTOPE;
 
 /**
+ * Builtin sessions are described here and built only when first requested, so neither the application nor a
+ * headless run pays for parsing demonstration data it never opens.  A session's analyses load in parallel.
+ *
  * @author James F. Bowring
  */
 public enum SessionBuiltinFactory {
     ;
 
-    public static final Map<String, Session> sessionsBuiltinMap = new TreeMap<>();
-    private static final ResourceExtractor RESOURCE_EXTRACTOR = new ResourceExtractor(Tripoli.class);
     public static String TRIPOLI_DEMONSTRATION_SESSION = "Tripoli Demonstration Session";
 
-    static {
-        Session tripoliDemonstrationSession = Session.initializeSession(TRIPOLI_DEMONSTRATION_SESSION);
-        tripoliDemonstrationSession.setAnalystName("Team Tripoli");
-        tripoliDemonstrationSession.setMutable(false);
-        sessionsBuiltinMap.put(tripoliDemonstrationSession.getSessionName(), tripoliDemonstrationSession);
-
-        Analysis fiveIsotopes_12 = AnalysisInterface.initializeAnalysis("5 Isotope Demo_12", null, "5 Isotopes of Pb 12");
-        Path dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_12.txt");
-        try {
-            fiveIsotopes_12.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
-        }
-        tripoliDemonstrationSession.addAnalysis(fiveIsotopes_12);
-
-        Analysis twoIsotopes_01 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_01", null, "Two Isotopes of Pb 01");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_01.txt");
-        try {
-            twoIsotopes_01.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
-        }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_01);
-
-        Analysis twoIsotopes_02 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_02", null, "Two Isotopes of Pb 02");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_02.txt");
-        try {
-            twoIsotopes_02.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
-        }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_02);
+    private static final List<BuiltinAnalysisDescriptor> tripoliDemonstrationAnalyses = List.of(
+            new BuiltinAnalysisDescriptor("5 Isotope Demo_12", "5 Isotopes of Pb 12", "SyntheticDataset_12.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_01", "Two Isotopes of Pb 01", "SyntheticDataset_01.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_02", "Two Isotopes of Pb 02", "SyntheticDataset_02.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_03", "Two Isotopes of Pb 03", "SyntheticDataset_03.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_04", "Two Isotopes of Pb 04", "SyntheticDataset_04.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_05", "Two Isotopes of Pb 05", "SyntheticDataset_05.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_06", "Two Isotopes of Pb 06", "SyntheticDataset_06.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_07", "Two Isotopes of Pb 07", "SyntheticDataset_07.txt"),
+            new BuiltinAnalysisDescriptor("Two Isotope Demo_08", "Two Isotopes of Pb 08", "SyntheticDataset_08.txt"));
+
+    private static final Map<String, Supplier<Session>> sessionsBuiltinLoaders = Map.of(
+            TRIPOLI_DEMONSTRATION_SESSION, () -> loadBuiltinSession(TRIPOLI_DEMONSTRATION_SESSION, "Team Tripoli", tripoliDemonstrationAnalyses));
+    private static final Map<String, Session> sessionsBuiltinMap = new TreeMap<>();
+
+    /**
+     * @return names of the builtin sessions, without loading any of them
+     */
+    public static Set<String> getBuiltinSessionNames() {
+        return new TreeSet<>(sessionsBuiltinLoaders.keySet());
+    }
 
-        Analysis twoIsotopes_03 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_03", null, "Two Isotopes of Pb 03");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_03.txt");
-        try {
-            twoIsotopes_03.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
+    /**
+     * @param sessionName name of a builtin session
+     * @return the session, loaded on the first request; null if there is no such builtin session
+     */
+    public static synchronized Session getBuiltinSession(String sessionName) {
+        Session session = sessionsBuiltinMap.get(sessionName);
+        Supplier<Session> sessionLoader = sessionsBuiltinLoaders.get(sessionName);
+        if ((null == session) && (null != sessionLoader)) {
+            session = sessionLoader.get();
+            sessionsBuiltinMap.put(sessionName, session);
         }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_03);
+        return session;
+    }
 
-        Analysis twoIsotopes_04 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_04", null, "Two Isotopes of Pb 04");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_04.txt");
-        try {
-            twoIsotopes_04.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
-        }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_04);
+    private static Session loadBuiltinSession(String sessionName, String analystName, List<BuiltinAnalysisDescriptor> analysisDescriptors) {
+        Session builtinSession = Session.initializeSession(sessionName);
+        builtinSession.setAnalystName(analystName);
+        builtinSession.setMutable(false);
 
-        Analysis twoIsotopes_05 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_05", null, "Two Isotopes of Pb 05");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_05.txt");
+        // the synthetic data files are copied out in the background at startup
         try {
-            twoIsotopes_05.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
+            TripoliFileResources.awaitLocalResources();
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_05);
 
-        Analysis twoIsotopes_06 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_06", null, "Two Isotopes of Pb 06");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_06.txt");
-        try {
-            twoIsotopes_06.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
+        // parallel extraction; the ordered list keeps the analyses in their described order
+        List<Analysis> analyses = analysisDescriptors.parallelStream().map(BuiltinAnalysisDescriptor::loadAnalysis).toList();
+        for (Analysis analysis : analyses) {
+            builtinSession.addAnalysis(analysis);
         }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_06);
 
-        Analysis twoIsotopes_07 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_07", null, "Two Isotopes of Pb 07");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_07.txt");
-        try {
-            twoIsotopes_07.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
-        }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_07);
+        return builtinSession;
+    }
 
-        Analysis twoIsotopes_08 = AnalysisInterface.initializeAnalysis("Two Isotope Demo_08", null, "Two Isotopes of Pb 08");
-        dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + "SyntheticDataset_08.txt");
-        try {
-            twoIsotopes_08.extractMassSpecDataFromPath(dataFilePath);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
-                 JAXBException | TripoliException e) {
-            // do nothing
+    record BuiltinAnalysisDescriptor(
+            String analysisName,
+            String analysisSampleName,
+            String syntheticDataFileName) {
+
+        Analysis loadAnalysis() {
+            Analysis analysis = AnalysisInterface.initializeAnalysis(analysisName, null, analysisSampleName);
+            Path dataFilePath = Path.of(SYNTHETIC_DATA_FOLDER_2ISOTOPE.getAbsolutePath() + File.separator + syntheticDataFileName);
+            try {
+                analysis.extractMassSpecDataFromPath(dataFilePath);
+            } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | IOException |
+                     JAXBException | TripoliException e) {
+                // do nothing
+            }
+            return analysis;
         }
-        tripoliDemonstrationSession.addAnalysis(twoIsotopes_08);
-
-
     }
-}
\ No newline at end of file
+}
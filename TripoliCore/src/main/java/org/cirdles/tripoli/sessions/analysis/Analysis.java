@@ -16,31 +16,39 @@
 
 package org.cirdles.tripoli.sessions.analysis;
 
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
 import org.cirdles.tripoli.constants.MassSpectrometerContextEnum;
 import org.cirdles.tripoli.plots.PlotBuilder;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.*;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.peakShapes.SingleBlockPeakDriver;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MappedBlocksMap;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecDataFileReader;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecExtractedData;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.DetectorSetupBuiltinModelFactory;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethodBuiltinFactory;
-import org.cirdles.tripoli.sessions.analysis.methods.machineMethods.phoenixMassSpec.PhoenixAnalysisMethod;
+import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethodCache;
 import org.cirdles.tripoli.utilities.IntuitiveStringComparator;
+import org.cirdles.tripoli.utilities.callbacks.ImportProgressCallbackInterface;
 import org.cirdles.tripoli.utilities.callbacks.LoggingCallbackInterface;
 import org.cirdles.tripoli.utilities.exceptions.TripoliException;
 import org.cirdles.tripoli.utilities.stateUtilities.TripoliPersistentState;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,6 +57,7 @@ import static org.cirdles.tripoli.constants.MassSpectrometerContextEnum.UNKNOWN;
 import static org.cirdles.tripoli.constants.TripoliConstants.*;
 import static org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethodBuiltinFactory.BURDICK_BL_SYNTHETIC_DATA;
 import static org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethodBuiltinFactory.KU_204_5_6_7_8_DALY_ALL_FARADAY_PB;
+import static org.cirdles.tripoli.utilities.callbacks.ImportProgressCallbackInterface.ImportStage.*;
 
 /**
  * @author James F. Bowring
@@ -61,15 +70,25 @@ public class Analysis implements Serializable, AnalysisInterface {
     private static final long serialVersionUID = 5737165372498262402L;
 
 
-    private final Map<Integer, PlotBuilder[][]> mapOfBlockIdToPlots = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, PlotBuilder[]> mapOfBlockIdToPeakPlots = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, String> mapOfBlockToLogs = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, Integer> mapOfBlockIdToProcessStatus = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, List<File>> blockPeakGroups = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, Integer> mapOfBlockIdToModelsBurnCount = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, List<EnsemblesStore.EnsembleRecord>> mapBlockIDToEnsembles = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, SingleBlockRawDataSetRecord> mapOfBlockIdToRawData = Collections.synchronizedSortedMap(new TreeMap<>());
-    private final Map<Integer, SingleBlockModelRecord> mapOfBlockIdToFinalModel = Collections.synchronizedSortedMap(new TreeMap<>());
+    private final Map<Integer, PlotBuilder[][]> mapOfBlockIdToPlots = new ConcurrentSkipListMap<>();
+    private final Map<Integer, PlotBuilder[]> mapOfBlockIdToPeakPlots = new ConcurrentSkipListMap<>();
+    private final Map<Integer, String> mapOfBlockToLogs = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Integer> mapOfBlockIdToProcessStatus = new ConcurrentSkipListMap<>();
+    private final Map<Integer, List<File>> blockPeakGroups = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Integer> mapOfBlockIdToModelsBurnCount = new ConcurrentSkipListMap<>();
+    private final Map<Integer, List<EnsemblesStore.EnsembleRecord>> mapBlockIDToEnsembles = new ConcurrentSkipListMap<>();
+    // prepared data of the blocks run through MCMC; rebuilt per block from the source data on first access after
+    // a load rather than persisted, so sessions saved with an older record layout still load
+    private transient Map<Integer, SingleBlockRawDataSetRecord> mapOfBlockIdToRawData = new ConcurrentSkipListMap<>();
+    private final Map<Integer, SingleBlockModelRecord> mapOfBlockIdToFinalModel = new ConcurrentSkipListMap<>();
+    // prepared block data is rebuilt on demand and never persisted
+    private transient SingleBlockRawDataSetCache singleBlockRawDataSetCache;
+    // per-block contributions to session plots, likewise rebuilt on demand
+    private transient SessionAggregator sessionAggregator;
+    // at most one plot build per block is in flight; concurrent requests for the same block share its result
+    private transient Map<Integer, FutureTask<PlotBuilder[][]>> mapOfBlockIdToPlotsInProgress;
+    private transient Map<Integer, FutureTask<PlotBuilder[]>> mapOfBlockIdToPeakPlotsInProgress;
+    private transient Map<Integer, MCMCProcess> mapOfBlockIdToRunningMCMCProcess;
     private String analysisName;
     private String analystName;
     private String labName;
@@ -80,6 +99,8 @@ public class Analysis implements Serializable, AnalysisInterface {
     private String dataFilePathString;
     private MassSpecExtractedData massSpecExtractedData;
     private boolean mutable;
+    // cycles included in each block's statistics; null in sessions saved before cycles could be excluded
+    private Map<Integer, boolean[]> mapOfBlockIdToCyclesIncluded;
 
     private Analysis() {
     }
@@ -106,16 +127,58 @@ public class Analysis implements Serializable, AnalysisInterface {
 
     public void extractMassSpecDataFromPath(Path dataFilePath)
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException, IOException, JAXBException, TripoliException {
+        extractMassSpecDataFromPath(dataFilePath, (importStage, extractedData) -> {
+        });
+    }
+
+    /**
+     * Imports a data file in stages, reporting each one to the callback on the importing thread.  Interrupting
+     * that thread cancels the import with an {@link InterruptedIOException}; this analysis is left as it was
+     * unless the blocks have already been indexed.
+     *
+     * @param dataFilePath           data file
+     * @param importProgressCallback receives each completed stage
+     */
+    public void extractMassSpecDataFromPath(Path dataFilePath, ImportProgressCallbackInterface importProgressCallback)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException, IOException, JAXBException, TripoliException {
+        MassSpectrometerContextEnum massSpectrometerContext;
+        MassSpecExtractedData extractedData;
+        // one read of the file: the context is sniffed from the header and the parser streams the same reader
+        try (BufferedReader dataFileReader = MassSpecDataFileReader.openDataFile(dataFilePath)) {
+            massSpectrometerContext = AnalysisInterface.determineMassSpectrometerContextFromDataFile(dataFileReader);
+            if (0 != massSpectrometerContext.compareTo(UNKNOWN)) {
+                MassSpecExtractedData headerData = MassSpecDataFileReader.peekHeader(dataFileReader);
+                headerData.setMassSpectrometerContext(massSpectrometerContext);
+                importProgressCallback.receiveImportProgress(HEADER_PARSED, headerData);
+                throwIfImportInterrupted(dataFilePath);
+
+                Class<?> clazz = massSpectrometerContext.getClazz();
+                Method method = clazz.getMethod(massSpectrometerContext.getMethodName(), BufferedReader.class);
+                try {
+                    extractedData = (MassSpecExtractedData) method.invoke(null, dataFileReader);
+                } catch (InvocationTargetException e) {
+                    // an interrupt closes the file channel under the parser
+                    throwIfImportInterrupted(dataFilePath);
+                    throw e;
+                }
+            } else {
+                extractedData = new MassSpecExtractedData();
+                importProgressCallback.receiveImportProgress(HEADER_PARSED, extractedData);
+            }
+        }
+        extractedData.setMassSpectrometerContext(massSpectrometerContext);
+        throwIfImportInterrupted(dataFilePath);
+
         dataFilePathString = dataFilePath.toString();
-        MassSpectrometerContextEnum massSpectrometerContext = AnalysisInterface.determineMassSpectrometerContextFromDataFile(dataFilePath);
-        if (0 != massSpectrometerContext.compareTo(UNKNOWN)) {
-            Class<?> clazz = massSpectrometerContext.getClazz();
-            Method method = clazz.getMethod(massSpectrometerContext.getMethodName(), Path.class);
-            massSpecExtractedData = (MassSpecExtractedData) method.invoke(null, dataFilePath);
-        } else {
-            massSpecExtractedData = new MassSpecExtractedData();
+        getSingleBlockRawDataSetCache().invalidate();
+        getSessionAggregator().invalidate();
+        synchronized (this) {
+            // cycle exclusions belong to the blocks of the previous file
+            mapOfBlockIdToCyclesIncluded = null;
         }
-        massSpecExtractedData.setMassSpectrometerContext(massSpectrometerContext);
+        massSpecExtractedData = extractedData;
+        importProgressCallback.receiveImportProgress(BLOCKS_INDEXED, massSpecExtractedData);
+        throwIfImportInterrupted(dataFilePath);
 
         // TODO: remove this temp hack for synthetic demos
         if (0 == massSpectrometerContext.compareTo(PHOENIX_SYNTHETIC)) {
@@ -125,11 +188,14 @@ public class Analysis implements Serializable, AnalysisInterface {
             } else {
                 analysisMethod = AnalysisMethodBuiltinFactory.analysisMethodsBuiltinMap.get(KU_204_5_6_7_8_DALY_ALL_FARADAY_PB);
             }
+            importProgressCallback.receiveImportProgress(METHOD_LOADED, massSpecExtractedData);
             // initialize block processing state - see parallel below
             for (Integer blockID : massSpecExtractedData.getBlocksData().keySet()) {
                 mapOfBlockIdToProcessStatus.put(blockID, RUN);
                 mapOfBlockIdToModelsBurnCount.put(blockID, 0);
             }
+            // synthetic data has no peak centre files
+            importProgressCallback.receiveImportProgress(PEAK_FILES_INDEXED, massSpecExtractedData);
         } else {
             // attempt to load specified method
             File selectedMethodFile = new File((Path.of(dataFilePathString).getParent().getParent().toString()
@@ -144,6 +210,8 @@ public class Analysis implements Serializable, AnalysisInterface {
                         "Method File not found: " + massSpecExtractedData.getHeader().methodName()
                                 + "\n\n at location: " + Path.of(dataFilePathString).getParent().getParent().toString() + File.separator + "Methods");
             }
+            importProgressCallback.receiveImportProgress(METHOD_LOADED, massSpecExtractedData);
+            throwIfImportInterrupted(dataFilePath);
 
             // initialize block processing state
             for (Integer blockID : massSpecExtractedData.getBlocksData().keySet()) {
@@ -200,37 +268,106 @@ public class Analysis implements Serializable, AnalysisInterface {
                 throw new TripoliException(
                         "PeakCentres folder not found at location: " + Path.of(dataFilePathString).getParent().toString() + File.separator + "PeakCentres");
             }
+            importProgressCallback.receiveImportProgress(PEAK_FILES_INDEXED, massSpecExtractedData);
+        }
+
+        mapBlocksToScratchFileIfEnabled();
+
+        // unit conversion happens once here rather than in every block preparation
+        if (null != analysisMethod) {
+            getSingleBlockRawDataSetCache().convertAllIntensityColumns(massSpecExtractedData, analysisMethod);
+        }
+    }
+
+    private static void throwIfImportInterrupted(Path dataFilePath) throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Import cancelled: " + dataFilePath);
+        }
+    }
+
+    /**
+     * Large sessions may keep raw block arrays off the heap; see {@link MappedBlocksMap}.
+     */
+    private void mapBlocksToScratchFileIfEnabled() throws IOException {
+        if (MappedBlocksMap.isMappedBlocksEnabled() && (null != massSpecExtractedData)) {
+            massSpecExtractedData.mapBlocksToScratchFile(Path.of(System.getProperty("java.io.tmpdir")));
         }
     }
 
-    public AnalysisMethod extractAnalysisMethodfromPath(Path phoenixAnalysisMethodDataFilePath) throws JAXBException {
-        JAXBContext jaxbContext = JAXBContext.newInstance(PhoenixAnalysisMethod.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-        PhoenixAnalysisMethod phoenixAnalysisMethod = (PhoenixAnalysisMethod) jaxbUnmarshaller.unmarshal(phoenixAnalysisMethodDataFilePath.toFile());
-        return AnalysisMethod.createAnalysisMethodFromPhoenixAnalysisMethod(phoenixAnalysisMethod, massSpecExtractedData.getDetectorSetup(), massSpecExtractedData.getMassSpectrometerContext());
+    @Serial
+    private void readObject(ObjectInputStream objectInputStream) throws IOException, ClassNotFoundException {
+        objectInputStream.defaultReadObject();
+        mapBlocksToScratchFileIfEnabled();
+        mapOfBlockIdToRawData = new ConcurrentSkipListMap<>();
+    }
+
+    public AnalysisMethod extractAnalysisMethodfromPath(Path phoenixAnalysisMethodDataFilePath) throws JAXBException, IOException {
+        return AnalysisMethodCache.retrieveAnalysisMethod(
+                phoenixAnalysisMethodDataFilePath, massSpecExtractedData.getDetectorSetup(), massSpecExtractedData.getMassSpectrometerContext());
     }
 
 
     public PlotBuilder[][] updatePlotsByBlock(int blockID, LoggingCallbackInterface loggingCallback) throws TripoliException {
-        PlotBuilder[][] retVal = new PlotBuilder[0][];
-        if (RUN == mapOfBlockIdToProcessStatus.get(blockID)) {
+        FutureTask<PlotBuilder[][]> plotsBuild = new FutureTask<>(() -> {
+            if ((RUN != mapOfBlockIdToProcessStatus.get(blockID)) && mapOfBlockIdToPlots.containsKey(blockID)) {
+                return mapOfBlockIdToPlots.get(blockID);
+            }
             mapOfBlockIdToPlots.remove(blockID);
-        }
-        if (mapOfBlockIdToPlots.containsKey(blockID)) {
-            retVal = mapOfBlockIdToPlots.get(blockID);
-            loggingCallback.receiveLoggingSnippet("1000 >%");
-        } else {
+            PlotBuilder[][] plotBuilders = new PlotBuilder[0][];
             try {
-                PlotBuilder[][] plotBuilders;
-                plotBuilders = SingleBlockModelDriver.buildAndRunModelForSingleBlock(blockID, this, loggingCallback);
+                plotBuilders = SingleBlockModelDriver.buildAndRunModelForSingleBlock(blockID, this, loggingCallback,
+                        mcmcProcess -> getMapOfBlockIdToRunningMCMCProcess().put(blockID, mcmcProcess));
                 mapOfBlockIdToPlots.put(blockID, plotBuilders);
-                mapOfBlockIdToProcessStatus.put(blockID, SHOW);
-                retVal = mapOfBlockIdToPlots.get(blockID);
+                mapOfBlockIdToProcessStatus.replace(blockID, RUN, SHOW);
             } catch (IOException e) {
                 System.out.println("PROBLEM EXPORTING ENSEMBLES");
+            } finally {
+                getMapOfBlockIdToRunningMCMCProcess().remove(blockID);
+            }
+            return plotBuilders;
+        });
+
+        return buildOncePerBlock(blockID, plotsBuild, getMapOfBlockIdToPlotsInProgress());
+    }
+
+    /**
+     * Stops the block's running chain at its next iteration; the chain saves a checkpoint, and because the block
+     * is still marked to run, running it again resumes from that checkpoint.
+     *
+     * @param blockID block
+     */
+    public void cancelPlotsByBlock(int blockID) {
+        MCMCProcess mcmcProcess = getMapOfBlockIdToRunningMCMCProcess().get(blockID);
+        if (null != mcmcProcess) {
+            mcmcProcess.requestCancel();
+        }
+    }
+
+    private <T> T buildOncePerBlock(int blockID, FutureTask<T> build, Map<Integer, FutureTask<T>> mapOfBlockIdToBuildsInProgress)
+            throws TripoliException {
+        FutureTask<T> buildInProgress = mapOfBlockIdToBuildsInProgress.putIfAbsent(blockID, build);
+        if (null == buildInProgress) {
+            buildInProgress = build;
+            try {
+                build.run();
+            } finally {
+                mapOfBlockIdToBuildsInProgress.remove(blockID, build);
+            }
+        }
+        try {
+            return buildInProgress.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TripoliException("Interrupted while building plots for block " + blockID, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TripoliException tripoliException) {
+                throw tripoliException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
+            throw new TripoliException(e.getCause());
         }
-        return retVal;
     }
 
     public void updateShadeWidthsForConvergenceLinePlots(int blockID, double shadeWidth) {
@@ -255,19 +392,16 @@ public class Analysis implements Serializable, AnalysisInterface {
 
     @Override
     public PlotBuilder[] updatePeakPlotsByBlock(int blockID) throws TripoliException {
-        PlotBuilder[] retVal;
-        if (RUN == mapOfBlockIdToProcessStatus.get(blockID)) {
-            mapOfBlockIdToPeakPlots.remove(blockID);
-        }
-
-        if (mapOfBlockIdToPeakPlots.containsKey(blockID)) {
-            retVal = mapOfBlockIdToPeakPlots.get(blockID);
-        } else {
+        FutureTask<PlotBuilder[]> peakPlotsBuild = new FutureTask<>(() -> {
+            if ((RUN != mapOfBlockIdToProcessStatus.get(blockID)) && mapOfBlockIdToPeakPlots.containsKey(blockID)) {
+                return mapOfBlockIdToPeakPlots.get(blockID);
+            }
             PlotBuilder[] peakPlotBuilders = SingleBlockPeakDriver.buildForSinglePeakBlock(blockID, blockPeakGroups);
             mapOfBlockIdToPeakPlots.put(blockID, peakPlotBuilders);
-            retVal = mapOfBlockIdToPeakPlots.get(blockID);
-        }
-        return retVal;
+            return peakPlotBuilders;
+        });
+
+        return buildOncePerBlock(blockID, peakPlotsBuild, getMapOfBlockIdToPeakPlotsInProgress());
     }
 
     // Updates Peak Centre plots
@@ -283,14 +417,7 @@ public class Analysis implements Serializable, AnalysisInterface {
     }
 
     public String uppdateLogsByBlock(int blockID, String logEntry) {
-        String log = "";
-        if (mapOfBlockToLogs.containsKey(blockID)) {
-            log = mapOfBlockToLogs.get(blockID);
-        }
-        String retVal = log + "\n" + logEntry;
-        mapOfBlockToLogs.put(blockID, retVal);
-
-        return retVal;
+        return mapOfBlockToLogs.merge(blockID, "\n" + logEntry, String::concat);
     }
 
 
@@ -321,6 +448,14 @@ public class Analysis implements Serializable, AnalysisInterface {
     }
 
     public final String prettyPrintAnalysisMetaData() {
+        return prettyPrintMassSpecMetaData(massSpecExtractedData);
+    }
+
+    /**
+     * @param massSpecExtractedData imported data, or only its header while the blocks are being read
+     * @return the mass spectrometer and header summary
+     */
+    public static String prettyPrintMassSpecMetaData(MassSpecExtractedData massSpecExtractedData) {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("%30s", "Mass Spectrometer: "))
                 .append(String.format("%-15s", massSpecExtractedData.getMassSpectrometerContext().getMassSpectrometerName()))
@@ -418,6 +553,8 @@ public class Analysis implements Serializable, AnalysisInterface {
     @Override
     public void setMethod(AnalysisMethod analysisMethod) {
         this.analysisMethod = analysisMethod;
+        getSingleBlockRawDataSetCache().invalidatePreparedBlocks();
+        getSessionAggregator().invalidate();
     }
 
     public MassSpecExtractedData getMassSpecExtractedData() {
@@ -426,6 +563,8 @@ public class Analysis implements Serializable, AnalysisInterface {
 
     public void setMassSpecExtractedData(MassSpecExtractedData massSpecExtractedData) {
         this.massSpecExtractedData = massSpecExtractedData;
+        getSingleBlockRawDataSetCache().invalidate();
+        getSessionAggregator().invalidate();
     }
 
     public AnalysisMethod getAnalysisMethod() {
@@ -434,6 +573,8 @@ public class Analysis implements Serializable, AnalysisInterface {
 
     public void setAnalysisMethod(AnalysisMethod analysisMethod) {
         this.analysisMethod = analysisMethod;
+        getSingleBlockRawDataSetCache().invalidatePreparedBlocks();
+        getSessionAggregator().invalidate();
     }
 
     public String getDataFilePathString() {
@@ -466,11 +607,100 @@ public class Analysis implements Serializable, AnalysisInterface {
 
 
     public Map<Integer, SingleBlockRawDataSetRecord> getMapOfBlockIdToRawData() {
+        for (Integer blockID : mapOfBlockIdToFinalModel.keySet()) {
+            getSingleBlockRawData(blockID);
+        }
         return mapOfBlockIdToRawData;
     }
 
+    /**
+     * Prepared data of a block run through MCMC.  After a session is loaded, a block's data is prepared again
+     * the first time it is asked for.
+     *
+     * @param blockID block
+     * @return the prepared block data, or null when the block has not been run
+     */
+    public SingleBlockRawDataSetRecord getSingleBlockRawData(int blockID) {
+        if (!mapOfBlockIdToRawData.containsKey(blockID) && mapOfBlockIdToFinalModel.containsKey(blockID)
+                && (null != massSpecExtractedData) && (null != analysisMethod)) {
+            SingleBlockRawDataSetRecord singleBlockRawDataSetRecord =
+                    getSingleBlockRawDataSetCache().retrievePreparedBlockData(blockID, massSpecExtractedData, analysisMethod);
+            if (null != singleBlockRawDataSetRecord) {
+                mapOfBlockIdToRawData.putIfAbsent(blockID, singleBlockRawDataSetRecord);
+            }
+        }
+        return mapOfBlockIdToRawData.get(blockID);
+    }
+
     public Map<Integer, SingleBlockModelRecord> getMapOfBlockIdToFinalModel() {
         return mapOfBlockIdToFinalModel;
     }
 
-}
\ No newline at end of file
+    /**
+     * @param blockID    block
+     * @param cycleCount cycles in the block
+     * @return a copy of the block's included cycles; every cycle is included until one is toggled
+     */
+    public synchronized boolean[] retrieveCyclesIncluded(int blockID, int cycleCount) {
+        boolean[] cyclesIncluded = (null == mapOfBlockIdToCyclesIncluded) ? null : mapOfBlockIdToCyclesIncluded.get(blockID);
+        if ((null == cyclesIncluded) || (cycleCount != cyclesIncluded.length)) {
+            cyclesIncluded = new boolean[cycleCount];
+            Arrays.fill(cyclesIncluded, true);
+        }
+        return cyclesIncluded.clone();
+    }
+
+    /**
+     * The exclusion is kept with the analysis, so it survives rebuilding the session plots and saving the session.
+     *
+     * @param blockID    block
+     * @param cycleIndex zero-based cycle to include or exclude
+     * @param cycleCount cycles in the block
+     * @return a copy of the block's included cycles after the toggle
+     */
+    public synchronized boolean[] toggleCycleIncluded(int blockID, int cycleIndex, int cycleCount) {
+        boolean[] cyclesIncluded = retrieveCyclesIncluded(blockID, cycleCount);
+        cyclesIncluded[cycleIndex] = !cyclesIncluded[cycleIndex];
+        if (null == mapOfBlockIdToCyclesIncluded) {
+            mapOfBlockIdToCyclesIncluded = new ConcurrentSkipListMap<>();
+        }
+        mapOfBlockIdToCyclesIncluded.put(blockID, cyclesIncluded);
+        return cyclesIncluded.clone();
+    }
+
+    public synchronized SingleBlockRawDataSetCache getSingleBlockRawDataSetCache() {
+        if (null == singleBlockRawDataSetCache) {
+            singleBlockRawDataSetCache = new SingleBlockRawDataSetCache();
+        }
+        return singleBlockRawDataSetCache;
+    }
+
+    public synchronized SessionAggregator getSessionAggregator() {
+        if (null == sessionAggregator) {
+            sessionAggregator = new SessionAggregator();
+        }
+        return sessionAggregator;
+    }
+
+    private synchronized Map<Integer, FutureTask<PlotBuilder[][]>> getMapOfBlockIdToPlotsInProgress() {
+        if (null == mapOfBlockIdToPlotsInProgress) {
+            mapOfBlockIdToPlotsInProgress = new ConcurrentHashMap<>();
+        }
+        return mapOfBlockIdToPlotsInProgress;
+    }
+
+    private synchronized Map<Integer, FutureTask<PlotBuilder[]>> getMapOfBlockIdToPeakPlotsInProgress() {
+        if (null == mapOfBlockIdToPeakPlotsInProgress) {
+            mapOfBlockIdToPeakPlotsInProgress = new ConcurrentHashMap<>();
+        }
+        return mapOfBlockIdToPeakPlotsInProgress;
+    }
+
+    private synchronized Map<Integer, MCMCProcess> getMapOfBlockIdToRunningMCMCProcess() {
+        if (null == mapOfBlockIdToRunningMCMCProcess) {
+            mapOfBlockIdToRunningMCMCProcess = new ConcurrentHashMap<>();
+        }
+        return mapOfBlockIdToRunningMCMCProcess;
+    }
+
+}
@@ -6,18 +6,19 @@ import org.cirdles.tripoli.plots.PlotBuilder;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.AllBlockInitForOGTripoli;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.EnsemblesStore;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockModelRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockRawDataSetCache;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockRawDataSetRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecDataFileReader;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecExtractedData;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
+import org.cirdles.tripoli.utilities.callbacks.ImportProgressCallbackInterface;
 import org.cirdles.tripoli.utilities.callbacks.LoggingCallbackInterface;
 import org.cirdles.tripoli.utilities.exceptions.TripoliException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -33,13 +34,31 @@ public interface AnalysisInterface {
     }
 
     static MassSpectrometerContextEnum determineMassSpectrometerContextFromDataFile(Path dataFilePath) throws IOException {
+        try (BufferedReader dataFileReader = MassSpecDataFileReader.openDataFile(dataFilePath)) {
+            return determineMassSpectrometerContextFromDataFile(dataFileReader);
+        }
+    }
+
+    /**
+     * Matches the context keywords against the header lines only; the reader is left at the start of the file so
+     * the context's parser can stream it.
+     *
+     * @param dataFileReader reader positioned at the start of the file
+     * @return the matching context
+     * @throws IOException if the header cannot be read
+     */
+    static MassSpectrometerContextEnum determineMassSpectrometerContextFromDataFile(BufferedReader dataFileReader) throws IOException {
         MassSpectrometerContextEnum retVal = MassSpectrometerContextEnum.UNKNOWN;
-        List<String> contentsByLine = new ArrayList<>(Files.readAllLines(dataFilePath, Charset.defaultCharset()));
+        int headerLineCount = 0;
+        for (MassSpectrometerContextEnum massSpecContext : MassSpectrometerContextEnum.values()) {
+            headerLineCount = Math.max(headerLineCount, massSpecContext.getKeyWordsList().size());
+        }
+        List<String> headerLines = MassSpecDataFileReader.peekLines(dataFileReader, headerLineCount);
         for (MassSpectrometerContextEnum massSpecContext : MassSpectrometerContextEnum.values()) {
             List<String> keyWordList = massSpecContext.getKeyWordsList();
-            boolean keywordsMatch = true;
-            for (int keyWordIndex = 0; keyWordIndex < keyWordList.size(); keyWordIndex++) {
-                keywordsMatch = keywordsMatch && (contentsByLine.get(keyWordIndex).startsWith(keyWordList.get(keyWordIndex).trim()));
+            boolean keywordsMatch = keyWordList.size() <= headerLines.size();
+            for (int keyWordIndex = 0; keywordsMatch && (keyWordIndex < keyWordList.size()); keyWordIndex++) {
+                keywordsMatch = headerLines.get(keyWordIndex).startsWith(keyWordList.get(keyWordIndex).trim());
             }
             if (keywordsMatch) {
                 retVal = massSpecContext;
@@ -52,10 +71,14 @@ public interface AnalysisInterface {
 
     void extractMassSpecDataFromPath(Path dataFilePath) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException, IOException, JAXBException, TripoliException;
 
-    AnalysisMethod extractAnalysisMethodfromPath(Path phoenixAnalysisMethodDataFilePath) throws JAXBException;
+    void extractMassSpecDataFromPath(Path dataFilePath, ImportProgressCallbackInterface importProgressCallback) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException, IOException, JAXBException, TripoliException;
+
+    AnalysisMethod extractAnalysisMethodfromPath(Path phoenixAnalysisMethodDataFilePath) throws JAXBException, IOException;
 
     PlotBuilder[][] updatePlotsByBlock(int blockNumber, LoggingCallbackInterface loggingCallback) throws TripoliException;
 
+    void cancelPlotsByBlock(int blockID);
+
     PlotBuilder[] updatePeakPlotsByBlock(int blockNumber) throws TripoliException;
 
     void updateRatiosPlotBuilderDisplayStatus(int indexOfIsotopicRatio, boolean displayed);
@@ -118,9 +141,19 @@ public interface AnalysisInterface {
 
     public Map<Integer, SingleBlockRawDataSetRecord> getMapOfBlockIdToRawData();
 
+    SingleBlockRawDataSetRecord getSingleBlockRawData(int blockID);
+
     public Map<Integer, SingleBlockModelRecord> getMapOfBlockIdToFinalModel();
 
+    boolean[] retrieveCyclesIncluded(int blockID, int cycleCount);
+
+    boolean[] toggleCycleIncluded(int blockID, int cycleIndex, int cycleCount);
+
     public Map<Integer, List<EnsemblesStore.EnsembleRecord>> getMapBlockIDToEnsembles();
 
     public Map<Integer, Integer> getMapOfBlockIdToModelsBurnCount();
+
+    SingleBlockRawDataSetCache getSingleBlockRawDataSetCache();
+
+    SessionAggregator getSessionAggregator();
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis;
+
+import org.cirdles.tripoli.plots.PlotBuilder;
+import org.cirdles.tripoli.plots.compoundPlots.BlockRatioCyclesBuilder;
+import org.cirdles.tripoli.plots.compoundPlots.BlockRatioCyclesRecord;
+import org.cirdles.tripoli.plots.histograms.HistogramRecord;
+import org.cirdles.tripoli.plots.histograms.RatioHistogramBuilder;
+import org.cirdles.tripoli.plots.sessionPlots.HistogramSessionBuilder;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockModelRecord;
+import org.cirdles.tripoli.species.IsotopicRatio;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.cirdles.tripoli.constants.TripoliConstants.PLOT_INDEX_RATIOS;
+import static org.cirdles.tripoli.plots.sessionPlots.HistogramSessionBuilder.initializeHistogramSession;
+import static org.cirdles.tripoli.sessions.analysis.Analysis.SHOW;
+
+/**
+ * Session-level aggregation that keeps each block's contribution and rebuilds a session only when one of its
+ * contributions changes, so a single-block rerun, burn-in change or block toggle recomputes only that block's
+ * share.  Contributions are compared by identity: block results are immutable records that are replaced, never
+ * mutated, when a block is recomputed.
+ *
+ * @author James F. Bowring
+ */
+public class SessionAggregator {
+
+    private final Map<String, Map<Integer, HistogramRecord>> mapOfRatioNameToBlockContributions = new TreeMap<>();
+    private final Map<String, HistogramSessionBuilder> mapOfRatioNameToSessionBuilder = new TreeMap<>();
+    private final Map<BlockRatioKey, BlockRatioCyclesContribution> mapOfBlockRatioToCyclesContribution = new ConcurrentHashMap<>();
+
+    /**
+     * Ratio histogram sessions over the blocks showing results, keyed by ratio name.
+     *
+     * @param analysis the analysis
+     * @return session builders in ratio name order
+     */
+    public synchronized Map<String, HistogramSessionBuilder> aggregateRatioHistogramSessions(AnalysisInterface analysis) {
+        Map<String, Map<Integer, HistogramRecord>> mapOfRatioNameToCurrentContributions = new TreeMap<>();
+        for (Map.Entry<Integer, PlotBuilder[][]> entry : analysis.getMapOfBlockIdToPlots().entrySet()) {
+            if (SHOW == analysis.getMapOfBlockIdToProcessStatus().get(entry.getKey())) {
+                for (PlotBuilder ratioPlotBuilder : entry.getValue()[PLOT_INDEX_RATIOS]) {
+                    if (ratioPlotBuilder.isDisplayed()) {
+                        String ratioName = ratioPlotBuilder.getTitle()[0];
+                        boolean useInvertedRatio = analysis.getAnalysisMethod().getMapOfRatioNamesToInvertedFlag().get(ratioName);
+                        mapOfRatioNameToCurrentContributions.computeIfAbsent(ratioName, k -> new TreeMap<>()).put(
+                                entry.getKey(),
+                                useInvertedRatio ?
+                                        ((RatioHistogramBuilder) ratioPlotBuilder).getInvertedRatioHistogramRecord()
+                                        : ((RatioHistogramBuilder) ratioPlotBuilder).getHistogramRecord());
+                    }
+                }
+            }
+        }
+
+        int blockCount = analysis.getMapOfBlockIdToProcessStatus().size();
+        Map<String, HistogramSessionBuilder> mapOfRatioNameToSessions = new TreeMap<>();
+        for (Map.Entry<String, Map<Integer, HistogramRecord>> entry : mapOfRatioNameToCurrentContributions.entrySet()) {
+            String ratioName = entry.getKey();
+            Map<Integer, HistogramRecord> contributions = entry.getValue();
+            HistogramSessionBuilder histogramSessionBuilder = mapOfRatioNameToSessionBuilder.get(ratioName);
+            if ((null == histogramSessionBuilder)
+                    || (blockCount != histogramSessionBuilder.getHistogramSessionRecord().blockCount())
+                    || !sameContributions(mapOfRatioNameToBlockContributions.get(ratioName), contributions)) {
+                List<HistogramRecord> histogramRecords = new ArrayList<>(contributions.values());
+                histogramSessionBuilder = initializeHistogramSession(
+                        blockCount, histogramRecords, histogramRecords.get(0).title(), "Block ID", "Ratio");
+                mapOfRatioNameToSessionBuilder.put(ratioName, histogramSessionBuilder);
+                mapOfRatioNameToBlockContributions.put(ratioName, contributions);
+            }
+            mapOfRatioNameToSessions.put(ratioName, histogramSessionBuilder);
+        }
+        mapOfRatioNameToSessionBuilder.keySet().retainAll(mapOfRatioNameToSessions.keySet());
+        mapOfRatioNameToBlockContributions.keySet().retainAll(mapOfRatioNameToSessions.keySet());
+
+        return mapOfRatioNameToSessions;
+    }
+
+    private static boolean sameContributions(Map<Integer, HistogramRecord> previous, Map<Integer, HistogramRecord> current) {
+        boolean same = (null != previous) && previous.keySet().equals(current.keySet());
+        Iterator<Map.Entry<Integer, HistogramRecord>> iterator = current.entrySet().iterator();
+        while (same && iterator.hasNext()) {
+            Map.Entry<Integer, HistogramRecord> entry = iterator.next();
+            same = (previous.get(entry.getKey()) == entry.getValue());
+        }
+        return same;
+    }
+
+    /**
+     * One block's cycles for a ratio session plot, recomputed only when the block's model changes.
+     *
+     * @param blockID                block
+     * @param isotopicRatio          ratio
+     * @param singleBlockModelRecord the block's current model
+     * @param cyclesIncluded         cycles contributing to the block statistics
+     * @param blockIncluded          whether the block is included in the session
+     * @return the block's contribution
+     */
+    public BlockRatioCyclesRecord blockRatioCyclesContribution(
+            int blockID, IsotopicRatio isotopicRatio, SingleBlockModelRecord singleBlockModelRecord, boolean[] cyclesIncluded, boolean blockIncluded) {
+        BlockRatioKey blockRatioKey = new BlockRatioKey(blockID, isotopicRatio.prettyPrint());
+        BlockRatioCyclesContribution contribution = mapOfBlockRatioToCyclesContribution.compute(blockRatioKey, (key, cached) -> {
+            if ((null == cached) || (cached.singleBlockModelRecord() != singleBlockModelRecord)
+                    || !Arrays.equals(cached.blockRatioCyclesRecord().cyclesIncluded(), cyclesIncluded)) {
+                return new BlockRatioCyclesContribution(singleBlockModelRecord, BlockRatioCyclesBuilder.initializeBlockCycles(
+                        blockID,
+                        singleBlockModelRecord.assembleCycleMeansForRatio(isotopicRatio),
+                        singleBlockModelRecord.assembleCycleStdDevForRatio(isotopicRatio),
+                        cyclesIncluded,
+                        new String[]{isotopicRatio.prettyPrint()},
+                        "Blocks & Cycles by Time",
+                        "Ratio",
+                        true,
+                        blockIncluded).getBlockCyclesRecord());
+            }
+            if (cached.blockRatioCyclesRecord().blockIncluded() != blockIncluded) {
+                return new BlockRatioCyclesContribution(singleBlockModelRecord, cached.blockRatioCyclesRecord().toggleBlockIncluded());
+            }
+            return cached;
+        });
+
+        return contribution.blockRatioCyclesRecord();
+    }
+
+    /**
+     * Discards every contribution; required when the source data or method changes.
+     */
+    public synchronized void invalidate() {
+        mapOfRatioNameToBlockContributions.clear();
+        mapOfRatioNameToSessionBuilder.clear();
+        mapOfBlockRatioToCyclesContribution.clear();
+    }
+
+    record BlockRatioKey(
+            int blockID,
+            String ratioName) {
+    }
+
+    record BlockRatioCyclesContribution(
+            SingleBlockModelRecord singleBlockModelRecord,
+            BlockRatioCyclesRecord blockRatioCyclesRecord) {
+    }
+}
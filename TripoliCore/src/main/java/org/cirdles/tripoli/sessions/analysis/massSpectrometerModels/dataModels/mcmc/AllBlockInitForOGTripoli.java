@@ -22,7 +22,9 @@ import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
 import org.cirdles.tripoli.utilities.exceptions.TripoliException;
 import org.ojalgo.RecoverableCondition;
 
-import static org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockModelDriver.prepareSingleBlockDataForMCMC;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
 import static org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockModelInitForMCMC.initializeModelForSingleBlockMCMC;
 
 /**
@@ -30,7 +32,16 @@ import static org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataM
  */
 public class AllBlockInitForOGTripoli {
 
-    public static PlottingData initBlockModels(AnalysisInterface analysis) throws TripoliException {
+    /**
+     * Initializes every block's preview model in parallel; each block is reported to the listener as soon as it
+     * completes, in completion order and on the worker thread that produced it.
+     *
+     * @param analysis          the analysis
+     * @param blockInitListener receives each block's entry of the returned <code>PlottingData</code>
+     * @return all blocks, indexed by blockID - 1
+     * @throws TripoliException if any block fails to initialize
+     */
+    public static PlottingData initBlockModels(AnalysisInterface analysis, BlockInitListener blockInitListener) throws TripoliException {
         // check process status
         MassSpecExtractedData massSpecExtractedData = analysis.getMassSpecExtractedData();
         AnalysisMethod analysisMethod = analysis.getAnalysisMethod();
@@ -39,20 +50,36 @@ public class AllBlockInitForOGTripoli {
         SingleBlockRawDataSetRecord[] singleBlockRawDataSetRecords = new SingleBlockRawDataSetRecord[countOfBlocks];
         SingleBlockModelRecord[] singleBlockModelRecords = new SingleBlockModelRecord[countOfBlocks];
 
-        for (int blockIndex = 0; blockIndex < countOfBlocks; blockIndex++) {
-            singleBlockRawDataSetRecords[blockIndex] = prepareSingleBlockDataForMCMC(blockIndex + 1, massSpecExtractedData, analysisMethod);
-            SingleBlockModelInitForMCMC.SingleBlockModelRecordWithCov singleBlockInitialModelRecordWithNoCov;
+        // blocks are independent; each worker writes only its own array slots
+        AtomicReference<TripoliException> firstFailure = new AtomicReference<>();
+        IntStream.range(0, countOfBlocks).parallel().forEach(blockIndex -> {
+            if (null != firstFailure.get()) {
+                return;
+            }
             try {
-                singleBlockInitialModelRecordWithNoCov = initializeModelForSingleBlockMCMC(analysis.getAnalysisMethod(), singleBlockRawDataSetRecords[blockIndex], false);
+                SingleBlockRawDataSetRecord singleBlockRawDataSetRecord =
+                        analysis.getSingleBlockRawDataSetCache().retrievePreparedBlockData(blockIndex + 1, massSpecExtractedData, analysisMethod);
+                SingleBlockModelInitForMCMC.SingleBlockModelRecordWithCov singleBlockInitialModelRecordWithNoCov =
+                        initializeModelForSingleBlockMCMC(analysisMethod, singleBlockRawDataSetRecord, false);
+                singleBlockRawDataSetRecords[blockIndex] = singleBlockRawDataSetRecord;
+                singleBlockModelRecords[blockIndex] = singleBlockInitialModelRecordWithNoCov.singleBlockModelRecord();
+                blockInitListener.receiveBlockInit(blockIndex, singleBlockRawDataSetRecord, singleBlockModelRecords[blockIndex]);
             } catch (RecoverableCondition e) {
-                throw new TripoliException("Ojalgo RecoverableCondition");
+                firstFailure.compareAndSet(null, new TripoliException("Ojalgo RecoverableCondition"));
             }
-            singleBlockModelRecords[blockIndex] = singleBlockInitialModelRecordWithNoCov.singleBlockModelRecord();
+        });
+        if (null != firstFailure.get()) {
+            throw firstFailure.get();
         }
 
         return new PlottingData(singleBlockRawDataSetRecords, singleBlockModelRecords, true);
     }
 
+    @FunctionalInterface
+    public interface BlockInitListener {
+        void receiveBlockInit(int blockIndex, SingleBlockRawDataSetRecord singleBlockRawDataSetRecord, SingleBlockModelRecord singleBlockModelRecord);
+    }
+
     public record PlottingData(
             SingleBlockRawDataSetRecord[] singleBlockRawDataSetRecords,
             SingleBlockModelRecord[] singleBlockModelRecords,
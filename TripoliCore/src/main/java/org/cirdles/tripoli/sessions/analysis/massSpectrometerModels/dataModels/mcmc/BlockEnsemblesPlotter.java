@@ -22,7 +22,6 @@ import org.cirdles.tripoli.plots.PlotBuilder;
 import org.cirdles.tripoli.plots.histograms.HistogramBuilder;
 import org.cirdles.tripoli.plots.histograms.RatioHistogramBuilder;
 import org.cirdles.tripoli.plots.linePlots.MultiLinePlotBuilder;
-import org.cirdles.tripoli.sessions.analysis.Analysis;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.Detector;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
@@ -33,6 +32,7 @@ import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static java.lang.StrictMath.exp;
 import static org.cirdles.tripoli.constants.TripoliConstants.*;
@@ -48,13 +48,13 @@ public enum BlockEnsemblesPlotter {
             AnalysisInterface analysis) {
 
         PlotBuilder[][] plotBuilders = analysis.getMapOfBlockIdToPlots().get(blockID);
-        int initialModelsBurnCount = ((Analysis) analysis).getMapOfBlockIdToModelsBurnCount().get(blockID);
+        int initialModelsBurnCount = analysis.getMapOfBlockIdToModelsBurnCount().get(blockID);
 
-        List<EnsemblesStore.EnsembleRecord> ensembleRecordsList = ((Analysis) analysis).getMapBlockIDToEnsembles().get(blockID);
+        List<EnsemblesStore.EnsembleRecord> ensembleRecordsList = analysis.getMapBlockIDToEnsembles().get(blockID);
         int countOfEnsemblesUsed = ensembleRecordsList.size() - initialModelsBurnCount;
 
         AnalysisMethod analysisMethod = analysis.getAnalysisMethod();
-        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = analysis.getMapOfBlockIdToRawData().get(blockID);
+        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = analysis.getSingleBlockRawData(blockID);
         List<IsotopicRatio> isotopicRatioList = analysisMethod.getIsotopicRatiosList();
 
         /*
@@ -213,24 +213,27 @@ public enum BlockEnsemblesPlotter {
 
         BiMap<IsotopicRatio, IsotopicRatio> biMapOfRatiosAndInverses = analysisMethod.getBiMapOfRatiosAndInverses();
         plotBuilders[PLOT_INDEX_RATIOS] = new PlotBuilder[ensembleRatios.length + derivedEnsembleRatios.length];
+        // ratio histograms are independent; each worker fills only its own slot
+        IntStream.range(0, ensembleRatios.length).parallel().forEach(i ->
+                plotBuilders[PLOT_INDEX_RATIOS][i] =
+                        RatioHistogramBuilder.initializeRatioHistogram(
+                                blockID,
+                                isotopicRatioList.get(i),
+                                biMapOfRatiosAndInverses.get(isotopicRatioList.get(i)),
+                                25));
+        IntStream.range(0, derivedEnsembleRatios.length).parallel().forEach(i ->
+                plotBuilders[PLOT_INDEX_RATIOS][i + ensembleRatios.length] =
+                        RatioHistogramBuilder.initializeRatioHistogram(
+                                blockID,
+                                derivedIsotopicRatiosList.get(i),
+                                (null != biMapOfRatiosAndInverses.get(derivedIsotopicRatiosList.get(i))) ?
+                                        (biMapOfRatiosAndInverses.get(derivedIsotopicRatiosList.get(i))) :
+                                        (biMapOfRatiosAndInverses.inverse().get(derivedIsotopicRatiosList.get(i))),
+                                25));
         for (int i = 0; i < ensembleRatios.length; i++) {
-            plotBuilders[PLOT_INDEX_RATIOS][i] =
-                    RatioHistogramBuilder.initializeRatioHistogram(
-                            blockID,
-                            isotopicRatioList.get(i),
-                            biMapOfRatiosAndInverses.get(isotopicRatioList.get(i)),
-                            25);
             analysisMethod.getMapOfRatioNamesToInvertedFlag().put(isotopicRatioList.get(i).prettyPrint(), false);
         }
         for (int i = 0; i < derivedEnsembleRatios.length; i++) {
-            plotBuilders[PLOT_INDEX_RATIOS][i + ensembleRatios.length] =
-                    RatioHistogramBuilder.initializeRatioHistogram(
-                            blockID,
-                            derivedIsotopicRatiosList.get(i),
-                            (null != biMapOfRatiosAndInverses.get(derivedIsotopicRatiosList.get(i))) ?
-                                    (biMapOfRatiosAndInverses.get(derivedIsotopicRatiosList.get(i))) :
-                                    (biMapOfRatiosAndInverses.inverse().get(derivedIsotopicRatiosList.get(i))),
-                            25);
             analysisMethod.getMapOfRatioNamesToInvertedFlag().put(derivedIsotopicRatiosList.get(i).prettyPrint(), false);
         }
 
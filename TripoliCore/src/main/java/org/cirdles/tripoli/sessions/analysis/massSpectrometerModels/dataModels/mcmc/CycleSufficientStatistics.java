@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-cycle sufficient statistics (count, sum, sum of squares) of one isotope's normalized intensities, taken
+ * over every cycle whether active or not.  Cycle statistics for any set of active cycles are then produced
+ * without rescanning the block data.  Sums are accumulated about the first value of each cycle to avoid
+ * cancellation in the variance.
+ *
+ * @author James F. Bowring
+ */
+public class CycleSufficientStatistics implements Serializable {
+    @Serial
+    private static final long serialVersionUID = -2611983302514795530L;
+
+    private final int[] counts;
+    private final double[] shifts;
+    private final double[] sums;
+    private final double[] sumsOfSquares;
+
+    private CycleSufficientStatistics(int cycleCount) {
+        counts = new int[cycleCount];
+        shifts = new double[cycleCount];
+        sums = new double[cycleCount];
+        sumsOfSquares = new double[cycleCount];
+    }
+
+    /**
+     * @param values     normalized intensities
+     * @param cycles     one-based cycle of each value
+     * @param cycleCount number of cycles in the block
+     * @return statistics of every cycle
+     */
+    public static CycleSufficientStatistics accumulate(double[] values, int[] cycles, int cycleCount) {
+        CycleSufficientStatistics cycleSufficientStatistics = new CycleSufficientStatistics(cycleCount);
+        for (int index = 0; index < values.length; index++) {
+            cycleSufficientStatistics.addValue(cycles[index] - 1, values[index]);
+        }
+        return cycleSufficientStatistics;
+    }
+
+    private void addValue(int cycleIndex, double value) {
+        if (0 == counts[cycleIndex]) {
+            shifts[cycleIndex] = value;
+        }
+        double shifted = value - shifts[cycleIndex];
+        counts[cycleIndex]++;
+        sums[cycleIndex] += shifted;
+        sumsOfSquares[cycleIndex] += shifted * shifted;
+    }
+
+    public int cycleCount() {
+        return counts.length;
+    }
+
+    public int count(int cycleIndex) {
+        return counts[cycleIndex];
+    }
+
+    /**
+     * @param cycleIndex zero-based cycle
+     * @return mean of the cycle, NaN if the cycle is empty
+     */
+    public double mean(int cycleIndex) {
+        int n = counts[cycleIndex];
+        return (0 == n) ? Double.NaN : shifts[cycleIndex] + sums[cycleIndex] / n;
+    }
+
+    /**
+     * @param cycleIndex zero-based cycle
+     * @return sample standard deviation of the cycle, 0 for a single value and NaN if the cycle is empty
+     */
+    public double standardDeviation(int cycleIndex) {
+        int n = counts[cycleIndex];
+        double standardDeviation = Double.NaN;
+        if (1 == n) {
+            standardDeviation = 0.0;
+        } else if (1 < n) {
+            double sum = sums[cycleIndex];
+            standardDeviation = StrictMath.sqrt(Math.max(0.0, (sumsOfSquares[cycleIndex] - sum * sum / n) / (n - 1)));
+        }
+        return standardDeviation;
+    }
+
+    /**
+     * @param cycleIndex zero-based cycle
+     * @return standard error of the cycle mean
+     */
+    public double standardError(int cycleIndex) {
+        return standardDeviation(cycleIndex) / Math.sqrt(counts[cycleIndex]);
+    }
+
+    /**
+     * Cycle statistics as carried by {@link SingleBlockModelRecord#mapLogRatiosToCycleStats()}; inactive
+     * cycles contribute no values and so report NaN.
+     *
+     * @param activeCycles cycles to include
+     * @return zero-based cycle to {mean, standard error}
+     */
+    public Map<Integer, double[]> assembleMapCyclesToStats(boolean[] activeCycles) {
+        Map<Integer, double[]> mapCyclesToStats = new TreeMap<>();
+        for (int cycleIndex = 0; cycleIndex < counts.length; cycleIndex++) {
+            mapCyclesToStats.put(cycleIndex, activeCycles[cycleIndex]
+                    ? new double[]{mean(cycleIndex), standardError(cycleIndex)}
+                    : new double[]{Double.NaN, Double.NaN});
+        }
+        return mapCyclesToStats;
+    }
+}
@@ -18,10 +18,11 @@ package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.
 
 import jama.Matrix;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-import org.cirdles.tripoli.sessions.analysis.Analysis;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
 import org.cirdles.tripoli.species.IsotopicRatio;
+import org.cirdles.tripoli.species.SpeciesRecordInterface;
+import org.cirdles.tripoli.utilities.mathUtilities.IntArgSort;
 
 import java.io.Serializable;
 import java.util.*;
@@ -37,13 +38,13 @@ public class EnsemblesStore implements Serializable {
             int blockID,
             AnalysisInterface analysis) {
 
-        List<EnsemblesStore.EnsembleRecord> ensembleRecordsList = ((Analysis) analysis).getMapBlockIDToEnsembles().get(blockID);
+        List<EnsemblesStore.EnsembleRecord> ensembleRecordsList = analysis.getMapBlockIDToEnsembles().get(blockID);
         AnalysisMethod analysisMethod = analysis.getAnalysisMethod();
-        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = analysis.getMapOfBlockIdToRawData().get(blockID);
+        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = analysis.getSingleBlockRawData(blockID);
         SingleBlockModelRecord singleBlockModelRecord = analysis.getMapOfBlockIdToFinalModel().get(blockID);
         List<IsotopicRatio> isotopicRatioList = analysisMethod.getIsotopicRatiosList();
 
-        int initialModelsBurnCount = ((Analysis) analysis).getMapOfBlockIdToModelsBurnCount().get(blockID);
+        int initialModelsBurnCount = analysis.getMapOfBlockIdToModelsBurnCount().get(blockID);
         int countOfEnsemblesUsed = ensembleRecordsList.size() - initialModelsBurnCount;
         // log ratios
         double[][] ensembleSetOfLogRatios = new double[isotopicRatioList.size()][countOfEnsemblesUsed];
@@ -130,11 +131,15 @@ public class EnsemblesStore implements Serializable {
         int[] cyclesSortedArray;
         int[] blockCycles = singleBlockRawDataSetRecord.blockCycleArray();
         int[] timeIndForSortingArray = singleBlockRawDataSetRecord.blockTimeIndicesArray();
-        Map<IsotopicRatio, Map<Integer, double[]>> mapLogRatiosToCycleStats = new TreeMap<>();
-        Map<Integer, double[]> denominatorMapCyclesToStats = new TreeMap<>();
+        CycleSufficientStatistics[] isotopeCycleStatistics = new CycleSufficientStatistics[singleBlockModelRecord.isotopeCount()];
         int startIndexOfPhotoMultiplierData = singleBlockRawDataSetRecord.getCountOfBaselineIntensities() + singleBlockRawDataSetRecord.getCountOfOnPeakFaradayIntensities();
         int[] d0_detVec = singleBlockRawDataSetRecord.blockDetectorOrdinalIndicesArray();
 
+        double[][] interpolatedKnotData_II = singleBlockRawDataSetRecord.blockKnotInterpolationArray();
+        Matrix II = new Matrix(interpolatedKnotData_II);
+        Matrix I = new Matrix(meansI0, meansI0.length);
+        Matrix intensityFn = II.times(I);
+
         for (int isotopeIndex = 0; isotopeIndex < singleBlockModelRecord.isotopeCount(); isotopeIndex++) {
             ddver2List = new ArrayList<>();
             cyclesList = new ArrayList<>();
@@ -157,9 +162,7 @@ public class EnsemblesStore implements Serializable {
             double[] ddVer2Array = ddver2List.stream().mapToDouble(d -> d).toArray();
             int[] cyclesArray = cyclesList.stream().mapToInt(d -> d).toArray();
             int[] tempTimeIndicesArray = tempTime.stream().mapToInt(d -> d).toArray();
-            SingleBlockModelInitForMCMC.ArrayIndexComparator comparatorTime = new SingleBlockModelInitForMCMC.ArrayIndexComparator(tempTimeIndicesArray);
-            Integer[] ddVer2sortIndices = comparatorTime.createIndexArray();
-            Arrays.sort(ddVer2sortIndices, comparatorTime);
+            int[] ddVer2sortIndices = IntArgSort.stableArgSort(tempTimeIndicesArray);
 
             ddVer2SortedArray = new double[ddVer2Array.length];
             cyclesSortedArray = new int[ddVer2Array.length];
@@ -171,58 +174,16 @@ public class EnsemblesStore implements Serializable {
 
             // start cycle-based math +++++++++++++++++++++++++++++++++++++++++++++++++++++++++
             // TODO: this is copied from SingleBlockModelInitForMCMC - need to refactor into one procedure
-            double[][] interpolatedKnotData_II = singleBlockRawDataSetRecord.blockKnotInterpolationArray();
-            Matrix II = new Matrix(interpolatedKnotData_II);
-            Matrix I = new Matrix(meansI0, meansI0.length);
-            Matrix intensityFn = II.times(I);
-
-            DescriptiveStatistics[] cycleStats = new DescriptiveStatistics[summaryMCMCModel.cycleCount()];
-
+            double[] normalizedSortedArray = new double[ddVer2SortedArray.length];
             for (int dataArrayIndex = 0; dataArrayIndex < ddVer2SortedArray.length; dataArrayIndex++) {
-                int cycle = cyclesSortedArray[dataArrayIndex] - 1;
-                if (null == cycleStats[cycle]) {
-                    cycleStats[cycle] = new DescriptiveStatistics();
-                }
-                // TODO: make this checks for both isotopes (eventually may include denominator as one that is excluded)
-                if (singleBlockModelRecord.mapOfSpeciesToActiveCycles().get(analysisMethod.getSpeciesList().get(isotopeIndex))[cycle]) {
-                    cycleStats[cycle].addValue(ddVer2SortedArray[dataArrayIndex] / intensityFn.get(dataArrayIndex, 0));
-                }
-            }
-
-
-            Map<Integer, double[]> mapCyclesToStats = new TreeMap<>();
-
-            for (int cycleIndex = 0; cycleIndex < cycleStats.length; cycleIndex++) {
-                // TODO: fix this - currently using ratios instead of logs for cycles - see ViewCycles in matlab
-                double[] cycleLogRatioStats = new double[2];
-
-                cycleLogRatioStats[0] = (cycleStats[cycleIndex].getMean());
-                // TODO: does this mean active cycles??
-                cycleLogRatioStats[1] = cycleStats[cycleIndex].getStandardDeviation() / Math.sqrt(cycleStats[cycleIndex].getN());
-
-                mapCyclesToStats.put(cycleIndex, cycleLogRatioStats);
-            }
-
-            int iden = singleBlockModelRecord.isotopeCount(); // ordinal
-            if (isotopeIndex == iden - 1) {
-                denominatorMapCyclesToStats = mapCyclesToStats;
-            } else {
-                mapLogRatiosToCycleStats.put(analysisMethod.getIsotopicRatiosList().get(isotopeIndex), mapCyclesToStats);
-            }
-        }
-
-        // postprocess to correct by denominator isotope as per ViewCycles in matlab
-        for (IsotopicRatio iRatio : mapLogRatiosToCycleStats.keySet()) {
-            Map<Integer, double[]> numeratorMapCyclesToStats = mapLogRatiosToCycleStats.get(iRatio);
-            for (int cycleIndex = 0; cycleIndex < numeratorMapCyclesToStats.keySet().size(); cycleIndex++) {
-                numeratorMapCyclesToStats.get(cycleIndex)[0] /= denominatorMapCyclesToStats.get(cycleIndex)[0];
-                double calcSterrCycleRatio =
-                        numeratorMapCyclesToStats.get(cycleIndex)[1] = StrictMath.sqrt(StrictMath.pow(numeratorMapCyclesToStats.get(cycleIndex)[1], 2.0)
-                                + StrictMath.pow(denominatorMapCyclesToStats.get(cycleIndex)[1], 2.0));
-                numeratorMapCyclesToStats.get(cycleIndex)[1] = calcSterrCycleRatio;
+                normalizedSortedArray[dataArrayIndex] = ddVer2SortedArray[dataArrayIndex] / intensityFn.get(dataArrayIndex, 0);
             }
+            isotopeCycleStatistics[isotopeIndex] =
+                    CycleSufficientStatistics.accumulate(normalizedSortedArray, cyclesSortedArray, summaryMCMCModel.cycleCount());
         }
 
+        Map<IsotopicRatio, Map<Integer, double[]>> mapLogRatiosToCycleStats = assembleMapLogRatiosToCycleStats(
+                isotopeCycleStatistics, singleBlockModelRecord.mapOfSpeciesToActiveCycles(), analysisMethod);
 
         SingleBlockModelRecord finalMCMCModel = new SingleBlockModelRecord(
                 blockID,//original
@@ -247,6 +208,45 @@ public class EnsemblesStore implements Serializable {
         analysis.getMapOfBlockIdToFinalModel().put(blockID, finalMCMCModel);
     }
 
+    /**
+     * Cycle statistics of each ratio against the denominator isotope, as per ViewCycles in matlab, from
+     * cached per-isotope sufficient statistics; O(isotopes x cycles) and independent of the block data.
+     *
+     * @param isotopeCycleStatistics     per-isotope cycle statistics, denominator isotope last
+     * @param mapOfSpeciesToActiveCycles active cycles of each species
+     * @param analysisMethod             method supplying species and ratios
+     * @return ratio to zero-based cycle to {mean, standard error}
+     */
+    public static Map<IsotopicRatio, Map<Integer, double[]>> assembleMapLogRatiosToCycleStats(
+            CycleSufficientStatistics[] isotopeCycleStatistics,
+            Map<SpeciesRecordInterface, boolean[]> mapOfSpeciesToActiveCycles,
+            AnalysisMethod analysisMethod) {
+        Map<IsotopicRatio, Map<Integer, double[]>> mapLogRatiosToCycleStats = new TreeMap<>();
+        Map<Integer, double[]> denominatorMapCyclesToStats = new TreeMap<>();
+        int iden = isotopeCycleStatistics.length; // ordinal
+        for (int isotopeIndex = 0; isotopeIndex < iden; isotopeIndex++) {
+            // TODO: make this checks for both isotopes (eventually may include denominator as one that is excluded)
+            Map<Integer, double[]> mapCyclesToStats = isotopeCycleStatistics[isotopeIndex].assembleMapCyclesToStats(
+                    mapOfSpeciesToActiveCycles.get(analysisMethod.getSpeciesList().get(isotopeIndex)));
+            if (isotopeIndex == iden - 1) {
+                denominatorMapCyclesToStats = mapCyclesToStats;
+            } else {
+                mapLogRatiosToCycleStats.put(analysisMethod.getIsotopicRatiosList().get(isotopeIndex), mapCyclesToStats);
+            }
+        }
+
+        // postprocess to correct by denominator isotope as per ViewCycles in matlab
+        for (IsotopicRatio iRatio : mapLogRatiosToCycleStats.keySet()) {
+            Map<Integer, double[]> numeratorMapCyclesToStats = mapLogRatiosToCycleStats.get(iRatio);
+            for (int cycleIndex = 0; cycleIndex < numeratorMapCyclesToStats.keySet().size(); cycleIndex++) {
+                numeratorMapCyclesToStats.get(cycleIndex)[0] /= denominatorMapCyclesToStats.get(cycleIndex)[0];
+                numeratorMapCyclesToStats.get(cycleIndex)[1] = StrictMath.sqrt(StrictMath.pow(numeratorMapCyclesToStats.get(cycleIndex)[1], 2.0)
+                        + StrictMath.pow(denominatorMapCyclesToStats.get(cycleIndex)[1], 2.0));
+            }
+        }
+        return mapLogRatiosToCycleStats;
+    }
+
     public record EnsembleRecord(
             double[] logRatios,
             double[] I0,
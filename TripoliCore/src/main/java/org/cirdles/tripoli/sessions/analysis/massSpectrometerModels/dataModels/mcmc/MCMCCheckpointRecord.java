@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot of an adaptive MCMC chain for one block, written as compact binary so that a cancelled or crashed
+ * run resumes from the saved iteration instead of restarting.  The fingerprint ties the snapshot to the data
+ * file, method and knot mode that produced it; a mismatch discards the snapshot.
+ *
+ * @author James F. Bowring
+ */
+public record MCMCCheckpointRecord(
+        String fingerprint,
+        long nextModelIndex,
+        int counter,
+        double minE,
+        double errorUnWeighted_E0,
+        int[][] keptUpdates,
+        double[] xDataMean,
+        double[][] xDataCovariance,
+        SingleBlockModelRecord currentModelRecord,
+        SingleBlockModelRecord bestModelRecord,
+        List<EnsemblesStore.EnsembleRecord> ensembleRecordsList,
+        RandomGenerator randomGenerator
+) {
+    private static final int CHECKPOINT_MAGIC = 0x54524d43;
+    private static final int CHECKPOINT_VERSION = 1;
+
+    /**
+     * Reads a checkpoint, rebuilding model records around the invariant parts of the initial model.
+     *
+     * @param checkpointPath       checkpoint file
+     * @param fingerprint          expected fingerprint of the run
+     * @param initialModelRecord_X0 initial model supplying block structure and maps
+     * @return the checkpoint or null if absent, unreadable or from a different run
+     */
+    public static MCMCCheckpointRecord readCheckpoint(Path checkpointPath, String fingerprint, SingleBlockModelRecord initialModelRecord_X0) {
+        MCMCCheckpointRecord checkpointRecord = null;
+        if (Files.exists(checkpointPath)) {
+            try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath)))) {
+                if ((CHECKPOINT_MAGIC == dataInputStream.readInt())
+                        && (CHECKPOINT_VERSION == dataInputStream.readInt())
+                        && fingerprint.equals(dataInputStream.readUTF())) {
+                    long nextModelIndex = dataInputStream.readLong();
+                    int counter = dataInputStream.readInt();
+                    double minE = dataInputStream.readDouble();
+                    double errorUnWeighted_E0 = dataInputStream.readDouble();
+                    int[][] keptUpdates = new int[dataInputStream.readInt()][];
+                    for (int row = 0; row < keptUpdates.length; row++) {
+                        keptUpdates[row] = readIntArray(dataInputStream);
+                    }
+                    double[] xDataMean = readDoubleArray(dataInputStream);
+                    double[][] xDataCovariance = new double[dataInputStream.readInt()][];
+                    for (int row = 0; row < xDataCovariance.length; row++) {
+                        xDataCovariance[row] = readDoubleArray(dataInputStream);
+                    }
+                    SingleBlockModelRecord currentModelRecord = readModelRecord(dataInputStream, initialModelRecord_X0);
+                    SingleBlockModelRecord bestModelRecord =
+                            dataInputStream.readBoolean() ? readModelRecord(dataInputStream, initialModelRecord_X0) : null;
+                    int countOfEnsembles = dataInputStream.readInt();
+                    List<EnsemblesStore.EnsembleRecord> ensembleRecordsList = new ArrayList<>(countOfEnsembles);
+                    for (int index = 0; index < countOfEnsembles; index++) {
+                        ensembleRecordsList.add(new EnsemblesStore.EnsembleRecord(
+                                readDoubleArray(dataInputStream),
+                                readDoubleArray(dataInputStream),
+                                readDoubleArray(dataInputStream),
+                                dataInputStream.readDouble(),
+                                null,
+                                dataInputStream.readDouble(),
+                                dataInputStream.readDouble()));
+                    }
+                    byte[] randomGeneratorBytes = new byte[dataInputStream.readInt()];
+                    dataInputStream.readFully(randomGeneratorBytes);
+                    RandomGenerator randomGenerator;
+                    try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(randomGeneratorBytes))) {
+                        randomGenerator = (RandomGenerator) objectInputStream.readObject();
+                    }
+
+                    checkpointRecord = new MCMCCheckpointRecord(fingerprint, nextModelIndex, counter, minE, errorUnWeighted_E0,
+                            keptUpdates, xDataMean, xDataCovariance, currentModelRecord, bestModelRecord, ensembleRecordsList, randomGenerator);
+                }
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                checkpointRecord = null;
+            }
+        }
+        return checkpointRecord;
+    }
+
+    private static SingleBlockModelRecord readModelRecord(DataInputStream dataInputStream, SingleBlockModelRecord initialModelRecord_X0) throws IOException {
+        double[] baselineMeansArray = readDoubleArray(dataInputStream);
+        double[] baselineStandardDeviationsArray = readDoubleArray(dataInputStream);
+        double detectorFaradayGain = dataInputStream.readDouble();
+        double[] logRatios = readDoubleArray(dataInputStream);
+        double[] dataModelArray = readDoubleArray(dataInputStream);
+        double[] dataSignalNoiseArray = readDoubleArray(dataInputStream);
+        double[] I0 = readDoubleArray(dataInputStream);
+        double[] intensities = readDoubleArray(dataInputStream);
+        return new SingleBlockModelRecord(
+                initialModelRecord_X0.blockID(),
+                initialModelRecord_X0.faradayCount(),
+                initialModelRecord_X0.cycleCount(),
+                initialModelRecord_X0.isotopeCount(),
+                initialModelRecord_X0.highestAbundanceSpecies(),
+                baselineMeansArray,
+                baselineStandardDeviationsArray,
+                detectorFaradayGain,
+                initialModelRecord_X0.mapDetectorOrdinalToFaradayIndex(),
+                logRatios,
+                initialModelRecord_X0.mapOfSpeciesToActiveCycles(),
+                initialModelRecord_X0.mapLogRatiosToCycleStats(),
+                dataModelArray,
+                dataSignalNoiseArray,
+                I0,
+                intensities);
+    }
+
+    private static double[] readDoubleArray(DataInputStream dataInputStream) throws IOException {
+        double[] values = new double[dataInputStream.readInt()];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = dataInputStream.readDouble();
+        }
+        return values;
+    }
+
+    private static int[] readIntArray(DataInputStream dataInputStream) throws IOException {
+        int[] values = new int[dataInputStream.readInt()];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = dataInputStream.readInt();
+        }
+        return values;
+    }
+
+    private static void writeModelRecord(DataOutputStream dataOutputStream, SingleBlockModelRecord modelRecord) throws IOException {
+        writeDoubleArray(dataOutputStream, modelRecord.baselineMeansArray());
+        writeDoubleArray(dataOutputStream, modelRecord.baselineStandardDeviationsArray());
+        dataOutputStream.writeDouble(modelRecord.detectorFaradayGain());
+        writeDoubleArray(dataOutputStream, modelRecord.logRatios());
+        writeDoubleArray(dataOutputStream, modelRecord.dataModelArray());
+        writeDoubleArray(dataOutputStream, modelRecord.dataSignalNoiseArray());
+        writeDoubleArray(dataOutputStream, modelRecord.I0());
+        writeDoubleArray(dataOutputStream, modelRecord.intensities());
+    }
+
+    private static void writeDoubleArray(DataOutputStream dataOutputStream, double[] values) throws IOException {
+        dataOutputStream.writeInt(values.length);
+        for (double value : values) {
+            dataOutputStream.writeDouble(value);
+        }
+    }
+
+    private static void writeIntArray(DataOutputStream dataOutputStream, int[] values) throws IOException {
+        dataOutputStream.writeInt(values.length);
+        for (int value : values) {
+            dataOutputStream.writeInt(value);
+        }
+    }
+
+    /**
+     * Writes to a sibling temporary file and renames it over the target so a crash mid-write leaves the
+     * previous checkpoint intact.
+     *
+     * @param checkpointPath checkpoint file
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void writeCheckpoint(Path checkpointPath) throws IOException {
+        Files.createDirectories(checkpointPath.getParent());
+        Path temporaryPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        try (DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+            dataOutputStream.writeInt(CHECKPOINT_MAGIC);
+            dataOutputStream.writeInt(CHECKPOINT_VERSION);
+            dataOutputStream.writeUTF(fingerprint);
+            dataOutputStream.writeLong(nextModelIndex);
+            dataOutputStream.writeInt(counter);
+            dataOutputStream.writeDouble(minE);
+            dataOutputStream.writeDouble(errorUnWeighted_E0);
+            dataOutputStream.writeInt(keptUpdates.length);
+            for (int[] keptUpdatesRow : keptUpdates) {
+                writeIntArray(dataOutputStream, keptUpdatesRow);
+            }
+            writeDoubleArray(dataOutputStream, xDataMean);
+            dataOutputStream.writeInt(xDataCovariance.length);
+            for (double[] xDataCovarianceRow : xDataCovariance) {
+                writeDoubleArray(dataOutputStream, xDataCovarianceRow);
+            }
+            writeModelRecord(dataOutputStream, currentModelRecord);
+            dataOutputStream.writeBoolean(null != bestModelRecord);
+            if (null != bestModelRecord) {
+                writeModelRecord(dataOutputStream, bestModelRecord);
+            }
+            dataOutputStream.writeInt(ensembleRecordsList.size());
+            for (EnsemblesStore.EnsembleRecord ensembleRecord : ensembleRecordsList) {
+                writeDoubleArray(dataOutputStream, ensembleRecord.logRatios());
+                writeDoubleArray(dataOutputStream, ensembleRecord.I0());
+                writeDoubleArray(dataOutputStream, ensembleRecord.baseLine());
+                dataOutputStream.writeDouble(ensembleRecord.dfGain());
+                dataOutputStream.writeDouble(ensembleRecord.errorWeighted());
+                dataOutputStream.writeDouble(ensembleRecord.errorUnWeighted());
+            }
+            ByteArrayOutputStream randomGeneratorBytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(randomGeneratorBytes)) {
+                objectOutputStream.writeObject(randomGenerator);
+            }
+            dataOutputStream.writeInt(randomGeneratorBytes.size());
+            randomGeneratorBytes.writeTo(dataOutputStream);
+        }
+        Files.move(temporaryPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -16,24 +16,30 @@
 
 package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
 
+import com.google.common.hash.Hashing;
 import jama.Matrix;
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.commons.math3.distribution.ChiSquaredDistribution;
 import org.apache.commons.math3.random.RandomDataGenerator;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
 import org.cirdles.tripoli.plots.PlotBuilder;
-import org.cirdles.tripoli.sessions.analysis.Analysis;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
 import org.cirdles.tripoli.utilities.callbacks.LoggingCallbackInterface;
+import org.cirdles.tripoli.utilities.exceptions.TripoliException;
 import org.cirdles.tripoli.utilities.mathUtilities.MatLabCholesky;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.SecureRandom;
 import java.text.DecimalFormat;
 import java.util.*;
 
@@ -41,6 +47,8 @@ import static java.lang.Math.min;
 import static java.lang.Math.pow;
 import static java.lang.StrictMath.exp;
 import static org.apache.commons.math3.special.Gamma.gamma;
+import static org.cirdles.tripoli.constants.TripoliConstants.TRIPOLI_MCMC_CHECKPOINTS_FOLDER_NAME;
+import static org.cirdles.tripoli.constants.TripoliConstants.TRIPOLI_USERS_DATA_FOLDER_NAME;
 import static org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockModelInitForMCMC.modelInitData;
 
 /**
@@ -51,6 +59,7 @@ public class MCMCProcess {
     private static final int maxIterationCount = 10000;
     private static final int stepCountForcedSave = 10;
     private static final int modelCount = maxIterationCount * stepCountForcedSave;
+    private static final int stepCountCheckpoint = 1000 * stepCountForcedSave;
     private final SingleBlockModelRecord singleBlockInitialModelRecord_X0;
     private final Matrix covarianceMatrix_C0;
     private final AnalysisMethod analysisMethod;
@@ -75,6 +84,9 @@ public class MCMCProcess {
     private double effectSamp;
     private double ExitCrit;
     private boolean useAverageNotBestModel;
+    private String checkpointFingerprint;
+    private Path checkpointPath;
+    private volatile boolean cancelRequested;
 
     private MCMCProcess(
             AnalysisInterface analysis,
@@ -189,9 +201,43 @@ public class MCMCProcess {
         xDataMean = new double[sizeOfModel];
         xDataCovariance = new double[sizeOfModel][sizeOfModel];
 
+        // a checkpoint is only valid for the same data file contents, method, knot mode and block
+        int blockID = singleBlockInitialModelRecord_X0.blockID();
+        checkpointFingerprint = Hashing.sha256().hashString(
+                dataFileIdentity(analysis.getDataFilePathString()) + "|" + analysisMethod.fingerprintForBlockPreparation()
+                        + "|" + analysisMethod.isUseLinearKnots() + "|" + blockID, StandardCharsets.UTF_8).toString();
+        checkpointPath = Path.of(System.getProperty("user.home"), TRIPOLI_USERS_DATA_FOLDER_NAME, TRIPOLI_MCMC_CHECKPOINTS_FOLDER_NAME,
+                "Block_" + blockID + "_" + checkpointFingerprint.substring(0, 16) + ".mcmc");
+
         buildForwardModel();
     }
 
+    /**
+     * Asks a running chain to stop at the start of its next iteration; the chain saves a checkpoint before
+     * stopping.  Interrupting the running thread has the same effect.
+     */
+    public void requestCancel() {
+        cancelRequested = true;
+    }
+
+    private boolean isCancelled() {
+        return cancelRequested || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Path, size and modification time, so that a data file rewritten in place does not resume a stale chain.
+     */
+    private static String dataFileIdentity(String dataFilePathString) {
+        String dataFileIdentity = dataFilePathString;
+        try {
+            Path dataFilePath = Path.of(dataFilePathString);
+            dataFileIdentity += "|" + Files.size(dataFilePath) + "|" + Files.getLastModifiedTime(dataFilePath).toMillis();
+        } catch (IOException | InvalidPathException e) {
+            // synthetic data without a file on disk is identified by its name alone
+        }
+        return dataFileIdentity;
+    }
+
     private synchronized void buildForwardModel() {
         /*
 % Assign initial values for model x
@@ -263,7 +309,7 @@ x=x0;
         }
     }
 
-    public synchronized PlotBuilder[][] applyInversionWithAdaptiveMCMC(LoggingCallbackInterface loggingCallback) throws IOException {
+    public synchronized PlotBuilder[][] applyInversionWithAdaptiveMCMC(LoggingCallbackInterface loggingCallback) throws IOException, TripoliException {
 
         PhysicalStore.Factory<Double, Primitive64Store> storeFactory = Primitive64Store.FACTORY;
         SingleBlockModelRecord singleBlockCurrentModelRecord_X = singleBlockInitialModelRecord_X0;//.clone();
@@ -287,14 +333,18 @@ x=x0;
                 [x2,delx] = UpdateMSv2(oper,x,psig,prior,ensemble,xcov,delx_adapt(:,mod(m,datsav)+1),adaptflag,allflag);
          */
 
-        RandomDataGenerator randomDataGenerator = new RandomDataGenerator();
-        randomDataGenerator.reSeedSecure();
+        // explicit generator (the same kind RandomDataGenerator creates lazily) so its state can be checkpointed;
+        // seeded securely as reSeedSecure() did
+        RandomGenerator randomGenerator = new Well19937c(new SecureRandom().nextLong());
+        RandomDataGenerator randomDataGenerator = new RandomDataGenerator(randomGenerator);
 
         DecimalFormat statsFormat = new DecimalFormat("#0.000000");
         StopWatch watch = new StopWatch();
         watch.start();
         int counter = 0;
         SingleBlockModelUpdater singleBlockModelUpdater = new SingleBlockModelUpdater();
+        MCMCTelemetryRecorder telemetryRecorder =
+                new MCMCTelemetryRecorder(singleBlockInitialModelRecord_X0.blockID(), singleBlockModelUpdater.getOperations());
 
         int countOfData = singleBlockCurrentModelRecord_X.dataModelArray().length;
         int[] detectorOrdinalIndices = singleBlockRawDataSetRecord.blockDetectorOrdinalIndicesArray();
@@ -308,8 +358,44 @@ x=x0;
 
         double minE = Double.MAX_VALUE;
         SingleBlockModelRecord bestSingleBlockModelRecord = null;
-        for (long modelIndex = 1; modelCount >= modelIndex; modelIndex++) {//********************************************
+
+        long firstModelIndex = 1;
+        MCMCCheckpointRecord checkpointRecord =
+                MCMCCheckpointRecord.readCheckpoint(checkpointPath, checkpointFingerprint, singleBlockInitialModelRecord_X0);
+        if (null != checkpointRecord) {
+            firstModelIndex = checkpointRecord.nextModelIndex();
+            counter = checkpointRecord.counter();
+            minE = checkpointRecord.minE();
+            initialModelErrorUnWeighted_E0 = checkpointRecord.errorUnWeighted_E0();
+            keptUpdates = checkpointRecord.keptUpdates();
+            xDataMean = checkpointRecord.xDataMean();
+            xDataCovariance = checkpointRecord.xDataCovariance();
+            singleBlockCurrentModelRecord_X = checkpointRecord.currentModelRecord();
+            bestSingleBlockModelRecord = checkpointRecord.bestModelRecord();
+            ensembleRecordsList = checkpointRecord.ensembleRecordsList();
+            randomGenerator = checkpointRecord.randomGenerator();
+            randomDataGenerator = new RandomDataGenerator(randomGenerator);
+            loggingCallback.receiveLoggingSnippet(
+                    "Resuming BLOCK # " + singleBlockInitialModelRecord_X0.blockID() + " from checkpoint at iteration " + firstModelIndex);
+        }
+
+        for (long modelIndex = firstModelIndex; modelCount >= modelIndex; modelIndex++) {//********************************************
             if (notConverged) {
+                if (isCancelled()) {
+                    // clear the interrupt while writing; NIO file channels close on interrupted threads
+                    boolean interrupted = Thread.interrupted();
+                    try {
+                        new MCMCCheckpointRecord(checkpointFingerprint, modelIndex, counter, minE, initialModelErrorUnWeighted_E0,
+                                keptUpdates, xDataMean, xDataCovariance, singleBlockCurrentModelRecord_X, bestSingleBlockModelRecord,
+                                ensembleRecordsList, randomGenerator).writeCheckpoint(checkpointPath);
+                    } finally {
+                        if (interrupted) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    throw new TripoliException("MCMC cancelled for BLOCK # " + singleBlockInitialModelRecord_X0.blockID()
+                            + " before iteration " + modelIndex + "; progress saved for resume.");
+                }
                 long prev = System.nanoTime();
                 boolean allFlag = true;
                 tempering = 1.0;
@@ -584,6 +670,7 @@ x=x0;
                 xDataMean = updatedCovariancesRecord.dataMean();
 
                 long interval5 = System.nanoTime() - prev;
+                telemetryRecorder.recordIteration(interval1 + interval2, interval3, interval4, interval5);
 
                 if (0 == modelIndex % (stepCountForcedSave)) {
                 /*
@@ -662,21 +749,9 @@ x=x0;
                                         + "  BLOCK # " + singleBlockCurrentModelRecord_X.blockID()
                                         + "\nElapsed time = " + statsFormat.format(watch.getTime() / 1000.0) + " seconds for " + 10 * stepCountForcedSave + " realizations of total = " + modelIndex
                                         + "\nError function = " + statsFormat.format(StrictMath.sqrt(initialModelErrorUnWeighted_E0 / countOfData))
-                                        + "\nChange All Variables: " + modelsKeptLocal + " of " + modelsTotalLocal + " accepted (" + statsFormat.format(100.0 * modelsKept / modelsTotal) + "% total)"
-                                        + ("\nIntervals: in microseconds, each from prev or zero time till new interval"
-                                        + " Interval1 " + (interval1 / 1000)
-                                        + " Interval2 " + (interval2 / 1000)
-                                        + " Interval3 " + (interval3 / 1000)
-                                        + " Interval4 " + (interval4 / 1000)
-                                        + " Interval5 " + (interval5 / 1000));
-
-                        System.err.println("\n" + loggingSnippet + "\n");
-                        loggingCallback.receiveLoggingSnippet(loggingSnippet);
+                                        + "\nChange All Variables: " + modelsKeptLocal + " of " + modelsTotalLocal + " accepted (" + statsFormat.format(100.0 * modelsKept / modelsTotal) + "% total)";
 
-                        for (int i = 0; 5 > i; i++) {
-                            keptUpdates[i][0] = 0;
-                            keptUpdates[i][1] = 0;
-                        }
+                        loggingCallback.receiveLoggingSnippet(loggingSnippet);
 
                     /*
                      % If number of iterations is square number, larger than effective
@@ -695,24 +770,45 @@ x=x0;
                         end
                      */
 
+                        double rExit = Double.NaN;
                         if ((0 == Math.sqrt(counter) % 1) && (counter >= effectSamp / stepCountForcedSave)) {
-                            double rExit = singleBlockModelUpdater.grConverge(ensembleRecordsList);
+                            rExit = singleBlockModelUpdater.grConverge(ensembleRecordsList);
 
                             if (rExit <= ExitCrit) {
                                 notConverged = false;
                                 String exitMessage = "Alert:  for BLOCK # " + singleBlockCurrentModelRecord_X.blockID() + ",  MCMC has converged after " + modelIndex + " iterations, with R = " + rExit;
-                                System.err.println("\n" + exitMessage + "\n");
                                 loggingCallback.receiveLoggingSnippet(exitMessage);
                             }
                         }
 
+                        MCMCTelemetry.publish(telemetryRecorder.closeWindow(modelIndex, keptUpdates,
+                                StrictMath.sqrt(initialModelErrorUnWeighted_E0 / countOfData), E, rExit, !notConverged));
+
+                        for (int i = 0; 5 > i; i++) {
+                            keptUpdates[i][0] = 0;
+                            keptUpdates[i][1] = 0;
+                        }
+
                         watch.reset();
                         watch.start();
                     }
                 }
+
+                if (notConverged && (0 == modelIndex % stepCountCheckpoint)) {
+                    try {
+                        new MCMCCheckpointRecord(checkpointFingerprint, modelIndex + 1, counter, minE, initialModelErrorUnWeighted_E0,
+                                keptUpdates, xDataMean, xDataCovariance, singleBlockCurrentModelRecord_X, bestSingleBlockModelRecord,
+                                ensembleRecordsList, randomGenerator).writeCheckpoint(checkpointPath);
+                    } catch (IOException e) {
+                        // a missed checkpoint only costs resume progress
+                        loggingCallback.receiveLoggingSnippet("Unable to write MCMC checkpoint: " + e.getMessage());
+                    }
+                }
             }// end model loop
         }// convergence check
 
+        Files.deleteIfExists(checkpointPath);
+
         // Detroit 2023 printout ensembleRecordsList
         Path path = Paths.get("EnsemblesForBlock_" + singleBlockCurrentModelRecord_X.blockID() + ".csv");
         OutputStream stream = Files.newOutputStream(path);
@@ -725,7 +821,7 @@ x=x0;
         // for session plotting
         // toDO: promote to analysis
         analysis.getMapOfBlockIdToRawData().put(singleBlockCurrentModelRecord_X.blockID(), singleBlockRawDataSetRecord);
-        ((Analysis) analysis).getMapBlockIDToEnsembles().put(singleBlockCurrentModelRecord_X.blockID(), ensembleRecordsList);
+        analysis.getMapBlockIDToEnsembles().put(singleBlockCurrentModelRecord_X.blockID(), ensembleRecordsList);
 
         // default strategy
         analysis.getMapOfBlockIdToFinalModel()
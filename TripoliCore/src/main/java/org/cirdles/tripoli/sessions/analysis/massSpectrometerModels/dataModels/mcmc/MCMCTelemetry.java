@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes MCMC telemetry to Flight Recorder and to registered listeners.  For headless runs, setting the
+ * system property {@value #TELEMETRY_SINK_PROPERTY} to a file path registers a sink writing every record to that
+ * file, as JSON lines if the path ends in .json or .jsonl and as CSV otherwise.
+ *
+ * @author James F. Bowring
+ */
+public enum MCMCTelemetry {
+    ;
+
+    public static final String TELEMETRY_SINK_PROPERTY = "tripoli.mcmc.telemetrySink";
+
+    private static final List<MCMCTelemetryListener> telemetryListeners = new CopyOnWriteArrayList<>();
+
+    static {
+        String telemetrySink = System.getProperty(TELEMETRY_SINK_PROPERTY);
+        if ((null != telemetrySink) && !telemetrySink.isBlank()) {
+            try {
+                telemetryListeners.add(MCMCTelemetryFileSink.openSink(Path.of(telemetrySink)));
+            } catch (IOException e) {
+                System.err.println("Unable to open MCMC telemetry sink " + telemetrySink + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static void addTelemetryListener(MCMCTelemetryListener telemetryListener) {
+        telemetryListeners.add(telemetryListener);
+    }
+
+    public static void removeTelemetryListener(MCMCTelemetryListener telemetryListener) {
+        telemetryListeners.remove(telemetryListener);
+    }
+
+    static void publish(MCMCTelemetryRecord telemetryRecord) {
+        MCMCTelemetryEvent.commitTelemetry(telemetryRecord);
+        for (MCMCTelemetryListener telemetryListener : telemetryListeners) {
+            telemetryListener.receiveTelemetry(telemetryRecord);
+        }
+    }
+}
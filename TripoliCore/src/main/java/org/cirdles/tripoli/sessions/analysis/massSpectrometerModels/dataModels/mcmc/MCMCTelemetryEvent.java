@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder view of {@link MCMCTelemetryRecord}, committed once per reporting window.
+ *
+ * @author James F. Bowring
+ */
+@Name("org.cirdles.tripoli.MCMCWindow")
+@Label("MCMC Window")
+@Category({"Tripoli", "MCMC"})
+@Description("Latency, acceptance, misfit and allocation over one MCMC reporting window of a block")
+@StackTrace(false)
+public class MCMCTelemetryEvent extends Event {
+
+    @Label("Block ID")
+    int blockID;
+
+    @Label("Model Index")
+    long modelIndex;
+
+    @Label("Iterations")
+    int iterationCount;
+
+    @Label("Mean Iteration")
+    @Timespan(Timespan.NANOSECONDS)
+    long meanIterationNanos;
+
+    @Label("99th Percentile Iteration")
+    @Timespan(Timespan.NANOSECONDS)
+    long p99IterationNanos;
+
+    @Label("Max Iteration")
+    @Timespan(Timespan.NANOSECONDS)
+    long maxIterationNanos;
+
+    @Label("Proposal")
+    @Timespan(Timespan.NANOSECONDS)
+    long proposalNanos;
+
+    @Label("Forward Model")
+    @Timespan(Timespan.NANOSECONDS)
+    long forwardModelNanos;
+
+    @Label("Misfit Evaluation")
+    @Timespan(Timespan.NANOSECONDS)
+    long misfitNanos;
+
+    @Label("Acceptance")
+    @Timespan(Timespan.NANOSECONDS)
+    long acceptanceNanos;
+
+    @Label("Acceptance Rate")
+    @Percentage
+    double acceptanceRate;
+
+    @Label("Cumulative Acceptance Rate")
+    @Percentage
+    double cumulativeAcceptanceRate;
+
+    @Label("Misfit")
+    double misfit;
+
+    @Label("R Hat")
+    double rHat;
+
+    @Label("Converged")
+    boolean converged;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    static void commitTelemetry(MCMCTelemetryRecord telemetryRecord) {
+        MCMCTelemetryEvent event = new MCMCTelemetryEvent();
+        if (event.isEnabled()) {
+            event.blockID = telemetryRecord.blockID();
+            event.modelIndex = telemetryRecord.modelIndex();
+            event.iterationCount = telemetryRecord.iterationCount();
+            event.meanIterationNanos = telemetryRecord.meanIterationNanos();
+            event.p99IterationNanos = telemetryRecord.iterationLatencyQuantileNanos(0.99);
+            event.maxIterationNanos = telemetryRecord.maxIterationNanos();
+            event.proposalNanos = telemetryRecord.proposalNanos();
+            event.forwardModelNanos = telemetryRecord.forwardModelNanos();
+            event.misfitNanos = telemetryRecord.misfitNanos();
+            event.acceptanceNanos = telemetryRecord.acceptanceNanos();
+            event.acceptanceRate = telemetryRecord.acceptanceRate();
+            event.cumulativeAcceptanceRate = telemetryRecord.cumulativeAcceptanceRate();
+            event.misfit = telemetryRecord.misfit();
+            event.rHat = telemetryRecord.rHat();
+            event.converged = telemetryRecord.converged();
+            event.allocatedBytes = telemetryRecord.allocatedBytes();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes MCMC telemetry records to a file as CSV or JSON lines, flushing after each record so a headless run
+ * can be followed while it works.  Blocks run concurrently, so records of different blocks interleave.
+ *
+ * @author James F. Bowring
+ */
+public class MCMCTelemetryFileSink implements MCMCTelemetryListener, AutoCloseable {
+
+    private final BufferedWriter writer;
+    private final boolean json;
+    private boolean headerWritten;
+    private boolean failed;
+
+    private MCMCTelemetryFileSink(BufferedWriter writer, boolean json) {
+        this.writer = writer;
+        this.json = json;
+    }
+
+    /**
+     * @param sinkPath file to create or replace; JSON lines if it ends in .json or .jsonl, otherwise CSV
+     * @return the sink, closed when the JVM exits
+     * @throws IOException if the file cannot be created
+     */
+    public static MCMCTelemetryFileSink openSink(Path sinkPath) throws IOException {
+        String fileName = sinkPath.getFileName().toString().toLowerCase(Locale.ROOT);
+        MCMCTelemetryFileSink telemetryFileSink = new MCMCTelemetryFileSink(
+                Files.newBufferedWriter(sinkPath, StandardCharsets.UTF_8),
+                fileName.endsWith(".json") || fileName.endsWith(".jsonl"));
+        Runtime.getRuntime().addShutdownHook(new Thread(telemetryFileSink::close, "Tripoli MCMC telemetry sink"));
+
+        return telemetryFileSink;
+    }
+
+    @Override
+    public synchronized void receiveTelemetry(MCMCTelemetryRecord telemetryRecord) {
+        if (!failed) {
+            try {
+                if (json) {
+                    writer.write(telemetryRecord.prettyPrintAsJSON());
+                } else {
+                    if (!headerWritten) {
+                        writer.write(MCMCTelemetryRecord.prettyPrintHeaderAsCSV(telemetryRecord.operations()));
+                        headerWritten = true;
+                    }
+                    writer.write(telemetryRecord.prettyPrintAsCSV());
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // telemetry must never stop an inversion
+                failed = true;
+                System.err.println("MCMC telemetry sink stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            // nothing left to write
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+/**
+ * Receives MCMC telemetry, one record per reporting window of each block.  Called on the thread running the
+ * block's inversion, so implementations must be quick and must hand any UI work to the UI thread.
+ *
+ * @author James F. Bowring
+ */
+@FunctionalInterface
+public interface MCMCTelemetryListener {
+    void receiveTelemetry(MCMCTelemetryRecord telemetryRecord);
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import java.util.List;
+
+/**
+ * Telemetry of one reporting window of an MCMC inversion.  Phase times are summed over the window's
+ * iterations; iteration latencies are counted in power-of-two nanosecond buckets.
+ *
+ * @param blockID                   block
+ * @param modelIndex                last iteration of the window
+ * @param iterationCount            iterations in the window
+ * @param windowNanos               wall time of the window
+ * @param iterationLatencyHistogram bucket b counts iterations taking [2^b, 2^(b+1)) nanoseconds
+ * @param maxIterationNanos         slowest iteration
+ * @param proposalNanos             drawing and applying proposals
+ * @param forwardModelNanos         computing the proposed data
+ * @param misfitNanos               computing the misfits
+ * @param acceptanceNanos           accepting and updating the model mean and covariance
+ * @param operations                proposal operations
+ * @param acceptedByOperation       accepted proposals in the window, per operation
+ * @param proposedByOperation       proposals in the window, per operation
+ * @param cumulativeAcceptanceRate  accepted over proposed since the inversion started
+ * @param misfit                    root mean square unweighted misfit of the current model
+ * @param weightedMisfit            error weighted misfit of the current model
+ * @param rHat                      Gelman-Rubin statistic, NaN if not tested in this window
+ * @param converged                 true if the inversion converged in this window
+ * @param allocatedBytes            bytes allocated by the inversion thread in the window, -1 if unsupported
+ * @author James F. Bowring
+ */
+public record MCMCTelemetryRecord(
+        int blockID,
+        long modelIndex,
+        int iterationCount,
+        long windowNanos,
+        long[] iterationLatencyHistogram,
+        long maxIterationNanos,
+        long proposalNanos,
+        long forwardModelNanos,
+        long misfitNanos,
+        long acceptanceNanos,
+        List<String> operations,
+        int[] acceptedByOperation,
+        int[] proposedByOperation,
+        double cumulativeAcceptanceRate,
+        double misfit,
+        double weightedMisfit,
+        double rHat,
+        boolean converged,
+        long allocatedBytes) {
+
+    public long meanIterationNanos() {
+        return (0 == iterationCount) ? 0L : (proposalNanos + forwardModelNanos + misfitNanos + acceptanceNanos) / iterationCount;
+    }
+
+    /**
+     * @param quantile in [0, 1]
+     * @return upper bound of the histogram bucket holding the quantile, capped by the slowest iteration
+     */
+    public long iterationLatencyQuantileNanos(double quantile) {
+        long target = (long) Math.ceil(quantile * iterationCount);
+        long cumulativeCount = 0L;
+        int bucket = 0;
+        while ((bucket < iterationLatencyHistogram.length - 1) && (cumulativeCount + iterationLatencyHistogram[bucket] < Math.max(1L, target))) {
+            cumulativeCount += iterationLatencyHistogram[bucket];
+            bucket++;
+        }
+        return Math.min(maxIterationNanos, (1L << Math.min(62, bucket + 1)) - 1L);
+    }
+
+    public double acceptanceRate() {
+        int accepted = 0;
+        int proposed = 0;
+        for (int operationIndex = 0; operationIndex < operations.size(); operationIndex++) {
+            accepted += acceptedByOperation[operationIndex];
+            proposed += proposedByOperation[operationIndex];
+        }
+        return (0 == proposed) ? Double.NaN : (double) accepted / proposed;
+    }
+
+    public double acceptanceRate(int operationIndex) {
+        int proposed = proposedByOperation[operationIndex];
+        return (0 == proposed) ? Double.NaN : (double) acceptedByOperation[operationIndex] / proposed;
+    }
+
+    /**
+     * @return bytes allocated per second in the window, NaN if unsupported
+     */
+    public double allocationRate() {
+        return ((0 > allocatedBytes) || (0 == windowNanos)) ? Double.NaN : allocatedBytes * 1.0e9 / windowNanos;
+    }
+
+    public static String prettyPrintHeaderAsCSV(List<String> operations) {
+        StringBuilder header = new StringBuilder(
+                "blockID,modelIndex,iterations,windowMillis,meanIterationMicros,p50IterationMicros,p99IterationMicros,maxIterationMicros,"
+                        + "proposalMicros,forwardModelMicros,misfitMicros,acceptanceMicros,acceptanceRate,");
+        for (String operation : operations) {
+            header.append("acceptance-").append(operation).append(",");
+        }
+        header.append("cumulativeAcceptanceRate,misfit,weightedMisfit,rHat,converged,allocatedBytes,allocationRateBytesPerSecond\n");
+        return header.toString();
+    }
+
+    public String prettyPrintAsCSV() {
+        StringBuilder data = new StringBuilder();
+        data.append(blockID).append(",")
+                .append(modelIndex).append(",")
+                .append(iterationCount).append(",")
+                .append(windowNanos / 1.0e6).append(",")
+                .append(meanIterationNanos() / 1.0e3).append(",")
+                .append(iterationLatencyQuantileNanos(0.5) / 1.0e3).append(",")
+                .append(iterationLatencyQuantileNanos(0.99) / 1.0e3).append(",")
+                .append(maxIterationNanos / 1.0e3).append(",")
+                .append(proposalNanos / 1.0e3).append(",")
+                .append(forwardModelNanos / 1.0e3).append(",")
+                .append(misfitNanos / 1.0e3).append(",")
+                .append(acceptanceNanos / 1.0e3).append(",")
+                .append(acceptanceRate()).append(",");
+        for (int operationIndex = 0; operationIndex < operations.size(); operationIndex++) {
+            data.append(acceptanceRate(operationIndex)).append(",");
+        }
+        data.append(cumulativeAcceptanceRate).append(",")
+                .append(misfit).append(",")
+                .append(weightedMisfit).append(",")
+                .append(rHat).append(",")
+                .append(converged).append(",")
+                .append(allocatedBytes).append(",")
+                .append(allocationRate()).append("\n");
+        return data.toString();
+    }
+
+    /**
+     * @return the record as one line of JSON; NaN values are written as null
+     */
+    public String prettyPrintAsJSON() {
+        StringBuilder data = new StringBuilder("{");
+        data.append("\"blockID\":").append(blockID)
+                .append(",\"modelIndex\":").append(modelIndex)
+                .append(",\"iterations\":").append(iterationCount)
+                .append(",\"windowNanos\":").append(windowNanos)
+                .append(",\"meanIterationNanos\":").append(meanIterationNanos())
+                .append(",\"p50IterationNanos\":").append(iterationLatencyQuantileNanos(0.5))
+                .append(",\"p99IterationNanos\":").append(iterationLatencyQuantileNanos(0.99))
+                .append(",\"maxIterationNanos\":").append(maxIterationNanos)
+                .append(",\"iterationLatencyHistogram\":[");
+        for (int bucket = 0; bucket < iterationLatencyHistogram.length; bucket++) {
+            data.append((0 == bucket) ? "" : ",").append(iterationLatencyHistogram[bucket]);
+        }
+        data.append("],\"phaseNanos\":{\"proposal\":").append(proposalNanos)
+                .append(",\"forwardModel\":").append(forwardModelNanos)
+                .append(",\"misfit\":").append(misfitNanos)
+                .append(",\"acceptance\":").append(acceptanceNanos)
+                .append("},\"acceptanceRate\":").append(jsonNumber(acceptanceRate()))
+                .append(",\"acceptanceByOperation\":{");
+        for (int operationIndex = 0; operationIndex < operations.size(); operationIndex++) {
+            data.append((0 == operationIndex) ? "" : ",")
+                    .append("\"").append(operations.get(operationIndex)).append("\":{\"accepted\":")
+                    .append(acceptedByOperation[operationIndex])
+                    .append(",\"proposed\":").append(proposedByOperation[operationIndex]).append("}");
+        }
+        data.append("},\"cumulativeAcceptanceRate\":").append(jsonNumber(cumulativeAcceptanceRate))
+                .append(",\"misfit\":").append(jsonNumber(misfit))
+                .append(",\"weightedMisfit\":").append(jsonNumber(weightedMisfit))
+                .append(",\"rHat\":").append(jsonNumber(rHat))
+                .append(",\"converged\":").append(converged)
+                .append(",\"allocatedBytes\":").append(allocatedBytes)
+                .append("}\n");
+        return data.toString();
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+}
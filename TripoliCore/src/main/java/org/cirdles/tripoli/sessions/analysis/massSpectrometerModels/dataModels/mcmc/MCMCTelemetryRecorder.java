@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Accumulates one block's MCMC telemetry between reporting windows.  Per iteration it only adds phase times
+ * and increments a latency bucket; the thread allocation counter is read once per window.
+ *
+ * @author James F. Bowring
+ */
+final class MCMCTelemetryRecorder {
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final int blockID;
+    private final List<String> operations;
+    private final long[] iterationLatencyHistogram = new long[Long.SIZE];
+    private int iterationCount;
+    private long maxIterationNanos;
+    private long proposalNanos;
+    private long forwardModelNanos;
+    private long misfitNanos;
+    private long acceptanceNanos;
+    private long windowStartNanos;
+    private long windowStartAllocatedBytes;
+
+    MCMCTelemetryRecorder(int blockID, List<String> operations) {
+        this.blockID = blockID;
+        this.operations = operations;
+        startWindow();
+    }
+
+    private static long allocatedBytes() {
+        long allocatedBytes = -1L;
+        if ((threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean)
+                && sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+            allocatedBytes = sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return allocatedBytes;
+    }
+
+    private void startWindow() {
+        iterationCount = 0;
+        maxIterationNanos = 0L;
+        proposalNanos = 0L;
+        forwardModelNanos = 0L;
+        misfitNanos = 0L;
+        acceptanceNanos = 0L;
+        Arrays.fill(iterationLatencyHistogram, 0L);
+        windowStartNanos = System.nanoTime();
+        windowStartAllocatedBytes = allocatedBytes();
+    }
+
+    void recordIteration(long proposalNanos, long forwardModelNanos, long misfitNanos, long acceptanceNanos) {
+        long iterationNanos = proposalNanos + forwardModelNanos + misfitNanos + acceptanceNanos;
+        iterationCount++;
+        this.proposalNanos += proposalNanos;
+        this.forwardModelNanos += forwardModelNanos;
+        this.misfitNanos += misfitNanos;
+        this.acceptanceNanos += acceptanceNanos;
+        maxIterationNanos = Math.max(maxIterationNanos, iterationNanos);
+        iterationLatencyHistogram[63 - Long.numberOfLeadingZeros(Math.max(1L, iterationNanos))]++;
+    }
+
+    /**
+     * Closes the current window and starts the next.
+     *
+     * @param modelIndex     last iteration of the window
+     * @param keptUpdates    per operation: accepted and proposed in the window, then accepted and proposed in total
+     * @param misfit         root mean square unweighted misfit
+     * @param weightedMisfit error weighted misfit
+     * @param rHat           Gelman-Rubin statistic or NaN
+     * @param converged      whether the inversion converged
+     * @return the window's telemetry
+     */
+    MCMCTelemetryRecord closeWindow(long modelIndex, int[][] keptUpdates, double misfit, double weightedMisfit, double rHat, boolean converged) {
+        int[] acceptedByOperation = new int[operations.size()];
+        int[] proposedByOperation = new int[operations.size()];
+        int acceptedTotal = 0;
+        int proposedTotal = 0;
+        for (int operationIndex = 0; operationIndex < operations.size(); operationIndex++) {
+            acceptedByOperation[operationIndex] = keptUpdates[operationIndex][0];
+            proposedByOperation[operationIndex] = keptUpdates[operationIndex][1];
+            acceptedTotal += keptUpdates[operationIndex][2];
+            proposedTotal += keptUpdates[operationIndex][3];
+        }
+        long allocatedBytesNow = allocatedBytes();
+        MCMCTelemetryRecord telemetryRecord = new MCMCTelemetryRecord(
+                blockID,
+                modelIndex,
+                iterationCount,
+                System.nanoTime() - windowStartNanos,
+                iterationLatencyHistogram.clone(),
+                maxIterationNanos,
+                proposalNanos,
+                forwardModelNanos,
+                misfitNanos,
+                acceptanceNanos,
+                operations,
+                acceptedByOperation,
+                proposedByOperation,
+                (0 == proposedTotal) ? Double.NaN : (double) acceptedTotal / proposedTotal,
+                misfit,
+                weightedMisfit,
+                rHat,
+                converged,
+                ((0 > allocatedBytesNow) || (0 > windowStartAllocatedBytes)) ? -1L : allocatedBytesNow - windowStartAllocatedBytes);
+        startWindow();
+
+        return telemetryRecord;
+    }
+}
@@ -18,7 +18,8 @@ package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.
 
 import org.cirdles.tripoli.constants.MassSpectrometerContextEnum;
 import org.cirdles.tripoli.constants.TripoliConstants;
-import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecOutputSingleBlockRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.ColumnarSingleBlockRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.ConvertedIntensityColumnsRecord;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.Detector;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
 import org.cirdles.tripoli.sessions.analysis.methods.baseline.BaselineCell;
@@ -29,134 +30,179 @@ import org.cirdles.tripoli.species.SpeciesRecordInterface;
 
 import java.util.*;
 
-import static org.cirdles.tripoli.utilities.mathUtilities.MathUtilities.roundedToSize;
-
 /**
  * @author James F. Bowring
  */
 public enum SingleBlockDataAccumulatorMCMC {
     ;
 
+    /**
+     * Counts-per-volt factor of each detector column.  Phoenix Faraday data are in volts and are converted to
+     * counts so that all files align; every other column is left in its own units.
+     *
+     * @param analysisMethod method whose baseline and sequence tables name the detectors
+     * @return factor per detector ordinal, NaN where no conversion applies
+     */
+    public static double[] countsPerVoltByColumn(AnalysisMethod analysisMethod) {
+        Set<Detector> detectors = new HashSet<>(analysisMethod.getBaselineTable().getMapOfDetectorsToBaselineCells().keySet());
+        detectors.addAll(analysisMethod.getSequenceTable().getMapOfDetectorsToSequenceCells().keySet());
+        int columnCount = 0;
+        for (Detector detector : detectors) {
+            columnCount = Math.max(columnCount, detector.getOrdinalIndex() + 1);
+        }
+
+        double[] countsPerVoltByColumn = new double[columnCount];
+        Arrays.fill(countsPerVoltByColumn, Double.NaN);
+        if (MassSpectrometerContextEnum.PHOENIX == analysisMethod.getMassSpectrometerContext()) {
+            for (Detector detector : detectors) {
+                if (detector.isFaraday()) {
+                    countsPerVoltByColumn[detector.getOrdinalIndex()] =
+                            TripoliConstants.IntensityUnits.convertFromVoltsToCount(1.0, detector.getAmplifierResistanceInOhms());
+                }
+            }
+        }
+        return countsPerVoltByColumn;
+    }
+
     public static SingleBlockRawDataSetRecord.SingleBlockRawDataRecord accumulateBaselineDataPerBaselineTableSpecs(
-            MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord, AnalysisMethod analysisMethod) {
+            ColumnarSingleBlockRecord columnarSingleBlockRecord, ConvertedIntensityColumnsRecord convertedIntensityColumns,
+            AnalysisMethod analysisMethod) {
 
         BaselineTable baselineTable = analysisMethod.getBaselineTable();
-        List<Integer> detectorOrdinalIndicesAccumulatorList = new ArrayList<>();
-        List<Integer> cycleAccumulatorList = new ArrayList<>();
-        List<Double> intensityAccumulatorList = new ArrayList<>();
-        List<Double> timeAccumulatorList = new ArrayList<>();
-        List<Integer> timeIndexAccumulatorList = new ArrayList<>();
-        List<Integer> isotopeOrdinalIndicesAccumulatorList = new ArrayList<>();
         Map<String, List<Double>> blockMapOfSequenceIdsToData = new TreeMap<>();
 
-        int[] baseLineCycleNumbers = massSpecOutputSingleBlockRecord.baselineCycleNumbers();
-        double[][] baselineIntensities = massSpecOutputSingleBlockRecord.baselineIntensities();
-        double[] baseLineTimeStamps = massSpecOutputSingleBlockRecord.baselineTimeStamps();
-        Map<String, List<Integer>> mapOfBaselineIdsToIndices = massSpecOutputSingleBlockRecord.mapOfBaselineIdsToIndices();
+        int[] baseLineCycleNumbers = columnarSingleBlockRecord.baselineCycleNumbers();
+        double[][] baselineColumns = convertedIntensityColumns.baselineColumns();
+        double[] baseLineTimeStamps = columnarSingleBlockRecord.baselineTimeStamps();
+        ColumnarSingleBlockRecord.SequenceRowIndicesRecord baselineRowIndices = columnarSingleBlockRecord.baselineRowIndices();
+        int[] baselineIndices = baselineRowIndices.rowIndices();
 
         // this map is in ascending detector order
         Map<Detector, List<BaselineCell>> detectorToBaselineCellMap = baselineTable.getMapOfDetectorsToBaselineCells();
+
+        // size the accumulators exactly from the baseline table so no growth or boxing is needed
+        int accumulatorSize = 0;
+        for (Detector detector : detectorToBaselineCellMap.keySet()) {
+            if (detector.isFaraday()) {
+                for (BaselineCell baselineCell : detectorToBaselineCellMap.get(detector)) {
+                    accumulatorSize += baselineRowIndices.rowCount(baselineCell.getBaselineID());
+                }
+            }
+        }
+        int[] detectorOrdinalIndicesAccumulatorArray = new int[accumulatorSize];
+        int[] cycleAccumulatorArray = new int[accumulatorSize];
+        double[] intensityAccumulatorArray = new double[accumulatorSize];
+        double[] timeAccumulatorArray = new double[accumulatorSize];
+        int[] timeIndexAccumulatorArray = new int[accumulatorSize];
+        int[] isotopeOrdinalIndicesAccumulatorArray = new int[accumulatorSize];
+
+        int accumulatorIndex = 0;
         for (Detector detector : detectorToBaselineCellMap.keySet()) {
             if (detector.isFaraday()) {
                 int detectorDataColumnIndex = detector.getOrdinalIndex();
+                double[] detectorIntensities = baselineColumns[detectorDataColumnIndex];
                 List<BaselineCell> baselineCells = detectorToBaselineCellMap.get(detector);
                 for (BaselineCell baselineCell : baselineCells) {
-                    String baselineID = baselineCell.getBaselineID();
-                    List<Integer> baselineIndices = mapOfBaselineIdsToIndices.get(baselineID);
-                    Collections.sort(baselineIndices);
-                    for (Integer index : baselineIndices) {
-                        detectorOrdinalIndicesAccumulatorList.add(detectorDataColumnIndex);
-                        // TODO: Revisit this
-                        double intensity = roundedToSize(baselineIntensities[index][detectorDataColumnIndex], 6);
-                        double amplifierResistance = detector.getAmplifierResistanceInOhms();
-                        if (MassSpectrometerContextEnum.PHOENIX == analysisMethod.getMassSpectrometerContext()) {
-                            // convert all volts to counts to bring all files into alignment
-                            intensity = TripoliConstants.IntensityUnits.convertFromVoltsToCount(intensity, amplifierResistance);
-                        }
-                        cycleAccumulatorList.add(baseLineCycleNumbers[index]);
-                        intensityAccumulatorList.add(intensity);
-                        timeAccumulatorList.add(baseLineTimeStamps[index]);
-                        timeIndexAccumulatorList.add(index);
-                        isotopeOrdinalIndicesAccumulatorList.add(0);
+                    int baselineOrdinal = baselineRowIndices.ordinalOf(baselineCell.getBaselineID());
+                    if (0 > baselineOrdinal) {
+                        continue;
+                    }
+                    for (int position = baselineRowIndices.start(baselineOrdinal); position < baselineRowIndices.end(baselineOrdinal); position++) {
+                        int index = baselineIndices[position];
+                        detectorOrdinalIndicesAccumulatorArray[accumulatorIndex] = detectorDataColumnIndex;
+                        cycleAccumulatorArray[accumulatorIndex] = baseLineCycleNumbers[index];
+                        intensityAccumulatorArray[accumulatorIndex] = detectorIntensities[index];
+                        timeAccumulatorArray[accumulatorIndex] = baseLineTimeStamps[index];
+                        timeIndexAccumulatorArray[accumulatorIndex] = index;
+                        isotopeOrdinalIndicesAccumulatorArray[accumulatorIndex] = 0;
+                        accumulatorIndex++;
                     }
                 }
             }
         }
 
         return new SingleBlockRawDataSetRecord.SingleBlockRawDataRecord(
-                massSpecOutputSingleBlockRecord.blockID(),
-                detectorOrdinalIndicesAccumulatorList,
-                cycleAccumulatorList,
-                intensityAccumulatorList,
-                timeAccumulatorList,
-                timeIndexAccumulatorList,
-                isotopeOrdinalIndicesAccumulatorList,
+                columnarSingleBlockRecord.blockID(),
+                detectorOrdinalIndicesAccumulatorArray,
+                cycleAccumulatorArray,
+                intensityAccumulatorArray,
+                timeAccumulatorArray,
+                timeIndexAccumulatorArray,
+                isotopeOrdinalIndicesAccumulatorArray,
                 blockMapOfSequenceIdsToData);
     }
 
     public static SingleBlockRawDataSetRecord.SingleBlockRawDataRecord accumulateOnPeakDataPerSequenceTableSpecs(
-            MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord, AnalysisMethod analysisMethod, boolean isFaraday) {
+            ColumnarSingleBlockRecord columnarSingleBlockRecord, ConvertedIntensityColumnsRecord convertedIntensityColumns,
+            AnalysisMethod analysisMethod, boolean isFaraday) {
 
         SequenceTable sequenceTable = analysisMethod.getSequenceTable();
         List<SpeciesRecordInterface> speciesList = analysisMethod.getSpeciesList();
-
-        List<Integer> detectorOrdinalIndicesAccumulatorList = new ArrayList<>();
-        List<Integer> cycleAccumulatorList = new ArrayList<>();
-        List<Double> intensityAccumulatorList = new ArrayList<>();
-        List<Double> timeAccumulatorList = new ArrayList<>();
-        List<Integer> timeIndexAccumulatorList = new ArrayList<>();
-        List<Integer> isotopeOrdinalIndicesAccumulatorList = new ArrayList<>();
         Map<String, List<Double>> blockMapOfSequenceIdsToData = new TreeMap<>();
 
-        int[] onPeakCycleNumbers = massSpecOutputSingleBlockRecord.onPeakCycleNumbers();
-        double[][] onPeakIntensities = massSpecOutputSingleBlockRecord.onPeakIntensities();
-        double[] onPeakTimeStamps = massSpecOutputSingleBlockRecord.onPeakTimeStamps();
-        Map<String, List<Integer>> mapOfOnPeakIdsToIndices = massSpecOutputSingleBlockRecord.mapOfOnPeakIdsToIndices();
+        int[] onPeakCycleNumbers = columnarSingleBlockRecord.onPeakCycleNumbers();
+        double[][] onPeakColumns = convertedIntensityColumns.onPeakColumns();
+        double[] onPeakTimeStamps = columnarSingleBlockRecord.onPeakTimeStamps();
+        ColumnarSingleBlockRecord.SequenceRowIndicesRecord onPeakRowIndices = columnarSingleBlockRecord.onPeakRowIndices();
+        int[] onPeakIndices = onPeakRowIndices.rowIndices();
 
         // this map is in ascending detector order
         Map<Detector, List<SequenceCell>> detectorToSequenceCellMap = sequenceTable.getMapOfDetectorsToSequenceCells();
+
+        // size the accumulators exactly from the sequence table so no growth or boxing is needed
+        int accumulatorSize = 0;
+        for (Detector detector : detectorToSequenceCellMap.keySet()) {
+            if (detector.isFaraday() == isFaraday) {
+                for (SequenceCell sequenceCell : detectorToSequenceCellMap.get(detector)) {
+                    accumulatorSize += onPeakRowIndices.rowCount(sequenceCell.getSequenceId());
+                }
+            }
+        }
+        int[] detectorOrdinalIndicesAccumulatorArray = new int[accumulatorSize];
+        int[] cycleAccumulatorArray = new int[accumulatorSize];
+        double[] intensityAccumulatorArray = new double[accumulatorSize];
+        double[] timeAccumulatorArray = new double[accumulatorSize];
+        int[] timeIndexAccumulatorArray = new int[accumulatorSize];
+        int[] isotopeOrdinalIndicesAccumulatorArray = new int[accumulatorSize];
+
+        int accumulatorIndex = 0;
         for (Detector detector : detectorToSequenceCellMap.keySet()) {
             if (detector.isFaraday() == isFaraday) {
                 int detectorDataColumnIndex = detector.getOrdinalIndex();
+                double[] detectorIntensities = onPeakColumns[detectorDataColumnIndex];
                 List<SequenceCell> sequenceCells = detectorToSequenceCellMap.get(detector);
                 for (SequenceCell sequenceCell : sequenceCells) {
                     String onPeakID = sequenceCell.getSequenceId();
-                    if (!blockMapOfSequenceIdsToData.containsKey(onPeakID)) {
-                        blockMapOfSequenceIdsToData.put(onPeakID, new ArrayList<>());
-                    }
                     SpeciesRecordInterface targetSpecies = sequenceCell.getTargetSpecies();
                     int speciesOrdinalIndex = speciesList.indexOf(targetSpecies) + 1;
-                    List<Integer> onPeakIndices = mapOfOnPeakIdsToIndices.get(onPeakID);
-                    Collections.sort(onPeakIndices);
-                    for (Integer index : onPeakIndices) {
-                        detectorOrdinalIndicesAccumulatorList.add(detectorDataColumnIndex);
-                        // TODO: revisit this
-                        double intensity = roundedToSize(onPeakIntensities[index][detectorDataColumnIndex], 10);
-                        cycleAccumulatorList.add(onPeakCycleNumbers[index]);
-//                        double intensity = onPeakIntensities[index][detectorDataColumnIndex];
-                        double amplifierResistance = detector.getAmplifierResistanceInOhms();
-                        if (MassSpectrometerContextEnum.PHOENIX == analysisMethod.getMassSpectrometerContext() && isFaraday) {
-                            // convert all volts to counts to bring all files into alignment
-                            intensity = TripoliConstants.IntensityUnits.convertFromVoltsToCount(intensity, amplifierResistance);
-                        }
-                        intensityAccumulatorList.add(intensity);
-                        timeAccumulatorList.add(onPeakTimeStamps[index]);
-                        timeIndexAccumulatorList.add(index);
-                        isotopeOrdinalIndicesAccumulatorList.add(speciesOrdinalIndex);
-                        blockMapOfSequenceIdsToData.get(onPeakID).add(onPeakTimeStamps[index]);
+                    int onPeakOrdinal = onPeakRowIndices.ordinalOf(onPeakID);
+                    if (0 > onPeakOrdinal) {
+                        continue;
+                    }
+                    List<Double> sequenceTimes = blockMapOfSequenceIdsToData.computeIfAbsent(onPeakID, k -> new ArrayList<>());
+                    for (int position = onPeakRowIndices.start(onPeakOrdinal); position < onPeakRowIndices.end(onPeakOrdinal); position++) {
+                        int index = onPeakIndices[position];
+                        detectorOrdinalIndicesAccumulatorArray[accumulatorIndex] = detectorDataColumnIndex;
+                        cycleAccumulatorArray[accumulatorIndex] = onPeakCycleNumbers[index];
+                        intensityAccumulatorArray[accumulatorIndex] = detectorIntensities[index];
+                        timeAccumulatorArray[accumulatorIndex] = onPeakTimeStamps[index];
+                        timeIndexAccumulatorArray[accumulatorIndex] = index;
+                        isotopeOrdinalIndicesAccumulatorArray[accumulatorIndex] = speciesOrdinalIndex;
+                        sequenceTimes.add(onPeakTimeStamps[index]);
+                        accumulatorIndex++;
                     }
                 }
             }
         }
 
         return new SingleBlockRawDataSetRecord.SingleBlockRawDataRecord(
-                massSpecOutputSingleBlockRecord.blockID(),
-                detectorOrdinalIndicesAccumulatorList,
-                cycleAccumulatorList,
-                intensityAccumulatorList,
-                timeAccumulatorList,
-                timeIndexAccumulatorList,
-                isotopeOrdinalIndicesAccumulatorList,
+                columnarSingleBlockRecord.blockID(),
+                detectorOrdinalIndicesAccumulatorArray,
+                cycleAccumulatorArray,
+                intensityAccumulatorArray,
+                timeAccumulatorArray,
+                timeIndexAccumulatorArray,
+                isotopeOrdinalIndicesAccumulatorArray,
                 blockMapOfSequenceIdsToData);
     }
 
@@ -45,7 +45,7 @@ public enum SingleBlockDataModelPlot {
         List<EnsemblesStore.EnsembleRecord> ensembleRecordsList = analysis.getMapBlockIDToEnsembles().get(blockID);
         AnalysisMethod analysisMethod = analysis.getAnalysisMethod();
         SingleBlockModelRecord singleBlockCurrentModelRecord_X = analysis.getMapOfBlockIdToFinalModel().get(blockID);
-        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = analysis.getMapOfBlockIdToRawData().get(blockID);
+        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = analysis.getSingleBlockRawData(blockID);
 
         PlotBuilder[][] plotBuilders = new PlotBuilder[16][1];
         analysis.getMapOfBlockIdToPlots().put(blockID, plotBuilders);
@@ -111,9 +111,9 @@ public enum SingleBlockDataModelPlot {
 
 
         // visualization data fit ++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++++
-        int baselineCount = singleBlockRawDataSetRecord.baselineDataSetMCMC().intensityAccumulatorList().size();
-        int onPeakFaradayCount = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().intensityAccumulatorList().size();
-        int onPeakPhotoMultCount = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().intensityAccumulatorList().size();
+        int baselineCount = singleBlockRawDataSetRecord.getCountOfBaselineIntensities();
+        int onPeakFaradayCount = singleBlockRawDataSetRecord.getCountOfOnPeakFaradayIntensities();
+        int onPeakPhotoMultCount = singleBlockRawDataSetRecord.getCountOfOnPeakPhotoMultiplierIntensities();
         int totalIntensityCount = baselineCount + onPeakFaradayCount + onPeakPhotoMultCount;
 
         double[] dataArray = new double[totalIntensityCount];
@@ -127,14 +127,14 @@ public enum SingleBlockDataModelPlot {
         double[] dataCountsModelOneSigma_Dsig = new double[totalIntensityCount];
         double[] integrationTimes = new double[totalIntensityCount];
 
-        List<Integer> isotopeOrdinalIndicesAccumulatorList = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().isotopeOrdinalIndicesAccumulatorList();
-        List<Integer> detectorOrdinalIndicesAccumulatorList = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().detectorOrdinalIndicesAccumulatorList();
-        List<Integer> timeIndexAccumulatorList = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().timeIndexAccumulatorList();
-        List<Double> timeAccumulatorList = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().timeAccumulatorList();
+        int[] isotopeOrdinalIndicesAccumulatorArray = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().isotopeOrdinalIndicesAccumulatorArray();
+        int[] detectorOrdinalIndicesAccumulatorArray = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().detectorOrdinalIndicesAccumulatorArray();
+        int[] timeIndexAccumulatorArray = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().timeIndexAccumulatorArray();
+        double[] timeAccumulatorArray = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().timeAccumulatorArray();
         for (int dataArrayIndex = baselineCount; dataArrayIndex < baselineCount + onPeakFaradayCount; dataArrayIndex++) {
-            int intensityIndex = timeIndexAccumulatorList.get(dataArrayIndex - baselineCount);
-            int isotopeIndex = isotopeOrdinalIndicesAccumulatorList.get(dataArrayIndex - baselineCount) - 1;
-            int faradayIndex = mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorList.get(dataArrayIndex - baselineCount));
+            int intensityIndex = timeIndexAccumulatorArray[dataArrayIndex - baselineCount];
+            int isotopeIndex = isotopeOrdinalIndicesAccumulatorArray[dataArrayIndex - baselineCount] - 1;
+            int faradayIndex = mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorArray[dataArrayIndex - baselineCount]);
             /*
                 itmp = d0.iso_ind(:,mm) & ~d0.axflag & d0.block(:,n);
                 d(itmp,1) = (x.lograt(mm))*x.DFgain^-1 *Intensity{n}(d0.time_ind(itmp)) + x.BL(d0.det_vec(itmp)); %debug
@@ -157,15 +157,15 @@ public enum SingleBlockDataModelPlot {
                     dataWithNoBaselineArray[dataArrayIndex]);
             dataCountsModelOneSigma_Dsig[dataArrayIndex] = calculatedValue;
 
-            integrationTimes[dataArrayIndex] = timeAccumulatorList.get(intensityIndex);
+            integrationTimes[dataArrayIndex] = timeAccumulatorArray[intensityIndex];
         }
 
-        isotopeOrdinalIndicesAccumulatorList = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().isotopeOrdinalIndicesAccumulatorList();
-        timeIndexAccumulatorList = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().timeIndexAccumulatorList();
-        timeAccumulatorList = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().timeAccumulatorList();
+        isotopeOrdinalIndicesAccumulatorArray = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().isotopeOrdinalIndicesAccumulatorArray();
+        timeIndexAccumulatorArray = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().timeIndexAccumulatorArray();
+        timeAccumulatorArray = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().timeAccumulatorArray();
         for (int dataArrayIndex = baselineCount + onPeakFaradayCount; dataArrayIndex < baselineCount + onPeakFaradayCount + onPeakPhotoMultCount; dataArrayIndex++) {
-            int intensityIndex = timeIndexAccumulatorList.get(dataArrayIndex - baselineCount - onPeakFaradayCount);
-            int isotopeIndex = isotopeOrdinalIndicesAccumulatorList.get(dataArrayIndex - baselineCount - onPeakFaradayCount).intValue() - 1;
+            int intensityIndex = timeIndexAccumulatorArray[dataArrayIndex - baselineCount - onPeakFaradayCount];
+            int isotopeIndex = isotopeOrdinalIndicesAccumulatorArray[dataArrayIndex - baselineCount - onPeakFaradayCount] - 1;
 
             /*
                 itmp = d0.iso_ind(:,mm) & d0.axflag & d0.block(:,n);
@@ -184,15 +184,15 @@ public enum SingleBlockDataModelPlot {
                     dataWithNoBaselineArray[dataArrayIndex]);
             dataCountsModelOneSigma_Dsig[dataArrayIndex] = calculatedValue;
 
-            integrationTimes[dataArrayIndex] = timeAccumulatorList.get(intensityIndex);
+            integrationTimes[dataArrayIndex] = timeAccumulatorArray[intensityIndex];
         }
 
-        detectorOrdinalIndicesAccumulatorList = singleBlockRawDataSetRecord.baselineDataSetMCMC().detectorOrdinalIndicesAccumulatorList();
-        timeIndexAccumulatorList = singleBlockRawDataSetRecord.baselineDataSetMCMC().timeIndexAccumulatorList();
-        timeAccumulatorList = singleBlockRawDataSetRecord.baselineDataSetMCMC().timeAccumulatorList();
+        detectorOrdinalIndicesAccumulatorArray = singleBlockRawDataSetRecord.baselineDataSetMCMC().detectorOrdinalIndicesAccumulatorArray();
+        timeIndexAccumulatorArray = singleBlockRawDataSetRecord.baselineDataSetMCMC().timeIndexAccumulatorArray();
+        timeAccumulatorArray = singleBlockRawDataSetRecord.baselineDataSetMCMC().timeAccumulatorArray();
         for (int dataArrayIndex = 0; dataArrayIndex < baselineCount; dataArrayIndex++) {
-            int intensityIndex = timeIndexAccumulatorList.get(dataArrayIndex);
-            int faradayIndex = mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorList.get(dataArrayIndex));
+            int intensityIndex = timeIndexAccumulatorArray[dataArrayIndex];
+            int faradayIndex = mapDetectorOrdinalToFaradayIndex.get(detectorOrdinalIndicesAccumulatorArray[dataArrayIndex]);
             dataArray[dataArrayIndex] = baselinesMeans[faradayIndex];
 
             //TODO: WTF???
@@ -201,7 +201,7 @@ public enum SingleBlockDataModelPlot {
                     dataWithNoBaselineArray[dataArrayIndex]);
             dataCountsModelOneSigma_Dsig[dataArrayIndex] = calculatedValue;
 
-            integrationTimes[dataArrayIndex] = timeAccumulatorList.get(intensityIndex);
+            integrationTimes[dataArrayIndex] = timeAccumulatorArray[intensityIndex];
         }
 
 
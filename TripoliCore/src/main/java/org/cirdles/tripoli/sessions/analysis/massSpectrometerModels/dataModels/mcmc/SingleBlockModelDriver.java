@@ -16,9 +16,10 @@
 
 package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
 
-import com.google.common.primitives.Doubles;
 import org.cirdles.tripoli.plots.PlotBuilder;
 import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.ColumnarSingleBlockRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.ConvertedIntensityColumnsRecord;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecExtractedData;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecOutputSingleBlockRecord;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
@@ -32,6 +33,7 @@ import org.ojalgo.matrix.store.Primitive64Store;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc.SingleBlockModelInitForMCMC.initializeModelForSingleBlockMCMC;
 
@@ -41,12 +43,18 @@ import static org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataM
 public enum SingleBlockModelDriver {
     ;
 
-    public static PlotBuilder[][] buildAndRunModelForSingleBlock(int blockID, AnalysisInterface analysis, LoggingCallbackInterface loggingCallback) throws TripoliException, IOException {
+    /**
+     * @param mcmcProcessListener receives the block's chain before it starts, so that it can be cancelled
+     */
+    public static PlotBuilder[][] buildAndRunModelForSingleBlock(
+            int blockID, AnalysisInterface analysis, LoggingCallbackInterface loggingCallback, Consumer<MCMCProcess> mcmcProcessListener)
+            throws TripoliException, IOException {
         MassSpecExtractedData massSpecExtractedData = analysis.getMassSpecExtractedData();
         AnalysisMethod analysisMethod = analysis.getAnalysisMethod();
         PlotBuilder[][] plotBuilder = new PlotBuilder[0][0];
 
-        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = prepareSingleBlockDataForMCMC(blockID, massSpecExtractedData, analysisMethod);
+        SingleBlockRawDataSetRecord singleBlockRawDataSetRecord =
+                analysis.getSingleBlockRawDataSetCache().retrievePreparedBlockData(blockID, massSpecExtractedData, analysisMethod);
         SingleBlockModelInitForMCMC.SingleBlockModelRecordWithCov singleBlockInitialModelRecordWithCov;
         try {
             singleBlockInitialModelRecordWithCov = initializeModelForSingleBlockMCMC(analysisMethod, singleBlockRawDataSetRecord, true);
@@ -57,6 +65,7 @@ public enum SingleBlockModelDriver {
         if (null != singleBlockInitialModelRecordWithCov) {
             MCMCProcess mcmcProcess = MCMCProcess.createMCMCProcess(analysis, singleBlockRawDataSetRecord, singleBlockInitialModelRecordWithCov);
             mcmcProcess.initializeMCMCProcess();
+            mcmcProcessListener.accept(mcmcProcess);
             plotBuilder = mcmcProcess.applyInversionWithAdaptiveMCMC(loggingCallback);
         }
 
@@ -64,6 +73,24 @@ public enum SingleBlockModelDriver {
     }
 
     static SingleBlockRawDataSetRecord prepareSingleBlockDataForMCMC(int blockNumber, MassSpecExtractedData massSpecExtractedData, AnalysisMethod analysisMethod) {
+        MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord = massSpecExtractedData.getBlocksData().get(blockNumber);
+        ColumnarSingleBlockRecord columnarSingleBlockRecord = null;
+        ConvertedIntensityColumnsRecord convertedIntensityColumns = null;
+        if (null != massSpecOutputSingleBlockRecord) {
+            columnarSingleBlockRecord = ColumnarSingleBlockRecord.fromSingleBlockRecord(massSpecOutputSingleBlockRecord);
+            convertedIntensityColumns = ConvertedIntensityColumnsRecord.convertIntensityColumns(
+                    columnarSingleBlockRecord, SingleBlockDataAccumulatorMCMC.countsPerVoltByColumn(analysisMethod));
+        }
+        return prepareSingleBlockDataForMCMC(blockNumber, massSpecExtractedData, columnarSingleBlockRecord, convertedIntensityColumns, analysisMethod);
+    }
+
+    /**
+     * @param columnarSingleBlockRecord the block, detector-major
+     * @param convertedIntensityColumns the block's intensities, already converted for this method
+     */
+    static SingleBlockRawDataSetRecord prepareSingleBlockDataForMCMC(
+            int blockNumber, MassSpecExtractedData massSpecExtractedData, ColumnarSingleBlockRecord columnarSingleBlockRecord,
+            ConvertedIntensityColumnsRecord convertedIntensityColumns, AnalysisMethod analysisMethod) {
         SingleBlockRawDataSetRecord singleBlockRawDataSetRecord = null;
         MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord = massSpecExtractedData.getBlocksData().get(blockNumber);
         if (massSpecOutputSingleBlockRecord != null) {
@@ -75,41 +102,32 @@ public enum SingleBlockModelDriver {
                 blockKnotInterpolationStore = generateKnotsMatrixForBlock(massSpecOutputSingleBlockRecord, 3);
             }
             SingleBlockRawDataSetRecord.SingleBlockRawDataRecord baselineDataSetMCMC =
-                    SingleBlockDataAccumulatorMCMC.accumulateBaselineDataPerBaselineTableSpecs(massSpecOutputSingleBlockRecord, analysisMethod);
+                    SingleBlockDataAccumulatorMCMC.accumulateBaselineDataPerBaselineTableSpecs(columnarSingleBlockRecord, convertedIntensityColumns, analysisMethod);
             SingleBlockRawDataSetRecord.SingleBlockRawDataRecord onPeakFaradayDataSetMCMC =
-                    SingleBlockDataAccumulatorMCMC.accumulateOnPeakDataPerSequenceTableSpecs(massSpecOutputSingleBlockRecord, analysisMethod, true);
+                    SingleBlockDataAccumulatorMCMC.accumulateOnPeakDataPerSequenceTableSpecs(columnarSingleBlockRecord, convertedIntensityColumns, analysisMethod, true);
             SingleBlockRawDataSetRecord.SingleBlockRawDataRecord onPeakPhotoMultiplierDataSetMCMC =
-                    SingleBlockDataAccumulatorMCMC.accumulateOnPeakDataPerSequenceTableSpecs(massSpecOutputSingleBlockRecord, analysisMethod, false);
-
-            List<Integer> cycleList = new ArrayList<>();
-            cycleList.addAll(baselineDataSetMCMC.cycleAccumulatorList());
-            cycleList.addAll(onPeakFaradayDataSetMCMC.cycleAccumulatorList());
-            cycleList.addAll(onPeakPhotoMultiplierDataSetMCMC.cycleAccumulatorList());
-            int[] blockCycleArray = cycleList.stream().mapToInt(i -> i).toArray();
-
-            List<Double> blockIntensityList = new ArrayList<>();
-            blockIntensityList.addAll(baselineDataSetMCMC.intensityAccumulatorList());
-            blockIntensityList.addAll(onPeakFaradayDataSetMCMC.intensityAccumulatorList());
-            blockIntensityList.addAll(onPeakPhotoMultiplierDataSetMCMC.intensityAccumulatorList());
-            double[] blockIntensityArray = Doubles.toArray(blockIntensityList);
-
-            List<Integer> blockDetectorOrdinalIndicesList = new ArrayList<>();
-            blockDetectorOrdinalIndicesList.addAll(baselineDataSetMCMC.detectorOrdinalIndicesAccumulatorList());
-            blockDetectorOrdinalIndicesList.addAll(onPeakFaradayDataSetMCMC.detectorOrdinalIndicesAccumulatorList());
-            blockDetectorOrdinalIndicesList.addAll(onPeakPhotoMultiplierDataSetMCMC.detectorOrdinalIndicesAccumulatorList());
-            int[] blockDetectorOrdinalIndicesArray = blockDetectorOrdinalIndicesList.stream().mapToInt(i -> i).toArray();
-
-            List<Integer> blockIsotopeOrdinalIndicesList = new ArrayList<>();
-            blockIsotopeOrdinalIndicesList.addAll(baselineDataSetMCMC.isotopeOrdinalIndicesAccumulatorList());
-            blockIsotopeOrdinalIndicesList.addAll(onPeakFaradayDataSetMCMC.isotopeOrdinalIndicesAccumulatorList());
-            blockIsotopeOrdinalIndicesList.addAll(onPeakPhotoMultiplierDataSetMCMC.isotopeOrdinalIndicesAccumulatorList());
-            int[] blockIsotopeOrdinalIndicesArray = blockIsotopeOrdinalIndicesList.stream().mapToInt(i -> i).toArray();
-
-            List<Integer> blockTimeIndicesList = new ArrayList<>();
-            blockTimeIndicesList.addAll(baselineDataSetMCMC.timeIndexAccumulatorList());
-            blockTimeIndicesList.addAll(onPeakFaradayDataSetMCMC.timeIndexAccumulatorList());
-            blockTimeIndicesList.addAll(onPeakPhotoMultiplierDataSetMCMC.timeIndexAccumulatorList());
-            int[] blockTimeIndicesArray = blockTimeIndicesList.stream().mapToInt(i -> i).toArray();
+                    SingleBlockDataAccumulatorMCMC.accumulateOnPeakDataPerSequenceTableSpecs(columnarSingleBlockRecord, convertedIntensityColumns, analysisMethod, false);
+
+            int[] blockCycleArray = concatenateIntArrays(
+                    baselineDataSetMCMC.cycleAccumulatorArray(),
+                    onPeakFaradayDataSetMCMC.cycleAccumulatorArray(),
+                    onPeakPhotoMultiplierDataSetMCMC.cycleAccumulatorArray());
+            double[] blockIntensityArray = concatenateDoubleArrays(
+                    baselineDataSetMCMC.intensityAccumulatorArray(),
+                    onPeakFaradayDataSetMCMC.intensityAccumulatorArray(),
+                    onPeakPhotoMultiplierDataSetMCMC.intensityAccumulatorArray());
+            int[] blockDetectorOrdinalIndicesArray = concatenateIntArrays(
+                    baselineDataSetMCMC.detectorOrdinalIndicesAccumulatorArray(),
+                    onPeakFaradayDataSetMCMC.detectorOrdinalIndicesAccumulatorArray(),
+                    onPeakPhotoMultiplierDataSetMCMC.detectorOrdinalIndicesAccumulatorArray());
+            int[] blockIsotopeOrdinalIndicesArray = concatenateIntArrays(
+                    baselineDataSetMCMC.isotopeOrdinalIndicesAccumulatorArray(),
+                    onPeakFaradayDataSetMCMC.isotopeOrdinalIndicesAccumulatorArray(),
+                    onPeakPhotoMultiplierDataSetMCMC.isotopeOrdinalIndicesAccumulatorArray());
+            int[] blockTimeIndicesArray = concatenateIntArrays(
+                    baselineDataSetMCMC.timeIndexAccumulatorArray(),
+                    onPeakFaradayDataSetMCMC.timeIndexAccumulatorArray(),
+                    onPeakPhotoMultiplierDataSetMCMC.timeIndexAccumulatorArray());
 
             int[] onPeakStartingIndicesOfCycles = massSpecOutputSingleBlockRecord.onPeakStartingIndicesOfCycles();
 
@@ -150,6 +168,22 @@ public enum SingleBlockModelDriver {
         return singleBlockRawDataSetRecord;
     }
 
+    private static int[] concatenateIntArrays(int[] baselineArray, int[] faradayArray, int[] photoMultiplierArray) {
+        int[] blockArray = new int[baselineArray.length + faradayArray.length + photoMultiplierArray.length];
+        System.arraycopy(baselineArray, 0, blockArray, 0, baselineArray.length);
+        System.arraycopy(faradayArray, 0, blockArray, baselineArray.length, faradayArray.length);
+        System.arraycopy(photoMultiplierArray, 0, blockArray, baselineArray.length + faradayArray.length, photoMultiplierArray.length);
+        return blockArray;
+    }
+
+    private static double[] concatenateDoubleArrays(double[] baselineArray, double[] faradayArray, double[] photoMultiplierArray) {
+        double[] blockArray = new double[baselineArray.length + faradayArray.length + photoMultiplierArray.length];
+        System.arraycopy(baselineArray, 0, blockArray, 0, baselineArray.length);
+        System.arraycopy(faradayArray, 0, blockArray, baselineArray.length, faradayArray.length);
+        System.arraycopy(photoMultiplierArray, 0, blockArray, baselineArray.length + faradayArray.length, photoMultiplierArray.length);
+        return blockArray;
+    }
+
     private static Primitive64Store generateKnotsMatrixForBlock(
             MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord, int basisDegree) {
 
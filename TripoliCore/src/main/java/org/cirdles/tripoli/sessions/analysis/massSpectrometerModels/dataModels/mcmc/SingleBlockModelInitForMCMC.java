@@ -21,6 +21,7 @@ import org.apache.commons.math3.linear.*;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
 import org.cirdles.tripoli.species.IsotopicRatio;
+import org.cirdles.tripoli.utilities.mathUtilities.IntArgSort;
 import org.cirdles.tripoli.utilities.mathUtilities.MatLab;
 import org.ojalgo.RecoverableCondition;
 
@@ -38,9 +39,9 @@ enum SingleBlockModelInitForMCMC {
 
     static SingleBlockModelRecordWithCov initializeModelForSingleBlockMCMC(
             AnalysisMethod analysisMethod, SingleBlockRawDataSetRecord singleBlockRawDataSetRecord, boolean provideCovariance) throws RecoverableCondition {
-        int baselineCount = singleBlockRawDataSetRecord.baselineDataSetMCMC().intensityAccumulatorList().size();
-        int onPeakFaradayCount = singleBlockRawDataSetRecord.onPeakFaradayDataSetMCMC().intensityAccumulatorList().size();
-        int onPeakPhotoMultCount = singleBlockRawDataSetRecord.onPeakPhotoMultiplierDataSetMCMC().intensityAccumulatorList().size();
+        int baselineCount = singleBlockRawDataSetRecord.getCountOfBaselineIntensities();
+        int onPeakFaradayCount = singleBlockRawDataSetRecord.getCountOfOnPeakFaradayIntensities();
+        int onPeakPhotoMultCount = singleBlockRawDataSetRecord.getCountOfOnPeakPhotoMultiplierIntensities();
         int totalIntensityCount = baselineCount + onPeakFaradayCount + onPeakPhotoMultCount;
         int countOfIsotopes = analysisMethod.getSpeciesList().size();
 
@@ -52,17 +53,17 @@ enum SingleBlockModelInitForMCMC {
             end
          */
         SingleBlockRawDataSetRecord.SingleBlockRawDataRecord baselineDataSetMCMC = singleBlockRawDataSetRecord.baselineDataSetMCMC();
-        List<Integer> detectorOrdinalIndicesAccumulatorList = baselineDataSetMCMC.detectorOrdinalIndicesAccumulatorList();
-        List<Double> intensityAccumulatorList = baselineDataSetMCMC.intensityAccumulatorList();
+        int[] detectorOrdinalIndicesAccumulatorArray = baselineDataSetMCMC.detectorOrdinalIndicesAccumulatorArray();
+        double[] intensityAccumulatorArray = baselineDataSetMCMC.intensityAccumulatorArray();
         Map<Integer, DescriptiveStatistics> mapBaselineDetectorIndicesToStatistics = new TreeMap<>(SERIALIZABLE_COMPARATOR);
         Map<Integer, Integer> mapDetectorOrdinalToFaradayIndex = new TreeMap<>(SERIALIZABLE_COMPARATOR);
 
         int intensityIndex = 0;
-        for (Integer detectorOrdinalIndex : detectorOrdinalIndicesAccumulatorList) {
+        for (int detectorOrdinalIndex : detectorOrdinalIndicesAccumulatorArray) {
             if (!mapBaselineDetectorIndicesToStatistics.containsKey(detectorOrdinalIndex)) {
                 mapBaselineDetectorIndicesToStatistics.put(detectorOrdinalIndex, new DescriptiveStatistics());
             }
-            mapBaselineDetectorIndicesToStatistics.get(detectorOrdinalIndex).addValue(intensityAccumulatorList.get(intensityIndex));
+            mapBaselineDetectorIndicesToStatistics.get(detectorOrdinalIndex).addValue(intensityAccumulatorArray[intensityIndex]);
             intensityIndex++;
         }
 
@@ -150,9 +151,7 @@ enum SingleBlockModelInitForMCMC {
         int[] cyclesArray = cyclesList.stream().mapToInt(d -> d).toArray();
 
         int[] tempTimeIndicesArray = tempTime.stream().mapToInt(d -> d).toArray();
-        ArrayIndexComparator comparatorTime = new ArrayIndexComparator(tempTimeIndicesArray);
-        Integer[] ddVer2sortIndices = comparatorTime.createIndexArray();
-        Arrays.sort(ddVer2sortIndices, comparatorTime);
+        int[] ddVer2sortIndices = IntArgSort.stableArgSort(tempTimeIndicesArray);
 
         double[] ddVer2SortedArray = new double[ddVer2Array.length];
         int[] cyclesSortedArray = new int[cyclesArray.length];
@@ -227,9 +226,7 @@ enum SingleBlockModelInitForMCMC {
             ddVer2Array = ddver2List.stream().mapToDouble(d -> d).toArray();
             cyclesArray = cyclesList.stream().mapToInt(d -> d).toArray();
             tempTimeIndicesArray = tempTime.stream().mapToInt(d -> d).toArray();
-            comparatorTime = new ArrayIndexComparator(tempTimeIndicesArray);
-            ddVer2sortIndices = comparatorTime.createIndexArray();
-            Arrays.sort(ddVer2sortIndices, comparatorTime);
+            ddVer2sortIndices = IntArgSort.stableArgSort(tempTimeIndicesArray);
 
             ddVer2SortedArray = new double[ddVer2Array.length];
             cyclesSortedArray = new int[ddVer2Array.length];
@@ -238,10 +235,12 @@ enum SingleBlockModelInitForMCMC {
                 cyclesSortedArray[i] = cyclesArray[ddVer2sortIndices[i]];
             }
 
+            double[] normalizedSortedArray = new double[ddVer2SortedArray.length];
             DescriptiveStatistics descriptiveStatistics = new DescriptiveStatistics();
             for (int dataArrayIndex = 0; dataArrayIndex < ddVer2SortedArray.length; dataArrayIndex++) {
+                normalizedSortedArray[dataArrayIndex] = ddVer2SortedArray[dataArrayIndex] / intensityFn.get(dataArrayIndex, 0);
                 //TODO: Check for cycle active - see below where stats accumulator checks
-                descriptiveStatistics.addValue(ddVer2SortedArray[dataArrayIndex] / intensityFn.get(dataArrayIndex, 0));
+                descriptiveStatistics.addValue(normalizedSortedArray[dataArrayIndex]);
             }
             // only use most abundant isotope (denominator or iden) for cycle-based calculations
             if (isotopeIndex < logRatios.length) {
@@ -249,32 +248,17 @@ enum SingleBlockModelInitForMCMC {
             }
 
             // start cycle-based math
-            DescriptiveStatistics[] cycleStats = new DescriptiveStatistics[cycleCount];
-            for (int dataArrayIndex = 0; dataArrayIndex < ddVer2SortedArray.length; dataArrayIndex++) {
-                int cycle = cyclesSortedArray[dataArrayIndex] - 1;
-                if (cycleStats[cycle] == null) {
-                    cycleStats[cycle] = new DescriptiveStatistics();
-                }
-                // TODO: make this a check for both isotopes (eventually may include denominator as one that is excluded)
-                if (singleBlockRawDataSetRecord.mapOfSpeciesToActiveCycles().get(analysisMethod.getSpeciesList().get(isotopeIndex))[cycle]) {
-                    cycleStats[cycle].addValue(ddVer2SortedArray[dataArrayIndex] / intensityFn.get(dataArrayIndex, 0));
-                }
-            }
-
-            Map<Integer, double[]> mapCyclesToStats = new TreeMap<>();
+            CycleSufficientStatistics cycleStats = CycleSufficientStatistics.accumulate(normalizedSortedArray, cyclesSortedArray, cycleCount);
+            // TODO: make this a check for both isotopes (eventually may include denominator as one that is excluded)
+            Map<Integer, double[]> mapCyclesToStats = cycleStats.assembleMapCyclesToStats(
+                    singleBlockRawDataSetRecord.mapOfSpeciesToActiveCycles().get(analysisMethod.getSpeciesList().get(isotopeIndex)));
 
-            for (int cycleIndex = 0; cycleIndex < cycleStats.length; cycleIndex++) {
+            for (double[] cycleLogRatioStats : mapCyclesToStats.values()) {
                 // TODO: fix this - currently using ratios instead of logs for cycles - see ViewCycles in matlab
-                double[] cycleLogRatioStats = new double[2];
-                if (cycleStats[cycleIndex].getMean() >= Math.exp(proposalRangesRecord.priorLogRatio()[0][0])) {
-                    cycleLogRatioStats[0] = (cycleStats[cycleIndex].getMean());
-                    // TODO: does this mean active cycles??
-                    cycleLogRatioStats[1] = cycleStats[cycleIndex].getStandardDeviation() / Math.sqrt(cycleStats[cycleIndex].getN());
-                } else {
+                if (!(cycleLogRatioStats[0] >= Math.exp(proposalRangesRecord.priorLogRatio()[0][0]))) {
                     cycleLogRatioStats[0] = Math.exp(proposalRangesRecord.priorLogRatio()[0][0]);
                     cycleLogRatioStats[1] = 0.0;
                 }
-                mapCyclesToStats.put(cycleIndex, cycleLogRatioStats);
             }
             if (isotopeIndex == iden - 1) {
                 denominatorMapCyclesToStats = mapCyclesToStats;
@@ -649,7 +633,7 @@ enum SingleBlockModelInitForMCMC {
         return new SingleBlockModelRecordWithCov(calculatedX0, proposalRangesRecord, covarianceMatrix_C0);
     }
 
-    private static synchronized double calculateDFGain(int iden, double[] baselineMeansArray, Map<Integer, Integer> mapDetectorOrdinalToFaradayIndex, SingleBlockRawDataSetRecord singleBlockRawDataSetRecord) {
+    private static double calculateDFGain(int iden, double[] baselineMeansArray, Map<Integer, Integer> mapDetectorOrdinalToFaradayIndex, SingleBlockRawDataSetRecord singleBlockRawDataSetRecord) {
         // new DFGain calculator
         /*
         %x0.DFgain = user_DFgain;  %sb629 Now going to set according to data(?)
@@ -723,9 +707,7 @@ enum SingleBlockModelInitForMCMC {
         int[] tmpPMflagArray = tmpPMflagList.stream().mapToInt(d -> d).toArray();
         int[] tempTimeIndicesArray = tempTime.stream().mapToInt(d -> d).toArray();
 
-        ArrayIndexComparator comparatorTime = new ArrayIndexComparator(tempTimeIndicesArray);
-        Integer[] ddSortIndices = comparatorTime.createIndexArray();
-        Arrays.sort(ddSortIndices, comparatorTime);
+        int[] ddSortIndices = IntArgSort.stableArgSort(tempTimeIndicesArray);
 
         double[] ddSortedArray = new double[ddNoPMArray.length];
         double[][] interpolatedKnotData_II = singleBlockRawDataSetRecord.blockKnotInterpolationArray();
@@ -779,10 +761,10 @@ enum SingleBlockModelInitForMCMC {
 
     }
 
-    public synchronized static double[] modelInitData(SingleBlockModelRecord singleBlockModelRecord_x, SingleBlockRawDataSetRecord singleBlockRawDataSetRecord_d0) {
-        int baselineCount = singleBlockRawDataSetRecord_d0.baselineDataSetMCMC().intensityAccumulatorList().size();
-        int onPeakFaradayCount = singleBlockRawDataSetRecord_d0.onPeakFaradayDataSetMCMC().intensityAccumulatorList().size();
-        int onPeakPhotoMultCount = singleBlockRawDataSetRecord_d0.onPeakPhotoMultiplierDataSetMCMC().intensityAccumulatorList().size();
+    public static double[] modelInitData(SingleBlockModelRecord singleBlockModelRecord_x, SingleBlockRawDataSetRecord singleBlockRawDataSetRecord_d0) {
+        int baselineCount = singleBlockRawDataSetRecord_d0.getCountOfBaselineIntensities();
+        int onPeakFaradayCount = singleBlockRawDataSetRecord_d0.getCountOfOnPeakFaradayIntensities();
+        int onPeakPhotoMultCount = singleBlockRawDataSetRecord_d0.getCountOfOnPeakPhotoMultiplierIntensities();
         int totalIntensityCount = baselineCount + onPeakFaradayCount + onPeakPhotoMultCount;
 
         int[] isotopeOrdinalIndicesArray = singleBlockRawDataSetRecord_d0.blockIsotopeOrdinalIndicesArray();
@@ -831,7 +813,7 @@ enum SingleBlockModelInitForMCMC {
         return dataModel;
     }
 
-    private synchronized static double calcError(double[] origData, double[] modelData, double[] dataSignalNoiseArray_Dsig) {
+    private static double calcError(double[] origData, double[] modelData, double[] dataSignalNoiseArray_Dsig) {
         double sum = 0.0;
         for (int i = 0; i < origData.length; i++) {
             sum += Math.pow((origData[i] - modelData[i]), 2.0) / dataSignalNoiseArray_Dsig[i];
@@ -839,7 +821,7 @@ enum SingleBlockModelInitForMCMC {
         return sum;
     }
 
-    private synchronized static double calcVariance(double[] eTmp, double minETmp, double[] testArray) {
+    private static double calcVariance(double[] eTmp, double minETmp, double[] testArray) {
         double[] ee = new double[eTmp.length];
         double sumExpEE = 0.0;
         for (int i = 0; i < ee.length; i++) {
@@ -863,6 +845,10 @@ enum SingleBlockModelInitForMCMC {
 
     }
 
+    /**
+     * Boxed index comparator; the MCMC data paths use {@link IntArgSort#stableArgSort(int[])}, which yields the
+     * same ordering.
+     */
     public static class ArrayIndexComparator implements Comparator<Integer>, Serializable {
         private final int[] array;
 
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.ColumnarSingleBlockRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.ConvertedIntensityColumnsRecord;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecExtractedData;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecOutputSingleBlockRecord;
+import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethod;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Per-analysis cache of prepared block data (accumulated data arrays plus knot interpolation matrix) so that
+ * each block is assembled once per method configuration and shared by the OGTripoli preview, MCMC runs and
+ * re-runs.  Each block is also kept detector-major, and its intensities after unit conversion, so a method
+ * change re-accumulates but does not re-convert.  Entries are softly referenced so the garbage collector may
+ * evict them under memory pressure.
+ *
+ * @author James F. Bowring
+ */
+public class SingleBlockRawDataSetCache {
+
+    // each entry is built once by the first caller, outside the map's locks; later callers wait on its build
+    private final Map<PreparedBlockKey, FutureTask<SoftReference<SingleBlockRawDataSetRecord>>> mapOfKeysToPreparedBlocks = new ConcurrentHashMap<>();
+    private final Map<Integer, FutureTask<SoftReference<ConvertedIntensityColumnsRecord>>> mapOfBlockIdsToConvertedIntensityColumns = new ConcurrentHashMap<>();
+    private final Map<Integer, FutureTask<SoftReference<ColumnarSingleBlockRecord>>> mapOfBlockIdsToColumnarBlocks = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the prepared data for the block, assembling it only if no live entry exists for the current
+     * method fingerprint and knot mode.
+     *
+     * @param blockID               block to prepare
+     * @param massSpecExtractedData source data
+     * @param analysisMethod        method governing preparation
+     * @return the prepared block data or null if the block does not exist
+     */
+    public SingleBlockRawDataSetRecord retrievePreparedBlockData(
+            int blockID, MassSpecExtractedData massSpecExtractedData, AnalysisMethod analysisMethod) {
+        PreparedBlockKey preparedBlockKey = new PreparedBlockKey(
+                blockID, analysisMethod.fingerprintForBlockPreparation(), analysisMethod.isUseLinearKnots());
+        return retrieveOrBuild(mapOfKeysToPreparedBlocks, preparedBlockKey, preparedBlock -> true, () ->
+                SingleBlockModelDriver.prepareSingleBlockDataForMCMC(
+                        blockID, massSpecExtractedData, retrieveColumnarBlock(blockID, massSpecExtractedData),
+                        retrieveConvertedIntensityColumns(blockID, massSpecExtractedData, analysisMethod), analysisMethod));
+    }
+
+    /**
+     * Returns the block's intensities converted for the method's detectors, converting only if no live entry
+     * was converted with the same counts-per-volt factors.
+     *
+     * @param blockID               block to convert
+     * @param massSpecExtractedData source data
+     * @param analysisMethod        method naming the detectors and context
+     * @return the converted columns or null if the block does not exist
+     */
+    public ConvertedIntensityColumnsRecord retrieveConvertedIntensityColumns(
+            int blockID, MassSpecExtractedData massSpecExtractedData, AnalysisMethod analysisMethod) {
+        double[] countsPerVoltByColumn = SingleBlockDataAccumulatorMCMC.countsPerVoltByColumn(analysisMethod);
+        return retrieveOrBuild(mapOfBlockIdsToConvertedIntensityColumns, blockID,
+                convertedIntensityColumns -> convertedIntensityColumns.isConvertedWith(countsPerVoltByColumn), () -> {
+                    ColumnarSingleBlockRecord columnarSingleBlockRecord = retrieveColumnarBlock(blockID, massSpecExtractedData);
+                    return (null == columnarSingleBlockRecord) ? null
+                            : ConvertedIntensityColumnsRecord.convertIntensityColumns(columnarSingleBlockRecord, countsPerVoltByColumn);
+                });
+    }
+
+    /**
+     * Returns the block laid out detector-major, transposing only if no live entry exists.
+     *
+     * @param blockID               block to transpose
+     * @param massSpecExtractedData source data
+     * @return the columnar block or null if the block does not exist
+     */
+    public ColumnarSingleBlockRecord retrieveColumnarBlock(int blockID, MassSpecExtractedData massSpecExtractedData) {
+        return retrieveOrBuild(mapOfBlockIdsToColumnarBlocks, blockID, columnarBlock -> true, () -> {
+            MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord = massSpecExtractedData.getBlocksData().get(blockID);
+            return (null == massSpecOutputSingleBlockRecord) ? null
+                    : ColumnarSingleBlockRecord.fromSingleBlockRecord(massSpecOutputSingleBlockRecord);
+        });
+    }
+
+    /**
+     * Returns the live, reusable entry for the key, or builds one.  Entries that were collected or that fail the
+     * reuse test are replaced; a value this caller built itself is always returned.  Absent results and failed
+     * builds are not cached.
+     */
+    private static <K, V> V retrieveOrBuild(
+            Map<K, FutureTask<SoftReference<V>>> mapOfKeysToBuilds, K key, Predicate<V> reusable, Supplier<V> build) {
+        while (true) {
+            FutureTask<SoftReference<V>> newBuild = new FutureTask<>(() -> {
+                V built = build.get();
+                return (null == built) ? null : new SoftReference<>(built);
+            });
+            FutureTask<SoftReference<V>> existingBuild = mapOfKeysToBuilds.putIfAbsent(key, newBuild);
+            if (null == existingBuild) {
+                existingBuild = newBuild;
+                newBuild.run();
+            }
+
+            SoftReference<V> builtReference;
+            try {
+                // a waiting caller keeps its interrupt for after the build it shares
+                builtReference = Uninterruptibles.getUninterruptibly(existingBuild);
+            } catch (ExecutionException e) {
+                mapOfKeysToBuilds.remove(key, existingBuild);
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+
+            if (null == builtReference) {
+                mapOfKeysToBuilds.remove(key, existingBuild);
+                return null;
+            }
+            V value = builtReference.get();
+            if ((null != value) && ((existingBuild == newBuild) || reusable.test(value))) {
+                return value;
+            }
+            mapOfKeysToBuilds.remove(key, existingBuild);
+        }
+    }
+
+    /**
+     * Converts every block's intensities in parallel, so that the conversion cost is paid at import.
+     *
+     * @param massSpecExtractedData source data
+     * @param analysisMethod        method naming the detectors and context
+     */
+    public void convertAllIntensityColumns(MassSpecExtractedData massSpecExtractedData, AnalysisMethod analysisMethod) {
+        massSpecExtractedData.getBlocksData().keySet().parallelStream()
+                .forEach(blockID -> retrieveConvertedIntensityColumns(blockID, massSpecExtractedData, analysisMethod));
+    }
+
+    /**
+     * Discards all prepared blocks, columnar blocks and converted intensities; required when the source data
+     * changes.
+     */
+    public void invalidate() {
+        mapOfKeysToPreparedBlocks.clear();
+        mapOfBlockIdsToConvertedIntensityColumns.clear();
+        mapOfBlockIdsToColumnarBlocks.clear();
+    }
+
+    /**
+     * Discards the prepared blocks but keeps the columnar blocks and converted intensities, which are checked
+     * against each method's conversion factors when reused; sufficient when only the method changes.
+     */
+    public void invalidatePreparedBlocks() {
+        mapOfKeysToPreparedBlocks.clear();
+    }
+
+    public int size() {
+        return mapOfKeysToPreparedBlocks.size();
+    }
+
+    record PreparedBlockKey(
+            int blockID,
+            String methodFingerprint,
+            boolean useLinearKnots) {
+    }
+}
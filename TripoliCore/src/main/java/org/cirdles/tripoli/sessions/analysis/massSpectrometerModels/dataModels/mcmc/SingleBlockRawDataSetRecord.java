@@ -40,11 +40,15 @@ public record SingleBlockRawDataSetRecord(
         Map<SpeciesRecordInterface, boolean[]> mapOfSpeciesToActiveCycles,
         Map<String, List<Double>> blockMapIdsToDataTimes) implements Serializable {
     public int getCountOfBaselineIntensities() {
-        return baselineDataSetMCMC().intensityAccumulatorList().size();
+        return baselineDataSetMCMC().intensityAccumulatorArray().length;
     }
 
     public int getCountOfOnPeakFaradayIntensities() {
-        return onPeakFaradayDataSetMCMC().intensityAccumulatorList().size();
+        return onPeakFaradayDataSetMCMC().intensityAccumulatorArray().length;
+    }
+
+    public int getCountOfOnPeakPhotoMultiplierIntensities() {
+        return onPeakPhotoMultiplierDataSetMCMC().intensityAccumulatorArray().length;
     }
 
     /**
@@ -52,12 +56,12 @@ public record SingleBlockRawDataSetRecord(
      */
     public record SingleBlockRawDataRecord(
             int blockID,
-            List<Integer> detectorOrdinalIndicesAccumulatorList,
-            List<Integer> cycleAccumulatorList,
-            List<Double> intensityAccumulatorList,
-            List<Double> timeAccumulatorList,
-            List<Integer> timeIndexAccumulatorList,
-            List<Integer> isotopeOrdinalIndicesAccumulatorList,
+            int[] detectorOrdinalIndicesAccumulatorArray,
+            int[] cycleAccumulatorArray,
+            double[] intensityAccumulatorArray,
+            double[] timeAccumulatorArray,
+            int[] timeIndexAccumulatorArray,
+            int[] isotopeOrdinalIndicesAccumulatorArray,
             Map<String, List<Double>> blockMapOfIdsToData) implements Serializable {
 
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One block laid out detector-major: each detector's intensities form one contiguous column, and the rows of
+ * each sequence ID are one range of a shared index array rather than a list of boxed integers.  Built once per
+ * block from the {@link MassSpecOutputSingleBlockRecord} as imported, which remains the form saved in sessions.
+ * Cycle numbers and time stamps are already columns and are shared with that record, not copied.
+ *
+ * @param blockID              block number
+ * @param baselineColumns      [detector column][baseline index]
+ * @param baselineRowIndices   baseline rows of each sequence ID
+ * @param baselineCycleNumbers cycle of each baseline row
+ * @param baselineTimeStamps   time of each baseline row
+ * @param onPeakColumns        [detector column][on-peak index]
+ * @param onPeakRowIndices     on-peak rows of each sequence ID
+ * @param onPeakCycleNumbers   cycle of each on-peak row
+ * @param onPeakTimeStamps     time of each on-peak row
+ * @author James F. Bowring
+ */
+public record ColumnarSingleBlockRecord(
+        int blockID,
+        double[][] baselineColumns,
+        SequenceRowIndicesRecord baselineRowIndices,
+        int[] baselineCycleNumbers,
+        double[] baselineTimeStamps,
+        double[][] onPeakColumns,
+        SequenceRowIndicesRecord onPeakRowIndices,
+        int[] onPeakCycleNumbers,
+        double[] onPeakTimeStamps) {
+
+    /**
+     * @param massSpecOutputSingleBlockRecord block as imported
+     * @return the same block, detector-major
+     */
+    public static ColumnarSingleBlockRecord fromSingleBlockRecord(MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord) {
+        return new ColumnarSingleBlockRecord(
+                massSpecOutputSingleBlockRecord.blockID(),
+                transposeToColumns(massSpecOutputSingleBlockRecord.baselineIntensities()),
+                SequenceRowIndicesRecord.fromMapOfIdsToIndices(massSpecOutputSingleBlockRecord.mapOfBaselineIdsToIndices()),
+                massSpecOutputSingleBlockRecord.baselineCycleNumbers(),
+                massSpecOutputSingleBlockRecord.baselineTimeStamps(),
+                transposeToColumns(massSpecOutputSingleBlockRecord.onPeakIntensities()),
+                SequenceRowIndicesRecord.fromMapOfIdsToIndices(massSpecOutputSingleBlockRecord.mapOfOnPeakIdsToIndices()),
+                massSpecOutputSingleBlockRecord.onPeakCycleNumbers(),
+                massSpecOutputSingleBlockRecord.onPeakTimeStamps());
+    }
+
+    /**
+     * Rows shorter than the widest row leave zeros in their missing columns.
+     *
+     * @param intensities [row][detector column]
+     * @return [detector column][row]
+     */
+    static double[][] transposeToColumns(double[][] intensities) {
+        int rowCount = intensities.length;
+        int columnCount = 0;
+        for (double[] rowIntensities : intensities) {
+            columnCount = Math.max(columnCount, rowIntensities.length);
+        }
+        double[][] columns = new double[columnCount][rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            double[] rowIntensities = intensities[row];
+            for (int column = 0; column < rowIntensities.length; column++) {
+                columns[column][row] = rowIntensities[column];
+            }
+        }
+        return columns;
+    }
+
+    public int baselineRowCount() {
+        return (0 == baselineColumns.length) ? 0 : baselineColumns[0].length;
+    }
+
+    public int onPeakRowCount() {
+        return (0 == onPeakColumns.length) ? 0 : onPeakColumns[0].length;
+    }
+
+    /**
+     * Rows of each sequence ID in compressed form: the rows of the sequence ID at ordinal {@code i} are
+     * {@code rowIndices[offsets[i]]} up to, but excluding, {@code rowIndices[offsets[i + 1]]}, in ascending
+     * order.
+     *
+     * @param sequenceIDs sequence IDs in ascending order
+     * @param offsets     start of each sequence ID's range, plus the total row count
+     * @param rowIndices  row indices grouped by sequence ID
+     */
+    public record SequenceRowIndicesRecord(
+            String[] sequenceIDs,
+            int[] offsets,
+            int[] rowIndices) {
+
+        /**
+         * @param mapOfIdsToIndices sequence ID to its row indices, as imported; left unmodified
+         * @return the compressed rows
+         */
+        public static SequenceRowIndicesRecord fromMapOfIdsToIndices(Map<String, List<Integer>> mapOfIdsToIndices) {
+            String[] sequenceIDs = mapOfIdsToIndices.keySet().toArray(new String[0]);
+            Arrays.sort(sequenceIDs);
+            int[] offsets = new int[sequenceIDs.length + 1];
+            for (int ordinal = 0; ordinal < sequenceIDs.length; ordinal++) {
+                offsets[ordinal + 1] = offsets[ordinal] + mapOfIdsToIndices.get(sequenceIDs[ordinal]).size();
+            }
+            int[] rowIndices = new int[offsets[sequenceIDs.length]];
+            for (int ordinal = 0; ordinal < sequenceIDs.length; ordinal++) {
+                int rowIndex = offsets[ordinal];
+                for (int index : mapOfIdsToIndices.get(sequenceIDs[ordinal])) {
+                    rowIndices[rowIndex] = index;
+                    rowIndex++;
+                }
+                Arrays.sort(rowIndices, offsets[ordinal], offsets[ordinal + 1]);
+            }
+            return new SequenceRowIndicesRecord(sequenceIDs, offsets, rowIndices);
+        }
+
+        /**
+         * @param sequenceID sequence ID to find
+         * @return its ordinal, or a negative value if the block has no rows for it
+         */
+        public int ordinalOf(String sequenceID) {
+            return Arrays.binarySearch(sequenceIDs, sequenceID);
+        }
+
+        /**
+         * @param ordinal ordinal of a sequence ID
+         * @return position in {@link #rowIndices()} of its first row
+         */
+        public int start(int ordinal) {
+            return offsets[ordinal];
+        }
+
+        /**
+         * @param ordinal ordinal of a sequence ID
+         * @return position in {@link #rowIndices()} just past its last row
+         */
+        public int end(int ordinal) {
+            return offsets[ordinal + 1];
+        }
+
+        /**
+         * @param sequenceID sequence ID to count
+         * @return number of its rows, 0 if the block has none
+         */
+        public int rowCount(String sequenceID) {
+            int ordinal = ordinalOf(sequenceID);
+            return (0 > ordinal) ? 0 : end(ordinal) - start(ordinal);
+        }
+    }
+}
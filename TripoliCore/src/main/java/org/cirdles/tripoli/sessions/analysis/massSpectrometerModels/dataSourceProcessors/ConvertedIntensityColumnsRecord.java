@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import java.util.Arrays;
+
+import static org.cirdles.tripoli.utilities.mathUtilities.MathUtilities.roundToSizeInPlace;
+
+/**
+ * One block's intensities, converted once and stored as one column per detector.  Baseline values are rounded
+ * to 6 significant figures and on-peak values to 10.  A column with a counts-per-volt factor is then multiplied
+ * by it.  The results are identical, value for value, to converting each sample as it is accumulated.
+ *
+ * @param countsPerVoltByColumn factor for each detector column; NaN where the column stays in its own units
+ * @param baselineColumns       [detector column][baseline index]
+ * @param onPeakColumns         [detector column][on-peak index]
+ * @author James F. Bowring
+ */
+public record ConvertedIntensityColumnsRecord(
+        double[] countsPerVoltByColumn,
+        double[][] baselineColumns,
+        double[][] onPeakColumns) {
+
+    public static final int BASELINE_SIGNIFICANT_FIGURES = 6;
+    public static final int ONPEAK_SIGNIFICANT_FIGURES = 10;
+
+    /**
+     * @param massSpecOutputSingleBlockRecord block as imported
+     * @param countsPerVoltByColumn           factor for each detector column; NaN for no conversion
+     * @return the converted columns
+     */
+    public static ConvertedIntensityColumnsRecord convertIntensityColumns(
+            MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord, double[] countsPerVoltByColumn) {
+        return convertIntensityColumns(ColumnarSingleBlockRecord.fromSingleBlockRecord(massSpecOutputSingleBlockRecord), countsPerVoltByColumn);
+    }
+
+    /**
+     * @param columnarSingleBlockRecord block, detector-major
+     * @param countsPerVoltByColumn     factor for each detector column; NaN for no conversion
+     * @return the converted columns
+     */
+    public static ConvertedIntensityColumnsRecord convertIntensityColumns(
+            ColumnarSingleBlockRecord columnarSingleBlockRecord, double[] countsPerVoltByColumn) {
+        return new ConvertedIntensityColumnsRecord(
+                countsPerVoltByColumn.clone(),
+                convertColumns(columnarSingleBlockRecord.baselineColumns(), columnarSingleBlockRecord.baselineRowCount(),
+                        countsPerVoltByColumn, BASELINE_SIGNIFICANT_FIGURES),
+                convertColumns(columnarSingleBlockRecord.onPeakColumns(), columnarSingleBlockRecord.onPeakRowCount(),
+                        countsPerVoltByColumn, ONPEAK_SIGNIFICANT_FIGURES));
+    }
+
+    private static double[][] convertColumns(
+            double[][] intensityColumns, int rowCount, double[] countsPerVoltByColumn, int significantFigures) {
+        double[][] columns = new double[countsPerVoltByColumn.length][];
+        for (int column = 0; column < columns.length; column++) {
+            // a detector the block has no column for reads as zeros
+            double[] columnIntensities = (column < intensityColumns.length) ? intensityColumns[column].clone() : new double[rowCount];
+            roundToSizeInPlace(columnIntensities, significantFigures);
+            double countsPerVolt = countsPerVoltByColumn[column];
+            if (!Double.isNaN(countsPerVolt)) {
+                // a plain multiply with no branches, which the JIT can vectorize
+                for (int row = 0; row < rowCount; row++) {
+                    columnIntensities[row] *= countsPerVolt;
+                }
+            }
+            columns[column] = columnIntensities;
+        }
+
+        return columns;
+    }
+
+    /**
+     * @param countsPerVoltByColumn factors wanted by the caller
+     * @return true if these columns were converted with exactly those factors
+     */
+    public boolean isConvertedWith(double[] countsPerVoltByColumn) {
+        return Arrays.equals(this.countsPerVoltByColumn, countsPerVoltByColumn);
+    }
+}
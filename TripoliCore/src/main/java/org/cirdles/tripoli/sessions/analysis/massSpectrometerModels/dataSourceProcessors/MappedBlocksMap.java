@@ -0,0 +1,341 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only block map whose raw arrays live in a memory-mapped scratch file instead of on the heap.  Each block
+ * is written once, in a compact binary form, and is decoded back into a {@link MassSpecOutputSingleBlockRecord}
+ * when it is asked for; decoded blocks are softly referenced so the garbage collector may return them to the
+ * file under memory pressure.  The scratch file is unlinked as soon as it is mapped where the platform allows,
+ * and otherwise on exit.
+ * <p>
+ * Serializes as an ordinary {@link TreeMap} of the decoded blocks, so saved sessions do not depend on it.
+ * Enabled with {@code -Dtripoli.blocks.mapped=true}.
+ *
+ * @author James F. Bowring
+ */
+public class MappedBlocksMap extends AbstractMap<Integer, MassSpecOutputSingleBlockRecord> implements Serializable {
+    public static final String MAPPED_BLOCKS_PROPERTY = "tripoli.blocks.mapped";
+    @Serial
+    private static final long serialVersionUID = 6329101583315470527L;
+    private static final String SCRATCH_FILE_PREFIX = "tripoliBlocks";
+
+    private final transient Map<Integer, ByteBuffer> mapOfBlockIdsToMappedBlocks;
+    private final transient Map<Integer, SoftReference<MassSpecOutputSingleBlockRecord>> mapOfBlockIdsToDecodedBlocks = new ConcurrentHashMap<>();
+
+    private MappedBlocksMap(Map<Integer, ByteBuffer> mapOfBlockIdsToMappedBlocks) {
+        this.mapOfBlockIdsToMappedBlocks = mapOfBlockIdsToMappedBlocks;
+    }
+
+    public static boolean isMappedBlocksEnabled() {
+        return Boolean.getBoolean(MAPPED_BLOCKS_PROPERTY);
+    }
+
+    /**
+     * @param blocksData       blocks to move off the heap; left unmodified
+     * @param scratchDirectory directory for the scratch file
+     * @return a map of the same blocks, backed by the scratch file
+     * @throws IOException if the scratch file cannot be written or mapped
+     */
+    public static MappedBlocksMap mapToScratchFile(Map<Integer, MassSpecOutputSingleBlockRecord> blocksData, Path scratchDirectory)
+            throws IOException {
+        Path scratchFilePath = Files.createTempFile(scratchDirectory, SCRATCH_FILE_PREFIX, ".bin");
+        try {
+            Map<Integer, long[]> mapOfBlockIdsToExtents = new TreeMap<>();
+            try (CountingOutputStream countingOutputStream = new CountingOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(scratchFilePath), 1 << 16));
+                 DataOutputStream dataOutputStream = new DataOutputStream(countingOutputStream)) {
+                for (MassSpecOutputSingleBlockRecord blockRecord : blocksData.values()) {
+                    long startingPosition = countingOutputStream.getCount();
+                    writeBlock(blockRecord, dataOutputStream);
+                    mapOfBlockIdsToExtents.put(blockRecord.blockID(), new long[]{startingPosition, countingOutputStream.getCount() - startingPosition});
+                }
+            }
+
+            Map<Integer, ByteBuffer> mapOfBlockIdsToMappedBlocks = new TreeMap<>();
+            try (FileChannel fileChannel = FileChannel.open(scratchFilePath, StandardOpenOption.READ)) {
+                for (Map.Entry<Integer, long[]> entry : mapOfBlockIdsToExtents.entrySet()) {
+                    MappedByteBuffer mappedBlock = fileChannel.map(FileChannel.MapMode.READ_ONLY, entry.getValue()[0], entry.getValue()[1]);
+                    mapOfBlockIdsToMappedBlocks.put(entry.getKey(), mappedBlock);
+                }
+            }
+            return new MappedBlocksMap(Collections.unmodifiableMap(mapOfBlockIdsToMappedBlocks));
+        } finally {
+            // mappings outlive the file's name on POSIX systems; Windows refuses while mapped
+            try {
+                Files.deleteIfExists(scratchFilePath);
+            } catch (IOException e) {
+                scratchFilePath.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    @Override
+    public MassSpecOutputSingleBlockRecord get(Object key) {
+        if (!(key instanceof Integer blockID) || !mapOfBlockIdsToMappedBlocks.containsKey(blockID)) {
+            return null;
+        }
+        // holds a strong reference so the entry cannot be collected between compute and return
+        MassSpecOutputSingleBlockRecord[] decodedBlock = new MassSpecOutputSingleBlockRecord[1];
+        mapOfBlockIdsToDecodedBlocks.compute(blockID, (id, cachedReference) -> {
+            decodedBlock[0] = (null == cachedReference) ? null : cachedReference.get();
+            if (null == decodedBlock[0]) {
+                // duplicate gives this decode its own position
+                decodedBlock[0] = readBlock(mapOfBlockIdsToMappedBlocks.get(id).duplicate());
+                return new SoftReference<>(decodedBlock[0]);
+            }
+            return cachedReference;
+        });
+        return decodedBlock[0];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return mapOfBlockIdsToMappedBlocks.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return mapOfBlockIdsToMappedBlocks.size();
+    }
+
+    @Override
+    public Set<Integer> keySet() {
+        return mapOfBlockIdsToMappedBlocks.keySet();
+    }
+
+    /**
+     * Blocks are decoded one at a time as the iteration reaches them.
+     */
+    @Override
+    public Set<Entry<Integer, MassSpecOutputSingleBlockRecord>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, MassSpecOutputSingleBlockRecord>> iterator() {
+                Iterator<Integer> blockIdIterator = mapOfBlockIdsToMappedBlocks.keySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return blockIdIterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<Integer, MassSpecOutputSingleBlockRecord> next() {
+                        Integer blockID = blockIdIterator.next();
+                        return new SimpleImmutableEntry<>(blockID, get(blockID));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return mapOfBlockIdsToMappedBlocks.size();
+            }
+        };
+    }
+
+    @Serial
+    private Object writeReplace() {
+        return new TreeMap<>(this);
+    }
+
+    private static void writeBlock(MassSpecOutputSingleBlockRecord blockRecord, DataOutputStream dataOutputStream) throws IOException {
+        dataOutputStream.writeInt(blockRecord.blockID());
+        writeIntensities(blockRecord.baselineIntensities(), dataOutputStream);
+        writeStrings(blockRecord.baselineIDs(), dataOutputStream);
+        writeMapOfIdsToIndices(blockRecord.mapOfBaselineIdsToIndices(), dataOutputStream);
+        writeInts(blockRecord.baselineCycleNumbers(), dataOutputStream);
+        writeInts(blockRecord.baselineIntegrationNumbers(), dataOutputStream);
+        writeDoubles(blockRecord.baselineTimeStamps(), dataOutputStream);
+        writeDoubles(blockRecord.baselineMasses(), dataOutputStream);
+        writeIntensities(blockRecord.onPeakIntensities(), dataOutputStream);
+        writeStrings(blockRecord.onPeakIDs(), dataOutputStream);
+        writeMapOfIdsToIndices(blockRecord.mapOfOnPeakIdsToIndices(), dataOutputStream);
+        writeInts(blockRecord.onPeakCycleNumbers(), dataOutputStream);
+        writeInts(blockRecord.onPeakIntegrationNumbers(), dataOutputStream);
+        writeDoubles(blockRecord.onPeakTimeStamps(), dataOutputStream);
+        writeDoubles(blockRecord.onPeakMasses(), dataOutputStream);
+        writeInts(blockRecord.onPeakStartingIndicesOfCycles(), dataOutputStream);
+    }
+
+    private static MassSpecOutputSingleBlockRecord readBlock(ByteBuffer mappedBlock) {
+        return new MassSpecOutputSingleBlockRecord(
+                mappedBlock.getInt(),
+                readIntensities(mappedBlock),
+                readStrings(mappedBlock),
+                readMapOfIdsToIndices(mappedBlock),
+                readInts(mappedBlock),
+                readInts(mappedBlock),
+                readDoubles(mappedBlock),
+                readDoubles(mappedBlock),
+                readIntensities(mappedBlock),
+                readStrings(mappedBlock),
+                readMapOfIdsToIndices(mappedBlock),
+                readInts(mappedBlock),
+                readInts(mappedBlock),
+                readDoubles(mappedBlock),
+                readDoubles(mappedBlock),
+                readInts(mappedBlock));
+    }
+
+    private static void writeIntensities(double[][] intensities, DataOutputStream dataOutputStream) throws IOException {
+        dataOutputStream.writeInt(intensities.length);
+        for (double[] rowIntensities : intensities) {
+            writeDoubles(rowIntensities, dataOutputStream);
+        }
+    }
+
+    private static double[][] readIntensities(ByteBuffer mappedBlock) {
+        double[][] intensities = new double[mappedBlock.getInt()][];
+        for (int row = 0; row < intensities.length; row++) {
+            intensities[row] = readDoubles(mappedBlock);
+        }
+        return intensities;
+    }
+
+    private static void writeDoubles(double[] values, DataOutputStream dataOutputStream) throws IOException {
+        dataOutputStream.writeInt(values.length);
+        for (double value : values) {
+            dataOutputStream.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(ByteBuffer mappedBlock) {
+        double[] values = new double[mappedBlock.getInt()];
+        mappedBlock.asDoubleBuffer().get(values);
+        mappedBlock.position(mappedBlock.position() + values.length * Double.BYTES);
+        return values;
+    }
+
+    private static void writeInts(int[] values, DataOutputStream dataOutputStream) throws IOException {
+        dataOutputStream.writeInt(values.length);
+        for (int value : values) {
+            dataOutputStream.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer mappedBlock) {
+        int[] values = new int[mappedBlock.getInt()];
+        mappedBlock.asIntBuffer().get(values);
+        mappedBlock.position(mappedBlock.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * IDs repeat on every row, so each distinct ID is written once and rows refer to it by ordinal.
+     */
+    private static void writeStrings(String[] values, DataOutputStream dataOutputStream) throws IOException {
+        Map<String, Integer> mapOfValuesToOrdinals = new LinkedHashMap<>();
+        int[] ordinals = new int[values.length];
+        for (int index = 0; index < values.length; index++) {
+            ordinals[index] = mapOfValuesToOrdinals.computeIfAbsent(values[index], value -> mapOfValuesToOrdinals.size());
+        }
+        dataOutputStream.writeInt(mapOfValuesToOrdinals.size());
+        for (String value : mapOfValuesToOrdinals.keySet()) {
+            writeString(value, dataOutputStream);
+        }
+        writeInts(ordinals, dataOutputStream);
+    }
+
+    private static String[] readStrings(ByteBuffer mappedBlock) {
+        String[] distinctValues = new String[mappedBlock.getInt()];
+        for (int ordinal = 0; ordinal < distinctValues.length; ordinal++) {
+            distinctValues[ordinal] = readString(mappedBlock);
+        }
+        int[] ordinals = readInts(mappedBlock);
+        String[] values = new String[ordinals.length];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = distinctValues[ordinals[index]];
+        }
+        return values;
+    }
+
+    private static void writeMapOfIdsToIndices(Map<String, List<Integer>> mapOfIdsToIndices, DataOutputStream dataOutputStream) throws IOException {
+        dataOutputStream.writeInt(mapOfIdsToIndices.size());
+        for (Map.Entry<String, List<Integer>> entry : mapOfIdsToIndices.entrySet()) {
+            writeString(entry.getKey(), dataOutputStream);
+            dataOutputStream.writeInt(entry.getValue().size());
+            for (int index : entry.getValue()) {
+                dataOutputStream.writeInt(index);
+            }
+        }
+    }
+
+    private static Map<String, List<Integer>> readMapOfIdsToIndices(ByteBuffer mappedBlock) {
+        // the same map type the importers build
+        Map<String, List<Integer>> mapOfIdsToIndices = new TreeMap<>();
+        int idCount = mappedBlock.getInt();
+        for (int idIndex = 0; idIndex < idCount; idIndex++) {
+            String id = readString(mappedBlock);
+            int indexCount = mappedBlock.getInt();
+            List<Integer> indices = new ArrayList<>(indexCount);
+            for (int index = 0; index < indexCount; index++) {
+                indices.add(mappedBlock.getInt());
+            }
+            mapOfIdsToIndices.put(id, indices);
+        }
+        return mapOfIdsToIndices;
+    }
+
+    private static void writeString(String value, DataOutputStream dataOutputStream) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        dataOutputStream.writeInt(bytes.length);
+        dataOutputStream.write(bytes);
+    }
+
+    private static String readString(ByteBuffer mappedBlock) {
+        byte[] bytes = new byte[mappedBlock.getInt()];
+        mappedBlock.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass access to mass spectrometer data files.  A file is opened once; its header lines are peeked
+ * through a mark on the buffered reader so that context detection and the parser share one read of the file.
+ *
+ * @author James F. Bowring
+ */
+public enum MassSpecDataFileReader {
+    ;
+
+    /**
+     * Longest header prefix, in characters, that can be peeked and then re-read.
+     */
+    public static final int HEADER_READ_AHEAD_LIMIT = 1 << 20;
+
+    /**
+     * @param dataFilePath data file
+     * @return a buffered reader in the platform charset, as the parsers have always read files
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader openDataFile(Path dataFilePath) throws IOException {
+        return Files.newBufferedReader(dataFilePath, Charset.defaultCharset());
+    }
+
+    /**
+     * Reads up to lineCount lines and then rewinds the reader to where it was.
+     *
+     * @param dataFileReader reader positioned at the start of the header
+     * @param lineCount      lines wanted
+     * @return the lines read, fewer if the file is shorter
+     * @throws IOException if the lines run past {@link #HEADER_READ_AHEAD_LIMIT} characters or cannot be read
+     */
+    public static List<String> peekLines(BufferedReader dataFileReader, int lineCount) throws IOException {
+        List<String> lines = new ArrayList<>(lineCount);
+        dataFileReader.mark(HEADER_READ_AHEAD_LIMIT);
+        try {
+            String line;
+            while ((lines.size() < lineCount) && (null != (line = dataFileReader.readLine()))) {
+                lines.add(line);
+            }
+        } finally {
+            dataFileReader.reset();
+        }
+        return lines;
+    }
+
+    /**
+     * Parses only the header, the lines up to the first section marker (a line starting with "#" other than a
+     * leading #HEADER), so that it can be shown before the blocks are read.  The reader is then rewound to
+     * where it was.
+     *
+     * @param dataFileReader reader positioned at the start of the file
+     * @return data with its header populated and no blocks
+     * @throws IOException if the header runs past {@link #HEADER_READ_AHEAD_LIMIT} characters or cannot be read
+     */
+    public static MassSpecExtractedData peekHeader(BufferedReader dataFileReader) throws IOException {
+        List<String[]> headerByLineSplit = new ArrayList<>();
+        dataFileReader.mark(HEADER_READ_AHEAD_LIMIT);
+        try {
+            String line;
+            while ((null != (line = dataFileReader.readLine())) && (headerByLineSplit.isEmpty() || !line.startsWith("#"))) {
+                if (!line.trim().isBlank()) {
+                    headerByLineSplit.add(line.split(","));
+                }
+            }
+        } finally {
+            dataFileReader.reset();
+        }
+        MassSpecExtractedData massSpecExtractedData = new MassSpecExtractedData();
+        massSpecExtractedData.populateHeader(headerByLineSplit);
+        return massSpecExtractedData;
+    }
+}
@@ -4,13 +4,19 @@ import org.cirdles.tripoli.constants.MassSpectrometerContextEnum;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.Detector;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.DetectorSetup;
 
+import java.io.IOException;
+import java.io.Serial;
 import java.io.Serializable;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 public class MassSpecExtractedData implements Serializable {
+    // the value computed for the class before it was declared, so that existing sessions still load
+    @Serial
+    private static final long serialVersionUID = 4964344701607818220L;
 
     private MassSpectrometerContextEnum massSpectrometerContext;
     private MassSpecExtractedHeader header;
@@ -141,6 +147,22 @@ public class MassSpecExtractedData implements Serializable {
         return blocksData;
     }
 
+    /**
+     * Moves the blocks' raw arrays into a memory-mapped scratch file; afterwards the blocks are read-only.
+     *
+     * @param scratchDirectory directory for the scratch file
+     * @throws IOException if the scratch file cannot be written or mapped
+     */
+    public void mapBlocksToScratchFile(Path scratchDirectory) throws IOException {
+        if (!(blocksData instanceof MappedBlocksMap)) {
+            blocksData = MappedBlocksMap.mapToScratchFile(blocksData, scratchDirectory);
+        }
+    }
+
+    public boolean isBlocksDataMapped() {
+        return blocksData instanceof MappedBlocksMap;
+    }
+
     public record MassSpecExtractedHeader(
             String softwareVersion,
             String filename,
@@ -16,9 +16,8 @@
 
 package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
 
+import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -30,18 +29,30 @@ public enum PhoenixMassSpec {
     ;
 
     /**
-     * Called by reflection from Analysis.extractMassSpecDataFromPath
-     *
      * @param inputDataFile
      * @return
      * @throws IOException
      */
-    @SuppressWarnings("unused")
     public static MassSpecExtractedData extractMetaAndBlockDataFromFileVersion_1_0(Path inputDataFile) throws IOException {
+        try (BufferedReader dataFileReader = MassSpecDataFileReader.openDataFile(inputDataFile)) {
+            return extractMetaAndBlockDataFromFileVersion_1_0(dataFileReader);
+        }
+    }
+
+    /**
+     * Called by reflection from Analysis.extractMassSpecDataFromPath, streaming the reader used to detect the
+     * file's context.
+     *
+     * @param dataFileReader reader positioned at the start of the file
+     * @return
+     * @throws IOException
+     */
+    @SuppressWarnings("unused")
+    public static MassSpecExtractedData extractMetaAndBlockDataFromFileVersion_1_0(BufferedReader dataFileReader) throws IOException {
         MassSpecExtractedData massSpecExtractedData = new MassSpecExtractedData();
-        List<String> contentsByLine = new ArrayList<>(Files.readAllLines(inputDataFile, Charset.defaultCharset()));
+        List<String> versionLines = MassSpecDataFileReader.peekLines(dataFileReader, 1);
         // test for version 1.00
-        if (0 != contentsByLine.get(0).trim().compareToIgnoreCase("Version,1.00")) {
+        if (versionLines.isEmpty() || (0 != versionLines.get(0).trim().compareToIgnoreCase("Version,1.00"))) {
             throw new IOException("Expecting Version 1.0 of data file.");
         } else {
             List<String[]> headerByLineSplit = new ArrayList<>();
@@ -51,8 +62,13 @@ public enum PhoenixMassSpec {
 
             int phase = 0;
             int currentBlockNumber = 1;
-            contentsByLine.add("#END,0,");
-            for (String line : contentsByLine) {
+            String line;
+            boolean endLineAppended = false;
+            while ((null != (line = dataFileReader.readLine())) || !endLineAppended) {
+                if (null == line) {
+                    line = "#END,0,";
+                    endLineAppended = true;
+                }
                 if (!line.trim().isBlank()) {
                     if (line.startsWith("#START")) {
                         massSpecExtractedData.populateHeader(headerByLineSplit);
@@ -99,18 +115,31 @@ public enum PhoenixMassSpec {
     }
 
     /**
-     * Called by reflection from Analysis.extractMassSpecDataFromPath
-     *
      * @param inputDataFile
      * @return
      * @throws IOException
      */
-    @SuppressWarnings("unused")
     public static MassSpecExtractedData extractMetaAndBlockDataFromFileVersion_1_2(Path inputDataFile) throws IOException {
+        try (BufferedReader dataFileReader = MassSpecDataFileReader.openDataFile(inputDataFile)) {
+            return extractMetaAndBlockDataFromFileVersion_1_2(dataFileReader);
+        }
+    }
+
+    /**
+     * Called by reflection from Analysis.extractMassSpecDataFromPath, streaming the reader used to detect the
+     * file's context.
+     *
+     * @param dataFileReader reader positioned at the start of the file
+     * @return
+     * @throws IOException
+     */
+    @SuppressWarnings("unused")
+    public static MassSpecExtractedData extractMetaAndBlockDataFromFileVersion_1_2(BufferedReader dataFileReader) throws IOException {
         MassSpecExtractedData massSpecExtractedData = new MassSpecExtractedData();
-        List<String> contentsByLine = new ArrayList<>(Files.readAllLines(inputDataFile, Charset.defaultCharset()));
+        List<String> versionLines = MassSpecDataFileReader.peekLines(dataFileReader, 3);
         // test for version 1.20
-        if ((!contentsByLine.get(2).trim().startsWith("Version,1.")) && (!contentsByLine.get(2).trim().startsWith("Version,2."))) {
+        if ((3 > versionLines.size())
+                || ((!versionLines.get(2).trim().startsWith("Version,1.")) && (!versionLines.get(2).trim().startsWith("Version,2.")))) {
             throw new IOException("Expecting Version 1.2.n of data file.");
         } else {
             // first pass is to assemble data by blocks
@@ -122,7 +151,8 @@ public enum PhoenixMassSpec {
 
             int phase = 0;
             int currentBlockID = 1;
-            for (String line : contentsByLine) {
+            String line;
+            while (null != (line = dataFileReader.readLine())) {
                 if (!line.trim().isBlank()) {
                     if (line.startsWith("#COLLECTORS")) {
                         massSpecExtractedData.populateHeader(headerByLineSplit);
@@ -55,6 +55,8 @@ public class AnalysisMethod implements Serializable {
     private List<IsotopicRatio> derivedIsotopicRatiosList;
     private BiMap<IsotopicRatio, IsotopicRatio> biMapOfRatiosAndInverses = HashBiMap.create();
     private boolean useLinearKnots;
+    // computed on first use, after the method is built; its tables are not edited afterwards
+    private transient String blockPreparationFingerprint;
 
     private AnalysisMethod(String methodName, MassSpectrometerContextEnum massSpectrometerContext) {
         this(methodName, massSpectrometerContext, BaselineTable.createEmptyBaselineTable(), SequenceTable.createEmptySequenceTable());
@@ -209,6 +211,48 @@ public class AnalysisMethod implements Serializable {
         this.useLinearKnots = !this.useLinearKnots;
     }
 
+    /**
+     * Summarizes everything in this method that shapes block data preparation: species, baseline and sequence
+     * cells, and the detectors (with their amplifier resistances) they reference.  Knot mode is excluded.
+     *
+     * @return fingerprint string that changes whenever prepared block data would change
+     */
+    public String fingerprintForBlockPreparation() {
+        if (null == blockPreparationFingerprint) {
+            blockPreparationFingerprint = buildFingerprintForBlockPreparation();
+        }
+        return blockPreparationFingerprint;
+    }
+
+    private String buildFingerprintForBlockPreparation() {
+        StringBuilder retVal = new StringBuilder();
+        retVal.append(methodName).append("|").append(massSpectrometerContext.getName()).append("|");
+        for (SpeciesRecordInterface species : speciesList) {
+            retVal.append(species.prettyPrintShortForm()).append(",");
+        }
+        for (Map.Entry<Detector, List<BaselineCell>> entry : baselineTable.getMapOfDetectorsToBaselineCells().entrySet()) {
+            appendDetectorFingerprint(retVal, entry.getKey());
+            for (BaselineCell baselineCell : entry.getValue()) {
+                retVal.append(baselineCell.getBaselineID()).append(",");
+            }
+        }
+        for (Map.Entry<Detector, List<SequenceCell>> entry : sequenceTable.getMapOfDetectorsToSequenceCells().entrySet()) {
+            appendDetectorFingerprint(retVal, entry.getKey());
+            for (SequenceCell sequenceCell : entry.getValue()) {
+                retVal.append(sequenceCell.getSequenceId()).append(":")
+                        .append(null == sequenceCell.getTargetSpecies() ? "" : sequenceCell.getTargetSpecies().prettyPrintShortForm()).append(",");
+            }
+        }
+        return retVal.toString();
+    }
+
+    private void appendDetectorFingerprint(StringBuilder fingerprint, Detector detector) {
+        fingerprint.append("|").append(detector.getDetectorName())
+                .append("#").append(detector.getOrdinalIndex())
+                .append("#").append(detector.isFaraday())
+                .append("#").append(detector.getAmplifierResistanceInOhms()).append(":");
+    }
+
     private String prettyPrintSequenceTable() {
         StringBuilder retVal = new StringBuilder();
         Map<Detector, List<SequenceCell>> detectorToSequenceCell = sequenceTable.getMapOfDetectorsToSequenceCells();
@@ -277,6 +321,7 @@ public class AnalysisMethod implements Serializable {
 
     public void setSpeciesList(List<SpeciesRecordInterface> speciesList) {
         this.speciesList = speciesList;
+        blockPreparationFingerprint = null;
     }
 
     public void addSpeciesToSpeciesList(SpeciesRecordInterface species) {
@@ -285,6 +330,7 @@ public class AnalysisMethod implements Serializable {
         }
         if (!speciesList.contains(species)) {
             speciesList.add(species);
+            blockPreparationFingerprint = null;
         }
     }
 
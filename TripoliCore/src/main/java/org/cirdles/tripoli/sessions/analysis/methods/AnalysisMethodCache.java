@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.sessions.analysis.methods;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import org.cirdles.tripoli.constants.MassSpectrometerContextEnum;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.Detector;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.detectorSetups.DetectorSetup;
+import org.cirdles.tripoli.sessions.analysis.methods.machineMethods.phoenixMassSpec.PhoenixAnalysisMethod;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Unmarshals and builds each Phoenix method XML once per detector setup.  The JAXB context is created once and
+ * shared; it is thread-safe, whereas unmarshallers are not and are created per use.  Built methods are kept
+ * serialized and every caller receives its own copy, because analyses modify their method (ratios, knots).
+ *
+ * @author James F. Bowring
+ */
+public enum AnalysisMethodCache {
+    ;
+
+    private static final Map<AnalysisMethodKey, FutureTask<byte[]>> mapOfKeyToSerializedAnalysisMethod = new ConcurrentHashMap<>();
+    private static volatile JAXBContext phoenixAnalysisMethodContext;
+
+    /**
+     * @return the shared context for {@link PhoenixAnalysisMethod}
+     * @throws JAXBException if the context cannot be created
+     */
+    public static JAXBContext getPhoenixAnalysisMethodContext() throws JAXBException {
+        JAXBContext jaxbContext = phoenixAnalysisMethodContext;
+        if (null == jaxbContext) {
+            synchronized (AnalysisMethodCache.class) {
+                jaxbContext = phoenixAnalysisMethodContext;
+                if (null == jaxbContext) {
+                    jaxbContext = JAXBContext.newInstance(PhoenixAnalysisMethod.class);
+                    phoenixAnalysisMethodContext = jaxbContext;
+                }
+            }
+        }
+        return jaxbContext;
+    }
+
+    /**
+     * Concurrent requests for the same method file wait for a single build.
+     *
+     * @param phoenixAnalysisMethodDataFilePath method XML
+     * @param detectorSetup                     detector setup of the data file
+     * @param massSpectrometerContext           context of the data file
+     * @return a method owned by the caller
+     * @throws JAXBException if the XML cannot be unmarshalled
+     * @throws IOException   if the file cannot be read
+     */
+    public static AnalysisMethod retrieveAnalysisMethod(
+            Path phoenixAnalysisMethodDataFilePath,
+            DetectorSetup detectorSetup,
+            MassSpectrometerContextEnum massSpectrometerContext) throws JAXBException, IOException {
+        byte[] methodFileBytes = Files.readAllBytes(phoenixAnalysisMethodDataFilePath);
+        AnalysisMethodKey analysisMethodKey = new AnalysisMethodKey(
+                phoenixAnalysisMethodDataFilePath.toAbsolutePath().normalize().toString(),
+                contentHash(methodFileBytes),
+                detectorSetupFingerprint(detectorSetup),
+                massSpectrometerContext);
+
+        FutureTask<byte[]> methodBuild = new FutureTask<>(() -> serialize(
+                AnalysisMethod.createAnalysisMethodFromPhoenixAnalysisMethod(
+                        unmarshal(methodFileBytes), detectorSetup, massSpectrometerContext)));
+        FutureTask<byte[]> existingMethodBuild = mapOfKeyToSerializedAnalysisMethod.putIfAbsent(analysisMethodKey, methodBuild);
+        if (null == existingMethodBuild) {
+            existingMethodBuild = methodBuild;
+            methodBuild.run();
+        }
+
+        try {
+            return deserialize(existingMethodBuild.get());
+        } catch (ExecutionException e) {
+            // failed builds are not cached so a corrected file or setup can be retried
+            mapOfKeyToSerializedAnalysisMethod.remove(analysisMethodKey, existingMethodBuild);
+            Throwable cause = e.getCause();
+            if (cause instanceof JAXBException jaxbException) {
+                throw jaxbException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while building method: " + phoenixAnalysisMethodDataFilePath);
+        }
+    }
+
+    public static void clear() {
+        mapOfKeyToSerializedAnalysisMethod.clear();
+    }
+
+    private static PhoenixAnalysisMethod unmarshal(byte[] methodFileBytes) throws JAXBException {
+        return (PhoenixAnalysisMethod) getPhoenixAnalysisMethodContext().createUnmarshaller()
+                .unmarshal(new ByteArrayInputStream(methodFileBytes));
+    }
+
+    private static String contentHash(byte[] methodFileBytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(methodFileBytes));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String detectorSetupFingerprint(DetectorSetup detectorSetup) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Detector detector : detectorSetup.getMapOfDetectors().values()) {
+            fingerprint.append(detector.getDetectorName()).append(':')
+                    .append(detector.getDetectorType()).append(':')
+                    .append(detector.getOrdinalIndex()).append(':')
+                    .append(detector.getAmplifierType()).append(':')
+                    .append(detector.getAmplifierResistanceInOhms()).append(':')
+                    .append(detector.getAmplifierGain()).append(':')
+                    .append(detector.getAmplifierEfficiency()).append(':')
+                    .append(detector.getDetectorDeadTime()).append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    private static byte[] serialize(AnalysisMethod analysisMethod) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(analysisMethod);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static AnalysisMethod deserialize(byte[] serializedAnalysisMethod) throws IOException {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(serializedAnalysisMethod))) {
+            return (AnalysisMethod) objectInputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    record AnalysisMethodKey(
+            String methodFilePath,
+            String contentHash,
+            String detectorSetupFingerprint,
+            MassSpectrometerContextEnum massSpectrometerContext) {
+    }
+}
@@ -16,9 +16,9 @@
 
 package org.cirdles.tripoli.sessions.analysis.methods.machineMethods;
 
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
+import org.cirdles.tripoli.sessions.analysis.methods.AnalysisMethodCache;
 import org.cirdles.tripoli.sessions.analysis.methods.machineMethods.phoenixMassSpec.PhoenixAnalysisMethod;
 
 import java.nio.file.Path;
@@ -34,8 +34,7 @@ public enum TestXML {
 
         Path phoenixAnalysisMethodDataFilePath = Paths.get("Sm147to150_S6_v2.TIMSAM");//"Pb 4-5-6-7-8 Daly 10-5-5-5-2 sec.TIMSAM.xml");
 
-        JAXBContext jaxbContext = JAXBContext.newInstance(PhoenixAnalysisMethod.class);
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
+        Unmarshaller jaxbUnmarshaller = AnalysisMethodCache.getPhoenixAnalysisMethodContext().createUnmarshaller();
         PhoenixAnalysisMethod phoenixAnalysisMethod = (PhoenixAnalysisMethod) jaxbUnmarshaller.unmarshal(phoenixAnalysisMethodDataFilePath.toFile());
         System.out.println(phoenixAnalysisMethod.getHEADER().getFilename());
     }
@@ -16,14 +16,13 @@
 
 package org.cirdles.tripoli.species.nuclides;
 
-import org.cirdles.commons.util.ResourceExtractor;
-import org.cirdles.tripoli.Tripoli;
 import org.cirdles.tripoli.species.SpeciesRecordInterface;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -31,79 +30,89 @@ import java.util.*;
  */
 public final class NuclidesFactory implements Serializable {
 
-    public static Map<String, List<SpeciesRecordInterface>> nuclidesListByElementMap = new TreeMap<>();
+    /**
+     * @return nuclides keyed by element symbol, read from the bundled chart on first use
+     */
+    public static Map<String, List<SpeciesRecordInterface>> getNuclidesListByElementMap() {
+        return NuclidesChartHolder.nuclidesListByElementMap;
+    }
 
-    static {
-        ResourceExtractor RESOURCE_EXTRACTOR
-                = new ResourceExtractor(Tripoli.class);
-        Path nuclidesChartData;
-        List<String> contentsByLine = new ArrayList<>();
-        try {
-            nuclidesChartData = RESOURCE_EXTRACTOR
-                    .extractResourceAsFile("/org/cirdles/tripoli/species/nuclides/NuclidesChartData.csv").toPath();
-            contentsByLine.addAll(Files.readAllLines(nuclidesChartData, Charset.defaultCharset()));
+    private static Map<String, List<SpeciesRecordInterface>> loadNuclidesChart() {
+        Map<String, List<SpeciesRecordInterface>> nuclidesListByElementMap = new TreeMap<>();
+        try (InputStream nuclidesChartData = NuclidesFactory.class.getResourceAsStream("NuclidesChartData.csv");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(nuclidesChartData, Charset.defaultCharset()))) {
+            // skip header
+            reader.readLine();
+            String line;
+            while (null != (line = reader.readLine())) {
+                addNuclide(nuclidesListByElementMap, line);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        // remove header
-        contentsByLine.remove(0);
+        return nuclidesListByElementMap;
+    }
 
-        for (String line : contentsByLine) {
-            String[] lineContents = line.split(",");
-            String elementSymbol = lineContents[2].trim();
-            int protonsZ = Integer.parseInt(lineContents[0]);
-            int neutronsN = Integer.parseInt(lineContents[1]);
+    private static void addNuclide(Map<String, List<SpeciesRecordInterface>> nuclidesListByElementMap, String line) {
+        String[] lineContents = line.split(",");
+        String elementSymbol = lineContents[2].trim();
+        int protonsZ = Integer.parseInt(lineContents[0]);
+        int neutronsN = Integer.parseInt(lineContents[1]);
 
-            double atomicMass;
-            try {
-                atomicMass = Double.parseDouble(lineContents[5]);
-            } catch (NumberFormatException e) {
-                atomicMass = 0.0;
-            }
+        double atomicMass;
+        try {
+            atomicMass = Double.parseDouble(lineContents[5]);
+        } catch (NumberFormatException e) {
+            atomicMass = 0.0;
+        }
 
-            double halfLifeAnnum;
-            try {
-                halfLifeAnnum = Double.parseDouble(lineContents[4]);
-            } catch (NumberFormatException e) {
-                if (lineContents[4].toUpperCase(Locale.ROOT).contains("STABLE")) {
-                    halfLifeAnnum = -1.0;
-                } else {
-                    halfLifeAnnum = 0.0;
-                }
+        double halfLifeAnnum;
+        try {
+            halfLifeAnnum = Double.parseDouble(lineContents[4]);
+        } catch (NumberFormatException e) {
+            if (lineContents[4].toUpperCase(Locale.ROOT).contains("STABLE")) {
+                halfLifeAnnum = -1.0;
+            } else {
+                halfLifeAnnum = 0.0;
             }
+        }
 
-            double naturalAbundancePercent;
-            try {
-                naturalAbundancePercent = Double.parseDouble(lineContents[3]);
-            } catch (NumberFormatException e) {
-                naturalAbundancePercent = 0.0;
-            }
+        double naturalAbundancePercent;
+        try {
+            naturalAbundancePercent = Double.parseDouble(lineContents[3]);
+        } catch (NumberFormatException e) {
+            naturalAbundancePercent = 0.0;
+        }
 
-            SpeciesRecordInterface nuclide = new NuclideRecord(
-                    elementSymbol,
-                    protonsZ,
-                    neutronsN,
-                    atomicMass,
-                    halfLifeAnnum,
-                    naturalAbundancePercent
-            );
+        SpeciesRecordInterface nuclide = new NuclideRecord(
+                elementSymbol,
+                protonsZ,
+                neutronsN,
+                atomicMass,
+                halfLifeAnnum,
+                naturalAbundancePercent
+        );
 
-            if (null != nuclidesListByElementMap.get(elementSymbol)) {
-                nuclidesListByElementMap.get(elementSymbol).add(nuclide);
-            } else {
-                List<SpeciesRecordInterface> speciesListForElement = new ArrayList<>();
-                speciesListForElement.add(nuclide);
-                nuclidesListByElementMap.put(elementSymbol, speciesListForElement);
-            }
+        if (null != nuclidesListByElementMap.get(elementSymbol)) {
+            nuclidesListByElementMap.get(elementSymbol).add(nuclide);
+        } else {
+            List<SpeciesRecordInterface> speciesListForElement = new ArrayList<>();
+            speciesListForElement.add(nuclide);
+            nuclidesListByElementMap.put(elementSymbol, speciesListForElement);
         }
     }
 
     public static SpeciesRecordInterface retrieveSpecies(String elementName, int massNumber) {
-        List<SpeciesRecordInterface> nuclides = nuclidesListByElementMap.get(elementName);
+        List<SpeciesRecordInterface> nuclides = getNuclidesListByElementMap().get(elementName);
         List<SpeciesRecordInterface> targetNuclideList = nuclides
                 .stream()
                 .filter(nuclide -> ((nuclide instanceof NuclideRecord) && ((NuclideRecord) nuclide).getMassNumber() == massNumber)).toList();
         return targetNuclideList.get(0);
     }
-}
\ No newline at end of file
+
+    // loaded by the JVM on first access, once and thread safely
+    private static final class NuclidesChartHolder {
+        private static final Map<String, List<SpeciesRecordInterface>> nuclidesListByElementMap = loadNuclidesChart();
+    }
+}
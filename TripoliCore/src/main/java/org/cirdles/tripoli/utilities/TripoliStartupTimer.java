@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.utilities;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the duration of each startup phase.  Phases are marked in order as they complete, and each one
+ * measures the time since the previous mark.  The report is printed only when the system property
+ * {@code tripoli.startup.timing} is true, e.g. {@code -Dtripoli.startup.timing=true}.
+ *
+ * @author James F. Bowring
+ */
+public enum TripoliStartupTimer {
+    ;
+
+    public static final String STARTUP_TIMING_PROPERTY = "tripoli.startup.timing";
+
+    private static final List<StartupPhaseRecord> startupPhases = new ArrayList<>();
+    private static long previousMarkNanos;
+
+    static {
+        // the first phase runs from JVM start, not from loading this class; uptime is read first because
+        // initializing the management bean takes noticeable time itself
+        long uptimeNanos = TimeUnit.MILLISECONDS.toNanos(jvmUptimeMillis());
+        previousMarkNanos = System.nanoTime() - uptimeNanos;
+    }
+
+    /**
+     * @param phaseName phase that has just completed
+     */
+    public static synchronized void markPhase(String phaseName) {
+        long nowNanos = System.nanoTime();
+        startupPhases.add(new StartupPhaseRecord(phaseName, nowNanos - previousMarkNanos, Thread.currentThread().getName()));
+        previousMarkNanos = nowNanos;
+    }
+
+    public static synchronized List<StartupPhaseRecord> getStartupPhases() {
+        return List.copyOf(startupPhases);
+    }
+
+    /**
+     * @return milliseconds since the JVM started, which includes time spent before the first mark
+     */
+    public static long jvmUptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    public static String prettyPrintStartupPhases() {
+        StringBuilder report = new StringBuilder("Tripoli startup phases:\n");
+        for (StartupPhaseRecord startupPhase : getStartupPhases()) {
+            report.append(String.format("    %-40s %8d ms   [%s]%n",
+                    startupPhase.phaseName(), TimeUnit.NANOSECONDS.toMillis(startupPhase.durationNanos()), startupPhase.threadName()));
+        }
+        report.append(String.format("    %-40s %8d ms%n", "JVM uptime at report", jvmUptimeMillis()));
+        return report.toString();
+    }
+
+    /**
+     * Prints the phases so far if startup timing is enabled.
+     */
+    public static void reportStartupPhases() {
+        if (Boolean.getBoolean(STARTUP_TIMING_PROPERTY)) {
+            System.out.print(prettyPrintStartupPhases());
+        }
+    }
+
+    public record StartupPhaseRecord(
+            String phaseName,
+            long durationNanos,
+            String threadName) {
+    }
+}
@@ -0,0 +1,18 @@
+package org.cirdles.tripoli.utilities.callbacks;
+
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecExtractedData;
+
+public interface ImportProgressCallbackInterface {
+    /**
+     * @param importStage           stage just completed
+     * @param massSpecExtractedData the header alone at {@link ImportStage#HEADER_PARSED}, then the imported data
+     */
+    void receiveImportProgress(ImportStage importStage, MassSpecExtractedData massSpecExtractedData);
+
+    enum ImportStage {
+        HEADER_PARSED,
+        BLOCKS_INDEXED,
+        METHOD_LOADED,
+        PEAK_FILES_INDEXED
+    }
+}
@@ -16,11 +16,16 @@
 
 package org.cirdles.tripoli.utilities.file;
 
+import org.cirdles.tripoli.utilities.TripoliStartupTimer;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static org.cirdles.tripoli.Tripoli.TRIPOLI_RESOURCE_EXTRACTOR;
@@ -30,6 +35,42 @@ import static org.cirdles.tripoli.utilities.file.GithubFileExtractor.extractGith
 public enum TripoliFileResources {
     ;
 
+    private static FutureTask<Void> localResourcesInitialization;
+
+    /**
+     * Starts copying the local resources on a background thread, once per run, so that the copy (and any
+     * downloads) stay off the launch path.
+     */
+    public static synchronized void initLocalResourcesInBackground() {
+        if (null == localResourcesInitialization) {
+            localResourcesInitialization = new FutureTask<>(() -> {
+                initLocalResources();
+                TripoliStartupTimer.markPhase("Tripoli local resources");
+                return null;
+            });
+            Thread thread = new Thread(localResourcesInitialization, "Tripoli local resources");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Blocks until the local resources are in place, starting the copy if no one has yet.
+     *
+     * @throws IOException if the resources could not be copied
+     */
+    public static void awaitLocalResources() throws IOException {
+        initLocalResourcesInBackground();
+        try {
+            localResourcesInitialization.get();
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof IOException ioException) ? ioException : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while copying Tripoli resources");
+        }
+    }
+
     public static void initLocalResources() throws IOException {
         if (TRIPOLI_RESOURCES_FOLDER.exists()) {
             FileUtilities.recursiveDelete(TRIPOLI_RESOURCES_FOLDER.toPath());
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 James Bowring, Noah McLean, Scott Burdick, and CIRDLES.org.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cirdles.tripoli.utilities.mathUtilities;
+
+/**
+ * Stable argsort of int keys without boxing: a counting sort when the keys span a range comparable to their
+ * count (as do time indices within a block), otherwise a two-pass LSD radix sort on 16-bit digits.  Equal keys
+ * keep their original order, as with {@link java.util.Arrays#sort(Object[], java.util.Comparator)}.
+ *
+ * @author James F. Bowring
+ */
+public enum IntArgSort {
+    ;
+
+    private static final int RADIX_BITS = 16;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * @param keys sort keys, unchanged
+     * @return indices of keys in ascending key order, ties in index order
+     */
+    public static int[] stableArgSort(int[] keys) {
+        int countOfKeys = keys.length;
+        int[] sortIndices = new int[countOfKeys];
+        if (0 < countOfKeys) {
+            int minKey = Integer.MAX_VALUE;
+            int maxKey = Integer.MIN_VALUE;
+            for (int key : keys) {
+                minKey = Math.min(minKey, key);
+                maxKey = Math.max(maxKey, key);
+            }
+            long range = (long) maxKey - minKey + 1L;
+            if (range <= 2L * countOfKeys + RADIX) {
+                countingArgSort(keys, minKey, (int) range, sortIndices);
+            } else {
+                radixArgSort(keys, sortIndices);
+            }
+        }
+        return sortIndices;
+    }
+
+    private static void countingArgSort(int[] keys, int minKey, int range, int[] sortIndices) {
+        int[] starts = new int[range + 1];
+        for (int key : keys) {
+            starts[key - minKey + 1]++;
+        }
+        for (int bucket = 0; bucket < range; bucket++) {
+            starts[bucket + 1] += starts[bucket];
+        }
+        for (int index = 0; index < keys.length; index++) {
+            sortIndices[starts[keys[index] - minKey]++] = index;
+        }
+    }
+
+    private static void radixArgSort(int[] keys, int[] sortIndices) {
+        int countOfKeys = keys.length;
+        // flipping the sign bit orders negative keys before positive ones as unsigned values
+        int[] unsignedKeys = new int[countOfKeys];
+        for (int index = 0; index < countOfKeys; index++) {
+            unsignedKeys[index] = keys[index] ^ Integer.MIN_VALUE;
+        }
+
+        int[] lowSorted = new int[countOfKeys];
+        int[] starts = new int[RADIX + 1];
+        for (int unsignedKey : unsignedKeys) {
+            starts[(unsignedKey & (RADIX - 1)) + 1]++;
+        }
+        for (int bucket = 0; bucket < RADIX; bucket++) {
+            starts[bucket + 1] += starts[bucket];
+        }
+        for (int index = 0; index < countOfKeys; index++) {
+            lowSorted[starts[unsignedKeys[index] & (RADIX - 1)]++] = index;
+        }
+
+        starts = new int[RADIX + 1];
+        for (int unsignedKey : unsignedKeys) {
+            starts[(unsignedKey >>> RADIX_BITS) + 1]++;
+        }
+        for (int bucket = 0; bucket < RADIX; bucket++) {
+            starts[bucket + 1] += starts[bucket];
+        }
+        for (int index : lowSorted) {
+            sortIndices[starts[unsignedKeys[index] >>> RADIX_BITS]++] = index;
+        }
+    }
+}
@@ -6,8 +6,6 @@ import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.Primitive64Store;
 import org.ojalgo.matrix.task.SolverTask;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,13 +13,7 @@ public enum MatLab {
     ;
 
     public static double roundedToSize(double value, int sigFigs) {
-        BigDecimal valueBDtoSize = BigDecimal.ZERO;
-        if (Double.isFinite(value)) {
-            BigDecimal valueBD = new BigDecimal(String.valueOf(value));
-            int newScale = sigFigs - (valueBD.precision() - valueBD.scale());
-            valueBDtoSize = valueBD.setScale(newScale, RoundingMode.HALF_UP);
-        }
-        return valueBDtoSize.doubleValue();
+        return MathUtilities.roundedToSize(value, sigFigs);
     }
 
     /**
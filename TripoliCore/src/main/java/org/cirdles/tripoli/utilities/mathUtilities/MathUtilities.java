@@ -24,6 +24,21 @@ import java.math.RoundingMode;
  */
 public class MathUtilities {
 
+    // unscaled values must stay below 2^52 for BigDecimal#doubleValue to divide exactly
+    private static final int MAX_SIG_FIGS_IN_DOUBLES = 15;
+    private static final int MAX_EXACT_POWER_OF_TEN = 22;
+    private static final int MIN_EXPONENT_10 = -307;
+    private static final int MAX_EXPONENT_10 = 307;
+    private static final double MIDPOINT_RELATIVE_MARGIN = 0x1.0p-50;
+    // correctly rounded, and exact from 10^0 to 10^22
+    private static final double[] POWERS_OF_TEN = new double[MAX_EXPONENT_10 - MIN_EXPONENT_10 + 2];
+
+    static {
+        for (int exponent10 = MIN_EXPONENT_10; exponent10 <= MAX_EXPONENT_10 + 1; exponent10++) {
+            POWERS_OF_TEN[exponent10 - MIN_EXPONENT_10] = Double.parseDouble("1e" + exponent10);
+        }
+    }
+
     /**
      * Performs excel-style rounding of double to a given number of significant
      * figures.
@@ -33,6 +48,40 @@ public class MathUtilities {
      * @return double rounded to sigFigs significant digits
      */
     public static double roundedToSize(double value, int sigFigs) {
+        double rounded = roundedToSizeInDoubles(value, sigFigs);
+        return Double.isNaN(rounded) ? roundedToSizeByBigDecimal(value, sigFigs) : rounded;
+    }
+
+    /**
+     * Rounds each value as {@link #roundedToSize(double, int)} does.
+     *
+     * @param values  doubles to round
+     * @param sigFigs count of significant digits for rounding
+     * @return a new array of the rounded values
+     */
+    public static double[] roundedToSize(double[] values, int sigFigs) {
+        double[] roundedValues = values.clone();
+        roundToSizeInPlace(roundedValues, sigFigs);
+        return roundedValues;
+    }
+
+    /**
+     * Rounds each value as {@link #roundedToSize(double, int)} does, overwriting the array.
+     *
+     * @param values  doubles to round
+     * @param sigFigs count of significant digits for rounding
+     */
+    public static void roundToSizeInPlace(double[] values, int sigFigs) {
+        for (int index = 0; index < values.length; index++) {
+            values[index] = roundedToSize(values[index], sigFigs);
+        }
+    }
+
+    /**
+     * The reference rounding: the decimal digits of {@link Double#toString(double)} are rounded half up, so
+     * that 0.15 rounds to 0.2 even though the double nearest 0.15 lies below it.
+     */
+    static double roundedToSizeByBigDecimal(double value, int sigFigs) {
         BigDecimal valueBDtoSize = BigDecimal.ZERO;
         if (Double.isFinite(value)) {
             BigDecimal valueBD = new BigDecimal(String.valueOf(value));
@@ -42,6 +91,59 @@ public class MathUtilities {
         return valueBDtoSize.doubleValue();
     }
 
+    /**
+     * Reproduces {@link #roundedToSizeByBigDecimal(double, int)} without allocating.  The decimal string of a
+     * double lies within half an ulp of it, so scaling by a power of ten and rounding in doubles gives the same
+     * digits unless the scaled value falls within the error bound of a rounding midpoint.  The result is then
+     * formed exactly as {@link BigDecimal#doubleValue()} forms it for small unscaled values and scales.
+     *
+     * @return the rounded value, or NaN when only the reference rounding can decide
+     */
+    private static double roundedToSizeInDoubles(double value, int sigFigs) {
+        if (!Double.isFinite(value) || (0.0 == value)) {
+            // BigDecimal has no negative zero
+            return 0.0;
+        }
+        double magnitude = Math.abs(value);
+        if ((1 > sigFigs) || (MAX_SIG_FIGS_IN_DOUBLES < sigFigs) || (Double.MIN_NORMAL > magnitude)) {
+            return Double.NaN;
+        }
+
+        // decimal exponent of the leading digit; equal to a power-of-ten double is left to the reference
+        int exponent10 = (int) Math.floor(Math.log10(magnitude));
+        if ((MIN_EXPONENT_10 >= exponent10) || (MAX_EXPONENT_10 <= exponent10)) {
+            return Double.NaN;
+        }
+        if (magnitude < POWERS_OF_TEN[exponent10 - MIN_EXPONENT_10]) {
+            exponent10--;
+        } else if (magnitude >= POWERS_OF_TEN[exponent10 + 1 - MIN_EXPONENT_10]) {
+            exponent10++;
+        }
+        if ((MIN_EXPONENT_10 >= exponent10) || (MAX_EXPONENT_10 <= exponent10)
+                || (magnitude == POWERS_OF_TEN[exponent10 - MIN_EXPONENT_10])
+                || (magnitude == POWERS_OF_TEN[exponent10 + 1 - MIN_EXPONENT_10])) {
+            return Double.NaN;
+        }
+
+        int newScale = sigFigs - 1 - exponent10;
+        if ((MAX_EXACT_POWER_OF_TEN < newScale) || (-MAX_EXACT_POWER_OF_TEN > newScale)) {
+            return Double.NaN;
+        }
+        double scaled = magnitude * POWERS_OF_TEN[newScale - MIN_EXPONENT_10];
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        // the decimal string, the power of ten and the product each contribute at most 2^-53 relative error
+        if (Math.abs(fraction - 0.5) <= scaled * MIDPOINT_RELATIVE_MARGIN) {
+            return Double.NaN;
+        }
+        double unscaled = (0.5 < fraction) ? (floor + 1.0) : floor;
+
+        double rounded = (0 <= newScale)
+                ? unscaled / POWERS_OF_TEN[newScale - MIN_EXPONENT_10]
+                : unscaled * POWERS_OF_TEN[-newScale - MIN_EXPONENT_10];
+        return (0.0 > value) ? -rounded : rounded;
+    }
+
     /**
      * @author https://www.geeksforgeeks.org/program-calculate-value-ncr/
      */
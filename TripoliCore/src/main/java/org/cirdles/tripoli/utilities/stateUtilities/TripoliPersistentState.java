@@ -21,13 +21,24 @@ import org.cirdles.tripoli.utilities.exceptions.TripoliException;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.cirdles.tripoli.constants.TripoliConstants.TRIPOLI_USERS_DATA_FOLDER_NAME;
 
 /**
+ * Changes are written behind: each one schedules a write, changes made before it runs share that write, and
+ * the write happens on a background thread by replacing the state file atomically.  Checking that MRU files
+ * still exist also happens on that thread.  {@link #flushTripoliPersistentState()} writes at once, and any
+ * pending write is made when the JVM exits.
+ *
  * @author James F. Bowring
  */
 public class TripoliPersistentState implements Serializable {
@@ -36,7 +47,12 @@ public class TripoliPersistentState implements Serializable {
     private static final long serialVersionUID = -7177208336686295496L;
     private static final String TRIPOLI_PERSISTENT_STATE_FILE_NAME = "TripoliPersistentState.ser";
     private static final int MRU_COUNT = 10;
-    private static TripoliPersistentState myInstance;
+    private static final long WRITE_BEHIND_DELAY_MILLIS = 250;
+    private static final AtomicBoolean writeScheduled = new AtomicBoolean();
+    // orders writes so that an older snapshot never replaces a newer one
+    private static final Object writeLock = new Object();
+    private static volatile TripoliPersistentState myInstance;
+    private static ScheduledExecutorService persistentStateExecutor;
     private String tripoliUserHomeDirectoryLocal;
     // instance variables
     private File MRUSessionFile;
@@ -87,14 +103,12 @@ public class TripoliPersistentState implements Serializable {
         MRUMethodXMLFile = null;
         MRUMethodXMLList = new ArrayList<>();
         MRUMethodXMLFolderPath = "";
-
-        serializeSelf();
     }
 
     /**
      * @return
      */
-    public static TripoliPersistentState getExistingPersistentState() throws TripoliException {
+    public static synchronized TripoliPersistentState getExistingPersistentState() throws TripoliException {
 
         String mySerializedName
                 = File.separator//
@@ -116,7 +130,8 @@ public class TripoliPersistentState implements Serializable {
                 dataFolder.mkdir();
             }
             myInstance = new TripoliPersistentState();
-            myInstance.serializeSelf();
+            // a new state is written at once, as before writes were deferred
+            myInstance.flushTripoliPersistentState();
         }
         return myInstance;
     }
@@ -141,41 +156,94 @@ public class TripoliPersistentState implements Serializable {
         return tripoliUserHomeDirectoryLocal;
     }
 
+    private static synchronized ScheduledExecutorService getPersistentStateExecutor() {
+        if (null == persistentStateExecutor) {
+            persistentStateExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Tripoli persistent state");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> writeIfScheduled(myInstance), "Tripoli persistent state on exit"));
+        }
+        return persistentStateExecutor;
+    }
+
+    private static void writeIfScheduled(TripoliPersistentState persistentState) {
+        if ((null != persistentState) && writeScheduled.compareAndSet(true, false)) {
+            persistentState.writeSelf();
+        }
+    }
+
+    /**
+     * Schedules a write unless one is already pending, which will then include this change.
+     */
     private void serializeSelf() {
-        // save initial persistent state serialized file
-        try {
-            TripoliSerializer.serializeObjectToFile(this, getMySerializedName());
-        } catch (TripoliException tripoliException) {
+        if (writeScheduled.compareAndSet(false, true)) {
+            getPersistentStateExecutor().schedule(() -> writeIfScheduled(this), WRITE_BEHIND_DELAY_MILLIS, TimeUnit.MILLISECONDS);
         }
     }
+
+    private void writeSelf() {
+        synchronized (writeLock) {
+            try {
+                TripoliSerializer.serializeObjectToFileAtomically(this, getMySerializedName());
+            } catch (TripoliException tripoliException) {
+            }
+        }
+    }
+
+    @Serial
+    private synchronized void writeObject(ObjectOutputStream objectOutputStream) throws IOException {
+        // the snapshot is taken while no change is in progress
+        objectOutputStream.defaultWriteObject();
+    }
     //properties
 
     public void updateTripoliPersistentState() {
         serializeSelf();
     }
 
+    /**
+     * Writes the state now, on the calling thread, including any pending change.
+     */
+    public void flushTripoliPersistentState() {
+        writeScheduled.set(false);
+        writeSelf();
+    }
+
     // General methods *********************************************************
     private void initMRULists() {
         MRUSessionList = new ArrayList<>(MRU_COUNT);
         MRUDataFileList = new ArrayList<>(MRU_COUNT);
     }
 
+    /**
+     * Checks on the background thread, since listed files may be on slow or disconnected volumes.
+     */
     private void cleanListMRU(List<String> MRUfileList) {
-        ArrayList<String> missingFileNames = new ArrayList<>();
-        // test for missing files
-        for (String projectFileName : MRUfileList) {
-            File projectFile = new File(projectFileName);
-            if (!projectFile.exists()) {
-                missingFileNames.add(projectFileName);
-            }
-        }
-
-        // remove missing fileNames
-        for (String projectFileName : missingFileNames) {
-            removeSessionFileNameFromMRU(projectFileName);
+        List<String> fileNames;
+        synchronized (this) {
+            fileNames = new ArrayList<>(MRUfileList);
         }
+        getPersistentStateExecutor().execute(() -> {
+            ArrayList<String> missingFileNames = new ArrayList<>();
+            // test for missing files
+            for (String projectFileName : fileNames) {
+                File projectFile = new File(projectFileName);
+                if (!projectFile.exists()) {
+                    missingFileNames.add(projectFileName);
+                }
+            }
 
-        serializeSelf();
+            // remove missing fileNames
+            if (!missingFileNames.isEmpty()) {
+                synchronized (this) {
+                    MRUfileList.removeAll(missingFileNames);
+                }
+                serializeSelf();
+            }
+        });
     }
 
     // MRU Session Data *********************************************************
@@ -183,7 +251,7 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param sessionFileMRU
      */
-    public void updateSessionListMRU(File sessionFileMRU) {
+    public synchronized void updateSessionListMRU(File sessionFileMRU) {
 
         if (sessionFileMRU != null) {
             try {
@@ -211,22 +279,21 @@ public class TripoliPersistentState implements Serializable {
         }
 
         // save
-        try {
-            TripoliSerializer.serializeObjectToFile(this, getMySerializedName());
-        } catch (TripoliException tripoliException) {
-        }
+        serializeSelf();
     }
 
-    public void removeFileNameFromSessionListMRU(String mruSessionFileName) {
+    public synchronized void removeFileNameFromSessionListMRU(String mruSessionFileName) {
         MRUSessionList.remove(mruSessionFileName);
+        serializeSelf();
     }
 
     public void cleanSessionListMRU() {
         cleanListMRU(MRUSessionList);
     }
 
-    public void removeSessionFileNameFromMRU(String sessionFileName) {
+    public synchronized void removeSessionFileNameFromMRU(String sessionFileName) {
         MRUSessionList.remove(sessionFileName);
+        serializeSelf();
     }
 
     /**
@@ -239,23 +306,25 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param MRUSessionFile the MRUSessionFile to set
      */
-    public void setMRUSessionFile(File MRUSessionFile) {
+    public synchronized void setMRUSessionFile(File MRUSessionFile) {
         this.MRUSessionFile = MRUSessionFile;
+        serializeSelf();
     }
 
     /**
-     * @return
+     * @return a copy of the list; missing files are removed from the state in the background
      */
-    public List<String> getMRUSessionList() {
+    public synchronized List<String> getMRUSessionList() {
         cleanSessionListMRU();
-        return MRUSessionList;
+        return new ArrayList<>(MRUSessionList);
     }
 
     /**
      * @param MRUSessionList
      */
-    public void setMRUSessionList(ArrayList<String> MRUSessionList) {
+    public synchronized void setMRUSessionList(ArrayList<String> MRUSessionList) {
         this.MRUSessionList = MRUSessionList;
+        serializeSelf();
     }
 
     /**
@@ -271,8 +340,9 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param MRUSessionFolderPath the MRUSessionFolderPath to set
      */
-    public void setMRUSessionFolderPath(String MRUSessionFolderPath) {
+    public synchronized void setMRUSessionFolderPath(String MRUSessionFolderPath) {
         this.MRUSessionFolderPath = MRUSessionFolderPath;
+        serializeSelf();
     }
 
     // MRU DataFile ***************************************************
@@ -280,7 +350,7 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param dataFileMRU
      */
-    public void updateDataFileListMRU(File dataFileMRU) {
+    public synchronized void updateDataFileListMRU(File dataFileMRU) {
         if (MRUDataFileList == null) {
             MRUDataFileList = new ArrayList<>();
         }
@@ -308,22 +378,21 @@ public class TripoliPersistentState implements Serializable {
         }
 
         // save
-        try {
-            TripoliSerializer.serializeObjectToFile(this, getMySerializedName());
-        } catch (TripoliException tripoliException) {
-        }
+        serializeSelf();
     }
 
-    public void removeFileNameFromDataFileListMRU(String mruDataFileName) {
+    public synchronized void removeFileNameFromDataFileListMRU(String mruDataFileName) {
         MRUDataFileList.remove(mruDataFileName);
+        serializeSelf();
     }
 
     public void cleanDataFileListMRU() {
         cleanListMRU(MRUDataFileList);
     }
 
-    public void removeDataFileNameFromMRU(String dataFileName) {
+    public synchronized void removeDataFileNameFromMRU(String dataFileName) {
         MRUDataFileList.remove(dataFileName);
+        serializeSelf();
     }
 
     /**
@@ -336,22 +405,24 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param MRUDataFile the MRUDataFile to set
      */
-    public void setMRUDataFile(File MRUDataFile) {
+    public synchronized void setMRUDataFile(File MRUDataFile) {
         this.MRUDataFile = MRUDataFile;
+        serializeSelf();
     }
 
     /**
-     * @return the MRUDataFileList
+     * @return a copy of the MRUDataFileList
      */
-    public List<String> getMRUDataFileList() {
-        return MRUDataFileList;
+    public synchronized List<String> getMRUDataFileList() {
+        return new ArrayList<>(MRUDataFileList);
     }
 
     /**
      * @param MRUDataFileList the MRUDataFileList to set
      */
-    public void setMRUDataFileList(List<String> MRUDataFileList) {
+    public synchronized void setMRUDataFileList(List<String> MRUDataFileList) {
         this.MRUDataFileList = MRUDataFileList;
+        serializeSelf();
     }
 
     /**
@@ -361,8 +432,9 @@ public class TripoliPersistentState implements Serializable {
         return MRUDataFileFolderPath;
     }
 
-    public void setMRUDataFileFolderPath(String MRUDataFileFolderPath) {
+    public synchronized void setMRUDataFileFolderPath(String MRUDataFileFolderPath) {
         this.MRUDataFileFolderPath = MRUDataFileFolderPath;
+        serializeSelf();
     }
 
 
@@ -371,7 +443,7 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param methodXMLMRU
      */
-    public void updateMethodXMLFileListMRU(File methodXMLMRU) {
+    public synchronized void updateMethodXMLFileListMRU(File methodXMLMRU) {
         if (MRUMethodXMLList == null) {
             MRUMethodXMLList = new ArrayList<>();
         }
@@ -399,14 +471,12 @@ public class TripoliPersistentState implements Serializable {
         }
 
         // save
-        try {
-            TripoliSerializer.serializeObjectToFile(this, getMySerializedName());
-        } catch (TripoliException tripoliException) {
-        }
+        serializeSelf();
     }
 
-    public void removeFileNameFromMethodXMLFileListMRU(String mruMethodXMLFileName) {
+    public synchronized void removeFileNameFromMethodXMLFileListMRU(String mruMethodXMLFileName) {
         MRUMethodXMLList.remove(mruMethodXMLFileName);
+        serializeSelf();
     }
 
     public void cleanMethodXMLFileListMRU() {
@@ -423,25 +493,27 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param MRUMethodXMLFile the MRUMethodXMLFile to set
      */
-    public void setMRUMethodXMLFile(File MRUMethodXMLFile) {
+    public synchronized void setMRUMethodXMLFile(File MRUMethodXMLFile) {
         this.MRUMethodXMLFile = MRUMethodXMLFile;
+        serializeSelf();
     }
 
     /**
-     * @return the MRUMethodXMLList
+     * @return a copy of the MRUMethodXMLList
      */
-    public List<String> getMRUMethodXMLList() {
+    public synchronized List<String> getMRUMethodXMLList() {
         if (MRUMethodXMLList == null) {
             MRUMethodXMLList = new ArrayList<>();
         }
-        return MRUMethodXMLList;
+        return new ArrayList<>(MRUMethodXMLList);
     }
 
     /**
      * @param MRUMethodXMLList the MRUMethodXMLList to set
      */
-    public void setMRUMethodXMLList(List<String> MRUMethodXMLList) {
+    public synchronized void setMRUMethodXMLList(List<String> MRUMethodXMLList) {
         this.MRUMethodXMLList = MRUMethodXMLList;
+        serializeSelf();
     }
 
     /**
@@ -457,11 +529,13 @@ public class TripoliPersistentState implements Serializable {
     /**
      * @param MRUMethodXMLFolderPath the MRUMethodXMLFolderPath to set
      */
-    public void setMRUMethodXMLFolderPath(String MRUMethodXMLFolderPath) {
+    public synchronized void setMRUMethodXMLFolderPath(String MRUMethodXMLFolderPath) {
         this.MRUMethodXMLFolderPath = MRUMethodXMLFolderPath;
+        serializeSelf();
     }
 
-    public void removeMethodXMLFileNameFromMRU(String taskXMLFileName) {
+    public synchronized void removeMethodXMLFileNameFromMRU(String taskXMLFileName) {
         MRUMethodXMLList.remove(taskXMLFileName);
+        serializeSelf();
     }
 }
\ No newline at end of file
@@ -19,6 +19,10 @@ package org.cirdles.tripoli.utilities.stateUtilities;
 import org.cirdles.tripoli.utilities.exceptions.TripoliException;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 /**
  * @author James F. Bowring
@@ -55,6 +59,41 @@ public enum TripoliSerializer {
         }
     }
 
+    /**
+     * Writes to a temporary file beside the target and then renames it over the target, so that readers and a
+     * crash mid-write see either the old file or the new one, never a partial one.
+     *
+     * @param serializableObject
+     * @param fileName
+     * @throws TripoliException
+     */
+    public static void serializeObjectToFileAtomically(Object serializableObject, String fileName) throws TripoliException {
+        Path targetPath = Path.of(fileName).toAbsolutePath();
+        Path temporaryPath = null;
+        try {
+            temporaryPath = Files.createTempFile(targetPath.getParent(), targetPath.getFileName().toString(), ".tmp");
+            try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                objectOutputStream.writeObject(serializableObject);
+            }
+            try {
+                Files.move(temporaryPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+                Files.move(temporaryPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new TripoliException("Cannot serialize object of " + serializableObject.getClass().getSimpleName() + " to: " + fileName
+                    + "\n\nbecause: " + ex.getMessage());
+        } finally {
+            if (null != temporaryPath) {
+                try {
+                    Files.deleteIfExists(temporaryPath);
+                } catch (IOException iOException) {
+                }
+            }
+        }
+    }
+
     /**
      * @param filename
      * @param verbose
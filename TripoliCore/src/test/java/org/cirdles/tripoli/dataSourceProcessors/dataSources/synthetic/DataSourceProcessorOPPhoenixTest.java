@@ -19,13 +19,19 @@ package org.cirdles.tripoli.dataSourceProcessors.dataSources.synthetic;
 import org.cirdles.commons.util.ResourceExtractor;
 import org.cirdles.tripoli.Tripoli;
 import org.cirdles.tripoli.constants.MassSpectrometerContextEnum;
+import org.cirdles.tripoli.sessions.analysis.AnalysisInterface;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecDataFileReader;
 import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecExtractedData;
+import org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.MassSpecOutputSingleBlockRecord;
 import org.junit.jupiter.api.*;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Path;
 
 import static org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors.PhoenixMassSpec.extractMetaAndBlockDataFromFileVersion_1_0;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class DataSourceProcessorOPPhoenixTest {
@@ -68,5 +74,26 @@ class DataSourceProcessorOPPhoenixTest {
 // TODO fix all this testing details
     }
 
+    @Test
+    @Order(2)
+    void detectContextAndParseFromOneReader() throws IOException {
+        Path dataFile = RESOURCE_EXTRACTOR
+                .extractResourceAsFile("/org/cirdles/tripoli/dataSourceProcessors/dataSources/synthetic/twoIsotopeSyntheticData/SyntheticDataset_05.txt").toPath();
+        MassSpecExtractedData expected = extractMetaAndBlockDataFromFileVersion_1_0(dataFile);
+
+        MassSpecExtractedData streamed;
+        try (BufferedReader dataFileReader = MassSpecDataFileReader.openDataFile(dataFile)) {
+            assertEquals(MassSpectrometerContextEnum.PHOENIX_SYNTHETIC, AnalysisInterface.determineMassSpectrometerContextFromDataFile(dataFileReader));
+            streamed = extractMetaAndBlockDataFromFileVersion_1_0(dataFileReader);
+        }
+
+        assertEquals(expected.getBlocksData().keySet(), streamed.getBlocksData().keySet());
+        for (Integer blockID : expected.getBlocksData().keySet()) {
+            MassSpecOutputSingleBlockRecord expectedBlock = expected.getBlocksData().get(blockID);
+            MassSpecOutputSingleBlockRecord streamedBlock = streamed.getBlocksData().get(blockID);
+            assertArrayEquals(expectedBlock.onPeakIntensities(), streamedBlock.onPeakIntensities());
+            assertArrayEquals(expectedBlock.onPeakTimeStamps(), streamedBlock.onPeakTimeStamps());
+        }
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package org.cirdles.tripoli.plots;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlotDecimationTest {
+
+    @Test
+    void minMaxReductionKeepsEachBucketsExtremes() {
+        Random random = new Random(20221L);
+        double[] xData = new double[10000];
+        double[] yData = new double[10000];
+        for (int index = 0; index < xData.length; index++) {
+            xData[index] = index * 0.01;
+            yData[index] = random.nextGaussian();
+        }
+        yData[4321] = 50.0;
+        yData[8765] = -50.0;
+        double bucketWidth = 1.0;
+
+        int[] retained = PlotDecimation.minMaxIndices(xData, yData, null, bucketWidth, false);
+
+        assertTrue(retained.length <= 4 * 100);
+        for (int position = 1; position < retained.length; position++) {
+            assertTrue(retained[position - 1] < retained[position]);
+        }
+        for (int bucket = 0; bucket < 100; bucket++) {
+            double bucketMin = Double.MAX_VALUE;
+            double bucketMax = -Double.MAX_VALUE;
+            for (int index = 0; index < xData.length; index++) {
+                if (bucket == (int) Math.floor(xData[index] / bucketWidth)) {
+                    bucketMin = Math.min(bucketMin, yData[index]);
+                    bucketMax = Math.max(bucketMax, yData[index]);
+                }
+            }
+            double retainedMin = Double.MAX_VALUE;
+            double retainedMax = -Double.MAX_VALUE;
+            for (int index : retained) {
+                if (bucket == (int) Math.floor(xData[index] / bucketWidth)) {
+                    retainedMin = Math.min(retainedMin, yData[index]);
+                    retainedMax = Math.max(retainedMax, yData[index]);
+                }
+            }
+            assertEquals(bucketMin, retainedMin, 0.0);
+            assertEquals(bucketMax, retainedMax, 0.0);
+        }
+    }
+
+    @Test
+    void minMaxReductionKeepsSegmentEnds() {
+        double[] xData = {0.0, 0.1, 0.2, 0.3, 0.4, 0.5};
+        double[] yData = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0};
+        int[] segmentIds = {1, 1, 1, 2, 2, 2};
+
+        int[] retained = PlotDecimation.minMaxIndices(xData, yData, segmentIds, 10.0, false);
+
+        assertEquals(4, retained.length);
+        assertEquals(0, retained[0]);
+        assertEquals(2, retained[1]);
+        assertEquals(3, retained[2]);
+        assertEquals(5, retained[3]);
+    }
+}
@@ -0,0 +1,73 @@
+package org.cirdles.tripoli.plots.histograms;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HistogramKernelTest {
+
+    private static double[] sampleData() {
+        Random random = new Random(20221L);
+        double[] data = new double[5000];
+        for (int index = 0; index < data.length; index++) {
+            data[index] = 0.0722 + 1.0e-4 * random.nextGaussian();
+        }
+        return data;
+    }
+
+    @Test
+    void momentsMatchDescriptiveStatistics() {
+        double[] data = sampleData();
+        DescriptiveStatistics descriptiveStatistics = new DescriptiveStatistics(data);
+
+        HistogramRecord histogramRecord = HistogramKernel.generateHistogram(1, data, 25, new String[]{"test"}, "Ratio", "Frequency");
+
+        assertEquals(descriptiveStatistics.getMean(), histogramRecord.mean(), 1.0e-15);
+        assertEquals(descriptiveStatistics.getStandardDeviation(), histogramRecord.standardDeviation(), 1.0e-15);
+        assertEquals(data.length, sum(histogramRecord.binCounts()), 0.0);
+    }
+
+    @Test
+    void momentsMatchDescriptiveStatisticsOnSkewedData() {
+        Random random = new Random(20231L);
+        double[] data = new double[5001];
+        for (int index = 0; index < data.length; index++) {
+            data[index] = 1.0e6 + Math.exp(3.0 * random.nextGaussian());
+        }
+        DescriptiveStatistics descriptiveStatistics = new DescriptiveStatistics(data);
+
+        HistogramRecord histogramRecord = HistogramKernel.generateHistogram(1, data, 25, new String[]{"test"}, "Ratio", "Frequency");
+        double[] meanAndStandardDeviation = HistogramKernel.meanAndStandardDeviation(data);
+
+        assertEquals(descriptiveStatistics.getMean(), histogramRecord.mean(), 0.0);
+        assertEquals(descriptiveStatistics.getStandardDeviation(), histogramRecord.standardDeviation(), 0.0);
+        assertEquals(descriptiveStatistics.getMean(), meanAndStandardDeviation[0], 0.0);
+        assertEquals(descriptiveStatistics.getStandardDeviation(), meanAndStandardDeviation[1], 0.0);
+    }
+
+    @Test
+    void rebinningFromFineBinsMatchesDirectBinning() {
+        double[] data = sampleData();
+        HistogramRecord histogramRecord = HistogramKernel.generateHistogram(1, data, 25, new String[]{"test"}, "Ratio", "Frequency");
+
+        for (int binCount : new int[]{10, 40, 50}) {
+            HistogramRecord rebinned = HistogramKernel.rebinHistogram(histogramRecord, binCount);
+            HistogramRecord direct = HistogramKernel.generateHistogram(1, data, binCount, new String[]{"test"}, "Ratio", "Frequency");
+            assertEquals(data.length, sum(rebinned.binCounts()), 0.0);
+            assertArrayEquals(direct.binCounts(), rebinned.binCounts(), 0.0);
+            assertArrayEquals(direct.binCenters(), rebinned.binCenters(), 1.0e-12);
+        }
+    }
+
+    private static double sum(double[] values) {
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,57 @@
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CycleSufficientStatisticsTest {
+
+    private static final int CYCLE_COUNT = 6;
+
+    @Test
+    void cycleStatsMatchDescriptiveStatistics() {
+        Random random = new Random(20221);
+        double[] values = new double[600];
+        int[] cycles = new int[values.length];
+        DescriptiveStatistics[] expected = new DescriptiveStatistics[CYCLE_COUNT];
+        for (int cycleIndex = 0; cycleIndex < CYCLE_COUNT; cycleIndex++) {
+            expected[cycleIndex] = new DescriptiveStatistics();
+        }
+        for (int index = 0; index < values.length; index++) {
+            values[index] = 1.0e6 + 25.0 * random.nextGaussian();
+            cycles[index] = (index / 100) + 1;
+            expected[cycles[index] - 1].addValue(values[index]);
+        }
+
+        boolean[] activeCycles = {true, true, false, true, true, true};
+        Map<Integer, double[]> mapCyclesToStats =
+                CycleSufficientStatistics.accumulate(values, cycles, CYCLE_COUNT).assembleMapCyclesToStats(activeCycles);
+
+        for (int cycleIndex = 0; cycleIndex < CYCLE_COUNT; cycleIndex++) {
+            double[] cycleStats = mapCyclesToStats.get(cycleIndex);
+            if (activeCycles[cycleIndex]) {
+                DescriptiveStatistics descriptiveStatistics = expected[cycleIndex];
+                assertEquals(descriptiveStatistics.getMean(), cycleStats[0], 1.0e-15 * descriptiveStatistics.getMean());
+                assertEquals(descriptiveStatistics.getStandardDeviation() / Math.sqrt(descriptiveStatistics.getN()),
+                        cycleStats[1], 1.0e-9 * cycleStats[1]);
+            } else {
+                assertTrue(Double.isNaN(cycleStats[0]) && Double.isNaN(cycleStats[1]));
+            }
+        }
+    }
+
+    @Test
+    void singleValueCycleHasZeroStandardDeviation() {
+        CycleSufficientStatistics cycleSufficientStatistics =
+                CycleSufficientStatistics.accumulate(new double[]{3.0, 4.0, 6.0}, new int[]{1, 2, 2}, 2);
+
+        assertEquals(0.0, cycleSufficientStatistics.standardDeviation(0));
+        assertEquals(5.0, cycleSufficientStatistics.mean(1));
+        assertEquals(Math.sqrt(2.0), cycleSufficientStatistics.standardDeviation(1), 1.0e-15);
+    }
+}
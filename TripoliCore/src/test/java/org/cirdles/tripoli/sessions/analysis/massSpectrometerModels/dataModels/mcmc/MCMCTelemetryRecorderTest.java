@@ -0,0 +1,58 @@
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataModels.mcmc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MCMCTelemetryRecorderTest {
+
+    private static final List<String> OPERATIONS = List.of("changer", "changeI", "changedfg", "changebl", "noise");
+
+    @Test
+    void windowSummarizesIterationsAndAcceptance() {
+        MCMCTelemetryRecorder telemetryRecorder = new MCMCTelemetryRecorder(3, OPERATIONS);
+        for (int iteration = 0; iteration < 99; iteration++) {
+            telemetryRecorder.recordIteration(100L, 200L, 300L, 400L);
+        }
+        telemetryRecorder.recordIteration(10_000L, 20_000L, 30_000L, 40_000L);
+
+        int[][] keptUpdates = new int[5][4];
+        keptUpdates[0] = new int[]{10, 40, 30, 120};
+        keptUpdates[4] = new int[]{5, 60, 15, 180};
+        MCMCTelemetryRecord telemetryRecord = telemetryRecorder.closeWindow(100L, keptUpdates, 2.5, 7.0, Double.NaN, false);
+
+        assertEquals(3, telemetryRecord.blockID());
+        assertEquals(100, telemetryRecord.iterationCount());
+        assertEquals(99 * 100L + 10_000L, telemetryRecord.proposalNanos());
+        assertEquals((99 * 1_000L + 100_000L) / 100, telemetryRecord.meanIterationNanos());
+        assertEquals(100_000L, telemetryRecord.maxIterationNanos());
+        // 1000 ns lies in bucket [512, 1024)
+        assertEquals(1023L, telemetryRecord.iterationLatencyQuantileNanos(0.5));
+        assertEquals(100_000L, telemetryRecord.iterationLatencyQuantileNanos(1.0));
+        assertEquals(15.0 / 100.0, telemetryRecord.acceptanceRate(), 1.0e-15);
+        assertEquals(10.0 / 40.0, telemetryRecord.acceptanceRate(0), 1.0e-15);
+        assertTrue(Double.isNaN(telemetryRecord.acceptanceRate(1)));
+        assertEquals(45.0 / 300.0, telemetryRecord.cumulativeAcceptanceRate(), 1.0e-15);
+
+        MCMCTelemetryRecord nextTelemetryRecord = telemetryRecorder.closeWindow(200L, keptUpdates, 2.5, 7.0, 1.01, true);
+        assertEquals(0, nextTelemetryRecord.iterationCount());
+        assertEquals(0L, nextTelemetryRecord.meanIterationNanos());
+    }
+
+    @Test
+    void printsOneLinePerRecord() {
+        MCMCTelemetryRecorder telemetryRecorder = new MCMCTelemetryRecorder(1, OPERATIONS);
+        telemetryRecorder.recordIteration(1L, 2L, 3L, 4L);
+        MCMCTelemetryRecord telemetryRecord = telemetryRecorder.closeWindow(10L, new int[5][4], 1.0, 1.0, Double.NaN, false);
+
+        String header = MCMCTelemetryRecord.prettyPrintHeaderAsCSV(OPERATIONS);
+        String csv = telemetryRecord.prettyPrintAsCSV();
+        assertEquals(header.split(",").length, csv.split(",").length);
+        String json = telemetryRecord.prettyPrintAsJSON();
+        assertEquals(1, json.split("\n").length);
+        assertTrue(json.contains("\"rHat\":null"));
+        assertTrue(json.contains("\"noise\":{\"accepted\":0,\"proposed\":0}"));
+    }
+}
@@ -0,0 +1,48 @@
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarSingleBlockRecordTest {
+
+    @Test
+    void columnsAndRowRangesMatchImportedBlock() {
+        double[][] onPeakIntensities = {{1.0, 2.0, 3.0}, {4.0, 5.0, 6.0}, {7.0, 8.0}, {10.0, 11.0, 12.0}};
+        String[] onPeakIDs = {"S1", "S2", "S1", "S2"};
+        Map<String, List<Integer>> mapOfOnPeakIdsToIndices = new TreeMap<>();
+        mapOfOnPeakIdsToIndices.put("S2", new ArrayList<>(List.of(3, 1)));
+        mapOfOnPeakIdsToIndices.put("S1", new ArrayList<>(List.of(0, 2)));
+
+        MassSpecOutputSingleBlockRecord massSpecOutputSingleBlockRecord = new MassSpecOutputSingleBlockRecord(
+                4,
+                new double[0][], new String[0], Map.of(), new int[0], new int[0], new double[0], new double[0],
+                onPeakIntensities, onPeakIDs, mapOfOnPeakIdsToIndices, new int[]{1, 1, 2, 2}, new int[]{1, 2, 1, 2},
+                new double[]{0.1, 0.2, 0.3, 0.4}, new double[4], new int[]{0, 2});
+        ColumnarSingleBlockRecord columnarSingleBlockRecord = ColumnarSingleBlockRecord.fromSingleBlockRecord(massSpecOutputSingleBlockRecord);
+
+        assertEquals(4, columnarSingleBlockRecord.blockID());
+        assertEquals(0, columnarSingleBlockRecord.baselineRowCount());
+        assertEquals(4, columnarSingleBlockRecord.onPeakRowCount());
+        assertArrayEquals(new double[]{1.0, 4.0, 7.0, 10.0}, columnarSingleBlockRecord.onPeakColumns()[0]);
+        // the short row leaves a zero
+        assertArrayEquals(new double[]{3.0, 6.0, 0.0, 12.0}, columnarSingleBlockRecord.onPeakColumns()[2]);
+
+        ColumnarSingleBlockRecord.SequenceRowIndicesRecord onPeakRowIndices = columnarSingleBlockRecord.onPeakRowIndices();
+        int ordinalOfS2 = onPeakRowIndices.ordinalOf("S2");
+        assertEquals(1, ordinalOfS2);
+        assertEquals(2, onPeakRowIndices.rowCount("S2"));
+        assertEquals(1, onPeakRowIndices.rowIndices()[onPeakRowIndices.start(ordinalOfS2)]);
+        assertEquals(3, onPeakRowIndices.rowIndices()[onPeakRowIndices.end(ordinalOfS2) - 1]);
+        assertEquals(0, onPeakRowIndices.rowCount("S3"));
+        assertTrue(0 > onPeakRowIndices.ordinalOf("S3"));
+
+        // the imported lists are left as they were
+        assertEquals(List.of(3, 1), mapOfOnPeakIdsToIndices.get("S2"));
+    }
+}
@@ -0,0 +1,70 @@
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import org.cirdles.tripoli.constants.TripoliConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.cirdles.tripoli.utilities.mathUtilities.MathUtilities.roundedToSize;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConvertedIntensityColumnsRecordTest {
+
+    private static final double[] AMPLIFIER_RESISTANCES = {1.0e11, 1.0e12, 1.0e13};
+
+    @Test
+    void columnsMatchPerSampleConversion() {
+        Random random = new Random(20230);
+        double[][] baselineIntensities = new double[50][AMPLIFIER_RESISTANCES.length];
+        double[][] onPeakIntensities = new double[80][AMPLIFIER_RESISTANCES.length];
+        for (double[] row : baselineIntensities) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = 1.0e-5 * random.nextGaussian();
+            }
+        }
+        for (double[] row : onPeakIntensities) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = 2.5 + random.nextGaussian();
+            }
+        }
+        onPeakIntensities[7][1] = Double.NaN;
+
+        // the last column stays in its own units, as an ion counter does
+        double[] countsPerVoltByColumn = {
+                TripoliConstants.IntensityUnits.convertFromVoltsToCount(1.0, AMPLIFIER_RESISTANCES[0]),
+                TripoliConstants.IntensityUnits.convertFromVoltsToCount(1.0, AMPLIFIER_RESISTANCES[1]),
+                Double.NaN};
+
+        ConvertedIntensityColumnsRecord convertedIntensityColumns = ConvertedIntensityColumnsRecord.convertIntensityColumns(
+                blockRecord(baselineIntensities, onPeakIntensities), countsPerVoltByColumn);
+
+        for (int column = 0; column < AMPLIFIER_RESISTANCES.length; column++) {
+            for (int row = 0; row < baselineIntensities.length; row++) {
+                double expected = roundedToSize(baselineIntensities[row][column], 6);
+                if (2 > column) {
+                    expected = TripoliConstants.IntensityUnits.convertFromVoltsToCount(expected, AMPLIFIER_RESISTANCES[column]);
+                }
+                assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(convertedIntensityColumns.baselineColumns()[column][row]));
+            }
+            for (int row = 0; row < onPeakIntensities.length; row++) {
+                double expected = roundedToSize(onPeakIntensities[row][column], 10);
+                if (2 > column) {
+                    expected = TripoliConstants.IntensityUnits.convertFromVoltsToCount(expected, AMPLIFIER_RESISTANCES[column]);
+                }
+                assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(convertedIntensityColumns.onPeakColumns()[column][row]));
+            }
+        }
+
+        assertTrue(convertedIntensityColumns.isConvertedWith(countsPerVoltByColumn.clone()));
+        assertFalse(convertedIntensityColumns.isConvertedWith(new double[]{Double.NaN, Double.NaN, Double.NaN}));
+    }
+
+    private static MassSpecOutputSingleBlockRecord blockRecord(double[][] baselineIntensities, double[][] onPeakIntensities) {
+        return new MassSpecOutputSingleBlockRecord(
+                1,
+                baselineIntensities, new String[0], Map.of(), new int[0], new int[0], new double[0], new double[0],
+                onPeakIntensities, new String[0], Map.of(), new int[0], new int[0], new double[0], new double[0],
+                new int[0]);
+    }
+}
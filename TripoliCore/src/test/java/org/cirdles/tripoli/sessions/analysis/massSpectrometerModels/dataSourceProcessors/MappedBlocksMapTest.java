@@ -0,0 +1,105 @@
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedBlocksMapTest {
+
+    @TempDir
+    Path scratchDirectory;
+
+    @Test
+    void mappedBlocksMatchHeapBlocks() throws IOException {
+        Map<Integer, MassSpecOutputSingleBlockRecord> blocksData = new TreeMap<>();
+        Random random = new Random(20232);
+        for (int blockID = 1; 3 >= blockID; blockID++) {
+            blocksData.put(blockID, blockRecord(blockID, random));
+        }
+
+        MappedBlocksMap mappedBlocksMap = MappedBlocksMap.mapToScratchFile(blocksData, scratchDirectory);
+
+        assertEquals(blocksData.keySet(), mappedBlocksMap.keySet());
+        for (MassSpecOutputSingleBlockRecord expectedBlock : blocksData.values()) {
+            assertSameBlock(expectedBlock, mappedBlocksMap.get(expectedBlock.blockID()));
+        }
+        assertNull(mappedBlocksMap.get(4));
+        assertThrows(UnsupportedOperationException.class, () -> mappedBlocksMap.put(4, blocksData.get(1)));
+    }
+
+    @Test
+    void serializesAsHeapBlocks() throws IOException, ClassNotFoundException {
+        Map<Integer, MassSpecOutputSingleBlockRecord> blocksData = new TreeMap<>();
+        blocksData.put(7, blockRecord(7, new Random(20233)));
+        MappedBlocksMap mappedBlocksMap = MappedBlocksMap.mapToScratchFile(blocksData, scratchDirectory);
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(mappedBlocksMap);
+        }
+        Object restored;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+            restored = objectInputStream.readObject();
+        }
+
+        assertEquals(TreeMap.class, restored.getClass());
+        @SuppressWarnings("unchecked")
+        Map<Integer, MassSpecOutputSingleBlockRecord> restoredBlocks = (Map<Integer, MassSpecOutputSingleBlockRecord>) restored;
+        assertSameBlock(blocksData.get(7), restoredBlocks.get(7));
+    }
+
+    private static MassSpecOutputSingleBlockRecord blockRecord(int blockID, Random random) {
+        String[] baselineIDs = {"B1", "B1", "B2"};
+        String[] onPeakIDs = {"S1", "S2", "S1", "S2"};
+        return new MassSpecOutputSingleBlockRecord(
+                blockID,
+                intensities(baselineIDs.length, random), baselineIDs, mapOfIdsToIndices(baselineIDs),
+                new int[3], new int[]{1, 2, 3}, new double[]{0.5, 1.0, 1.5}, new double[]{204.0, 204.0, 205.0},
+                intensities(onPeakIDs.length, random), onPeakIDs, mapOfIdsToIndices(onPeakIDs),
+                new int[]{1, 1, 2, 2}, new int[]{1, 2, 1, 2}, new double[]{2.0, 2.5, 3.0, 3.5}, new double[]{206.0, 207.0, 206.0, 207.0},
+                new int[]{0, 2});
+    }
+
+    private static double[][] intensities(int rowCount, Random random) {
+        double[][] intensities = new double[rowCount][5];
+        for (double[] row : intensities) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = random.nextGaussian();
+            }
+        }
+        intensities[0][1] = Double.NaN;
+        return intensities;
+    }
+
+    private static Map<String, List<Integer>> mapOfIdsToIndices(String[] ids) {
+        Map<String, List<Integer>> mapOfIdsToIndices = new TreeMap<>();
+        for (int index = 0; index < ids.length; index++) {
+            mapOfIdsToIndices.computeIfAbsent(ids[index], id -> new ArrayList<>()).add(index);
+        }
+        return mapOfIdsToIndices;
+    }
+
+    private static void assertSameBlock(MassSpecOutputSingleBlockRecord expected, MassSpecOutputSingleBlockRecord actual) {
+        assertEquals(expected.blockID(), actual.blockID());
+        assertArrayEquals(expected.baselineIntensities(), actual.baselineIntensities());
+        assertArrayEquals(expected.baselineIDs(), actual.baselineIDs());
+        assertEquals(expected.mapOfBaselineIdsToIndices(), actual.mapOfBaselineIdsToIndices());
+        assertArrayEquals(expected.baselineCycleNumbers(), actual.baselineCycleNumbers());
+        assertArrayEquals(expected.baselineIntegrationNumbers(), actual.baselineIntegrationNumbers());
+        assertArrayEquals(expected.baselineTimeStamps(), actual.baselineTimeStamps());
+        assertArrayEquals(expected.baselineMasses(), actual.baselineMasses());
+        assertArrayEquals(expected.onPeakIntensities(), actual.onPeakIntensities());
+        assertArrayEquals(expected.onPeakIDs(), actual.onPeakIDs());
+        assertEquals(expected.mapOfOnPeakIdsToIndices(), actual.mapOfOnPeakIdsToIndices());
+        assertArrayEquals(expected.onPeakCycleNumbers(), actual.onPeakCycleNumbers());
+        assertArrayEquals(expected.onPeakIntegrationNumbers(), actual.onPeakIntegrationNumbers());
+        assertArrayEquals(expected.onPeakTimeStamps(), actual.onPeakTimeStamps());
+        assertArrayEquals(expected.onPeakMasses(), actual.onPeakMasses());
+        assertArrayEquals(expected.onPeakStartingIndicesOfCycles(), actual.onPeakStartingIndicesOfCycles());
+    }
+}
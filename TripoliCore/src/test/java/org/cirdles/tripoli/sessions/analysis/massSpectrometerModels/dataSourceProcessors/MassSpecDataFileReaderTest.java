@@ -0,0 +1,52 @@
+package org.cirdles.tripoli.sessions.analysis.massSpectrometerModels.dataSourceProcessors;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MassSpecDataFileReaderTest {
+
+    @Test
+    void peekHeaderStopsAtFirstSectionAndRewinds() throws IOException {
+        BufferedReader dataFileReader = new BufferedReader(new StringReader(String.join("\n",
+                "Version,1.00",
+                "Filename,SyntheticData_v2",
+                "",
+                "Methodname,syntheticdata_v2.m",
+                "#START",
+                "Sequence,1,1,1",
+                "TimeZero,not header")));
+
+        MassSpecExtractedData massSpecExtractedData = MassSpecDataFileReader.peekHeader(dataFileReader);
+
+        assertEquals("1.00", massSpecExtractedData.getHeader().softwareVersion());
+        assertEquals("SyntheticData_v2", massSpecExtractedData.getHeader().filename());
+        assertEquals("syntheticdata_v2.m", massSpecExtractedData.getHeader().methodName());
+        assertEquals("LocalDateTime.MIN", massSpecExtractedData.getHeader().localDateTimeZero());
+        assertTrue(massSpecExtractedData.getBlocksData().isEmpty());
+        assertEquals("Version,1.00", dataFileReader.readLine());
+    }
+
+    @Test
+    void peekHeaderIncludesLeadingHeaderMarker() throws IOException {
+        BufferedReader dataFileReader = new BufferedReader(new StringReader(String.join("\n",
+                "#HEADER",
+                "Analysis",
+                "Version,1.2.31,1.20",
+                "MethodName,Sm147to150_S6.TIMSAM",
+                "Corrected,Yes",
+                "#COLLECTORS",
+                "Name,Type,Resistor,Gain,Efficiency,DT")));
+
+        MassSpecExtractedData massSpecExtractedData = MassSpecDataFileReader.peekHeader(dataFileReader);
+
+        assertEquals("1.2.31", massSpecExtractedData.getHeader().softwareVersion());
+        assertEquals("Sm147to150_S6.TIMSAM", massSpecExtractedData.getHeader().methodName());
+        assertTrue(massSpecExtractedData.getHeader().isCorrected());
+        assertEquals("#HEADER", dataFileReader.readLine());
+    }
+}
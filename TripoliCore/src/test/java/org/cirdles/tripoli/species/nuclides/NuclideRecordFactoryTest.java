@@ -28,7 +28,7 @@ class NuclideRecordFactoryTest {
 
     @BeforeEach
     void setUp() {
-        System.err.println("Testing NuclidesFactory  " + NuclidesFactory.nuclidesListByElementMap.size());
+        System.err.println("Testing NuclidesFactory  " + NuclidesFactory.getNuclidesListByElementMap().size());
     }
 
     @AfterEach
@@ -37,7 +37,7 @@ class NuclideRecordFactoryTest {
 
     @Test
     void validateSpeciesChart() {
-        int actualValue = ((NuclideRecord) ((List<?>) NuclidesFactory.nuclidesListByElementMap.get("Nd")).get(0)).neutronsN();
+        int actualValue = ((NuclideRecord) ((List<?>) NuclidesFactory.getNuclidesListByElementMap().get("Nd")).get(0)).neutronsN();
         int expectedValue = 65;
 
         assertEquals(actualValue, expectedValue);
@@ -0,0 +1,50 @@
+package org.cirdles.tripoli.utilities.mathUtilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class IntArgSortTest {
+
+    // the boxed index sort that stableArgSort replaced; Arrays.sort on objects is stable
+    private static int[] comparatorArgSort(int[] keys) {
+        Integer[] sortIndices = new Integer[keys.length];
+        for (int index = 0; index < keys.length; index++) {
+            sortIndices[index] = index;
+        }
+        Arrays.sort(sortIndices, (index1, index2) -> Integer.compare(keys[index1], keys[index2]));
+        return Arrays.stream(sortIndices).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void timeIndicesMatchComparatorOrdering() {
+        Random random = new Random(20221);
+        // interleaved time indices with repeats, as assembled per isotope
+        int[] keys = new int[5000];
+        for (int index = 0; index < keys.length; index++) {
+            keys[index] = 1 + random.nextInt(1200);
+        }
+        assertArrayEquals(comparatorArgSort(keys), IntArgSort.stableArgSort(keys));
+    }
+
+    @Test
+    void sparseAndNegativeKeysMatchComparatorOrdering() {
+        Random random = new Random(20222);
+        int[] keys = new int[3000];
+        for (int index = 0; index < keys.length; index++) {
+            keys[index] = (0 == index % 7) ? keys[index / 2] : random.nextInt();
+        }
+        keys[0] = Integer.MIN_VALUE;
+        keys[1] = Integer.MAX_VALUE;
+        assertArrayEquals(comparatorArgSort(keys), IntArgSort.stableArgSort(keys));
+    }
+
+    @Test
+    void emptyAndSingleKeys() {
+        assertArrayEquals(new int[0], IntArgSort.stableArgSort(new int[0]));
+        assertArrayEquals(new int[]{0}, IntArgSort.stableArgSort(new int[]{42}));
+    }
+}
@@ -2,10 +2,17 @@ package org.cirdles.tripoli.utilities.mathUtilities;
 
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class MathUtilitiesTest {
 
+    private static final double[] EDGE_VALUES = {
+            0.15, 0.25, 2.5, 0.5, 1.05, 2.675, 9.995, 99999.5, 1.0, 10.0, 1.0e-5, 1.0e22, 1.0e23, 9.999999999999999e22,
+            Double.MIN_VALUE, Double.MIN_NORMAL, 1.0e-310, Double.MAX_VALUE, 0.0, -0.0,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
     @Test
     void roundedToSize() {
 
@@ -30,4 +37,49 @@ class MathUtilitiesTest {
         assertEquals(20, MathUtilities.nChooseR(6, 3)); // n=6, r=3
         assertEquals(252, MathUtilities.nChooseR(10, 5)); // n=10, r=5
     }
-}
\ No newline at end of file
+
+    @Test
+    void edgeValuesMatchBigDecimalRounding() {
+        for (double value : EDGE_VALUES) {
+            for (int sigFigs = 1; 17 >= sigFigs; sigFigs++) {
+                assertSameRounding(value, sigFigs);
+                assertSameRounding(-value, sigFigs);
+            }
+        }
+        assertEquals(0.2, MathUtilities.roundedToSize(0.15, 1));
+        assertEquals(0L, Double.doubleToLongBits(MathUtilities.roundedToSize(-0.0, 6)));
+    }
+
+    @Test
+    void intensitiesMatchBigDecimalRounding() {
+        Random random = new Random(20231);
+        for (int trial = 0; 200_000 > trial; trial++) {
+            // volts, counts and the half-way decimals that rounding half up must honour
+            double value = switch (trial % 3) {
+                case 0 -> random.nextGaussian() * Math.pow(10.0, random.nextInt(28) - 16);
+                case 1 -> (random.nextInt(2_000_000) + 0.5) / Math.pow(10.0, random.nextInt(12));
+                default -> Double.longBitsToDouble(random.nextLong());
+            };
+            assertSameRounding(value, 1 + random.nextInt(17));
+        }
+    }
+
+    @Test
+    void arraysRoundEachValue() {
+        double[] values = {1.23456789, -9.87654321e-6, Double.NaN, 2.5e12};
+        double[] originalValues = values.clone();
+        double[] roundedValues = MathUtilities.roundedToSize(values, 3);
+        assertArrayEquals(originalValues, values);
+        MathUtilities.roundToSizeInPlace(values, 3);
+        for (int index = 0; index < values.length; index++) {
+            assertEquals(MathUtilities.roundedToSize(originalValues[index], 3), roundedValues[index]);
+            assertEquals(roundedValues[index], values[index]);
+        }
+    }
+
+    private static void assertSameRounding(double value, int sigFigs) {
+        assertEquals(Double.doubleToLongBits(MathUtilities.roundedToSizeByBigDecimal(value, sigFigs)),
+                Double.doubleToLongBits(MathUtilities.roundedToSize(value, sigFigs)),
+                () -> value + " to " + sigFigs + " significant figures");
+    }
+}
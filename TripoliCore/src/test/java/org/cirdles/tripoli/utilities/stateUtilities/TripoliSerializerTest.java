@@ -8,13 +8,14 @@ import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.util.Map;
-import java.util.TreeMap;
+import java.nio.file.Path;
+import java.util.*;
 
 import static org.cirdles.tripoli.sessions.SessionBuiltinFactory.TRIPOLI_DEMONSTRATION_SESSION;
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +24,8 @@ class TripoliSerializerTest {
 
     private String fileName;
     private Session testSession;
+    @TempDir
+    Path stateDirectory;
 
     @BeforeEach
     void setUp() {
@@ -30,7 +33,7 @@ class TripoliSerializerTest {
 
         Map<String, Session> sessionsBuiltinMap = new TreeMap<>();
 
-        testSession = SessionBuiltinFactory.sessionsBuiltinMap.get(TRIPOLI_DEMONSTRATION_SESSION);
+        testSession = SessionBuiltinFactory.getBuiltinSession(TRIPOLI_DEMONSTRATION_SESSION);
         testSession.setSessionName("Test 2023");
         testSession.setAnalystName("My Nguyen");
         sessionsBuiltinMap.put(testSession.getSessionName(), testSession);
@@ -95,4 +98,15 @@ class TripoliSerializerTest {
         assertTrue(session1.equals(session2));
         assertEquals(session1.hashCode(), session2.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void atomicWriteReplacesFileAndLeavesNoTemporaryFile() throws TripoliException {
+        String stateFileName = stateDirectory.resolve("state.ser").toString();
+
+        TripoliSerializer.serializeObjectToFileAtomically(new ArrayList<>(List.of("first")), stateFileName);
+        TripoliSerializer.serializeObjectToFileAtomically(new ArrayList<>(List.of("second", "third")), stateFileName);
+
+        assertEquals(List.of("second", "third"), TripoliSerializer.getSerializedObjectFromFile(stateFileName, true));
+        assertArrayEquals(new String[]{"state.ser"}, Objects.requireNonNull(stateDirectory.toFile().list()));
+    }
+}
@@ -16,4 +16,23 @@ ls gradle7/gradle-7.4.2
 echo ""
 
 echo "building Tripoli          **************************"
-gradle7/gradle-7.4.2/bin/gradle clean build -Dorg.gradle.java.home=./jdk-17.0.1-full/
\ No newline at end of file
+gradle7/gradle-7.4.2/bin/gradle clean build :TripoliApp:fatAppJar -Dorg.gradle.java.home=./jdk-17.0.1-full/
+echo ""
+
+echo "building Tripoli runtime image with jlink  **********"
+# Liberica full bundles JavaFX as modules, so the image needs no separate JavaFX SDK
+TRIPOLI_JAR=$(ls TripoliApp/build/libs/Tripoli-*.jar | grep -v -e sources -e javadoc | head -n 1)
+TRIPOLI_MODULES=$(./jdk-17.0.1-full/bin/jdeps --ignore-missing-deps --multi-release 17 --print-module-deps "$TRIPOLI_JAR")
+./jdk-17.0.1-full/bin/jlink \
+  --add-modules "$TRIPOLI_MODULES",javafx.controls,javafx.fxml,jdk.management,jdk.jfr,jdk.crypto.ec \
+  --generate-cds-archive \
+  --strip-debug --no-header-files --no-man-pages --compress=2 \
+  --output tripoliRuntime
+echo ""
+
+echo "training AppCDS archive for the runtime image  ******"
+# needs a display; the archive is optional, so a headless failure does not fail the build
+xvfb-run -a tripoliRuntime/bin/java -XX:ArchiveClassesAtExit=tripoliRuntime/lib/tripoli.jsa \
+  -Dtripoli.startup.exitAfterFirstWindow=true -Dtripoli.startup.timing=true \
+  -jar "$TRIPOLI_JAR" || echo "AppCDS training run skipped"
+echo "launch with: tripoliRuntime/bin/java -XX:SharedArchiveFile=tripoliRuntime/lib/tripoli.jsa -jar $TRIPOLI_JAR"